@@ -3,8 +3,10 @@ package com.blocklang;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableCaching // 启用缓存机制
+@EnableScheduling // 启用定时任务
 @SpringBootApplication
 public class BlockLangApplication {
 
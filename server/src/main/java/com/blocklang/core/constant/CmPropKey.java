@@ -30,4 +30,7 @@ public abstract class CmPropKey {
 	// 平台预留的关键字
 	public static final String PLATFORM_KEYWORDS = "platform.keywords";
 	public static final String PLATFORM_RESERVED_USERNAME = "platform.reserved.username";
+	
+	// git 文件内容缓存的总容量，单位字节
+	public static final String GIT_BLOB_CACHE_MAX_BYTES = "git.blob.cache.max.bytes";
 }
@@ -0,0 +1,16 @@
+package com.blocklang.core.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 请求头 If-Match 中的 ETag 与资源当前的 ETag 不一致，说明资源已被其他人修改
+ * 
+ * @author Zhengwei Jin
+ *
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+	private static final long serialVersionUID = -3169468826519383263L;
+}
@@ -0,0 +1,16 @@
+package com.blocklang.core.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 修改资源时，必须在请求头 If-Match 中传入资源的 ETag
+ * 
+ * @author Zhengwei Jin
+ *
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_REQUIRED)
+public class PreconditionRequiredException extends RuntimeException {
+
+	private static final long serialVersionUID = 5838290613765730158L;
+}
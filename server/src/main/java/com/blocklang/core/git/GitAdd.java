@@ -6,9 +6,7 @@ import java.nio.file.Path;
 import org.eclipse.jgit.api.AddCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
@@ -29,8 +27,7 @@ public class GitAdd {
 	public void execute(String filePattern) {
 		Assert.hasLength(filePattern, "filePattern 不能为 null 或空字符串");
 		
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath);
 			Git git = new Git(repo)){
 			git.add().addFilepattern(filePattern).call();
 		} catch (IOException e) {
@@ -45,8 +42,7 @@ public class GitAdd {
 	public void execute(String[] filePatterns) {
 		Assert.notEmpty(filePatterns, "filePatterns 数组不能为空");
 		
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath);
 			Git git = new Git(repo)){
 			AddCommand command = git.add();
 			for(String filePattern : filePatterns) {
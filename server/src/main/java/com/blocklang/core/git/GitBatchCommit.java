@@ -0,0 +1,276 @@
+package com.blocklang.core.git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEditor.DeletePath;
+import org.eclipse.jgit.dircache.DirCacheEditor.PathEdit;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.internal.storage.file.ObjectDirectory;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectDatabase;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.blocklang.core.git.exception.FileCreateOrUpdateFailedException;
+import com.blocklang.core.git.exception.GitCommitFailedException;
+import com.blocklang.core.git.exception.GitEmptyCommitException;
+import com.blocklang.core.git.exception.GitRepoNotFoundException;
+
+/**
+ * 一次提交多个文件，直接在对象库中创建 blob、tree 和 commit，不经过工作区和 index。
+ *
+ * <p>
+ * 以 master 分支的最新提交为基础，在内存中的 {@link DirCache} 里替换或删除指定的文件，
+ * 生成新的 tree 和 commit，然后以原最新提交为期望值更新 master 分支，
+ * 如果期间 master 分支被其他操作修改，则提交失败，不会覆盖其他提交。
+ * </p>
+ *
+ * <p>
+ * 文件数达到 {@link #PACK_THRESHOLD} 时，所有对象写入同一个 pack 文件，而不是逐个写入松散对象。
+ * </p>
+ *
+ * <p>
+ * 默认提交后同步工作区和 index 中被修改的文件，使 git status 与提交后的状态一致；
+ * 如果仓库只作为数据存储，不需要工作区，可调用 {@link #setSyncWorkTree(boolean)} 关闭同步。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+public class GitBatchCommit {
+
+	private static final Logger logger = LoggerFactory.getLogger(GitBatchCommit.class);
+
+	private static final String MASTER_BRANCH = Constants.R_HEADS + Constants.MASTER;
+
+	/**
+	 * 文件数达到此值时，使用 pack 文件保存对象
+	 */
+	public static final int PACK_THRESHOLD = 32;
+
+	private Path gitRepoPath;
+	private String authorName;
+	private String authorMail;
+	private boolean syncWorkTree = true;
+
+	/**
+	 * key 为相对仓库根目录的路径，使用 / 分割；value 为文件内容，null 表示删除文件
+	 */
+	private Map<String, byte[]> files = new LinkedHashMap<String, byte[]>();
+
+	public GitBatchCommit(Path gitRepoPath, String authorName, String authorMail) {
+		this.gitRepoPath = gitRepoPath;
+		this.authorName = authorName;
+		this.authorMail = authorMail;
+	}
+
+	/**
+	 * 新增或修改文件
+	 *
+	 * @param filePath 相对仓库根目录的文件路径，使用 / 分割
+	 * @param fileContent 文件内容
+	 * @return 当前对象
+	 */
+	public GitBatchCommit addFile(String filePath, String fileContent) {
+		files.put(GitLastCommitIndex.normalizePath(filePath), fileContent.getBytes(StandardCharsets.UTF_8));
+		return this;
+	}
+
+	/**
+	 * 删除文件
+	 *
+	 * @param filePath 相对仓库根目录的文件路径，使用 / 分割
+	 * @return 当前对象
+	 */
+	public GitBatchCommit removeFile(String filePath) {
+		files.put(GitLastCommitIndex.normalizePath(filePath), null);
+		return this;
+	}
+
+	/**
+	 * 提交后是否同步工作区和 index，默认为 true
+	 *
+	 * @param syncWorkTree 是否同步
+	 * @return 当前对象
+	 */
+	public GitBatchCommit setSyncWorkTree(boolean syncWorkTree) {
+		this.syncWorkTree = syncWorkTree;
+		return this;
+	}
+
+	/**
+	 * 提交到 master 分支
+	 *
+	 * @param commitMessage 提交信息
+	 * @return 返回 commit id
+	 */
+	public String commit(String commitMessage) {
+		return GitRepositoryLocks.write(gitRepoPath, () -> doCommit(commitMessage));
+	}
+
+	private String doCommit(String commitMessage) {
+		try(Repository repo = GitRepositoryPool.open(gitRepoPath);
+				ObjectInserter inserter = newInserter(repo);
+				RevWalk walk = new RevWalk(repo)) {
+			ObjectId parentId = repo.resolve(MASTER_BRANCH);
+			RevCommit parent = parentId == null ? null : walk.parseCommit(parentId);
+
+			DirCache tree = DirCache.newInCore();
+			DirCacheBuilder builder = tree.builder();
+			if(parent != null) {
+				keepUnchangedFiles(walk, parent, builder);
+			}
+			Map<String, ObjectId> blobIds = new LinkedHashMap<String, ObjectId>();
+			for(Map.Entry<String, byte[]> file : files.entrySet()) {
+				if(file.getValue() == null) {
+					continue;
+				}
+				ObjectId blobId = inserter.insert(Constants.OBJ_BLOB, file.getValue());
+				DirCacheEntry entry = new DirCacheEntry(file.getKey());
+				entry.setFileMode(FileMode.REGULAR_FILE);
+				entry.setObjectId(blobId);
+				builder.add(entry);
+				blobIds.put(file.getKey(), blobId);
+			}
+			builder.finish();
+
+			ObjectId treeId = tree.writeTree(inserter);
+			if(parent != null && treeId.equals(parent.getTree())) {
+				throw new GitEmptyCommitException("没有修改任何文件，不能空提交");
+			}
+
+			CommitBuilder commit = new CommitBuilder();
+			PersonIdent person = StringUtils.isBlank(authorName) ? new PersonIdent(repo) : new PersonIdent(authorName, authorMail);
+			commit.setAuthor(person);
+			commit.setCommitter(person);
+			commit.setMessage(commitMessage);
+			commit.setTreeId(treeId);
+			if(parent != null) {
+				commit.setParentId(parent);
+			}
+			ObjectId commitId = inserter.insert(commit);
+			inserter.flush();
+
+			updateRef(repo, parentId, commitId, commitMessage);
+			GitLastCommitIndex.get(repo).update(repo);
+
+			if(syncWorkTree) {
+				syncWorkTree(repo, blobIds);
+			}
+			return commitId.getName();
+		} catch (IOException e) {
+			throw new GitRepoNotFoundException(gitRepoPath.toString(), e);
+		}
+	}
+
+	private ObjectInserter newInserter(Repository repo) {
+		ObjectDatabase objectDatabase = repo.getObjectDatabase();
+		if(files.size() >= PACK_THRESHOLD && objectDatabase instanceof ObjectDirectory) {
+			return ((ObjectDirectory) objectDatabase).newPackInserter();
+		}
+		return objectDatabase.newInserter();
+	}
+
+	/**
+	 * 将父提交中没有修改的文件加入到新的 tree 中
+	 */
+	private void keepUnchangedFiles(RevWalk walk, RevCommit parent, DirCacheBuilder builder) throws IOException {
+		try(TreeWalk treeWalk = new TreeWalk(walk.getObjectReader())) {
+			treeWalk.addTree(parent.getTree());
+			treeWalk.setRecursive(true);
+			while(treeWalk.next()) {
+				String path = treeWalk.getPathString();
+				if(files.containsKey(path)) {
+					continue;
+				}
+				DirCacheEntry entry = new DirCacheEntry(path);
+				entry.setFileMode(treeWalk.getFileMode(0));
+				entry.setObjectId(treeWalk.getObjectId(0));
+				builder.add(entry);
+			}
+		}
+	}
+
+	private void updateRef(Repository repo, ObjectId parentId, ObjectId commitId, String commitMessage) throws IOException {
+		RefUpdate refUpdate = repo.updateRef(MASTER_BRANCH);
+		refUpdate.setNewObjectId(commitId);
+		refUpdate.setExpectedOldObjectId(parentId == null ? ObjectId.zeroId() : parentId);
+		refUpdate.setRefLogMessage((parentId == null ? "commit (initial): " : "commit: ") + StringUtils.substringBefore(commitMessage, "\n"), false);
+		RefUpdate.Result result = refUpdate.update();
+		switch(result) {
+		case NEW:
+		case FAST_FORWARD:
+			return;
+		default:
+			logger.error("更新 master 分支失败 {}", result);
+			throw new GitCommitFailedException("更新 master 分支失败：" + result);
+		}
+	}
+
+	/**
+	 * 只更新工作区和 index 中被修改的文件，不检出整个仓库
+	 */
+	private void syncWorkTree(Repository repo, Map<String, ObjectId> blobIds) throws IOException {
+		Path workTree = repo.getWorkTree().toPath();
+		DirCache index = repo.lockDirCache();
+		try {
+			DirCacheEditor editor = index.editor();
+			for(Map.Entry<String, byte[]> file : files.entrySet()) {
+				String filePath = file.getKey();
+				Path path = workTree.resolve(Paths.get("", filePath.split("/")));
+				if(file.getValue() == null) {
+					Files.deleteIfExists(path);
+					editor.add(new DeletePath(filePath));
+				} else {
+					writeFile(path, file.getValue());
+					long length = Files.size(path);
+					Instant lastModified = Files.getLastModifiedTime(path, LinkOption.NOFOLLOW_LINKS).toInstant();
+					ObjectId blobId = blobIds.get(filePath);
+					editor.add(new PathEdit(filePath) {
+						@Override
+						public void apply(DirCacheEntry entry) {
+							entry.setFileMode(FileMode.REGULAR_FILE);
+							entry.setObjectId(blobId);
+							entry.setLength(length);
+							entry.setLastModified(lastModified);
+						}
+					});
+				}
+			}
+			editor.commit();
+		} finally {
+			index.unlock();
+		}
+		GitStatusCache.markChanged(gitRepoPath, null);
+	}
+
+	private void writeFile(Path path, byte[] content) {
+		try {
+			Files.createDirectories(path.getParent());
+			Files.write(path, content);
+		} catch (IOException e) {
+			throw new FileCreateOrUpdateFailedException(e);
+		}
+	}
+}
@@ -2,9 +2,14 @@ package com.blocklang.core.git;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.jgit.api.Git;
@@ -15,13 +20,14 @@ import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
@@ -32,6 +38,13 @@ import com.blocklang.core.util.DateUtil;
 public class GitBlob {
 	private static final Logger logger = LoggerFactory.getLogger(GitBlob.class);
 	
+	private static final String MASTER_BRANCH = Constants.R_HEADS + Constants.MASTER;
+	
+	/**
+	 * 超过此大小的文件不读入内存，单位字节
+	 */
+	public static final long LARGE_FILE_THRESHOLD = 1024 * 1024;
+	
 	private Path gitRepoPath;
 	private String ref; // branch/tag
 	private String filePath;
@@ -47,9 +60,7 @@ public class GitBlob {
 	}
 
 	public Optional<GitBlobInfo> execute() {
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		
-		try (Repository repository = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repository = GitRepositoryPool.open(gitRepoPath);
 				Git git = new Git(repository);
 				RevWalk walk = new RevWalk(repository)) {
 			Ref ref = repository.exactRef(this.ref);
@@ -73,12 +84,9 @@ public class GitBlob {
 				blobInfo.setName(treeWalk.getNameString());
 
 				// 文件内容
-				ObjectId blobObjectId = treeWalk.getObjectId(0);
-				ObjectLoader loader = repository.open(blobObjectId);
-				blobInfo.setContent(new String(loader.getBytes()));
+				setContent(blobInfo, walk.getObjectReader(), treeWalk.getObjectId(0));
 
-				Iterable<RevCommit> latestLogs = git.log().add(commit.getId()).addPath(treeWalk.getPathString()).setMaxCount(1).call();
-				RevCommit latestCommit = latestLogs.iterator().next();
+				RevCommit latestCommit = findLatestCommit(repository, git, walk, commit, treeWalk.getPathString());
 				blobInfo.setCommitId(latestCommit.getName());
 				blobInfo.setLatestShortMessage(latestCommit.getShortMessage());
 				blobInfo.setLatestFullMessage(latestCommit.getFullMessage());
@@ -101,6 +109,18 @@ public class GitBlob {
 		return Optional.empty();
 	}
 	
+	private RevCommit findLatestCommit(Repository repository, Git git, RevWalk walk, RevCommit commit, String path) throws IOException, GitAPIException {
+		// master 分支直接从索引中查找
+		if(MASTER_BRANCH.equals(this.ref)) {
+			Optional<ObjectId> commitId = GitLastCommitIndex.get(repository).find(repository, path);
+			if(commitId.isPresent()) {
+				return walk.parseCommit(commitId.get());
+			}
+		}
+		Iterable<RevCommit> latestLogs = git.log().add(commit.getId()).addPath(path).setMaxCount(1).call();
+		return latestLogs.iterator().next();
+	}
+	
 	private static TreeWalk buildTreeWalk(Repository repository, RevTree tree, final String path) throws IOException {
 		TreeWalk treeWalk = TreeWalk.forPath(repository, path, tree);
 		if(treeWalk == null) {
@@ -109,55 +129,91 @@ public class GitBlob {
 		return treeWalk;
 	}
 
+	/**
+	 * 批量读取文件内容，只遍历一次 tree，并复用同一个 ObjectReader。
+	 * 
+	 * 超过 {@link #LARGE_FILE_THRESHOLD} 的文件不读入内存，通过 {@link GitBlobInfo#openStream()} 读取。
+	 * 
+	 * @param files 文件列表，返回的结果与此列表的顺序相同，不存在的文件不会出现在结果中
+	 * @return 文件内容列表
+	 */
 	public List<GitBlobInfo> loadDataFromTag(List<GitFileInfo> files) {
 		Assert.notNull(files, "传入的值不能为null");
 		if(files.isEmpty()) {
 			return Collections.emptyList();
 		}
 		
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repository = FileRepositoryBuilder.create(gitDir.toFile());
-				Git git = new Git(repository);
-				RevWalk walk = new RevWalk(repository)) {
+		try (Repository repository = GitRepositoryPool.open(gitRepoPath);
+				ObjectReader reader = repository.newObjectReader();
+				RevWalk walk = new RevWalk(reader);
+				TreeWalk treeWalk = new TreeWalk(reader)) {
 			Ref ref = repository.exactRef(this.ref);
 			if(ref == null) {
 				return Collections.emptyList();
 			}
 			
-			ObjectId objectId = ref.getObjectId();;
+			ObjectId objectId = ref.getObjectId();
 
 			RevCommit commit = walk.parseCommit(objectId);
 			RevTree tree = commit.getTree();
-		
-			return files.stream().map(gitFileInfo -> {
-				try (TreeWalk treeWalk = buildTreeWalk(repository, tree, gitFileInfo.getPath())) {
-
-					if ((treeWalk.getFileMode(0).getBits() & FileMode.TYPE_FILE) == 0) {
-						throw new IllegalStateException("Tried to read the elements of a non-tree for commit '" + commit
-								+ "' and path '" + filePath + "', had filemode " + treeWalk.getFileMode(0).getBits());
-					}
-					
-					GitBlobInfo blobInfo = new GitBlobInfo();
-					blobInfo.setPath(treeWalk.getPathString());
-					blobInfo.setName(treeWalk.getNameString());
-					blobInfo.setFolder(false);
-
-					// 文件内容
-					ObjectId blobObjectId = treeWalk.getObjectId(0);
-					ObjectLoader loader = repository.open(blobObjectId);
-					blobInfo.setContent(new String(loader.getBytes()));
-
-					return blobInfo;
-				} catch (MissingObjectException e) {
-					logger.error(e.getMessage(), e);
-				} catch (IOException e) {
-					logger.error(e.getMessage(), e);
+			
+			Set<String> pathes = files.stream().map(GitFileInfo::getPath).collect(Collectors.toCollection(LinkedHashSet::new));
+			treeWalk.addTree(tree);
+			treeWalk.setRecursive(true);
+			treeWalk.setFilter(PathFilterGroup.createFromStrings(pathes));
+			
+			Map<String, GitBlobInfo> blobs = new HashMap<String, GitBlobInfo>();
+			while(treeWalk.next()) {
+				String path = treeWalk.getPathString();
+				if(!pathes.contains(path) || (treeWalk.getFileMode(0).getBits() & FileMode.TYPE_FILE) == 0) {
+					continue;
 				}
-				return null;
-			}).collect(Collectors.toList());
+				
+				GitBlobInfo blobInfo = new GitBlobInfo();
+				blobInfo.setPath(path);
+				blobInfo.setName(treeWalk.getNameString());
+				blobInfo.setFolder(false);
+				
+				// 文件内容
+				setContent(blobInfo, reader, treeWalk.getObjectId(0));
+				
+				blobs.put(path, blobInfo);
+			}
+			
+			List<GitBlobInfo> result = new ArrayList<GitBlobInfo>();
+			for(String path : pathes) {
+				GitBlobInfo blobInfo = blobs.get(path);
+				if(blobInfo == null) {
+					logger.error("在 {} 中没有找到文件 {}", this.ref, path);
+					continue;
+				}
+				result.add(blobInfo);
+			}
+			return result;
 		}catch (IOException e) {
 			logger.error(e.getMessage(), e);
 		}
 		return Collections.emptyList();
 	}
+	
+	/**
+	 * 优先从 {@link GitBlobCache} 中获取文件内容，大文件不放入缓存
+	 */
+	private void setContent(GitBlobInfo blobInfo, ObjectReader reader, ObjectId blobId) throws IOException {
+		blobInfo.setBlobId(blobId.copy());
+		
+		byte[] bytes = GitBlobCache.getIfPresent(blobId);
+		if(bytes == null) {
+			ObjectLoader loader = reader.open(blobId, Constants.OBJ_BLOB);
+			if(loader.getSize() > LARGE_FILE_THRESHOLD) {
+				blobInfo.setSize(loader.getSize());
+				blobInfo.setLargeBlobRepository(gitRepoPath);
+				return;
+			}
+			bytes = loader.getCachedBytes();
+			GitBlobCache.put(blobId, bytes);
+		}
+		blobInfo.setSize(bytes.length);
+		blobInfo.setContent(new String(bytes));
+	}
 }
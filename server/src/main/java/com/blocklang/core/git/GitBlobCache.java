@@ -0,0 +1,241 @@
+package com.blocklang.core.git;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * git 文件内容缓存。
+ *
+ * <p>
+ * git 中的 blob 对象一旦创建就不会再改变，所以直接以 blob 的 {@link ObjectId} 为 key 缓存文件内容，
+ * 不需要考虑缓存失效的问题，不同仓库、不同 tag 中的相同文件也可以共用缓存。
+ * </p>
+ *
+ * <p>
+ * 按最近最少使用（LRU）的策略淘汰，缓存的文件内容总大小不超过 {@link #getMaxBytes()}。
+ * 同时可缓存 json 文件解析后的 {@link JsonNode}，占用的空间按文件大小估算。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+public final class GitBlobCache {
+
+	/**
+	 * 默认最多缓存 32M
+	 */
+	public static final long DEFAULT_MAX_BYTES = 32 * 1024 * 1024L;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	/**
+	 * 按访问顺序排序，所有读写操作都要在 synchronized(CACHE) 中执行
+	 */
+	private static final LinkedHashMap<ObjectId, CachedBlob> CACHE = new LinkedHashMap<>(64, 0.75f, true);
+
+	private static long maxBytes = DEFAULT_MAX_BYTES;
+	private static long totalBytes = 0;
+
+	private static final AtomicLong hitCount = new AtomicLong();
+	private static final AtomicLong missCount = new AtomicLong();
+	private static final AtomicLong evictionCount = new AtomicLong();
+
+	private GitBlobCache() {}
+
+	/**
+	 * 从缓存中获取文件内容
+	 *
+	 * @param blobId blob 的 id
+	 * @return 文件内容，如果缓存中没有则返回 null
+	 */
+	static byte[] getIfPresent(ObjectId blobId) {
+		CachedBlob cached = get(blobId);
+		return cached == null ? null : cached.bytes;
+	}
+
+	/**
+	 * 将文件内容放入缓存，超过总容量的文件不放入缓存。
+	 *
+	 * @param blobId blob 的 id
+	 * @param bytes 文件内容
+	 */
+	static void put(ObjectId blobId, byte[] bytes) {
+		synchronized(CACHE) {
+			if(bytes.length > maxBytes || CACHE.containsKey(blobId)) {
+				return;
+			}
+			CACHE.put(blobId.copy(), new CachedBlob(bytes));
+			totalBytes += bytes.length;
+			evict();
+		}
+	}
+
+	/**
+	 * 获取 json 文件解析后的 {@link JsonNode}，解析结果也会放入缓存。
+	 *
+	 * 多次调用返回的可能是同一个对象，不能修改返回的 JsonNode，如需要转换为 java 对象，
+	 * 请使用 {@link ObjectMapper#treeToValue(com.fasterxml.jackson.core.TreeNode, Class)}。
+	 *
+	 * @param blob git 文件
+	 * @return json 文件解析后的对象
+	 * @throws IOException 不是有效的 json 文件
+	 */
+	public static JsonNode getJsonTree(GitBlobInfo blob) throws IOException {
+		ObjectId blobId = blob.getBlobId();
+		CachedBlob cached = blobId == null ? null : get(blobId);
+		if(cached != null && cached.jsonTree != null) {
+			return cached.jsonTree;
+		}
+
+		JsonNode jsonTree = null;
+		try(InputStream in = blob.openStream()) {
+			jsonTree = OBJECT_MAPPER.readTree(in);
+		}
+		if(cached != null) {
+			synchronized(CACHE) {
+				// 解析后的对象按文件大小估算占用的空间
+				if(cached.jsonTree == null && CACHE.get(blobId) == cached) {
+					cached.jsonTree = jsonTree;
+					totalBytes += cached.bytes.length;
+					evict();
+				}
+			}
+		}
+		return jsonTree;
+	}
+
+	private static CachedBlob get(ObjectId blobId) {
+		CachedBlob cached = null;
+		synchronized(CACHE) {
+			cached = CACHE.get(blobId);
+		}
+		if(cached == null) {
+			missCount.incrementAndGet();
+		} else {
+			hitCount.incrementAndGet();
+		}
+		return cached;
+	}
+
+	private static void evict() {
+		Iterator<CachedBlob> iterator = CACHE.values().iterator();
+		while(totalBytes > maxBytes && iterator.hasNext()) {
+			CachedBlob eldest = iterator.next();
+			totalBytes -= eldest.weight();
+			iterator.remove();
+			evictionCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * 设置缓存的总容量，如果当前已缓存的内容超过新的容量，则立即淘汰
+	 *
+	 * @param maxBytes 总容量，单位字节
+	 */
+	public static void setMaxBytes(long maxBytes) {
+		synchronized(CACHE) {
+			GitBlobCache.maxBytes = maxBytes;
+			evict();
+		}
+	}
+
+	public static long getMaxBytes() {
+		synchronized(CACHE) {
+			return maxBytes;
+		}
+	}
+
+	/**
+	 * 清空缓存和统计信息
+	 */
+	public static void clear() {
+		synchronized(CACHE) {
+			CACHE.clear();
+			totalBytes = 0;
+		}
+		hitCount.set(0);
+		missCount.set(0);
+		evictionCount.set(0);
+	}
+
+	/**
+	 * 获取缓存的统计信息
+	 *
+	 * @return 统计信息
+	 */
+	public static Stats getStats() {
+		synchronized(CACHE) {
+			return new Stats(hitCount.get(), missCount.get(), evictionCount.get(), CACHE.size(), totalBytes);
+		}
+	}
+
+	private static class CachedBlob {
+		private final byte[] bytes;
+		private JsonNode jsonTree;
+
+		private CachedBlob(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		private long weight() {
+			return jsonTree == null ? bytes.length : bytes.length * 2L;
+		}
+	}
+
+	/**
+	 * 缓存的统计信息
+	 */
+	public static class Stats {
+		private final long hitCount;
+		private final long missCount;
+		private final long evictionCount;
+		private final int size;
+		private final long totalBytes;
+
+		private Stats(long hitCount, long missCount, long evictionCount, int size, long totalBytes) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.size = size;
+			this.totalBytes = totalBytes;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		public double getHitRate() {
+			long requestCount = hitCount + missCount;
+			return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+		}
+
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public long getTotalBytes() {
+			return totalBytes;
+		}
+
+		@Override
+		public String toString() {
+			return "GitBlobCache.Stats [hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount="
+					+ evictionCount + ", size=" + size + ", totalBytes=" + totalBytes + "]";
+		}
+	}
+}
@@ -1,19 +1,123 @@
 package com.blocklang.core.git;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+
 public class GitBlobInfo extends GitFileInfo{
 	
+	private ObjectId blobId;
 	private String content;
+	private long size;
+	/**
+	 * 大文件不读入内存，只记录所在的 git 仓库，通过 {@link #openStream()} 按需读取
+	 */
+	private Path gitRepoPath;
 
 	public GitBlobInfo() {
 		super();
 		super.setFolder(false);
 	}
 	
+	/**
+	 * 获取 blob 的 id，可用作文件内容的缓存 key
+	 * 
+	 * @return blob 的 id
+	 */
+	public ObjectId getBlobId() {
+		return blobId;
+	}
+
+	public void setBlobId(ObjectId blobId) {
+		this.blobId = blobId;
+	}
+
+	/**
+	 * 获取文件内容，如果是大文件，则每次调用都会重新读取文件内容，应优先使用 {@link #openStream()}
+	 * 
+	 * @return 文件内容
+	 */
 	public String getContent() {
+		if(content == null && gitRepoPath != null) {
+			try (InputStream in = openStream()) {
+				return new String(in.readAllBytes());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
 		return content;
 	}
 
 	public void setContent(String content) {
 		this.content = content;
 	}
+
+	/**
+	 * 以流的方式读取文件内容，调用方负责关闭流。
+	 * 
+	 * 读取大文件时会重新从 {@link GitRepositoryPool} 中获取仓库，并一直持有到流关闭，
+	 * 所以即使仓库已被对象池释放，也可以读取。
+	 * 
+	 * @return 文件内容的输入流
+	 * @throws IOException
+	 */
+	public InputStream openStream() throws IOException {
+		if(gitRepoPath == null) {
+			return new ByteArrayInputStream(content == null ? new byte[0] : content.getBytes());
+		}
+		
+		Repository repository = GitRepositoryPool.open(gitRepoPath);
+		ObjectReader reader = null;
+		try {
+			reader = repository.newObjectReader();
+			InputStream in = reader.open(blobId, Constants.OBJ_BLOB).openStream();
+			ObjectReader openedReader = reader;
+			return new FilterInputStream(in) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						openedReader.close();
+						repository.close();
+					}
+				}
+			};
+		} catch (IOException | RuntimeException e) {
+			if(reader != null) {
+				reader.close();
+			}
+			repository.close();
+			throw e;
+		}
+	}
+	
+	public boolean isLarge() {
+		return gitRepoPath != null;
+	}
+	
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	/**
+	 * 设置大文件所在的 git 仓库，只记录仓库的路径，不持有已打开的仓库
+	 * 
+	 * @param gitRepoPath git 仓库的根目录
+	 */
+	void setLargeBlobRepository(Path gitRepoPath) {
+		this.gitRepoPath = gitRepoPath;
+	}
 }
@@ -1,10 +1,10 @@
 package com.blocklang.core.git;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.api.Git;
@@ -16,7 +16,6 @@ import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,8 +48,7 @@ public class GitCommit {
 			String authorName, 
 			String authorMail, 
 			String commitMessage){
-		File folder = gitRepoPath.resolve(Constants.DOT_GIT).toFile();
-		try(Repository repo = FileRepositoryBuilder.create(folder);
+		try(Repository repo = GitRepositoryPool.open(gitRepoPath);
 				Git git = new Git(repo)){
 			saveOrUpdateFile(gitRepoPath, relativePath, fileName, fileContent);
 			// 注意 Filepattern 一定是相对仓库根目录的路径,如果是目录，则不能以/或\开头,分隔符只能是 /
@@ -63,6 +61,7 @@ public class GitCommit {
 			}
 			git.add().addFilepattern(filePattern).call();
 			RevCommit commit = git.commit().setAuthor(authorName, authorMail).setMessage(commitMessage).call();
+			GitLastCommitIndex.get(repo).update(repo);
 			return commit.getName();
 		} catch (GitAPIException e) {
 			throw new GitCommitFailedException(e);
@@ -98,10 +97,9 @@ public class GitCommit {
 	}
 	
 	public RevCommit getLatestCommit(Path gitRepoPath) {
-		File gitDir = gitRepoPath.resolve(Constants.DOT_GIT).toFile();
 		String branch = Constants.MASTER;
 		
-		try (Repository repository = FileRepositoryBuilder.create(gitDir);
+		try (Repository repository = GitRepositoryPool.open(gitRepoPath);
 				RevWalk walk = new RevWalk(repository)) {
 			Ref head = repository.findRef(branch);
 
@@ -115,31 +113,26 @@ public class GitCommit {
 	}
 
 	public RevCommit getLatestCommit(Path gitRepoPath, String relativeFilePath) {
-		File gitDir = gitRepoPath.resolve(Constants.DOT_GIT).toFile();
 		String branch = Constants.MASTER;
 		
-		try (Repository repository = FileRepositoryBuilder.create(gitDir);
-				RevWalk walk = new RevWalk(repository);
-				Git git = new Git(repository)) {
+		try (Repository repository = GitRepositoryPool.open(gitRepoPath);
+				RevWalk walk = new RevWalk(repository)) {
 			Ref head = repository.findRef(branch);
 			
-			if(StringUtils.isBlank(relativeFilePath)) {
+			String path = GitLastCommitIndex.normalizePath(relativeFilePath);
+			if(StringUtils.isBlank(path)) {
 				RevCommit commit = walk.parseCommit(head.getObjectId());
 				walk.dispose();
 				return commit;
 			}
 			
-			ObjectId objectId = null;
-			if(head == null){
-				objectId = repository.resolve(branch);
-			}else{
-				objectId = head.getObjectId();
+			// 从索引中查找，不需要遍历提交历史
+			Optional<ObjectId> commitId = GitLastCommitIndex.get(repository).find(repository, path);
+			if(commitId.isEmpty()) {
+				return null;
 			}
-
-			RevCommit commit = walk.parseCommit(objectId);
-			Iterable<RevCommit> csIterable = git.log().add(commit.getId()).addPath(relativeFilePath).setMaxCount(1).call();
-			return csIterable.iterator().next();
-		} catch (IOException | GitAPIException e) {
+			return walk.parseCommit(commitId.get());
+		} catch (IOException e) {
 			logger.error("获取最新提交信息失败", e);
 		}
 		return null;
@@ -149,10 +142,10 @@ public class GitCommit {
 			String authorName, 
 			String authorMail, 
 			String commitMessage) {
-		File folder = gitRepoPath.resolve(Constants.DOT_GIT).toFile();
-		try(Repository repo = FileRepositoryBuilder.create(folder);
+		try(Repository repo = GitRepositoryPool.open(gitRepoPath);
 				Git git = new Git(repo)){
 			RevCommit commit = git.commit().setAllowEmpty(false).setCommitter(authorName, authorMail).setMessage(commitMessage).call();
+			GitLastCommitIndex.get(repo).update(repo);
 			return commit.getName();
 		} catch(EmptyCommitException e) {
 			logger.error("没有暂存的文件，不能空提交", e);
@@ -5,11 +5,12 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
@@ -18,8 +19,8 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,8 +51,7 @@ public class GitFile {
 		
 		String branch = Constants.R_HEADS + Constants.MASTER;
 		
-		try(Repository repository = FileRepositoryBuilder.create(gitDir);
-				Git git = new Git(repository);
+		try(Repository repository = GitRepositoryPool.open(gitRepoPath);
 				RevWalk walk = new RevWalk(repository)){
 			
 			Ref head = repository.exactRef(branch);
@@ -59,6 +59,7 @@ public class GitFile {
 			RevCommit commit = walk.parseCommit(objectId);
 			RevTree tree = commit.getTree();
 			
+			String dirPath = null;
 			if(StringUtils.isBlank(relativeDir)) {
 				try(TreeWalk treeWalk = new TreeWalk(repository)) {
 					treeWalk.addTree(tree);
@@ -69,21 +70,9 @@ public class GitFile {
 						fileInfo.setPath(treeWalk.getPathString());
 						fileInfo.setName(treeWalk.getNameString());
 						fileInfo.setFolder(treeWalk.isSubtree());
-
-						Iterable<RevCommit> latestLogs = git.log().addPath(treeWalk.getPathString()).setMaxCount(1).call();
-						RevCommit latestCommit = latestLogs.iterator().next();
-						
-						fileInfo.setCommitId(latestCommit.getName());
-						fileInfo.setLatestShortMessage(latestCommit.getShortMessage());
-						fileInfo.setLatestFullMessage(latestCommit.getFullMessage());
-						fileInfo.setLatestCommitTime(DateUtil.ofSecond(latestCommit.getCommitTime()));
 						
 						files.add(fileInfo);
 					}
-				} catch (NoHeadException e) {
-					logger.error(e.getMessage(), e);
-				} catch (GitAPIException e) {
-					logger.error(e.getMessage(), e);
 				}
 			} else {
 				try(TreeWalk treeWalk = buildTreeWalk(repository, tree, relativeDir)) {
@@ -93,39 +82,83 @@ public class GitFile {
 								+ relativeDir + "', had filemode " 
 								+ treeWalk.getFileMode(0).getBits());
 					}
+					dirPath = treeWalk.getPathString();
 					try (TreeWalk dirWalk = new TreeWalk(repository);) {
 						dirWalk.addTree(treeWalk.getObjectId(0));
 						dirWalk.setRecursive(false);
 						while(dirWalk.next()) {
-							String path = treeWalk.getPathString() + "/" + dirWalk.getPathString();
+							String path = dirPath + "/" + dirWalk.getPathString();
 							
 							GitFileInfo fileInfo = new GitFileInfo();
 							fileInfo.setPath(path);
 							fileInfo.setName(dirWalk.getNameString());
 							fileInfo.setFolder(dirWalk.isSubtree());
 							
-							Iterable<RevCommit> latestLogs = git.log().add(commit.getId())
-									.addPath(path)
-									.setMaxCount(1)
-									.call();
-							
-							RevCommit latestCommit = latestLogs.iterator().next();
-							fileInfo.setCommitId(latestCommit.getName());
-							fileInfo.setLatestShortMessage(latestCommit.getShortMessage());
-							fileInfo.setLatestFullMessage(latestCommit.getFullMessage());
-							fileInfo.setLatestCommitTime(DateUtil.ofSecond(latestCommit.getCommitTime()));
-							
 							files.add(fileInfo);
 						}
-					} catch (NoHeadException e) {
-						logger.error(e.getMessage(), e);
-					} catch (GitAPIException e) {
-						logger.error(e.getMessage(), e);
 					}
 				} catch (GitFileNotFoundException e) {
 					logger.error(e.getMessage(), e);
 				}
 			}
+			
+			fillLatestCommits(repository, walk, commit, files);
+		} catch (IOException e) {
+			logger.error(e.getMessage(), e);
+		}
+		
+		return files;
+	}
+	
+	/**
+	 * 获取 master 分支中 relativeDir 下的所有文件和文件夹，递归查找，
+	 * 并在一次遍历中找出所有路径的最近一次提交。
+	 * 
+	 * @return 文件和文件夹列表，按 git tree 的顺序排列，父文件夹排在子节点之前
+	 */
+	public List<GitFileInfo> getAllFiles() {
+		List<GitFileInfo> files = new ArrayList<GitFileInfo>();
+		File gitDir = gitRepoPath.resolve(Constants.DOT_GIT).toFile();
+		if(!gitDir.exists()) {
+			return files;
+		}
+		
+		String branch = Constants.R_HEADS + Constants.MASTER;
+		String dirPrefix = StringUtils.isBlank(relativeDir) ? null : relativeDir + "/";
+		
+		try(Repository repository = GitRepositoryPool.open(gitRepoPath);
+				RevWalk walk = new RevWalk(repository)){
+			
+			Ref head = repository.exactRef(branch);
+			if(head == null) {
+				return files;
+			}
+			RevCommit commit = walk.parseCommit(head.getObjectId());
+			
+			try(TreeWalk treeWalk = new TreeWalk(repository)) {
+				treeWalk.addTree(commit.getTree());
+				treeWalk.setRecursive(false);
+				if(dirPrefix != null) {
+					treeWalk.setFilter(PathFilter.create(relativeDir));
+				}
+				while (treeWalk.next()) {
+					String path = treeWalk.getPathString();
+					// relativeDir 及其上级文件夹也会出现在遍历结果中
+					if(dirPrefix == null || path.startsWith(dirPrefix)) {
+						GitFileInfo fileInfo = new GitFileInfo();
+						fileInfo.setPath(path);
+						fileInfo.setName(treeWalk.getNameString());
+						fileInfo.setFolder(treeWalk.isSubtree());
+						
+						files.add(fileInfo);
+					}
+					if(treeWalk.isSubtree()) {
+						treeWalk.enterSubtree();
+					}
+				}
+			}
+			
+			fillLatestCommits(repository, walk, commit, files);
 		} catch (IOException e) {
 			logger.error(e.getMessage(), e);
 		}
@@ -133,6 +166,49 @@ public class GitFile {
 		return files;
 	}
 	
+	/**
+	 * 先从索引中查找最近一次提交，索引中没有的，再按所在文件夹分组，每个文件夹遍历一次提交历史查找
+	 */
+	private void fillLatestCommits(Repository repository, RevWalk walk, RevCommit commit, List<GitFileInfo> files) throws IOException {
+		List<String> paths = files.stream().map(GitFileInfo::getPath).collect(Collectors.toList());
+		Map<String, ObjectId> indexedCommitIds = GitLastCommitIndex.get(repository).find(repository, paths);
+		
+		Map<String, List<String>> notIndexedNames = files.stream()
+				.filter(fileInfo -> !indexedCommitIds.containsKey(fileInfo.getPath()))
+				.collect(Collectors.groupingBy(fileInfo -> getDirPath(fileInfo.getPath()), 
+						Collectors.mapping(GitFileInfo::getName, Collectors.toList())));
+		Map<String, Map<String, RevCommit>> latestCommits = new HashMap<String, Map<String, RevCommit>>();
+		GitLastCommit lastCommit = new GitLastCommit(walk);
+		for(Map.Entry<String, List<String>> entry : notIndexedNames.entrySet()) {
+			latestCommits.put(entry.getKey(), lastCommit.find(commit, entry.getKey(), entry.getValue()));
+		}
+		
+		for(GitFileInfo fileInfo : files) {
+			RevCommit latestCommit = null;
+			ObjectId commitId = indexedCommitIds.get(fileInfo.getPath());
+			if(commitId != null) {
+				latestCommit = walk.parseCommit(commitId);
+			} else {
+				latestCommit = latestCommits.getOrDefault(getDirPath(fileInfo.getPath()), Collections.emptyMap()).get(fileInfo.getName());
+			}
+			if(latestCommit == null) {
+				continue;
+			}
+			fileInfo.setCommitId(latestCommit.getName());
+			fileInfo.setLatestShortMessage(latestCommit.getShortMessage());
+			fileInfo.setLatestFullMessage(latestCommit.getFullMessage());
+			fileInfo.setLatestCommitTime(DateUtil.ofSecond(latestCommit.getCommitTime()));
+		}
+	}
+	
+	/**
+	 * 获取路径所在的文件夹，根目录返回空字符串
+	 */
+	private static String getDirPath(String path) {
+		int index = path.lastIndexOf("/");
+		return index == -1 ? "" : path.substring(0, index);
+	}
+	
 	private static TreeWalk buildTreeWalk(Repository repository, RevTree tree, final String path) throws IOException {
 		TreeWalk treeWalk = TreeWalk.forPath(repository, path, tree);
 		if(treeWalk == null) {
@@ -148,7 +224,7 @@ public class GitFile {
 			return Collections.emptyList();
 		}
 		
-		try(Repository repository = FileRepositoryBuilder.create(gitDir);
+		try(Repository repository = GitRepositoryPool.open(gitRepoPath);
 				Git git = new Git(repository);
 				RevWalk walk = new RevWalk(repository)){
 			
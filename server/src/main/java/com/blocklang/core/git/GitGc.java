@@ -0,0 +1,97 @@
+package com.blocklang.core.git;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.blocklang.core.git.exception.GitGcFailedException;
+
+/**
+ * git gc，将松散对象打包，合并 pack 文件，并生成 bitmap 索引。
+ * 
+ * <p>
+ * 只有当松散对象数超过 {@link #LOOSE_OBJECTS_THRESHOLD} 或 pack 文件数超过 {@link #PACK_FILES_THRESHOLD} 时才执行。
+ * </p>
+ * 
+ * @author Zhengwei Jin
+ */
+public class GitGc {
+	
+	private static final Logger logger = LoggerFactory.getLogger(GitGc.class);
+
+	/**
+	 * 松散对象数超过此值时执行 gc，与 git 的 gc.auto 默认值相同
+	 */
+	public static final int LOOSE_OBJECTS_THRESHOLD = 6700;
+	
+	/**
+	 * pack 文件数超过此值时执行 gc，与 git 的 gc.autoPackLimit 默认值相同
+	 */
+	public static final int PACK_FILES_THRESHOLD = 50;
+	
+	private Path gitRepoPath;
+	private int looseObjectsThreshold = LOOSE_OBJECTS_THRESHOLD;
+	private int packFilesThreshold = PACK_FILES_THRESHOLD;
+	
+	public GitGc(Path gitRepoPath) {
+		this.gitRepoPath = gitRepoPath;
+	}
+	
+	public GitGc(Path gitRepoPath, int looseObjectsThreshold, int packFilesThreshold) {
+		this.gitRepoPath = gitRepoPath;
+		this.looseObjectsThreshold = looseObjectsThreshold;
+		this.packFilesThreshold = packFilesThreshold;
+	}
+	
+	/**
+	 * 如果超过阈值，则执行 gc
+	 * 
+	 * @return 执行结果，如果不需要执行 gc 则返回 <code>Optional.empty()</code>
+	 */
+	public Optional<GitGcResult> execute() {
+		try(Repository repo = GitRepositoryPool.open(gitRepoPath)) {
+			if(!(repo instanceof FileRepository)) {
+				return Optional.empty();
+			}
+			GC gc = new GC((FileRepository) repo);
+			GC.RepoStatistics before = gc.getStatistics();
+			if(before.numberOfLooseObjects <= looseObjectsThreshold && before.numberOfPackFiles <= packFilesThreshold) {
+				return Optional.empty();
+			}
+			
+			GitGcResult result = new GitGcResult();
+			result.setGitRepoPath(gitRepoPath.toString());
+			result.setStartTime(LocalDateTime.now());
+			result.setLooseObjectsBefore(before.numberOfLooseObjects);
+			result.setPackFilesBefore(before.numberOfPackFiles);
+			result.setSizeBefore(before.sizeOfLooseObjects + before.sizeOfPackedObjects);
+			
+			long start = System.currentTimeMillis();
+			PackConfig packConfig = new PackConfig(repo);
+			packConfig.setBuildBitmaps(true);
+			gc.setPackConfig(packConfig);
+			gc.setProgressMonitor(NullProgressMonitor.INSTANCE);
+			gc.gc();
+			result.setDurationMillis(System.currentTimeMillis() - start);
+			
+			GC.RepoStatistics after = gc.getStatistics();
+			result.setLooseObjectsAfter(after.numberOfLooseObjects);
+			result.setPackFilesAfter(after.numberOfPackFiles);
+			result.setSizeAfter(after.sizeOfLooseObjects + after.sizeOfPackedObjects);
+			return Optional.of(result);
+		} catch (IOException | ParseException e) {
+			logger.error("git gc 失败 " + gitRepoPath, e);
+			throw new GitGcFailedException(e);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.blocklang.core.git;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一次 git gc 的执行结果
+ * 
+ * @author Zhengwei Jin
+ */
+public class GitGcResult {
+
+	private String gitRepoPath;
+	private LocalDateTime startTime;
+	private long durationMillis;
+	private long looseObjectsBefore;
+	private long looseObjectsAfter;
+	private long packFilesBefore;
+	private long packFilesAfter;
+	/**
+	 * 松散对象和 pack 文件的总大小，单位字节
+	 */
+	private long sizeBefore;
+	private long sizeAfter;
+	
+	public String getGitRepoPath() {
+		return gitRepoPath;
+	}
+	public void setGitRepoPath(String gitRepoPath) {
+		this.gitRepoPath = gitRepoPath;
+	}
+	public LocalDateTime getStartTime() {
+		return startTime;
+	}
+	public void setStartTime(LocalDateTime startTime) {
+		this.startTime = startTime;
+	}
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+	public void setDurationMillis(long durationMillis) {
+		this.durationMillis = durationMillis;
+	}
+	public long getLooseObjectsBefore() {
+		return looseObjectsBefore;
+	}
+	public void setLooseObjectsBefore(long looseObjectsBefore) {
+		this.looseObjectsBefore = looseObjectsBefore;
+	}
+	public long getLooseObjectsAfter() {
+		return looseObjectsAfter;
+	}
+	public void setLooseObjectsAfter(long looseObjectsAfter) {
+		this.looseObjectsAfter = looseObjectsAfter;
+	}
+	public long getPackFilesBefore() {
+		return packFilesBefore;
+	}
+	public void setPackFilesBefore(long packFilesBefore) {
+		this.packFilesBefore = packFilesBefore;
+	}
+	public long getPackFilesAfter() {
+		return packFilesAfter;
+	}
+	public void setPackFilesAfter(long packFilesAfter) {
+		this.packFilesAfter = packFilesAfter;
+	}
+	public long getSizeBefore() {
+		return sizeBefore;
+	}
+	public void setSizeBefore(long sizeBefore) {
+		this.sizeBefore = sizeBefore;
+	}
+	public long getSizeAfter() {
+		return sizeAfter;
+	}
+	public void setSizeAfter(long sizeAfter) {
+		this.sizeAfter = sizeAfter;
+	}
+	
+	@Override
+	public String toString() {
+		return "GitGcResult [gitRepoPath=" + gitRepoPath + ", durationMillis=" + durationMillis
+				+ ", looseObjects=" + looseObjectsBefore + "->" + looseObjectsAfter 
+				+ ", packFiles=" + packFilesBefore + "->" + packFilesAfter 
+				+ ", size=" + sizeBefore + "->" + sizeAfter + "]";
+	}
+}
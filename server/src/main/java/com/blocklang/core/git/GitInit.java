@@ -2,13 +2,11 @@ package com.blocklang.core.git;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.jgit.api.AddCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.InitCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
@@ -17,7 +15,6 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
 
-import com.blocklang.core.git.exception.FileCreateOrUpdateFailedException;
 import com.blocklang.core.git.exception.GitInitFailedException;
 import com.blocklang.core.git.exception.GitRepoNotFoundException;
 
@@ -46,7 +43,10 @@ public class GitInit {
 	}
 	
 	public String commit(String commitMessage) {
-		
+		return GitRepositoryLocks.write(gitRepoPath, () -> doCommit(commitMessage));
+	}
+	
+	private String doCommit(String commitMessage) {
 		InitCommand command = new InitCommand();
 		File directory = this.gitRepoPath.toFile();
 		command.setDirectory(directory);
@@ -55,35 +55,16 @@ public class GitInit {
 				Git git = new Git(repository)){
 			// 配置仓库
 			config(git, this.gitUserName, this.gitUserMail);
-			
-			AddCommand addCommand = git.add();
-			files.forEach((key, value) -> {
-				newFile(this.gitRepoPath, key, value);
-				addCommand.addFilepattern(key);
-			});
-			addCommand.call();
-			RevCommit commit = git.commit().setMessage(commitMessage).call();
-			return commit.getName();
 		} catch (GitAPIException e) {
 			throw new GitInitFailedException(e);
 		} catch (IOException e) {
 			throw new GitRepoNotFoundException(gitRepoPath.toString());
 		}
 		
-	}
-	
-	// 在 git 仓库根目录下创建文件。
-	private void newFile(Path folder, String fileName, String fileContent){
-		try{
-			Path file = folder.resolve(fileName);
-			if(Files.notExists(file)){
-				Files.createFile(file);
-			}
-			
-			Files.writeString(file, fileContent);
-		}catch(IOException e){
-			throw new FileCreateOrUpdateFailedException(e);
-		}
+		// 所有文件一次写入对象库，然后再同步到工作区
+		GitBatchCommit batchCommit = new GitBatchCommit(this.gitRepoPath, this.gitUserName, this.gitUserMail);
+		files.forEach(batchCommit::addFile);
+		return batchCommit.commit(commitMessage);
 	}
 
 	/**
@@ -0,0 +1,150 @@
+package com.blocklang.core.git;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+/**
+ * 在一次遍历提交历史的过程中，找出一个文件夹下所有直接子文件和子文件夹的最近一次提交。
+ *
+ * <p>
+ * 按提交时间倒序遍历，对于每个提交，比较文件夹在当前提交和父提交中对应的 tree：
+ * 如果与某个父提交相同，则说明本次提交没有修改该文件夹，直接跳过；
+ * 否则逐个比较子节点的 object id，与所有父提交都不相同的子节点，其最近一次提交就是当前提交。
+ * 所有子节点都找到最近一次提交后，即停止遍历。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+class GitLastCommit {
+
+	/**
+	 * 缓存最近读取的文件夹内容，相邻的两个提交通常会读取同一个 tree
+	 */
+	private static final int TREE_CACHE_SIZE = 16;
+
+	private RevWalk walk;
+	private ObjectReader reader;
+	private Map<ObjectId, Map<String, ObjectId>> treeCache = new LinkedHashMap<ObjectId, Map<String, ObjectId>>(TREE_CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ObjectId, Map<String, ObjectId>> eldest) {
+			return size() > TREE_CACHE_SIZE;
+		}
+	};
+
+	GitLastCommit(RevWalk walk) {
+		this.walk = walk;
+		this.reader = walk.getObjectReader();
+	}
+
+	/**
+	 * 从 start 提交开始，查找文件夹下各子节点的最近一次提交。
+	 *
+	 * @param start 开始遍历的提交，通常是 master 分支的最新提交
+	 * @param dirPath 文件夹路径，相对于仓库根目录，null 或空字符串表示根目录
+	 * @param names 子节点的名称，不是完整路径
+	 * @return key 为子节点的名称，value 为最近一次提交
+	 * @throws IOException
+	 */
+	Map<String, RevCommit> find(RevCommit start, String dirPath, Collection<String> names) throws IOException {
+		if(names.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Map<String, RevCommit> result = new HashMap<String, RevCommit>();
+		Set<String> pending = new HashSet<String>(names);
+
+		walk.reset();
+		walk.sort(RevSort.COMMIT_TIME_DESC);
+		walk.markStart(walk.parseCommit(start));
+
+		RevCommit commit;
+		while(!pending.isEmpty() && (commit = walk.next()) != null) {
+			ObjectId dirId = getTreeId(commit, dirPath);
+			if(dirId == null) {
+				continue;
+			}
+
+			RevCommit[] parents = commit.getParents();
+			ObjectId[] parentDirIds = new ObjectId[parents.length];
+			boolean treeSame = false;
+			for(int i = 0; i < parents.length; i++) {
+				walk.parseHeaders(parents[i]);
+				parentDirIds[i] = getTreeId(parents[i], dirPath);
+				if(dirId.equals(parentDirIds[i])) {
+					treeSame = true;
+					break;
+				}
+			}
+			if(treeSame) {
+				continue;
+			}
+
+			Map<String, ObjectId> entries = readTree(dirId);
+			for(String name : new HashSet<String>(pending)) {
+				ObjectId entryId = entries.get(name);
+				if(entryId == null) {
+					continue;
+				}
+				boolean changed = true;
+				for(ObjectId parentDirId : parentDirIds) {
+					if(parentDirId != null && entryId.equals(readTree(parentDirId).get(name))) {
+						changed = false;
+						break;
+					}
+				}
+				if(changed) {
+					result.put(name, commit);
+					pending.remove(name);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private ObjectId getTreeId(RevCommit commit, String dirPath) throws IOException {
+		if(StringUtils.isBlank(dirPath)) {
+			return commit.getTree().getId();
+		}
+		try(TreeWalk treeWalk = TreeWalk.forPath(reader, dirPath, commit.getTree())) {
+			if(treeWalk == null || !treeWalk.isSubtree()) {
+				return null;
+			}
+			return treeWalk.getObjectId(0);
+		}
+	}
+
+	private Map<String, ObjectId> readTree(ObjectId treeId) throws IOException {
+		Map<String, ObjectId> entries = treeCache.get(treeId);
+		if(entries != null) {
+			return entries;
+		}
+
+		entries = new HashMap<String, ObjectId>();
+		try(TreeWalk treeWalk = new TreeWalk(reader)) {
+			treeWalk.addTree(treeId);
+			treeWalk.setRecursive(false);
+			while(treeWalk.next()) {
+				entries.put(treeWalk.getNameString(), treeWalk.getObjectId(0));
+			}
+		}
+		treeCache.put(treeId.copy(), entries);
+		return entries;
+	}
+}
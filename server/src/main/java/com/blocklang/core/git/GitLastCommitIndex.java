@@ -0,0 +1,345 @@
+package com.blocklang.core.git;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * master 分支中每个文件和文件夹的最近一次提交的索引。
+ *
+ * <p>
+ * 索引保存在仓库的 .git 文件夹中，文件名为 {@link #INDEX_FILE_NAME}，
+ * 记录了建立索引时 master 分支的 HEAD，以及 HEAD 中每个路径对应的最近一次提交。
+ * </p>
+ *
+ * <p>
+ * 通过 {@link GitCommit} 提交后会增量更新索引；如果 HEAD 在本程序之外被修改，
+ * 则在下一次查询时更新：如果原 HEAD 是新 HEAD 的祖先，则只处理新增的提交，否则重建索引。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+class GitLastCommitIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(GitLastCommitIndex.class);
+
+	static final String INDEX_FILE_NAME = "blocklang-last-commit-index";
+
+	private static final String HEADER = "# blocklang last commit index v1";
+	private static final String HEAD_PREFIX = "head ";
+	private static final String MASTER_BRANCH = Constants.R_HEADS + Constants.MASTER;
+
+	/**
+	 * 最多在内存中缓存的索引数，与仓库对象池的容量相同
+	 */
+	private static final Map<Path, GitLastCommitIndex> INDEXES = new LinkedHashMap<Path, GitLastCommitIndex>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, GitLastCommitIndex> eldest) {
+			return size() > GitRepositoryPool.MAX_OPEN_REPOSITORIES;
+		}
+	};
+
+	private final Path indexFile;
+	private boolean loaded = false;
+	private ObjectId head;
+	/**
+	 * key 为相对仓库根目录的路径，value 为最近一次提交的 id
+	 */
+	private Map<String, ObjectId> commits = new HashMap<String, ObjectId>();
+
+	private GitLastCommitIndex(Path indexFile) {
+		this.indexFile = indexFile;
+	}
+
+	static GitLastCommitIndex get(Repository repository) {
+		Path gitDir = repository.getDirectory().toPath().toAbsolutePath().normalize();
+		synchronized(INDEXES) {
+			return INDEXES.computeIfAbsent(gitDir, key -> new GitLastCommitIndex(key.resolve(INDEX_FILE_NAME)));
+		}
+	}
+
+	static void evict(Path gitRepoPath) {
+		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT).toAbsolutePath().normalize();
+		synchronized(INDEXES) {
+			INDEXES.remove(gitDir);
+		}
+	}
+
+	/**
+	 * 获取 master 分支中指定路径的最近一次提交
+	 *
+	 * @param repository 仓库
+	 * @param path 相对仓库根目录的路径，使用 / 分割
+	 * @return 最近一次提交的 id，如果路径不存在则返回 <code>Optional.empty()</code>
+	 * @throws IOException
+	 */
+	synchronized Optional<ObjectId> find(Repository repository, String path) throws IOException {
+		refresh(repository);
+		return Optional.ofNullable(commits.get(path));
+	}
+
+	/**
+	 * 批量获取 master 分支中多个路径的最近一次提交
+	 *
+	 * @param repository 仓库
+	 * @param paths 相对仓库根目录的路径，使用 / 分割
+	 * @return key 为路径，value 为最近一次提交的 id，不包含不存在的路径
+	 * @throws IOException
+	 */
+	synchronized Map<String, ObjectId> find(Repository repository, Collection<String> paths) throws IOException {
+		refresh(repository);
+		Map<String, ObjectId> result = new HashMap<String, ObjectId>();
+		for(String path : paths) {
+			ObjectId commitId = commits.get(path);
+			if(commitId != null) {
+				result.put(path, commitId);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 提交后增量更新索引。如果还没有建立过索引，则等到第一次查询时再建立。
+	 *
+	 * @param repository 仓库
+	 */
+	synchronized void update(Repository repository) {
+		try {
+			if(!loaded && Files.notExists(indexFile)) {
+				return;
+			}
+			refresh(repository);
+		} catch (IOException e) {
+			logger.error("更新最近提交索引失败", e);
+		}
+	}
+
+	private void refresh(Repository repository) throws IOException {
+		if(!loaded) {
+			load();
+			loaded = true;
+		}
+
+		Ref ref = repository.exactRef(MASTER_BRANCH);
+		ObjectId newHead = ref == null ? null : ref.getObjectId();
+		if(newHead == null) {
+			if(head != null) {
+				head = null;
+				commits = new HashMap<String, ObjectId>();
+				save();
+			}
+			return;
+		}
+		if(newHead.equals(head)) {
+			return;
+		}
+
+		try(RevWalk walk = new RevWalk(repository)) {
+			RevCommit newHeadCommit = walk.parseCommit(newHead);
+			if(!catchUp(walk, newHeadCommit)) {
+				rebuild(walk, newHeadCommit);
+			}
+		}
+		head = newHead.copy();
+		save();
+	}
+
+	/**
+	 * 如果原 HEAD 是新 HEAD 的祖先，则按从旧到新的顺序处理新增的提交
+	 */
+	private boolean catchUp(RevWalk walk, RevCommit newHead) throws IOException {
+		if(head == null) {
+			return false;
+		}
+		RevCommit oldHead;
+		try {
+			oldHead = walk.parseCommit(head);
+			if(!walk.isMergedInto(oldHead, newHead)) {
+				return false;
+			}
+		} catch (MissingObjectException e) {
+			return false;
+		}
+
+		walk.reset();
+		walk.sort(RevSort.TOPO);
+		walk.sort(RevSort.REVERSE, true);
+		walk.markStart(newHead);
+		walk.markUninteresting(oldHead);
+		for(RevCommit commit : walk) {
+			applyCommit(walk, commit, null);
+		}
+		return true;
+	}
+
+	/**
+	 * 按提交时间倒序遍历，每个路径第一次被修改的提交就是最近一次提交，所有路径都找到后即停止遍历
+	 */
+	private void rebuild(RevWalk walk, RevCommit newHead) throws IOException {
+		logger.info("重建最近提交索引 {}", indexFile);
+		Set<String> paths = new HashSet<String>();
+		try(TreeWalk treeWalk = new TreeWalk(walk.getObjectReader())) {
+			treeWalk.addTree(newHead.getTree());
+			treeWalk.setRecursive(false);
+			while(treeWalk.next()) {
+				paths.add(treeWalk.getPathString());
+				if(treeWalk.isSubtree()) {
+					treeWalk.enterSubtree();
+				}
+			}
+		}
+
+		commits = new HashMap<String, ObjectId>();
+		walk.reset();
+		walk.sort(RevSort.COMMIT_TIME_DESC);
+		walk.markStart(newHead);
+		RevCommit commit;
+		while(commits.size() < paths.size() && (commit = walk.next()) != null) {
+			applyCommit(walk, commit, paths);
+		}
+	}
+
+	/**
+	 * 将提交中与所有父提交都不相同的路径，记录为该提交修改的路径。
+	 *
+	 * @param paths 如果为 null，则是增量更新，新提交会覆盖已有记录，并删除已不存在的路径；
+	 * 否则是重建索引，只记录 paths 中尚未记录的路径
+	 */
+	private void applyCommit(RevWalk walk, RevCommit commit, Set<String> paths) throws IOException {
+		RevCommit[] parents = commit.getParents();
+		try(TreeWalk treeWalk = new TreeWalk(walk.getObjectReader())) {
+			treeWalk.addTree(commit.getTree());
+			for(RevCommit parent : parents) {
+				walk.parseHeaders(parent);
+				treeWalk.addTree(parent.getTree());
+			}
+			treeWalk.setFilter(TreeFilter.ANY_DIFF);
+			treeWalk.setRecursive(false);
+
+			List<String> removed = new ArrayList<String>();
+			while(treeWalk.next()) {
+				String path = treeWalk.getPathString();
+				if(treeWalk.getRawMode(0) == 0) {
+					removed.add(path);
+					continue;
+				}
+
+				boolean changed = true;
+				for(int i = 1; i < treeWalk.getTreeCount(); i++) {
+					if(treeWalk.getRawMode(i) != 0 && treeWalk.idEqual(0, i)) {
+						changed = false;
+						break;
+					}
+				}
+				if(!changed) {
+					continue;
+				}
+
+				if(paths == null) {
+					commits.put(path, commit.copy());
+				} else if(paths.contains(path) && !commits.containsKey(path)) {
+					commits.put(path, commit.copy());
+				}
+				if(treeWalk.isSubtree()) {
+					treeWalk.enterSubtree();
+				}
+			}
+
+			if(paths == null) {
+				for(String path : removed) {
+					String prefix = path + "/";
+					commits.keySet().removeIf(key -> key.equals(path) || key.startsWith(prefix));
+				}
+			}
+		}
+	}
+
+	private void load() {
+		if(Files.notExists(indexFile)) {
+			return;
+		}
+		try(BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if(!HEADER.equals(line)) {
+				return;
+			}
+			line = reader.readLine();
+			if(line == null || !line.startsWith(HEAD_PREFIX)) {
+				return;
+			}
+			ObjectId loadedHead = ObjectId.fromString(line.substring(HEAD_PREFIX.length()));
+			Map<String, ObjectId> loadedCommits = new HashMap<String, ObjectId>();
+			while((line = reader.readLine()) != null) {
+				if(line.length() <= Constants.OBJECT_ID_STRING_LENGTH + 1) {
+					continue;
+				}
+				ObjectId commitId = ObjectId.fromString(line.substring(0, Constants.OBJECT_ID_STRING_LENGTH));
+				loadedCommits.put(line.substring(Constants.OBJECT_ID_STRING_LENGTH + 1), commitId);
+			}
+			head = ObjectId.zeroId().equals(loadedHead) ? null : loadedHead;
+			commits = loadedCommits;
+		} catch (IOException | IllegalArgumentException e) {
+			logger.error("读取最近提交索引失败，将重建索引", e);
+			head = null;
+			commits = new HashMap<String, ObjectId>();
+		}
+	}
+
+	private void save() {
+		Path tempFile = indexFile.resolveSibling(INDEX_FILE_NAME + ".tmp");
+		try {
+			try(BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+				writer.write(HEADER);
+				writer.newLine();
+				writer.write(HEAD_PREFIX + (head == null ? ObjectId.zeroId().name() : head.name()));
+				writer.newLine();
+				for(Map.Entry<String, ObjectId> entry : commits.entrySet()) {
+					writer.write(entry.getValue().name());
+					writer.write(' ');
+					writer.write(entry.getKey());
+					writer.newLine();
+				}
+			}
+			Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			// 保存失败不影响查询，下次启动时会重建索引
+			logger.error("保存最近提交索引失败", e);
+		}
+	}
+
+	/**
+	 * 将路径转换为索引中使用的格式，使用 / 分割，且不以 / 开头和结尾
+	 */
+	static String normalizePath(String path) {
+		return StringUtils.strip(StringUtils.defaultString(path).replace('\\', '/'), "/");
+	}
+}
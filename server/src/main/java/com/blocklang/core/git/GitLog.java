@@ -1,6 +1,5 @@
 package com.blocklang.core.git;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Iterator;
@@ -9,10 +8,8 @@ import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.LogCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.NoHeadException;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 
 import com.blocklang.core.git.exception.GitLogFailedException;
 import com.blocklang.core.git.exception.GitNoHeadException;
@@ -21,8 +18,7 @@ import com.blocklang.core.git.exception.GitRepoNotFoundException;
 public class GitLog {
 
 	public int getCount(Path gitRootFolder){
-		File gitDir = gitRootFolder.resolve(Constants.DOT_GIT).toFile();
-		try (Repository repo = FileRepositoryBuilder.create(gitDir);
+		try (Repository repo = GitRepositoryPool.open(gitRootFolder);
 				Git git = new Git(repo)){
 			
 			LogCommand logCommand = git.log();
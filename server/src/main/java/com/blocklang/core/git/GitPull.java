@@ -1,6 +1,5 @@
 package com.blocklang.core.git;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 
@@ -8,9 +7,7 @@ import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.PullCommand;
 import org.eclipse.jgit.api.PullResult;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.transport.TagOpt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,8 +20,7 @@ public class GitPull {
 	private static final Logger logger = LoggerFactory.getLogger(GitPull.class);
 	
 	public boolean execute(Path gitRepoPath, boolean fetchTag){
-		File directory = gitRepoPath.resolve(Constants.DOT_GIT).toFile();
-		try (Repository repository = FileRepositoryBuilder.create(directory); 
+		try (Repository repository = GitRepositoryPool.open(gitRepoPath); 
 				Git git = new Git(repository)){
 			PullCommand pc = git.pull();
 			if(fetchTag) {
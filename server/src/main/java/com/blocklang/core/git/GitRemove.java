@@ -6,9 +6,7 @@ import java.nio.file.Path;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.RmCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
@@ -26,8 +24,7 @@ public class GitRemove {
 	}
 
 	public void execute(String filePattern) {
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath);
 			Git git = new Git(repo)){
 			git.rm().addFilepattern(filePattern).call();
 		} catch (IOException e) {
@@ -42,8 +39,7 @@ public class GitRemove {
 	public void removeFromIndex(String[] filePatterns) {
 		Assert.notEmpty(filePatterns, "filePatterns 数组不能为空");
 		
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath);
 			Git git = new Git(repo)){
 			RmCommand command = git.rm().setCached(true);
 			for(String filePattern : filePatterns) {
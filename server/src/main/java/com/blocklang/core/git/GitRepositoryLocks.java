@@ -0,0 +1,256 @@
+package com.blocklang.core.git;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.blocklang.core.git.exception.GitLockTimeoutException;
+
+/**
+ * git 仓库的读写锁。
+ *
+ * <p>
+ * 同一个仓库上的 add、reset、commit、tag 等修改 index 或引用的操作，如果同时执行，
+ * JGit 会因为获取不到 index.lock 等文件锁而直接失败。所以修改仓库的操作使用写锁，依次执行；
+ * 查询文件列表、读取文件内容、获取文件状态等操作使用读锁，可以同时执行，只需等待同一个仓库上的写操作。
+ * </p>
+ *
+ * <p>
+ * 以仓库根目录的绝对路径计算 hash 值，分配到固定数量的 {@link ReentrantReadWriteLock} 上，
+ * 不需要为每个仓库创建和回收锁对象。不同仓库可能共用同一个锁，但概率较低。
+ * </p>
+ *
+ * <p>
+ * 获取锁最多等待 {@link #DEFAULT_TIMEOUT_MILLIS}，超时则抛出 {@link GitLockTimeoutException}。
+ * 注意读锁不能升级为写锁，持有读锁时不能再获取写锁。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+public final class GitRepositoryLocks {
+
+	private static final Logger logger = LoggerFactory.getLogger(GitRepositoryLocks.class);
+
+	/**
+	 * 锁的个数，必须是 2 的 n 次方
+	 */
+	private static final int STRIPES = 64;
+
+	/**
+	 * 获取锁的最长等待时间，单位毫秒
+	 */
+	public static final long DEFAULT_TIMEOUT_MILLIS = 30 * 1000L;
+
+	private static final ReentrantReadWriteLock[] LOCKS = new ReentrantReadWriteLock[STRIPES];
+
+	static {
+		for(int i = 0; i < STRIPES; i++) {
+			LOCKS[i] = new ReentrantReadWriteLock();
+		}
+	}
+
+	private static final AtomicLong readCount = new AtomicLong();
+	private static final AtomicLong writeCount = new AtomicLong();
+	private static final AtomicLong readContendedCount = new AtomicLong();
+	private static final AtomicLong writeContendedCount = new AtomicLong();
+	private static final AtomicLong timeoutCount = new AtomicLong();
+	private static final AtomicLong waitNanos = new AtomicLong();
+
+	private GitRepositoryLocks() {}
+
+	/**
+	 * 在读锁中执行
+	 *
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param action 读取仓库的操作
+	 * @return action 的返回值
+	 */
+	public static <T> T read(Path gitRepoPath, Supplier<T> action) {
+		if(gitRepoPath == null) {
+			// 由 action 校验参数
+			return action.get();
+		}
+		Lock lock = getLock(gitRepoPath).readLock();
+		acquire(gitRepoPath, lock, readContendedCount);
+		readCount.incrementAndGet();
+		try {
+			return action.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 如果能立即获取读锁，则在读锁中执行，否则不执行。用于可以推迟执行的后台任务。
+	 *
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param action 读取仓库的操作
+	 * @return action 的返回值，如果没有获取到锁则返回 <code>Optional.empty()</code>
+	 */
+	public static <T> Optional<T> tryRead(Path gitRepoPath, Supplier<T> action) {
+		Lock lock = getLock(gitRepoPath).readLock();
+		if(!lock.tryLock()) {
+			readContendedCount.incrementAndGet();
+			return Optional.empty();
+		}
+		readCount.incrementAndGet();
+		try {
+			return Optional.ofNullable(action.get());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 在写锁中执行
+	 *
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param action 修改仓库的操作
+	 * @return action 的返回值
+	 */
+	public static <T> T write(Path gitRepoPath, Supplier<T> action) {
+		if(gitRepoPath == null) {
+			// 由 action 校验参数
+			return action.get();
+		}
+		Lock lock = getLock(gitRepoPath).writeLock();
+		acquire(gitRepoPath, lock, writeContendedCount);
+		writeCount.incrementAndGet();
+		try {
+			return action.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 在写锁中执行
+	 *
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param action 修改仓库的操作
+	 */
+	public static void write(Path gitRepoPath, Runnable action) {
+		write(gitRepoPath, () -> {
+			action.run();
+			return null;
+		});
+	}
+
+	private static ReentrantReadWriteLock getLock(Path gitRepoPath) {
+		int hash = gitRepoPath.toAbsolutePath().normalize().hashCode();
+		hash ^= (hash >>> 16);
+		return LOCKS[hash & (STRIPES - 1)];
+	}
+
+	private static void acquire(Path gitRepoPath, Lock lock, AtomicLong contendedCount) {
+		if(lock.tryLock()) {
+			return;
+		}
+
+		contendedCount.incrementAndGet();
+		long start = System.nanoTime();
+		boolean acquired = false;
+		try {
+			acquired = lock.tryLock(DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GitLockTimeoutException("等待 git 仓库的锁时被中断 " + gitRepoPath, e);
+		} finally {
+			waitNanos.addAndGet(System.nanoTime() - start);
+		}
+
+		if(!acquired) {
+			timeoutCount.incrementAndGet();
+			logger.error("等待 git 仓库的锁超时 {}", gitRepoPath);
+			throw new GitLockTimeoutException("等待 git 仓库的锁超时 " + gitRepoPath);
+		}
+	}
+
+	/**
+	 * 获取锁的统计信息
+	 *
+	 * @return 统计信息
+	 */
+	public static Stats getStats() {
+		return new Stats(readCount.get(), writeCount.get(), readContendedCount.get(),
+				writeContendedCount.get(), timeoutCount.get(), TimeUnit.NANOSECONDS.toMillis(waitNanos.get()));
+	}
+
+	/**
+	 * 锁的统计信息
+	 */
+	public static class Stats {
+		private final long readCount;
+		private final long writeCount;
+		private final long readContendedCount;
+		private final long writeContendedCount;
+		private final long timeoutCount;
+		private final long waitMillis;
+
+		private Stats(long readCount, long writeCount, long readContendedCount, long writeContendedCount,
+				long timeoutCount, long waitMillis) {
+			this.readCount = readCount;
+			this.writeCount = writeCount;
+			this.readContendedCount = readContendedCount;
+			this.writeContendedCount = writeContendedCount;
+			this.timeoutCount = timeoutCount;
+			this.waitMillis = waitMillis;
+		}
+
+		/**
+		 * 获取读锁的次数
+		 */
+		public long getReadCount() {
+			return readCount;
+		}
+
+		/**
+		 * 获取写锁的次数
+		 */
+		public long getWriteCount() {
+			return writeCount;
+		}
+
+		/**
+		 * 获取读锁时需要等待的次数
+		 */
+		public long getReadContendedCount() {
+			return readContendedCount;
+		}
+
+		/**
+		 * 获取写锁时需要等待的次数
+		 */
+		public long getWriteContendedCount() {
+			return writeContendedCount;
+		}
+
+		/**
+		 * 获取锁超时的次数
+		 */
+		public long getTimeoutCount() {
+			return timeoutCount;
+		}
+
+		/**
+		 * 等待锁的总时间，单位毫秒
+		 */
+		public long getWaitMillis() {
+			return waitMillis;
+		}
+
+		@Override
+		public String toString() {
+			return "GitRepositoryLocks.Stats [readCount=" + readCount + ", writeCount=" + writeCount
+					+ ", readContendedCount=" + readContendedCount + ", writeContendedCount=" + writeContendedCount
+					+ ", timeoutCount=" + timeoutCount + ", waitMillis=" + waitMillis + "]";
+		}
+	}
+}
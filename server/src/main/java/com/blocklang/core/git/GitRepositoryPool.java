@@ -0,0 +1,200 @@
+package com.blocklang.core.git;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * git 仓库的 {@link Repository} 对象池。
+ *
+ * <p>
+ * 以 .git 文件夹的路径为 key，缓存已打开的 Repository，避免每个 git 操作都重新创建 Repository，
+ * 这样 JGit 内部缓存的 pack 索引、引用和配置信息等可以在多个操作之间复用。
+ * </p>
+ *
+ * <p>
+ * 引用计数直接使用 JGit 提供的 {@link Repository#incrementOpen()} 和 {@link Repository#close()}：
+ * 对象池本身持有一次引用，每次调用 {@link #open(Path)} 再增加一次引用。
+ * 调用方依然使用 try-with-resources 关闭 Repository，此时只是减少引用计数，
+ * 只有当对象池释放引用，并且所有调用方都已关闭后，Repository 才会真正关闭。
+ * </p>
+ *
+ * <p>
+ * 以下两种情况，对象池会释放持有的引用：
+ * <ol>
+ * <li>超过 {@link #IDLE_TIMEOUT_MILLIS} 没有被访问；</li>
+ * <li>打开的仓库数超过 {@link #MAX_OPEN_REPOSITORIES}，则释放最久没有被访问的仓库。</li>
+ * </ol>
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+public final class GitRepositoryPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(GitRepositoryPool.class);
+
+	/**
+	 * 最多同时打开的仓库数
+	 */
+	public static final int MAX_OPEN_REPOSITORIES = 64;
+
+	/**
+	 * 仓库空闲多长时间后释放，单位毫秒
+	 */
+	public static final long IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+
+	/**
+	 * 每隔多长时间检查一次空闲的仓库，单位毫秒
+	 */
+	private static final long EVICT_INTERVAL_MILLIS = 60 * 1000L;
+
+	/**
+	 * 按访问顺序排序，第一个元素是最久没有被访问的仓库。
+	 *
+	 * 所有读写操作都要在 synchronized(POOL) 中执行。
+	 */
+	private static final LinkedHashMap<Path, PooledRepository> POOL = new LinkedHashMap<>(16, 0.75f, true);
+
+	private static long lastEvictTime = System.currentTimeMillis();
+
+	private GitRepositoryPool() {}
+
+	/**
+	 * 获取 git 仓库对应的 Repository，使用完后必须调用 {@link Repository#close()}。
+	 *
+	 * 如果仓库不存在，则不放入对象池，返回的 Repository 与直接使用 {@link FileRepositoryBuilder#create(java.io.File)} 创建的相同。
+	 *
+	 * @param gitRepoPath git 仓库的根目录，不是 .git 文件夹
+	 * @return Repository 对象
+	 * @throws IOException
+	 */
+	public static Repository open(Path gitRepoPath) throws IOException {
+		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT).toAbsolutePath().normalize();
+		if(!Files.isDirectory(gitDir)) {
+			evict(gitRepoPath);
+			return FileRepositoryBuilder.create(gitDir.toFile());
+		}
+
+		List<Repository> evicted = new ArrayList<Repository>();
+		Repository result = null;
+		synchronized(POOL) {
+			long now = System.currentTimeMillis();
+			PooledRepository pooled = POOL.get(gitDir);
+			if(pooled == null) {
+				pooled = new PooledRepository(FileRepositoryBuilder.create(gitDir.toFile()));
+				POOL.put(gitDir, pooled);
+			}
+			pooled.lastAccessTime = now;
+			pooled.repository.incrementOpen();
+			result = pooled.repository;
+
+			removeOverflow(evicted);
+			if(now - lastEvictTime >= EVICT_INTERVAL_MILLIS) {
+				removeIdle(now, evicted);
+				lastEvictTime = now;
+			}
+		}
+		closeAll(evicted);
+		return result;
+	}
+
+	/**
+	 * 从对象池中移除仓库，在删除仓库之前必须调用此方法。
+	 *
+	 * @param gitRepoPath git 仓库的根目录
+	 */
+	public static void evict(Path gitRepoPath) {
+		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT).toAbsolutePath().normalize();
+		PooledRepository pooled = null;
+		synchronized(POOL) {
+			pooled = POOL.remove(gitDir);
+		}
+		if(pooled != null) {
+			pooled.repository.close();
+		}
+	}
+
+	/**
+	 * 释放所有超过 {@link #IDLE_TIMEOUT_MILLIS} 没有被访问的仓库
+	 */
+	public static void evictIdle() {
+		List<Repository> evicted = new ArrayList<Repository>();
+		synchronized(POOL) {
+			long now = System.currentTimeMillis();
+			removeIdle(now, evicted);
+			lastEvictTime = now;
+		}
+		closeAll(evicted);
+	}
+
+	/**
+	 * 释放对象池中的所有仓库
+	 */
+	public static void clear() {
+		List<Repository> evicted = new ArrayList<Repository>();
+		synchronized(POOL) {
+			POOL.values().forEach(pooled -> evicted.add(pooled.repository));
+			POOL.clear();
+		}
+		closeAll(evicted);
+	}
+
+	/**
+	 * 获取对象池中已打开的仓库数
+	 *
+	 * @return 仓库数
+	 */
+	public static int size() {
+		synchronized(POOL) {
+			return POOL.size();
+		}
+	}
+
+	private static void removeOverflow(List<Repository> evicted) {
+		Iterator<PooledRepository> iterator = POOL.values().iterator();
+		while(POOL.size() > MAX_OPEN_REPOSITORIES && iterator.hasNext()) {
+			evicted.add(iterator.next().repository);
+			iterator.remove();
+		}
+	}
+
+	private static void removeIdle(long now, List<Repository> evicted) {
+		Iterator<Map.Entry<Path, PooledRepository>> iterator = POOL.entrySet().iterator();
+		while(iterator.hasNext()) {
+			Map.Entry<Path, PooledRepository> entry = iterator.next();
+			PooledRepository pooled = entry.getValue();
+			if(now - pooled.lastAccessTime >= IDLE_TIMEOUT_MILLIS || !Files.isDirectory(entry.getKey())) {
+				evicted.add(pooled.repository);
+				iterator.remove();
+			}
+		}
+	}
+
+	private static void closeAll(List<Repository> repositories) {
+		for(Repository repository : repositories) {
+			logger.debug("释放 git 仓库 {}", repository.getDirectory());
+			// 只减少对象池持有的引用，如果仍有调用方在使用，则等调用方关闭后才真正关闭
+			repository.close();
+		}
+	}
+
+	private static class PooledRepository {
+		private final Repository repository;
+		private long lastAccessTime;
+
+		private PooledRepository(Repository repository) {
+			this.repository = repository;
+		}
+	}
+}
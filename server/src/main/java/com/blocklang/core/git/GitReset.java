@@ -6,9 +6,7 @@ import java.nio.file.Path;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
@@ -28,8 +26,7 @@ private static final Logger logger = LoggerFactory.getLogger(GitReset.class);
 	public void execute(String[] pathes) {
 		Assert.notEmpty(pathes, "pathes 数组不能为空");
 		
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath);
 			Git git = new Git(repo)){
 			ResetCommand command = git.reset();
 			for(String path : pathes) {
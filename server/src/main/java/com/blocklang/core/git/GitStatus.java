@@ -2,6 +2,8 @@ package com.blocklang.core.git;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -11,9 +13,7 @@ import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.StatusCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.errors.NoWorkTreeException;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,23 +26,29 @@ public class GitStatus {
 	private static final Logger logger = LoggerFactory.getLogger(GitStatus.class);
 	
 	private Path gitRepoPath;
-	private String relativeDir;
+	private Collection<String> relativePaths;
 	
 	public GitStatus(Path gitRepoPath, String relativeDir) {
+		this(gitRepoPath, StringUtils.isBlank(relativeDir) ? Collections.emptyList() : Collections.singletonList(relativeDir));
+	}
+	
+	/**
+	 * 
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param relativePaths 只获取这些路径下的文件状态，如果为空，则获取整个仓库的文件状态
+	 */
+	public GitStatus(Path gitRepoPath, Collection<String> relativePaths) {
 		this.gitRepoPath = gitRepoPath;
-		this.relativeDir = relativeDir;
+		this.relativePaths = relativePaths;
 	}
 
 	public Map<String, GitFileStatus> execute(){
 		Map<String, GitFileStatus> result = new HashMap<String, GitFileStatus>();
 		
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath);
 			Git git = new Git(repo)){
 			StatusCommand command = git.status();
-			if(StringUtils.isNotBlank(relativeDir)) {
-				command.addPath(relativeDir);
-			}
+			relativePaths.forEach(command::addPath);
 			Status status = command.call();
 			
 			// 硬盘 -> index -> HEAD
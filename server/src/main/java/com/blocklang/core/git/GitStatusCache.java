@@ -0,0 +1,381 @@
+package com.blocklang.core.git;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.internal.storage.file.FileSnapshot;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.blocklang.core.constant.GitFileStatus;
+import com.blocklang.core.git.exception.GitRepoNotFoundException;
+
+/**
+ * 缓存 git 仓库工作区的文件状态，并增量更新。
+ *
+ * <p>
+ * 每个仓库缓存一份整个工作区的文件状态，查询子文件夹时从中过滤。以下情况需要更新缓存：
+ * <ol>
+ * <li>.git/index 文件或 HEAD 发生变化，如 add、commit、reset、checkout 等操作，重新获取整个仓库的文件状态；</li>
+ * <li>工作区中的文件发生变化，只重新获取发生变化的顶层文件或文件夹的状态；</li>
+ * <li>根目录下的 .gitignore 发生变化，重新获取整个仓库的文件状态。</li>
+ * </ol>
+ * </p>
+ *
+ * <p>
+ * 使用 {@link WatchService} 监听工作区中所有文件夹的变化，事件在查询时才处理，不需要单独的线程。
+ * 如果当前平台不支持 WatchService（或者只能轮询，如 macOS），或者注册监听失败，
+ * 则不使用缓存，每次查询都重新获取文件状态。
+ * </p>
+ *
+ * <p>
+ * WatchService 的事件是异步送达的，在程序内修改工作区中的文件后，
+ * 应调用 {@link #markChanged(Path, String)} 立即将缓存标记为失效。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+class GitStatusCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(GitStatusCache.class);
+
+	/**
+	 * 最多缓存的仓库数，与仓库对象池的容量相同。所有读写操作都要在 synchronized(REPOS) 中执行。
+	 */
+	private static final Map<Path, RepoStatus> REPOS = new LinkedHashMap<Path, RepoStatus>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, RepoStatus> eldest) {
+			if(size() > GitRepositoryPool.MAX_OPEN_REPOSITORIES) {
+				eldest.getValue().unwatch();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * 所有与 WatchService 相关的操作都要在 synchronized(WATCH_LOCK) 中执行
+	 */
+	private static final Object WATCH_LOCK = new Object();
+	private static WatchService watchService;
+	private static boolean watchUnsupported = false;
+	private static final Map<WatchKey, WatchedDir> WATCHED_DIRS = new HashMap<WatchKey, WatchedDir>();
+
+	/**
+	 * 获取仓库中文件的状态
+	 *
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param relativeDir 相对于仓库根目录的文件夹，null 或空字符串表示根目录
+	 * @return key 为相对仓库根目录的路径，value 为文件状态
+	 */
+	static Map<String, GitFileStatus> status(Path gitRepoPath, String relativeDir) {
+		Path root = gitRepoPath.toAbsolutePath().normalize();
+		if(!Files.isDirectory(root.resolve(Constants.DOT_GIT))) {
+			evict(gitRepoPath);
+			return new GitStatus(gitRepoPath, relativeDir).execute();
+		}
+
+		RepoStatus repoStatus = null;
+		synchronized(REPOS) {
+			repoStatus = REPOS.computeIfAbsent(root, RepoStatus::new);
+		}
+		processEvents();
+		return repoStatus.get(GitLastCommitIndex.normalizePath(relativeDir));
+	}
+
+	/**
+	 * 程序内修改工作区中的文件后，将该文件的状态标记为失效
+	 *
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param relativePath 相对于仓库根目录的路径，null 或空字符串表示整个仓库
+	 */
+	static void markChanged(Path gitRepoPath, String relativePath) {
+		RepoStatus repoStatus = null;
+		synchronized(REPOS) {
+			repoStatus = REPOS.get(gitRepoPath.toAbsolutePath().normalize());
+		}
+		if(repoStatus == null) {
+			return;
+		}
+		String path = GitLastCommitIndex.normalizePath(relativePath);
+		if(path.isEmpty()) {
+			repoStatus.fullDirty = true;
+		} else {
+			repoStatus.markChanged(path);
+		}
+	}
+
+	static void evict(Path gitRepoPath) {
+		RepoStatus repoStatus = null;
+		synchronized(REPOS) {
+			repoStatus = REPOS.remove(gitRepoPath.toAbsolutePath().normalize());
+		}
+		if(repoStatus != null) {
+			repoStatus.unwatch();
+		}
+	}
+
+	static void clear() {
+		List<RepoStatus> repos = null;
+		synchronized(REPOS) {
+			repos = new ArrayList<RepoStatus>(REPOS.values());
+			REPOS.clear();
+		}
+		repos.forEach(RepoStatus::unwatch);
+	}
+
+	/**
+	 * 处理所有仓库已产生的文件变化事件
+	 */
+	private static void processEvents() {
+		synchronized(WATCH_LOCK) {
+			if(watchService == null) {
+				return;
+			}
+			WatchKey key = null;
+			while((key = watchService.poll()) != null) {
+				WatchedDir watchedDir = WATCHED_DIRS.get(key);
+				if(watchedDir == null) {
+					key.pollEvents();
+					key.cancel();
+					continue;
+				}
+
+				RepoStatus repoStatus = watchedDir.repoStatus;
+				for(WatchEvent<?> event : key.pollEvents()) {
+					if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						repoStatus.fullDirty = true;
+						continue;
+					}
+					Path child = watchedDir.dir.resolve((Path) event.context());
+					Path relativePath = repoStatus.root.relativize(child);
+					if(relativePath.getName(0).toString().equals(Constants.DOT_GIT)) {
+						continue;
+					}
+					repoStatus.markChanged(relativePath.toString().replace('\\', '/'));
+
+					// 新建的文件夹也需要监听
+					if(event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+						try {
+							register(repoStatus, child);
+						} catch (IOException e) {
+							logger.warn("监听文件夹失败，不再缓存仓库的文件状态 " + child, e);
+							cancel(repoStatus);
+						}
+					}
+				}
+				if(!key.reset()) {
+					WATCHED_DIRS.remove(key);
+					repoStatus.watchKeys.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 监听工作区中的所有文件夹，不包括 .git 文件夹
+	 *
+	 * @return 如果监听成功则返回 true，否则返回 false
+	 */
+	private static boolean watch(RepoStatus repoStatus) {
+		synchronized(WATCH_LOCK) {
+			if(watchUnsupported) {
+				return false;
+			}
+			try {
+				if(watchService == null) {
+					watchService = FileSystems.getDefault().newWatchService();
+					// 轮询实现的 WatchService 会延迟数秒才能发现变化，此时不能使用缓存
+					if(watchService.getClass().getSimpleName().startsWith("Polling")) {
+						logger.info("当前平台的 WatchService 基于轮询实现，不缓存仓库的文件状态");
+						watchUnsupported = true;
+						watchService.close();
+						watchService = null;
+						return false;
+					}
+				}
+				register(repoStatus, repoStatus.root);
+				return true;
+			} catch (IOException | UnsupportedOperationException e) {
+				logger.warn("监听仓库失败，不缓存仓库的文件状态 " + repoStatus.root, e);
+				cancel(repoStatus);
+				return false;
+			}
+		}
+	}
+
+	private static void register(RepoStatus repoStatus, Path start) throws IOException {
+		Path gitDir = repoStatus.root.resolve(Constants.DOT_GIT);
+		Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				if(dir.equals(gitDir)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				WatchKey key = dir.register(watchService,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE,
+						StandardWatchEventKinds.ENTRY_MODIFY);
+				WATCHED_DIRS.put(key, new WatchedDir(repoStatus, dir));
+				repoStatus.watchKeys.add(key);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static void cancel(RepoStatus repoStatus) {
+		repoStatus.watchKeys.forEach(key -> {
+			key.cancel();
+			WATCHED_DIRS.remove(key);
+		});
+		repoStatus.watchKeys.clear();
+		repoStatus.watching = false;
+		repoStatus.fullDirty = true;
+	}
+
+	private static class WatchedDir {
+		private final RepoStatus repoStatus;
+		private final Path dir;
+
+		private WatchedDir(RepoStatus repoStatus, Path dir) {
+			this.repoStatus = repoStatus;
+			this.dir = dir;
+		}
+	}
+
+	private static class RepoStatus {
+		private final Path root;
+		private final Path indexFile;
+
+		/**
+		 * 在 synchronized(WATCH_LOCK) 中读写
+		 */
+		private final Set<WatchKey> watchKeys = new HashSet<WatchKey>();
+		private volatile boolean watching = false;
+
+		/**
+		 * 处理事件时不持有 RepoStatus 的锁，所以使用线程安全的集合
+		 */
+		private volatile boolean fullDirty = true;
+		private final Set<String> changedEntries = ConcurrentHashMap.newKeySet();
+
+		/**
+		 * 以下字段在 synchronized(this) 中读写
+		 */
+		private Map<String, GitFileStatus> cache;
+		private FileSnapshot indexSnapshot;
+		private ObjectId head;
+
+		private RepoStatus(Path root) {
+			this.root = root;
+			this.indexFile = root.resolve(Constants.DOT_GIT).resolve("index");
+		}
+
+		/**
+		 * 只记录发生变化的顶层文件或文件夹
+		 */
+		private void markChanged(String relativePath) {
+			String entry = StringUtils.substringBefore(relativePath, "/");
+			if(entry.equals(Constants.DOT_GIT_IGNORE)) {
+				fullDirty = true;
+			} else {
+				changedEntries.add(entry);
+			}
+		}
+
+		private synchronized Map<String, GitFileStatus> get(String relativeDir) {
+			if(!watching) {
+				watching = watch(this);
+			}
+			if(!watching) {
+				cache = null;
+				return new GitStatus(root, relativeDir).execute();
+			}
+
+			try {
+				ObjectId currentHead = resolveHead();
+				if(cache == null || fullDirty || indexSnapshot.isModified(indexFile.toFile()) || !Objects.equals(head, currentHead)) {
+					// 先清除标记再获取状态，获取状态期间发生的变化留到下次查询时处理
+					fullDirty = false;
+					changedEntries.clear();
+					FileSnapshot snapshot = FileSnapshot.save(indexFile.toFile());
+					cache = new GitStatus(root, "").execute();
+					indexSnapshot = snapshot;
+					head = currentHead;
+				} else if(!changedEntries.isEmpty()) {
+					List<String> entries = new ArrayList<String>(changedEntries);
+					changedEntries.removeAll(entries);
+					Map<String, GitFileStatus> changed = new GitStatus(root, entries).execute();
+					cache.keySet().removeIf(path -> entries.stream().anyMatch(entry -> isSameOrChild(path, entry)));
+					cache.putAll(changed);
+				}
+			} catch (RuntimeException e) {
+				cache = null;
+				throw e;
+			}
+
+			return filter(relativeDir);
+		}
+
+		/**
+		 * 与 git status 指定路径时的结果相同：包含该路径以及下级路径，当上级文件夹未跟踪时也包含上级文件夹
+		 */
+		private Map<String, GitFileStatus> filter(String relativeDir) {
+			if(relativeDir.isEmpty()) {
+				return new HashMap<String, GitFileStatus>(cache);
+			}
+			Map<String, GitFileStatus> result = new HashMap<String, GitFileStatus>();
+			cache.forEach((path, status) -> {
+				if(isSameOrChild(path, relativeDir) ||
+						(status == GitFileStatus.UNTRACKED && relativeDir.startsWith(path + "/"))) {
+					result.put(path, status);
+				}
+			});
+			return result;
+		}
+
+		private ObjectId resolveHead() {
+			try(Repository repo = GitRepositoryPool.open(root)) {
+				return repo.resolve(Constants.HEAD);
+			} catch (IOException e) {
+				logger.error("仓库不存在", e);
+				throw new GitRepoNotFoundException(root.toString());
+			}
+		}
+
+		private void unwatch() {
+			synchronized(WATCH_LOCK) {
+				cancel(this);
+			}
+		}
+
+		private static boolean isSameOrChild(String path, String parent) {
+			return path.equals(parent) || path.startsWith(parent + "/");
+		}
+	}
+}
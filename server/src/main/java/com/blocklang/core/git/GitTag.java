@@ -7,43 +7,50 @@ import java.util.Optional;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 
 import com.blocklang.core.git.exception.GitTagFailedException;
 
 public class GitTag {
 
 	public int getCount(Path gitRepoPath) {
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
-			 Git git = new Git(repo)){
-			return git.tagList().call().size();
-		} catch (IOException | GitAPIException e) {
+		return getTagList(gitRepoPath).getCount();
+	}
+	
+	/**
+	 * 获取仓库的 tag 列表，已按语义化版本排序。只有 tag 发生变化时才重新加载。
+	 * 
+	 * @param gitRepoPath git 仓库的根目录
+	 * @return tag 列表
+	 */
+	public GitTagList getTagList(Path gitRepoPath) {
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath)){
+			return GitTagIndex.get(repo).getTagList(repo);
+		} catch (IOException e) {
 			throw new GitTagFailedException(e);
 		}
 	}
 
 	public Ref tag(Path gitRepoPath, String tagName, String message) {
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath);
 			 Git git = new Git(repo)){
-			return git.tag().setName(tagName).setMessage(message).call();
+			Ref ref = git.tag().setName(tagName).setMessage(message).call();
+			GitTagIndex.get(repo).invalidate();
+			return ref;
 		} catch (IOException | GitAPIException e) {
 			throw new GitTagFailedException(e);
 		}
 	}
 	
 	public RevCommit tagThenReturnCommit(Path gitRepoPath, String tagName, String message) {
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath);
 			 Git git = new Git(repo);
 			 RevWalk walk = new RevWalk(repo)){
 			Ref ref =  git.tag().setName(tagName).setMessage(message).call();
+			GitTagIndex.get(repo).invalidate();
 			return walk.parseCommit(ref.getObjectId());
 		} catch (IOException | GitAPIException e) {
 			throw new GitTagFailedException(e);
@@ -51,8 +58,7 @@ public class GitTag {
 	}
 
 	public Optional<Ref> getTag(Path gitRepoPath, String tagName) {
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile())) {
+		try (Repository repo = GitRepositoryPool.open(gitRepoPath)) {
 			Ref tag = repo.findRef(tagName);
 			return Optional.ofNullable(tag);
 		} catch (IOException e) {
@@ -60,27 +66,17 @@ public class GitTag {
 		}
 	}
 
+	/**
+	 * 获取最新的 tag，按语义化版本比较，详见 {@link GitTagList#getLatestTag()}
+	 * 
+	 * @param gitRepoPath git 仓库的根目录
+	 * @return 最新的 tag
+	 */
 	public Optional<Ref> getLatestTag(Path gitRepoPath) {
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
-			 Git git = new Git(repo)){
-			List<Ref> tags = git.tagList().call();
-			if(tags.isEmpty()) {
-				return Optional.empty();
-			}
-			return Optional.ofNullable(tags.get(tags.size() - 1));
-		} catch (IOException | GitAPIException e) {
-			throw new GitTagFailedException(e);
-		}
+		return getTagList(gitRepoPath).getLatestTag();
 	}
 	
 	public List<Ref> getTags(Path gitRepoPath) {
-		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT);
-		try (Repository repo = FileRepositoryBuilder.create(gitDir.toFile());
-			 Git git = new Git(repo)){
-			return git.tagList().call();
-		} catch (IOException | GitAPIException e) {
-			throw new GitTagFailedException(e);
-		}
+		return getTagList(gitRepoPath).getTags();
 	}
 }
@@ -0,0 +1,143 @@
+package com.blocklang.core.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.internal.storage.file.FileSnapshot;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * 缓存 git 仓库的 tag 列表。
+ *
+ * <p>
+ * tag 保存在 .git/packed-refs 文件和 .git/refs/tags 文件夹中，
+ * 记录 packed-refs 文件和 refs/tags 下所有文件夹的 {@link FileSnapshot}，
+ * 新增、删除 tag 或打包引用时，文件或文件夹的修改时间会改变，此时重新加载 tag 列表。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+class GitTagIndex {
+
+	private static final String PACKED_REFS = "packed-refs";
+
+	/**
+	 * 最多缓存的仓库数，与仓库对象池的容量相同
+	 */
+	private static final Map<Path, GitTagIndex> INDEXES = new LinkedHashMap<Path, GitTagIndex>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, GitTagIndex> eldest) {
+			return size() > GitRepositoryPool.MAX_OPEN_REPOSITORIES;
+		}
+	};
+
+	private final File packedRefsFile;
+	private final File tagsDir;
+
+	private GitTagList tagList;
+	private FileSnapshot packedRefsSnapshot;
+	/**
+	 * key 为 refs/tags 及其下的文件夹
+	 */
+	private Map<File, FileSnapshot> tagsDirSnapshots;
+
+	private GitTagIndex(Path gitDir) {
+		this.packedRefsFile = gitDir.resolve(PACKED_REFS).toFile();
+		this.tagsDir = gitDir.resolve(Constants.R_TAGS).toFile();
+	}
+
+	static GitTagIndex get(Repository repository) {
+		Path gitDir = repository.getDirectory().toPath().toAbsolutePath().normalize();
+		synchronized(INDEXES) {
+			return INDEXES.computeIfAbsent(gitDir, GitTagIndex::new);
+		}
+	}
+
+	static void evict(Path gitRepoPath) {
+		Path gitDir = gitRepoPath.resolve(Constants.DOT_GIT).toAbsolutePath().normalize();
+		synchronized(INDEXES) {
+			INDEXES.remove(gitDir);
+		}
+	}
+
+	/**
+	 * 获取仓库的 tag 列表，如果 tag 没有变化，则直接返回缓存的列表
+	 *
+	 * @param repository 仓库
+	 * @return tag 列表
+	 * @throws IOException
+	 */
+	synchronized GitTagList getTagList(Repository repository) throws IOException {
+		if(tagList != null && !isModified()) {
+			return tagList;
+		}
+
+		// 先记录快照再读取，读取期间发生的变化在下次获取时会重新加载
+		FileSnapshot packedRefs = FileSnapshot.save(packedRefsFile);
+		Map<File, FileSnapshot> tagsDirs = snapshotTagsDirs();
+
+		List<Ref> tags = new ArrayList<Ref>(repository.getRefDatabase().getRefsByPrefix(Constants.R_TAGS));
+		tags.sort(Comparator.comparing(Ref::getName));
+		tagList = new GitTagList(tags);
+		packedRefsSnapshot = packedRefs;
+		tagsDirSnapshots = tagsDirs;
+		return tagList;
+	}
+
+	/**
+	 * 本程序新增 tag 后，使缓存失效
+	 */
+	synchronized void invalidate() {
+		tagList = null;
+	}
+
+	private boolean isModified() {
+		if(packedRefsSnapshot.isModified(packedRefsFile)) {
+			return true;
+		}
+		Map<File, FileSnapshot> current = new LinkedHashMap<File, FileSnapshot>();
+		collectDirs(tagsDir, current, false);
+		if(!current.keySet().equals(tagsDirSnapshots.keySet())) {
+			return true;
+		}
+		for(Map.Entry<File, FileSnapshot> entry : tagsDirSnapshots.entrySet()) {
+			if(entry.getValue().isModified(entry.getKey())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Map<File, FileSnapshot> snapshotTagsDirs() {
+		Map<File, FileSnapshot> result = new LinkedHashMap<File, FileSnapshot>();
+		collectDirs(tagsDir, result, true);
+		return result;
+	}
+
+	/**
+	 * tag 名中可以包含 /，此时会在 refs/tags 下创建子文件夹
+	 */
+	private void collectDirs(File dir, Map<File, FileSnapshot> result, boolean snapshot) {
+		if(!dir.isDirectory()) {
+			return;
+		}
+		result.put(dir, snapshot ? FileSnapshot.save(dir) : null);
+		File[] children = dir.listFiles(File::isDirectory);
+		if(children == null) {
+			return;
+		}
+		for(File child : children) {
+			collectDirs(child, result, snapshot);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.blocklang.core.git;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.lib.Ref;
+
+import de.skuzzle.semantic.Version;
+
+/**
+ * git 仓库中所有 tag 的列表，创建时已解析出每个 tag 的版本号，并按语义化版本排序。
+ *
+ * <p>
+ * tag 名去掉 v 前缀后是有效的语义化版本号时，才参与排序，其中正式版本和预发布版本分开存放；
+ * 其余 tag 只出现在 {@link #getTags()} 中。
+ * </p>
+ *
+ * <p>
+ * 创建后不再修改，可以在多个线程之间共享。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+public class GitTagList {
+
+	private static final Comparator<VersionedTag> VERSION_ORDER = (tag1, tag2) -> Version.compare(tag1.version, tag2.version);
+
+	private final List<Ref> tags;
+	private final List<VersionedTag> releases;
+	private final List<VersionedTag> preReleases;
+
+	/**
+	 *
+	 * @param tags 按 tag 名排序的 tag 列表
+	 */
+	GitTagList(List<Ref> tags) {
+		this.tags = Collections.unmodifiableList(new ArrayList<Ref>(tags));
+
+		List<VersionedTag> releases = new ArrayList<VersionedTag>();
+		List<VersionedTag> preReleases = new ArrayList<VersionedTag>();
+		for(Ref tag : tags) {
+			GitUtils.getVersionFromRefName(tag.getName())
+				.filter(Version::isValidVersion)
+				.map(version -> new VersionedTag(tag, version))
+				.ifPresent(versionedTag -> {
+					if(versionedTag.version.isPreRelease()) {
+						preReleases.add(versionedTag);
+					} else {
+						releases.add(versionedTag);
+					}
+				});
+		}
+		releases.sort(VERSION_ORDER);
+		preReleases.sort(VERSION_ORDER);
+		this.releases = Collections.unmodifiableList(releases);
+		this.preReleases = Collections.unmodifiableList(preReleases);
+	}
+
+	/**
+	 * 获取所有 tag，按 tag 名排序
+	 *
+	 * @return tag 列表
+	 */
+	public List<Ref> getTags() {
+		return tags;
+	}
+
+	public int getCount() {
+		return tags.size();
+	}
+
+	/**
+	 * 获取最新的 tag。
+	 *
+	 * 优先返回版本号最大的正式版本，如果没有正式版本，则返回版本号最大的预发布版本，
+	 * 如果都不是有效的语义化版本，则返回按 tag 名排序的最后一个 tag。
+	 *
+	 * @return 最新的 tag
+	 */
+	public Optional<Ref> getLatestTag() {
+		if(!releases.isEmpty()) {
+			return Optional.of(releases.get(releases.size() - 1).ref);
+		}
+		if(!preReleases.isEmpty()) {
+			return Optional.of(preReleases.get(preReleases.size() - 1).ref);
+		}
+		if(!tags.isEmpty()) {
+			return Optional.of(tags.get(tags.size() - 1));
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * 获取所有正式版本的 tag，按版本号从小到大排序
+	 *
+	 * @return tag 列表
+	 */
+	public List<Ref> getReleaseTags() {
+		return releases.stream().map(tag -> tag.ref).collect(Collectors.toList());
+	}
+
+	/**
+	 * 获取所有有效的版本号，包括预发布版本，按版本号从小到大排序
+	 *
+	 * @return 版本号列表，不包含 v 前缀，可以修改返回的列表
+	 */
+	public List<String> getVersions() {
+		List<VersionedTag> all = new ArrayList<VersionedTag>(releases.size() + preReleases.size());
+		all.addAll(releases);
+		all.addAll(preReleases);
+		all.sort(VERSION_ORDER);
+		return all.stream().map(tag -> tag.versionName).collect(Collectors.toList());
+	}
+
+	/**
+	 * 获取所有正式版本的版本号，按版本号从小到大排序
+	 *
+	 * @return 版本号列表，不包含 v 前缀，可以修改返回的列表
+	 */
+	public List<String> getReleaseVersions() {
+		return releases.stream().map(tag -> tag.versionName).collect(Collectors.toList());
+	}
+
+	/**
+	 * 获取所有预发布版本的版本号，按版本号从小到大排序
+	 *
+	 * @return 版本号列表，不包含 v 前缀，可以修改返回的列表
+	 */
+	public List<String> getPreReleaseVersions() {
+		return preReleases.stream().map(tag -> tag.versionName).collect(Collectors.toList());
+	}
+
+	/**
+	 * 获取不是有效语义化版本的 tag 名
+	 *
+	 * @return tag 名列表，不包含 refs/tags/ 前缀
+	 */
+	public List<String> getInvalidVersionTagNames() {
+		List<Ref> versioned = new ArrayList<Ref>();
+		releases.forEach(tag -> versioned.add(tag.ref));
+		preReleases.forEach(tag -> versioned.add(tag.ref));
+		return tags.stream()
+				.filter(tag -> !versioned.contains(tag))
+				.map(tag -> GitUtils.getTagName(tag.getName()).orElse(tag.getName()))
+				.collect(Collectors.toList());
+	}
+
+	private static class VersionedTag {
+		private final Ref ref;
+		private final String versionName;
+		private final Version version;
+
+		private VersionedTag(Ref ref, String versionName) {
+			this.ref = ref;
+			this.versionName = versionName;
+			this.version = Version.parseVersion(versionName);
+		}
+	}
+}
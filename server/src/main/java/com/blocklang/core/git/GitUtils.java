@@ -2,6 +2,7 @@ package com.blocklang.core.git;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -9,6 +10,7 @@ import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.api.Git;
@@ -26,7 +28,7 @@ import com.blocklang.core.constant.GitFileStatus;
 /**
  * git 帮助类，本工具类适合每次对 git 仓库做一个操作。
  * 如果需要连续为仓库做多个操作，可考虑在这里添加常用的组合。
- * 因为每个操作都需要做初始化 Repository 的操作，所以当需要连续多个操作时，性能并不是最优的。
+ * 所有操作都从 {@link GitRepositoryPool} 中获取 Repository，连续多个操作时会复用同一个 Repository。
  * 
  * @author Zhengwei Jin
  */
@@ -51,7 +53,7 @@ public class GitUtils {
 	
 	public static int getLogCount(Path gitRootFolder){
 		GitLog gitLog = new GitLog();
-		return gitLog.getCount(gitRootFolder);
+		return GitRepositoryLocks.read(gitRootFolder, () -> gitLog.getCount(gitRootFolder));
 	}
 
 	/**
@@ -63,7 +65,7 @@ public class GitUtils {
 	 */
 	public static String init(Path gitRepoPath, String gitUserName, String gitUserMail){
 		GitInit gitInit = new GitInit();
-		return gitInit.execute(gitRepoPath, gitUserName, gitUserMail);
+		return GitRepositoryLocks.write(gitRepoPath, () -> gitInit.execute(gitRepoPath, gitUserName, gitUserMail));
 	}
 	
 	public static GitInit beginInit(Path gitRepoPath, String gitUserName, String gitUserMail) {
@@ -91,7 +93,7 @@ public class GitUtils {
 			String authorMail, 
 			String commitMessage){
 		GitCommit gitCommit = new GitCommit();
-		return gitCommit.execute(gitRootPath, relativePath, fileName, fileContent, authorName, authorMail, commitMessage);
+		return GitRepositoryLocks.write(gitRootPath, () -> gitCommit.execute(gitRootPath, relativePath, fileName, fileContent, authorName, authorMail, commitMessage));
 	}
 	
 	public static String commit(
@@ -100,7 +102,21 @@ public class GitUtils {
 			String authorMail,
 			String commitMessage) {
 		GitCommit gitCommit = new GitCommit();
-		return gitCommit.execute(gitRepoPath, authorName, authorMail, commitMessage);
+		return GitRepositoryLocks.write(gitRepoPath, () -> gitCommit.execute(gitRepoPath, authorName, authorMail, commitMessage));
+	}
+	
+	/**
+	 * 一次提交多个文件，直接写入 git 对象库，不需要先写入工作区再逐个 add。
+	 * 
+	 * 调用 {@link GitBatchCommit#commit(String)} 时才会执行提交。
+	 * 
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param authorName 作者名称
+	 * @param authorMail 作者邮箱
+	 * @return 批量提交对象
+	 */
+	public static GitBatchCommit beginCommit(Path gitRepoPath, String authorName, String authorMail) {
+		return new GitBatchCommit(gitRepoPath, authorName, authorMail);
 	}
 	
 	/**
@@ -110,12 +126,12 @@ public class GitUtils {
 	 */
 	public static void pull(Path gitRepoPath){
 		GitPull gitPull = new GitPull();
-		gitPull.execute(gitRepoPath, false);
+		GitRepositoryLocks.write(gitRepoPath, () -> gitPull.execute(gitRepoPath, false));
 	}
 	
 	public static void pullWithTag(Path gitRepoPath) {
 		GitPull gitPull = new GitPull();
-		gitPull.execute(gitRepoPath, true);
+		GitRepositoryLocks.write(gitRepoPath, () -> gitPull.execute(gitRepoPath, true));
 	}
 
 	/**
@@ -126,37 +142,62 @@ public class GitUtils {
 	 */
 	public static void delete(String gitRepoPath) throws IOException {
 		File file = new File(gitRepoPath);
-		FileUtils.delete(file, FileUtils.RECURSIVE);
+		try {
+			GitRepositoryLocks.write(file.toPath(), () -> {
+				GitRepositoryPool.evict(file.toPath());
+				GitLastCommitIndex.evict(file.toPath());
+				GitStatusCache.evict(file.toPath());
+				GitTagIndex.evict(file.toPath());
+				try {
+					FileUtils.delete(file, FileUtils.RECURSIVE);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
 	}
 
 	public static int getTagCount(Path gitRepoPath) {
 		GitTag gitTag = new GitTag();
-		return gitTag.getCount(gitRepoPath);
+		return GitRepositoryLocks.read(gitRepoPath, () -> gitTag.getCount(gitRepoPath));
 	}
 
 	public static Ref tag(Path gitRepoPath, String tagName, String message) {
 		GitTag gitTag = new GitTag();
-		return gitTag.tag(gitRepoPath, tagName, message);
+		return GitRepositoryLocks.write(gitRepoPath, () -> gitTag.tag(gitRepoPath, tagName, message));
 	}
 	
 	public static String tagThenReturnCommitId(Path gitRepoPath, String tagName, String message) {
 		GitTag gitTag = new GitTag();
-		return gitTag.tagThenReturnCommit(gitRepoPath, tagName, message).getName();
+		return GitRepositoryLocks.write(gitRepoPath, () -> gitTag.tagThenReturnCommit(gitRepoPath, tagName, message).getName());
 	}
 
 	public static Optional<Ref> getTag(Path gitRepoPath, String tagName) {
 		GitTag gitTag = new GitTag();
-		return gitTag.getTag(gitRepoPath, tagName);
+		return GitRepositoryLocks.read(gitRepoPath, () -> gitTag.getTag(gitRepoPath, tagName));
 	}
 	
 	public static Optional<Ref> getLatestTag(Path gitRepoPath) {
 		GitTag gitTag = new GitTag();
-		return gitTag.getLatestTag(gitRepoPath);
+		return GitRepositoryLocks.read(gitRepoPath, () -> gitTag.getLatestTag(gitRepoPath));
+	}
+	
+	/**
+	 * 获取仓库的 tag 列表，已解析出版本号并按语义化版本排序
+	 * 
+	 * @param gitRepoPath git 仓库的根目录
+	 * @return tag 列表
+	 */
+	public static GitTagList getTagList(Path gitRepoPath) {
+		GitTag gitTag = new GitTag();
+		return GitRepositoryLocks.read(gitRepoPath, () -> gitTag.getTagList(gitRepoPath));
 	}
 	
 	public static List<Ref> getTags(Path gitRepoPath) {
 		GitTag gitTag = new GitTag();
-		return gitTag.getTags(gitRepoPath);
+		return GitRepositoryLocks.read(gitRepoPath, () -> gitTag.getTags(gitRepoPath));
 	}
 	
 	/**
@@ -167,7 +208,7 @@ public class GitUtils {
 	 */
 	public static void clone(String remoteGitUrl, Path localFolderPath) {
 		GitClone gitClone = new GitClone();
-		gitClone.execute(remoteGitUrl, localFolderPath);
+		GitRepositoryLocks.write(localFolderPath, () -> gitClone.execute(remoteGitUrl, localFolderPath));
 	}
 	
 	/**
@@ -178,7 +219,7 @@ public class GitUtils {
 	 */
 	public static RevCommit getLatestCommit(Path gitRepoPath) {
 		GitCommit commit = new GitCommit();
-		return commit.getLatestCommit(gitRepoPath);
+		return GitRepositoryLocks.read(gitRepoPath, () -> commit.getLatestCommit(gitRepoPath));
 	}
 
 	/**
@@ -189,7 +230,7 @@ public class GitUtils {
 	 */
 	public static RevCommit getLatestCommit(Path gitRepoPath, String relativeFilePath) {
 		GitCommit commit = new GitCommit();
-		return commit.getLatestCommit(gitRepoPath, relativeFilePath);
+		return GitRepositoryLocks.read(gitRepoPath, () -> commit.getLatestCommit(gitRepoPath, relativeFilePath));
 	}
 	
 	/**
@@ -200,7 +241,19 @@ public class GitUtils {
 	 */
 	public static List<GitFileInfo> getFiles(Path gitRepoPath, String relativeDir) {
 		GitFile file = new GitFile(gitRepoPath, relativeDir);
-		return file.execute();
+		return GitRepositoryLocks.read(gitRepoPath, file::execute);
+	}
+	
+	/**
+	 * 获取 master 分支中 relativeDir 下的所有文件和文件夹，递归查找，包含每个路径的最近一次提交信息
+	 * 
+	 * @param gitRepoPath
+	 * @param relativeDir 传入 null 表示根目录
+	 * @return 文件和文件夹列表，path 为相对仓库根目录的路径
+	 */
+	public static List<GitFileInfo> getAllFiles(Path gitRepoPath, String relativeDir) {
+		GitFile file = new GitFile(gitRepoPath, relativeDir);
+		return GitRepositoryLocks.read(gitRepoPath, file::getAllFiles);
 	}
 	
 	/**
@@ -213,7 +266,7 @@ public class GitUtils {
 	 */
 	public static List<GitFileInfo> getAllFilesFromTag(Path gitRepoPath, String refName, String pathSuffix) {
 		GitFile file = new GitFile(gitRepoPath, null);
-		return file.getAllFilesFromTag(refName, pathSuffix);
+		return GitRepositoryLocks.read(gitRepoPath, () -> file.getAllFilesFromTag(refName, pathSuffix));
 	}
 	
 	/**
@@ -225,12 +278,12 @@ public class GitUtils {
 	 */
 	public static Optional<GitBlobInfo> getBlob(Path gitRepoPath, String ref, String filePath) {
 		GitBlob blob = new GitBlob(gitRepoPath, ref, filePath);
-		return blob.execute();
+		return GitRepositoryLocks.read(gitRepoPath, blob::execute);
 	}
 	
 	public static List<GitBlobInfo> loadDataFromTag(Path gitRepoPath, String refName, List<GitFileInfo> files) {
 		GitBlob blob = new GitBlob(gitRepoPath, refName);
-		return blob.loadDataFromTag(files);
+		return GitRepositoryLocks.read(gitRepoPath, () -> blob.loadDataFromTag(files));
 	}
 	
 	/**
@@ -241,8 +294,17 @@ public class GitUtils {
 	 * @return
 	 */
 	public static Map<String, GitFileStatus> status(Path gitRepoPath, String relativeDir){
-		GitStatus status = new GitStatus(gitRepoPath, relativeDir);
-		return status.execute();
+		return GitRepositoryLocks.read(gitRepoPath, () -> GitStatusCache.status(gitRepoPath, relativeDir));
+	}
+	
+	/**
+	 * 在程序中直接修改工作区中的文件后，需调用此方法通知文件状态的缓存失效
+	 * 
+	 * @param gitRepoPath git 仓库的根目录
+	 * @param relativePath 相对仓库根目录的文件或文件夹路径，传入 null 表示整个仓库
+	 */
+	public static void markChanged(Path gitRepoPath, String relativePath) {
+		GitStatusCache.markChanged(gitRepoPath, relativePath);
 	}
 
 	/**
@@ -252,12 +314,12 @@ public class GitUtils {
 	 */
 	public static void add(Path gitRepoPath, String filePattern) {
 		GitAdd add = new GitAdd(gitRepoPath);
-		add.execute(filePattern);
+		GitRepositoryLocks.write(gitRepoPath, () -> add.execute(filePattern));
 	}
 	
 	public static void add(Path gitRepoPath, String[] filePatterns) {
 		GitAdd add = new GitAdd(gitRepoPath);
-		add.execute(filePatterns);
+		GitRepositoryLocks.write(gitRepoPath, () -> add.execute(filePatterns));
 	}
 
 	/**
@@ -267,17 +329,30 @@ public class GitUtils {
 	 */
 	public static void remove(Path gitRepoPath, String filePattern) {
 		GitRemove remove = new GitRemove(gitRepoPath);
-		remove.execute(filePattern);
+		GitRepositoryLocks.write(gitRepoPath, () -> remove.execute(filePattern));
 	}
 	
 	public static void removeFromIndex(Path gitRepoPath, String[] filePatterns) {
 		GitRemove remove = new GitRemove(gitRepoPath);
-		remove.removeFromIndex(filePatterns);
+		GitRepositoryLocks.write(gitRepoPath, () -> remove.removeFromIndex(filePatterns));
 	}
 	
 	public static void reset(Path gitRepoPath, String[] pathes){
 		GitReset reset = new GitReset(gitRepoPath);
-		reset.execute(pathes);
+		GitRepositoryLocks.write(gitRepoPath, () -> reset.execute(pathes));
+	}
+	
+	/**
+	 * 如果松散对象或 pack 文件过多，则执行 git gc。
+	 * 
+	 * gc 期间可以读取仓库，但不能修改仓库；如果仓库正在被修改，则跳过本次 gc。
+	 * 
+	 * @param gitRepoPath git 仓库的根目录
+	 * @return 执行结果，如果不需要执行或者仓库正在被修改，则返回 <code>Optional.empty()</code>
+	 */
+	public static Optional<GitGcResult> gc(Path gitRepoPath) {
+		GitGc gc = new GitGc(gitRepoPath);
+		return GitRepositoryLocks.tryRead(gitRepoPath, gc::execute).flatMap(Function.identity());
 	}
 	
 	// 暂时不要删除此代码
@@ -353,7 +428,7 @@ public class GitUtils {
 
 	public static void checkout(Path gitRepoPath, String branchOrTagName) {
 		GitCheckout checkout = new GitCheckout();
-		checkout.execute(gitRepoPath, branchOrTagName);
+		GitRepositoryLocks.write(gitRepoPath, () -> checkout.execute(gitRepoPath, branchOrTagName));
 	}
 	
 }
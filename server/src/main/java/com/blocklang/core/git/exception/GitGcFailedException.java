@@ -0,0 +1,18 @@
+package com.blocklang.core.git.exception;
+
+public class GitGcFailedException extends RuntimeException {
+
+	private static final long serialVersionUID = 7843160093356207617L;
+
+	public GitGcFailedException(String msg){
+		super(msg);
+	}
+
+	public GitGcFailedException(Throwable cause){
+		super(cause);
+	}
+
+	public GitGcFailedException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+}
@@ -0,0 +1,18 @@
+package com.blocklang.core.git.exception;
+
+public class GitLockTimeoutException extends RuntimeException {
+
+	private static final long serialVersionUID = -2368712431987540125L;
+
+	public GitLockTimeoutException(String msg){
+		super(msg);
+	}
+
+	public GitLockTimeoutException(Throwable cause){
+		super(cause);
+	}
+
+	public GitLockTimeoutException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+}
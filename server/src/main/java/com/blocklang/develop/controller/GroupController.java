@@ -20,12 +20,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.blocklang.core.constant.Constant;
 import com.blocklang.core.controller.SpringMvcUtil;
@@ -42,6 +46,8 @@ import com.blocklang.develop.data.NewGroupParam;
 import com.blocklang.develop.model.Project;
 import com.blocklang.develop.model.ProjectResource;
 import com.blocklang.develop.service.ProjectResourceService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 public class GroupController extends AbstractProjectController{
@@ -54,6 +60,8 @@ public class GroupController extends AbstractProjectController{
 	private UserService userService;
 	@Autowired
 	private MessageSource messageSource;
+	@Autowired
+	private ObjectMapper objectMapper;
 	
 	@PostMapping("/projects/{owner}/{projectName}/groups/check-key")
 	public ResponseEntity<Map<String, String>> checkKey(
@@ -285,6 +293,68 @@ public class GroupController extends AbstractProjectController{
 		return ResponseEntity.ok(result);
 	}
 
+	/**
+	 * 获取资源树，一次返回分组下的所有下级资源，下级资源保存在 children 中。
+	 * 
+	 * 如果请求头 If-None-Match 中的 ETag 与资源树当前的 ETag 相同，则返回 304。
+	 * 
+	 * @param user
+	 * @param owner
+	 * @param projectName
+	 * @param depth 返回的层数，1 表示只返回直接子资源，不传时返回所有层级
+	 * @param req
+	 * @param webRequest
+	 * @return
+	 */
+	@GetMapping("/projects/{owner}/{projectName}/tree/**")
+	public ResponseEntity<Map<String, Object>> getResourceTree(
+			Principal user,
+			@PathVariable String owner,
+			@PathVariable String projectName,
+			@RequestParam(required = false) Integer depth,
+			HttpServletRequest req,
+			WebRequest webRequest) {
+		
+		Project project = projectService.find(owner, projectName).orElseThrow(ResourceNotFoundException::new);
+		projectPermissionService.canRead(user, project).orElseThrow(NoAuthorizationException::new);
+		
+		String groupPath = SpringMvcUtil.getRestUrl(req, 4);
+		Map<String, Object> result = getGroupIdAndParentPath(project.getId(), groupPath);
+		Integer groupId = (Integer) result.get("id");
+		
+		List<ProjectResource> tree = projectResourceService.findTree(project, groupId, depth);
+		setMessageSource(tree);
+		result.put("childResources", tree);
+		
+		// 资源树中包含文件状态和最近提交信息，所以根据返回的内容计算 ETag
+		String eTag = null;
+		try {
+			eTag = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(result));
+		} catch (JsonProcessingException e) {
+			logger.error("计算资源树的 ETag 时出错", e);
+		}
+		if(eTag != null && webRequest.checkNotModified(eTag)) {
+			// 已设置为 304
+			return null;
+		}
+		
+		BodyBuilder builder = ResponseEntity.ok();
+		if(eTag != null) {
+			builder.eTag(eTag);
+		}
+		return builder.body(result);
+	}
+	
+	private void setMessageSource(List<ProjectResource> resources) {
+		if(resources == null) {
+			return;
+		}
+		resources.forEach(projectResource -> {
+			projectResource.setMessageSource(messageSource);
+			setMessageSource(projectResource.getChildren());
+		});
+	}
+
 	@GetMapping("/projects/{owner}/{projectName}/group-path/**")
 	public ResponseEntity<Map<String, Object>> getGroupPath(
 			Principal user,
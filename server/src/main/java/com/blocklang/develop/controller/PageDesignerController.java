@@ -10,27 +10,35 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
+import org.springframework.http.ResponseEntity.HeadersBuilder;
 import org.springframework.util.ResourceUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.blocklang.core.constant.CmPropKey;
 import com.blocklang.core.exception.NoAuthorizationException;
+import com.blocklang.core.exception.PreconditionRequiredException;
 import com.blocklang.core.exception.ResourceNotFoundException;
 import com.blocklang.core.service.PropertyService;
 import com.blocklang.develop.designer.data.Dependence;
 import com.blocklang.develop.designer.data.PageModel;
 import com.blocklang.develop.designer.data.RepoWidgetList;
+import com.blocklang.develop.designer.data.VersionedPageModel;
 import com.blocklang.develop.model.Project;
 import com.blocklang.develop.model.ProjectResource;
 import com.blocklang.develop.service.ProjectDependenceService;
@@ -100,23 +108,47 @@ public class PageDesignerController extends AbstractProjectController {
 	 * 获取项目依赖的 API 组件库中类型为 Widget 的组件库中的所有部件。
 	 * 并按照组件库和部件种类分组。
 	 * 
+	 * 在响应头中返回 ETag，只要项目依赖的 widget 仓库版本没有变化，就返回 304。
+	 * 
 	 * @return
 	 */
 	@GetMapping("/designer/projects/{projectId}/dependences/widgets")
 	public ResponseEntity<List<RepoWidgetList>> getProjectDependenceWidgets(
 			Principal principal,
-			@PathVariable Integer projectId) {
+			@PathVariable Integer projectId,
+			WebRequest webRequest) {
 		Project project = projectService.findById(projectId).orElseThrow(ResourceNotFoundException::new);
 		projectPermissionService.canRead(principal, project).orElseThrow(NoAuthorizationException::new);
 		
+		String eTag = projectDependenceService.getWidgetsETag(project.getId());
+		if(eTag != null && webRequest.checkNotModified(eTag)) {
+			// 已设置为 304，不需要再获取部件
+			return null;
+		}
+		
 		List<RepoWidgetList> result = projectDependenceService.findAllWidgets(project.getId());
-		return ResponseEntity.ok(result);
+		BodyBuilder builder = ResponseEntity.ok();
+		if(eTag != null) {
+			builder.eTag(eTag);
+		}
+		return builder.body(result);
 	}
 	
+	/**
+	 * 获取页面模型，并在响应头中返回页面模型的 ETag。
+	 * 
+	 * 如果请求头 If-None-Match 中的 ETag 与页面模型当前的 ETag 相同，则返回 304，不再返回页面模型。
+	 * 
+	 * @param principal
+	 * @param pageId
+	 * @param webRequest
+	 * @return
+	 */
 	@GetMapping("/designer/pages/{pageId}/model")
 	public ResponseEntity<PageModel> getPageModel(
 			Principal principal, 
-			@PathVariable Integer pageId) {
+			@PathVariable Integer pageId,
+			WebRequest webRequest) {
 		ProjectResource page = projectResourceService.findById(pageId).orElseThrow(ResourceNotFoundException::new);
 		if(!page.isPage()) {
 			throw new ResourceNotFoundException();
@@ -124,14 +156,38 @@ public class PageDesignerController extends AbstractProjectController {
 		Project project = projectService.findById(page.getProjectId()).orElseThrow(ResourceNotFoundException::new);
 		projectPermissionService.canRead(principal, project).orElseThrow(NoAuthorizationException::new);
 		
-		PageModel result = projectResourceService.getPageModel(project.getId(), page.getId());
-		return ResponseEntity.ok(result);
+		// 页面模型和 ETag 一起获取，只需读取一次快照
+		VersionedPageModel result = projectResourceService.getPageModelWithETag(project.getId(), page.getId());
+		String eTag = result.getETag();
+		if(eTag != null && webRequest.checkNotModified(eTag)) {
+			// 已设置为 304，不需要再返回页面模型
+			return null;
+		}
+		
+		BodyBuilder builder = ResponseEntity.ok();
+		if(eTag != null) {
+			builder.eTag(eTag);
+		}
+		return builder.body(result.getModel());
 	}
 	
+	/**
+	 * 保存页面模型。
+	 * 
+	 * 请求头 If-Match 中必须传入获取页面模型时得到的 ETag，如果页面模型已被其他人修改，则返回 412，
+	 * 如果传入 *，则不校验。保存成功后在响应头中返回新的 ETag。
+	 * 
+	 * @param principal
+	 * @param pageId
+	 * @param ifMatch
+	 * @param model
+	 * @return
+	 */
 	@PutMapping("/designer/pages/{pageId}/model")
 	public ResponseEntity<Map<String, Object>> updatePageModel(
 			Principal principal, 
 			@PathVariable Integer pageId, 
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
 			@RequestBody PageModel model ) {
 		// ensure user login
 		if(principal == null) {
@@ -145,9 +201,29 @@ public class PageDesignerController extends AbstractProjectController {
 		Project project = projectService.findById(page.getProjectId()).orElseThrow(ResourceNotFoundException::new);
 		projectPermissionService.canWrite(principal, project).orElseThrow(NoAuthorizationException::new);
 		
-		projectResourceService.updatePageModel(project, page, model);
+		if(StringUtils.isBlank(ifMatch)) {
+			throw new PreconditionRequiredException();
+		}
 		
-		return ResponseEntity.noContent().build();
+		String eTag = projectResourceService.updatePageModel(project, page, model, parseIfMatch(ifMatch));
+		
+		HeadersBuilder<?> builder = ResponseEntity.noContent();
+		if(eTag != null) {
+			builder.eTag(eTag);
+		}
+		return builder.build();
+	}
+	
+	/**
+	 * 去掉 ETag 的 W/ 前缀和引号，如果是 *，则返回 null
+	 */
+	private String parseIfMatch(String ifMatch) {
+		String eTag = ifMatch.trim();
+		if(eTag.equals("*")) {
+			return null;
+		}
+		eTag = StringUtils.removeStart(eTag, "W/");
+		return StringUtils.strip(eTag, "\"");
 	}
 	
 	private static final String[] VALID_ASSET_NAMES = {"main.bundle.js", "main.bundle.js.map", "main.bundle.css", "main.bundle.css.map", "icons.svg"};
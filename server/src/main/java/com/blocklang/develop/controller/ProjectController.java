@@ -3,6 +3,7 @@ package com.blocklang.develop.controller;
 import java.security.Principal;
 import java.text.MessageFormat;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +13,7 @@ import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -19,7 +21,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.blocklang.core.constant.CmPropKey;
 import com.blocklang.core.exception.InvalidRequestException;
@@ -50,6 +54,15 @@ import com.nimbusds.oauth2.sdk.util.StringUtils;
 public class ProjectController extends AbstractProjectController{
 
 	private static final Logger logger = LoggerFactory.getLogger(ProjectController.class);
+	
+	/**
+	 * 默认一页显示 60 个项目
+	 */
+	static final int USER_PROJECTS_PAGE_SIZE = 60;
+	/**
+	 * 一页最多显示 100 个项目
+	 */
+	static final int USER_PROJECTS_MAX_PAGE_SIZE = 100;
 
 	@Autowired
 	private ProjectResourceService projectResourceService;
@@ -135,14 +148,58 @@ public class ProjectController extends AbstractProjectController{
 		return ResponseEntity.ok(readme);
 	}
 	
+	/**
+	 * 获取登录用户有权访问的项目，按项目最近活动时间倒排。
+	 * 
+	 * <p>
+	 * 如果没有传入 after 和 size，则返回所有项目；否则分页返回，
+	 * 如果还有下一页，则在响应头 Link 中返回下一页的地址。
+	 * </p>
+	 * 
+	 * @param principal
+	 * @param after 分页游标，由上一页最后一个项目的最近活动时间和项目标识组成，获取第一页时不传
+	 * @param size 每页的项目个数，默认为 {@link #USER_PROJECTS_PAGE_SIZE}，最大为 {@link #USER_PROJECTS_MAX_PAGE_SIZE}
+	 * @return 项目列表
+	 */
 	@GetMapping("/user/projects")
-	public ResponseEntity<List<Project>> getYourProjects(Principal principal) {
+	public ResponseEntity<List<Project>> getYourProjects(
+			Principal principal,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) Integer size) {
 		if(principal == null) {
 			throw new NoAuthorizationException();
 		}
 		
 		UserInfo user = userService.findByLoginName(principal.getName()).orElseThrow(NoAuthorizationException::new);
-		return ResponseEntity.ok(projectService.findCanAccessProjectsByUserId(user.getId()));
+		if(after == null && size == null) {
+			return ResponseEntity.ok(projectService.findCanAccessProjectsByUserId(user.getId()));
+		}
+		
+		int pageSize = size == null ? USER_PROJECTS_PAGE_SIZE : Math.min(Math.max(size, 1), USER_PROJECTS_MAX_PAGE_SIZE);
+		LocalDateTime lastActiveTime = null;
+		Integer lastProjectId = null;
+		if(after != null) {
+			// 游标的格式为 {lastActiveTime}_{projectId}
+			int index = after.lastIndexOf('_');
+			try {
+				lastActiveTime = LocalDateTime.parse(after.substring(0, Math.max(index, 0)));
+				lastProjectId = Integer.valueOf(after.substring(index + 1));
+			} catch (DateTimeParseException | NumberFormatException e) {
+				return ResponseEntity.badRequest().build();
+			}
+		}
+		
+		List<Project> projects = projectService.findCanAccessProjectsByUserId(user.getId(), lastActiveTime, lastProjectId, pageSize);
+		if(projects.size() < pageSize) {
+			return ResponseEntity.ok(projects);
+		}
+		
+		Project lastProject = projects.get(projects.size() - 1);
+		String next = ServletUriComponentsBuilder.fromCurrentRequest()
+				.replaceQueryParam("after", lastProject.getLastActiveTime() + "_" + lastProject.getId())
+				.replaceQueryParam("size", pageSize)
+				.toUriString();
+		return ResponseEntity.ok().header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"").body(projects);
 	}
 
 	@GetMapping("/projects/{owner}/{projectName}")
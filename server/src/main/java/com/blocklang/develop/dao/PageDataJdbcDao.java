@@ -9,5 +9,11 @@ public interface PageDataJdbcDao {
 	void delete(Integer pageId);
 
 	void batchSave(Integer pageId, List<PageDataItem> allData);
+	
+	void batchSave(List<PageDataItem> allData);
+	
+	void batchUpdate(List<PageDataItem> allData);
+	
+	void batchDelete(List<String> dataItemIds);
 
 }
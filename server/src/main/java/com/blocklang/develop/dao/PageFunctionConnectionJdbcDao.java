@@ -9,4 +9,8 @@ public interface PageFunctionConnectionJdbcDao {
 	void batchSave(List<PageFunctionConnection> connections);
 
 	void deleteByPageId(Integer pageId);
+	
+	void batchUpdate(List<PageFunctionConnection> connections);
+	
+	void batchDelete(List<String> connectionIds);
 }
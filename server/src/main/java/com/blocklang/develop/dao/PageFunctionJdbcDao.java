@@ -9,5 +9,7 @@ public interface PageFunctionJdbcDao {
 	void batchSave(List<PageFunction> pageFunctions);
 
 	void deleteByPageId(Integer pageId);
+	
+	void batchDelete(List<String> functionIds);
 
 }
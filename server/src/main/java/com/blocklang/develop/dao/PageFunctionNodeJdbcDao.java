@@ -9,5 +9,9 @@ public interface PageFunctionNodeJdbcDao {
 	void batchSave(List<PageFunctionNode> nodes);
 
 	void deleteByPageId(Integer pageId);
+	
+	void batchUpdate(List<PageFunctionNode> nodes);
+	
+	void batchDelete(List<String> nodeIds);
 
 }
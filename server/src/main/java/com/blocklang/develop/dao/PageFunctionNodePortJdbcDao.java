@@ -9,5 +9,9 @@ public interface PageFunctionNodePortJdbcDao {
 	void batchSave(List<PageFunctionNodePort> ports);
 
 	void deleteByPageId(Integer pageId);
+	
+	void batchUpdate(List<PageFunctionNodePort> ports);
+	
+	void batchDelete(List<String> portIds);
 
 }
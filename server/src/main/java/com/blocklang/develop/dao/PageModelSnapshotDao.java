@@ -0,0 +1,24 @@
+package com.blocklang.develop.dao;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.blocklang.develop.model.PageModelSnapshot;
+
+public interface PageModelSnapshotDao extends JpaRepository<PageModelSnapshot, Integer>{
+
+	/**
+	 * 只查询判断快照是否有效和计算 ETag 所需的字段。
+	 * 
+	 * 返回的不是实体，每次都会查询数据库，不会取到一级缓存中的旧快照。
+	 */
+	@Query("select s.catalogVersions as catalogVersions, s.modelData as modelData from PageModelSnapshot s where s.pageId = ?1")
+	Optional<SnapshotData> findDataByPageId(Integer pageId);
+	
+	interface SnapshotData {
+		String getCatalogVersions();
+		byte[] getModelData();
+	}
+}
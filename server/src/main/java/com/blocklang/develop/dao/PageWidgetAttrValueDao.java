@@ -1,5 +1,6 @@
 package com.blocklang.develop.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,4 +10,6 @@ import com.blocklang.develop.model.PageWidgetAttrValue;
 public interface PageWidgetAttrValueDao extends JpaRepository<PageWidgetAttrValue, Integer>{
 
 	List<PageWidgetAttrValue> findAllByPageWidgetId(String pageWidgetId);
+
+	List<PageWidgetAttrValue> findAllByPageWidgetIdIn(Collection<String> pageWidgetIds);
 }
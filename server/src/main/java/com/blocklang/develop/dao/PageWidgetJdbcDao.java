@@ -3,6 +3,7 @@ package com.blocklang.develop.dao;
 import java.util.List;
 
 import com.blocklang.develop.designer.data.AttachedWidget;
+import com.blocklang.develop.model.PageWidget;
 import com.blocklang.develop.model.PageWidgetAttrValue;
 
 public interface PageWidgetJdbcDao {
@@ -14,4 +15,14 @@ public interface PageWidgetJdbcDao {
 	void deleteWidgetProperties(Integer pageId);
 	
 	void deleteWidgets(Integer pageId);
+	
+	void batchSaveWidgets(List<PageWidget> widgets);
+	
+	void batchUpdateWidgets(List<PageWidget> widgets);
+	
+	void batchDeleteWidgets(List<String> widgetIds);
+	
+	void batchUpdateWidgetProperties(List<PageWidgetAttrValue> properties);
+	
+	void batchDeleteWidgetProperties(List<String> propertyIds);
 }
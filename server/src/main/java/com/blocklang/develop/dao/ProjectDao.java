@@ -1,8 +1,13 @@
 package com.blocklang.develop.dao;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.blocklang.develop.model.Project;
 
@@ -10,4 +15,38 @@ public interface ProjectDao extends JpaRepository<Project, Integer> {
 
 	Optional<Project> findByCreateUserIdAndName(Integer id, String projectName);
 
+	/**
+	 * 获取用户有权访问的项目，按项目最近活动时间倒排，最近活动时间相同时按项目标识倒排。
+	 * 
+	 * <p>同一个项目可以为用户分配多个权限，所以使用子查询，而不是关联查询，避免返回重复的项目。</p>
+	 * 
+	 * @param userId 用户标识
+	 * @param page 只使用其中的记录数，不使用其中的排序
+	 * @return 项目列表
+	 */
+	@Query("SELECT p FROM Project p "
+			+ "WHERE p.id IN (SELECT a.projectId FROM ProjectAuthorization a WHERE a.userId = :userId) "
+			+ "ORDER BY p.lastActiveTime DESC, p.id DESC")
+	List<Project> findCanAccessProjects(@Param("userId") Integer userId, Pageable page);
+
+	/**
+	 * 使用 keyset 分页获取用户有权访问的项目，返回排在指定项目之后的项目，排序方式与
+	 * {@link #findCanAccessProjects(Integer, Pageable)} 相同。
+	 * 
+	 * @param userId 用户标识
+	 * @param lastActiveTime 上一页最后一个项目的最近活动时间
+	 * @param lastProjectId 上一页最后一个项目的标识
+	 * @param page 只使用其中的记录数，不使用其中的排序
+	 * @return 项目列表
+	 */
+	@Query("SELECT p FROM Project p "
+			+ "WHERE p.id IN (SELECT a.projectId FROM ProjectAuthorization a WHERE a.userId = :userId) "
+			+ "AND (p.lastActiveTime < :lastActiveTime OR (p.lastActiveTime = :lastActiveTime AND p.id < :lastProjectId)) "
+			+ "ORDER BY p.lastActiveTime DESC, p.id DESC")
+	List<Project> findCanAccessProjectsAfter(
+			@Param("userId") Integer userId, 
+			@Param("lastActiveTime") LocalDateTime lastActiveTime, 
+			@Param("lastProjectId") Integer lastProjectId, 
+			Pageable page);
+
 }
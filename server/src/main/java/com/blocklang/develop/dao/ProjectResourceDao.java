@@ -3,7 +3,10 @@ package com.blocklang.develop.dao;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 
 import com.blocklang.develop.constant.AppType;
 import com.blocklang.develop.constant.ProjectResourceType;
@@ -33,4 +36,12 @@ public interface ProjectResourceDao extends JpaRepository<ProjectResource, Integ
 
 	List<ProjectResource> findAllByProjectIdAndAppTypeAndResourceType(Integer projectId, AppType appType, ProjectResourceType resourceType);
 
+	List<ProjectResource> findAllByProjectIdAndIdPathStartingWith(Integer projectId, String idPathPrefix);
+
+	/**
+	 * 查询并锁定资源，直到事务结束
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	Optional<ProjectResource> findWithLockById(Integer id);
+
 }
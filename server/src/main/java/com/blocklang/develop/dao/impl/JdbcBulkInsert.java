@@ -0,0 +1,165 @@
+package com.blocklang.develop.dao.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * 批量插入记录。
+ *
+ * <p>
+ * <code>jdbcTemplate.batchUpdate</code> 在没有开启驱动的批量重写功能时，仍然是每条记录执行一次 insert 语句。
+ * 此类将多条记录合并为一条多行 VALUES 的 insert 语句，postgresql 和 mysql 都支持此语法，
+ * 每条语句最多包含 {@link #getRowsPerStatement()} 条记录，同时不超过数据库对参数个数的限制。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+@Component
+public class JdbcBulkInsert {
+
+	private static final Logger logger = LoggerFactory.getLogger(JdbcBulkInsert.class);
+
+	public static final int DEFAULT_ROWS_PER_STATEMENT = 500;
+	/**
+	 * postgresql 中一条语句最多支持 32767 个参数，mysql 为 65535 个
+	 */
+	static final int MAX_PARAMETERS = 32767;
+
+	private static final String VALUES = "VALUES";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private int rowsPerStatement = DEFAULT_ROWS_PER_STATEMENT;
+
+	/**
+	 * 获取一行记录中所有字段的值
+	 *
+	 * @param <T> 记录的类型
+	 */
+	@FunctionalInterface
+	public interface RowValues<T> {
+		/**
+		 *
+		 * @param row 记录
+		 * @param index 记录在列表中的索引，从 0 开始
+		 * @return 字段值，顺序与 insert 语句中的字段顺序相同
+		 */
+		Object[] getValues(T row, int index);
+	}
+
+	/**
+	 * 批量插入记录
+	 *
+	 * @param insertSql 插入一条记录的 insert 语句，必须以 <code>VALUES (?,?,...)</code> 结尾
+	 * @param rows 记录列表
+	 * @param rowValues 获取每条记录的字段值
+	 * @return 插入的记录数
+	 */
+	public <T> int insert(String insertSql, List<T> rows, RowValues<T> rowValues) {
+		if(rows.isEmpty()) {
+			return 0;
+		}
+
+		int valuesIndex = insertSql.toUpperCase().lastIndexOf(VALUES);
+		Assert.isTrue(valuesIndex > 0, "insert 语句中必须包含 VALUES");
+		String prefix = insertSql.substring(0, valuesIndex + VALUES.length());
+		String rowPlaceholder = insertSql.substring(valuesIndex + VALUES.length()).trim();
+		int columnCount = countParameters(rowPlaceholder);
+
+		int rowsPerChunk = getRowsPerChunk(columnCount);
+		long start = System.nanoTime();
+		int count = 0;
+		String fullChunkSql = null;
+		for(int from = 0; from < rows.size(); from += rowsPerChunk) {
+			int to = Math.min(from + rowsPerChunk, rows.size());
+			String sql;
+			if(to - from == rowsPerChunk) {
+				if(fullChunkSql == null) {
+					fullChunkSql = buildSql(prefix, rowPlaceholder, rowsPerChunk);
+				}
+				sql = fullChunkSql;
+			} else {
+				sql = buildSql(prefix, rowPlaceholder, to - from);
+			}
+
+			int chunkStart = from;
+			int chunkEnd = to;
+			count += jdbcTemplate.update(sql, ps -> setValues(ps, rows, chunkStart, chunkEnd, columnCount, rowValues));
+		}
+
+		if(logger.isDebugEnabled()) {
+			long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+			logger.debug("批量插入 {} 条记录，耗时 {} ms，每秒 {} 条：{}", count, elapsedMillis, count * 1000L / elapsedMillis, prefix);
+		}
+		return count;
+	}
+
+	private <T> void setValues(PreparedStatement ps, List<T> rows, int from, int to, int columnCount, RowValues<T> rowValues) throws SQLException {
+		int parameterIndex = 1;
+		for(int i = from; i < to; i++) {
+			Object[] values = rowValues.getValues(rows.get(i), i);
+			Assert.isTrue(values.length == columnCount, "字段值的个数与 insert 语句中的参数个数不相同");
+			for(Object value : values) {
+				if(value == null) {
+					// 由数据库根据字段推断类型，避免为每个 null 值获取参数的元数据
+					ps.setNull(parameterIndex, Types.NULL);
+				} else {
+					StatementCreatorUtils.setParameterValue(ps, parameterIndex, SqlTypeValue.TYPE_UNKNOWN, value);
+				}
+				parameterIndex++;
+			}
+		}
+	}
+
+	int getRowsPerChunk(int columnCount) {
+		return Math.max(1, Math.min(rowsPerStatement, MAX_PARAMETERS / Math.max(1, columnCount)));
+	}
+
+	static String buildSql(String prefix, String rowPlaceholder, int rowCount) {
+		StringBuilder sql = new StringBuilder(prefix.length() + (rowPlaceholder.length() + 1) * rowCount + 1);
+		sql.append(prefix).append(" ");
+		for(int i = 0; i < rowCount; i++) {
+			if(i > 0) {
+				sql.append(",");
+			}
+			sql.append(rowPlaceholder);
+		}
+		return sql.toString();
+	}
+
+	static int countParameters(String rowPlaceholder) {
+		int count = 0;
+		for(int i = 0; i < rowPlaceholder.length(); i++) {
+			if(rowPlaceholder.charAt(i) == '?') {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public int getRowsPerStatement() {
+		return rowsPerStatement;
+	}
+
+	/**
+	 * 设置每条 insert 语句最多包含的记录数
+	 *
+	 * @param rowsPerStatement 记录数，必须大于 0
+	 */
+	public void setRowsPerStatement(int rowsPerStatement) {
+		Assert.isTrue(rowsPerStatement > 0, "记录数必须大于 0");
+		this.rowsPerStatement = rowsPerStatement;
+	}
+}
@@ -17,6 +17,8 @@ public class PageDataJdbcDaoImpl implements PageDataJdbcDao {
 
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private JdbcBulkInsert jdbcBulkInsert;
 	
 	//	private static final String SQL_DELETE_PAGE_DATA = """
 	//	DELETE FROM
@@ -57,7 +59,46 @@ public class PageDataJdbcDaoImpl implements PageDataJdbcDao {
 
 	@Override
 	public void batchSave(Integer pageId, List<PageDataItem> allData) {
-		jdbcTemplate.batchUpdate(SQL_INSERT_PAGE_DATA, new BatchPreparedStatementSetter() {
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_DATA, allData, (each, index) -> new Object[] {
+				each.getId(),
+				pageId,
+				each.getName(),
+				each.getType(),
+				each.getValue(),
+				each.getParentId(),
+				// seq 是从1开始的，是全页面内排序
+				index+1
+		});
+
+	}
+
+	@Override
+	public void batchSave(List<PageDataItem> allData) {
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_DATA, allData, (each, index) -> new Object[] {
+				each.getId(),
+				each.getPageId(),
+				each.getName(),
+				each.getType(),
+				each.getValue(),
+				each.getParentId(),
+				each.getSeq()
+		});
+	}
+
+	private static final String SQL_UPDATE_PAGE_DATA = "UPDATE "+
+		"page_data "+
+		"SET "+
+		"name=?, "+
+		"type=?, "+
+		"default_value=?, "+
+		"parent_id=?, "+
+		"seq=? "+
+		"WHERE "+
+		"dbid=?";
+	
+	@Override
+	public void batchUpdate(List<PageDataItem> allData) {
+		jdbcTemplate.batchUpdate(SQL_UPDATE_PAGE_DATA, new BatchPreparedStatementSetter() {
 
 			@Override
 			public int getBatchSize() {
@@ -68,18 +109,38 @@ public class PageDataJdbcDaoImpl implements PageDataJdbcDao {
 			public void setValues(PreparedStatement ps, int index)
 					throws SQLException {
 				PageDataItem each = allData.get(index);
-				ps.setString(1, each.getId());
-				ps.setInt(2, pageId);
-				ps.setString(3, each.getName());
-				ps.setString(4, each.getType());
-				ps.setString(5, each.getValue());
-				ps.setString(6, each.getParentId());
-				// seq 是从1开始的，是全页面内排序
-				ps.setInt(7, index+1);
+				ps.setString(1, each.getName());
+				ps.setString(2, each.getType());
+				ps.setString(3, each.getValue());
+				ps.setString(4, each.getParentId());
+				ps.setInt(5, each.getSeq());
+				ps.setString(6, each.getId());
 			}
 			
 		});
+	}
 
+	private static final String SQL_DELETE_PAGE_DATA_BY_ID = "DELETE FROM "+
+		"page_data "+
+		"WHERE "+
+		"dbid=?";
+
+	@Override
+	public void batchDelete(List<String> dataItemIds) {
+		jdbcTemplate.batchUpdate(SQL_DELETE_PAGE_DATA_BY_ID, new BatchPreparedStatementSetter() {
+
+			@Override
+			public int getBatchSize() {
+				return dataItemIds.size();
+			}
+
+			@Override
+			public void setValues(PreparedStatement ps, int index)
+					throws SQLException {
+				ps.setString(1, dataItemIds.get(index));
+			}
+			
+		});
 	}
 
 }
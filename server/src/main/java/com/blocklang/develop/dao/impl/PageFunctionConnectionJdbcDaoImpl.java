@@ -17,6 +17,8 @@ public class PageFunctionConnectionJdbcDaoImpl implements PageFunctionConnection
 
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private JdbcBulkInsert jdbcBulkInsert;
 	
 	private static final String SQL_INSERT_PAGE_FUNC_CONNECTION = "INSERT INTO " +
 			"page_func_connection " +
@@ -31,7 +33,41 @@ public class PageFunctionConnectionJdbcDaoImpl implements PageFunctionConnection
 
 	@Override
 	public void batchSave(List<PageFunctionConnection> connections) {
-		jdbcTemplate.batchUpdate(SQL_INSERT_PAGE_FUNC_CONNECTION, new BatchPreparedStatementSetter() {
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_FUNC_CONNECTION, connections, (each, index) -> new Object[] {
+				each.getId(),
+				each.getPageId(),
+				each.getFunctionId(),
+				each.getFromNodeId(),
+				each.getFromOutputPortId(),
+				each.getToNodeId(),
+				each.getToInputPortId()
+		});
+	}
+
+	private static final String SQL_DELETE_PAGE_FUNC_CONNECTION_BY_PAGE_ID = "DELETE FROM " +
+			"page_func_connection " +
+			"WHERE " +
+			"project_resource_id=?";
+	
+	@Override
+	public void deleteByPageId(Integer pageId) {
+		jdbcTemplate.update(SQL_DELETE_PAGE_FUNC_CONNECTION_BY_PAGE_ID, pageId);
+	}
+	
+	private static final String SQL_UPDATE_PAGE_FUNC_CONNECTION = "UPDATE " +
+			"page_func_connection " +
+			"SET " +
+			"page_func_id=?, " +
+			"from_node_id=?, " +
+			"from_output_port_id=?, " +
+			"to_node_id=?, " +
+			"to_input_port_id=? " +
+			"WHERE " +
+			"dbid=?";
+	
+	@Override
+	public void batchUpdate(List<PageFunctionConnection> connections) {
+		jdbcTemplate.batchUpdate(SQL_UPDATE_PAGE_FUNC_CONNECTION, new BatchPreparedStatementSetter() {
 			
 			@Override
 			public int getBatchSize() {
@@ -41,26 +77,38 @@ public class PageFunctionConnectionJdbcDaoImpl implements PageFunctionConnection
 			@Override
 			public void setValues(PreparedStatement ps, int index) throws SQLException {
 				PageFunctionConnection each = connections.get(index);
-				ps.setString(1, each.getId());
-				ps.setInt(2, each.getPageId());
-				ps.setString(3, each.getFunctionId());
-				ps.setString(4, each.getFromNodeId());
-				ps.setString(5, each.getFromOutputPortId());
-				ps.setString(6, each.getToNodeId());
-				ps.setString(7, each.getToInputPortId());
+				ps.setString(1, each.getFunctionId());
+				ps.setString(2, each.getFromNodeId());
+				ps.setString(3, each.getFromOutputPortId());
+				ps.setString(4, each.getToNodeId());
+				ps.setString(5, each.getToInputPortId());
+				ps.setString(6, each.getId());
 			}
 			
 		});
 	}
-
-	private static final String SQL_DELETE_PAGE_FUNC_CONNECTION_BY_PAGE_ID = "DELETE FROM " +
+	
+	private static final String SQL_DELETE_PAGE_FUNC_CONNECTION_BY_ID = "DELETE FROM " +
 			"page_func_connection " +
 			"WHERE " +
-			"project_resource_id=?";
-	
+			"dbid=?";
+
 	@Override
-	public void deleteByPageId(Integer pageId) {
-		jdbcTemplate.update(SQL_DELETE_PAGE_FUNC_CONNECTION_BY_PAGE_ID, pageId);
+	public void batchDelete(List<String> connectionIds) {
+		jdbcTemplate.batchUpdate(SQL_DELETE_PAGE_FUNC_CONNECTION_BY_ID, new BatchPreparedStatementSetter() {
+
+			@Override
+			public int getBatchSize() {
+				return connectionIds.size();
+			}
+
+			@Override
+			public void setValues(PreparedStatement ps, int index)
+					throws SQLException {
+				ps.setString(1, connectionIds.get(index));
+			}
+			
+		});
 	}
 	
 }
@@ -17,6 +17,8 @@ public class PageFunctionJdbcDaoImpl implements PageFunctionJdbcDao {
 
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private JdbcBulkInsert jdbcBulkInsert;
 	
 	private static final String SQL_INSERT_PAGE_FUNC = "INSERT INTO "+
 			"page_func "+
@@ -26,31 +28,42 @@ public class PageFunctionJdbcDaoImpl implements PageFunctionJdbcDao {
 	
 	@Override
 	public void batchSave(List<PageFunction> pageFunctions) {
-		jdbcTemplate.batchUpdate(SQL_INSERT_PAGE_FUNC, new BatchPreparedStatementSetter() {
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_FUNC, pageFunctions, (each, index) -> new Object[] {
+				each.getId(),
+				each.getPageId()
+		});
+	}
+
+	private static final String SQL_DELETE_PAGE_FUNC_BY_PAGE_ID = "DELETE FROM " +
+			"page_func " +
+			"WHERE " +
+			"project_resource_id=?";
+	@Override
+	public void deleteByPageId(Integer pageId) {
+		jdbcTemplate.update(SQL_DELETE_PAGE_FUNC_BY_PAGE_ID, pageId);
+	}
+
+	private static final String SQL_DELETE_PAGE_FUNC_BY_ID = "DELETE FROM " +
+			"page_func " +
+			"WHERE " +
+			"dbid=?";
+
+	@Override
+	public void batchDelete(List<String> functionIds) {
+		jdbcTemplate.batchUpdate(SQL_DELETE_PAGE_FUNC_BY_ID, new BatchPreparedStatementSetter() {
 
 			@Override
 			public int getBatchSize() {
-				return pageFunctions.size();
+				return functionIds.size();
 			}
 
 			@Override
 			public void setValues(PreparedStatement ps, int index)
 					throws SQLException {
-				PageFunction each = pageFunctions.get(index);
-				ps.setString(1, each.getId());
-				ps.setInt(2, each.getPageId());
+				ps.setString(1, functionIds.get(index));
 			}
 			
 		});
 	}
 
-	private static final String SQL_DELETE_PAGE_FUNC_BY_PAGE_ID = "DELETE FROM " +
-			"page_func " +
-			"WHERE " +
-			"project_resource_id=?";
-	@Override
-	public void deleteByPageId(Integer pageId) {
-		jdbcTemplate.update(SQL_DELETE_PAGE_FUNC_BY_PAGE_ID, pageId);
-	}
-
 }
@@ -17,6 +17,8 @@ public class PageFunctionNodeJdbcDaoImpl implements PageFunctionNodeJdbcDao {
 
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private JdbcBulkInsert jdbcBulkInsert;
 	
 	private static final String SQL_INSERT_PAGE_FUNC_NODE = "INSERT INTO "+
 			"page_func_node "+
@@ -35,7 +37,46 @@ public class PageFunctionNodeJdbcDaoImpl implements PageFunctionNodeJdbcDao {
 	
 	@Override
 	public void batchSave(List<PageFunctionNode> nodes) {
-		jdbcTemplate.batchUpdate(SQL_INSERT_PAGE_FUNC_NODE, new BatchPreparedStatementSetter() {
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_FUNC_NODE, nodes, (each, index) -> new Object[] {
+				each.getId(),
+				each.getPageId(),
+				each.getFunctionId(),
+				each.getLeft(),
+				each.getTop(),
+				each.getLayout().getKey(),
+				each.getCategory().getKey(),
+				each.getDataItemId()
+//				each.getBindSource().getKey(),
+//				each.getApiRepoId(),
+//				each.getCode(),
+		});
+	}
+
+	private static final String SQL_DELETE_PAGE_FUNC_NODE_BY_PAGE_ID = "DELETE FROM " +
+			"page_func_node " +
+			"WHERE " +
+			"project_resource_id=?";
+	
+	@Override
+	public void deleteByPageId(Integer pageId) {
+		jdbcTemplate.update(SQL_DELETE_PAGE_FUNC_NODE_BY_PAGE_ID, pageId);
+	}
+	
+	private static final String SQL_UPDATE_PAGE_FUNC_NODE = "UPDATE " +
+			"page_func_node " +
+			"SET " +
+			"page_func_id=?, " +
+			"\"left\"=?, " +
+			"top=?, " +
+			"layout=?, " +
+			"category=?, " +
+			"data_item_id=? " +
+			"WHERE " +
+			"dbid=?";
+	
+	@Override
+	public void batchUpdate(List<PageFunctionNode> nodes) {
+		jdbcTemplate.batchUpdate(SQL_UPDATE_PAGE_FUNC_NODE, new BatchPreparedStatementSetter() {
 
 			@Override
 			public int getBatchSize() {
@@ -46,29 +87,38 @@ public class PageFunctionNodeJdbcDaoImpl implements PageFunctionNodeJdbcDao {
 			public void setValues(PreparedStatement ps, int index)
 					throws SQLException {
 				PageFunctionNode each = nodes.get(index);
-				ps.setString(1, each.getId());
-				ps.setInt(2, each.getPageId());
-				ps.setString(3, each.getFunctionId());
-				ps.setInt(4, each.getLeft());
-				ps.setInt(5, each.getTop());
-				ps.setString(6, each.getLayout().getKey());
-				ps.setString(7, each.getCategory().getKey());
-				ps.setString(8, each.getDataItemId());
-//				ps.setString(8, each.getBindSource().getKey());
-//				ps.setInt(9, each.getApiRepoId());
-//				ps.setString(10, each.getCode());
+				ps.setString(1, each.getFunctionId());
+				ps.setInt(2, each.getLeft());
+				ps.setInt(3, each.getTop());
+				ps.setString(4, each.getLayout().getKey());
+				ps.setString(5, each.getCategory().getKey());
+				ps.setString(6, each.getDataItemId());
+				ps.setString(7, each.getId());
 			}
 			
 		});
 	}
-
-	private static final String SQL_DELETE_PAGE_FUNC_NODE_BY_PAGE_ID = "DELETE FROM " +
+	
+	private static final String SQL_DELETE_PAGE_FUNC_NODE_BY_ID = "DELETE FROM " +
 			"page_func_node " +
 			"WHERE " +
-			"project_resource_id=?";
-	
+			"dbid=?";
+
 	@Override
-	public void deleteByPageId(Integer pageId) {
-		jdbcTemplate.update(SQL_DELETE_PAGE_FUNC_NODE_BY_PAGE_ID, pageId);
+	public void batchDelete(List<String> nodeIds) {
+		jdbcTemplate.batchUpdate(SQL_DELETE_PAGE_FUNC_NODE_BY_ID, new BatchPreparedStatementSetter() {
+
+			@Override
+			public int getBatchSize() {
+				return nodeIds.size();
+			}
+
+			@Override
+			public void setValues(PreparedStatement ps, int index)
+					throws SQLException {
+				ps.setString(1, nodeIds.get(index));
+			}
+			
+		});
 	}
 }
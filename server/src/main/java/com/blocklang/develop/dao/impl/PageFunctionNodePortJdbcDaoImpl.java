@@ -17,6 +17,8 @@ public class PageFunctionNodePortJdbcDaoImpl implements PageFunctionNodePortJdbc
 
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private JdbcBulkInsert jdbcBulkInsert;
 	
 	private static final String SQL_INSERT_PAGE_FUNC_NODE_PORT = "INSERT INTO " +
 			"page_func_node_port " +
@@ -31,7 +33,42 @@ public class PageFunctionNodePortJdbcDaoImpl implements PageFunctionNodePortJdbc
 	
 	@Override
 	public void batchSave(List<PageFunctionNodePort> ports) {
-		jdbcTemplate.batchUpdate(SQL_INSERT_PAGE_FUNC_NODE_PORT, new BatchPreparedStatementSetter() {
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_FUNC_NODE_PORT, ports, (each, index) -> new Object[] {
+				each.getId(),
+				each.getPageId(),
+				each.getNodeId(),
+				each.getPortType().getKey(),
+				each.getFlowType().getKey(),
+				each.getOutputSequencePortText(),
+				each.getInputDataPortValue()
+		});
+		
+	}
+
+	private static final String SQL_DELETE_PAGE_FUNC_NODE_PORT_BY_PAGE_ID = "DELETE FROM " +
+			"page_func_node_port " +
+			"WHERE " +
+			"project_resource_id=?";
+	
+	@Override
+	public void deleteByPageId(Integer pageId) {
+		jdbcTemplate.update(SQL_DELETE_PAGE_FUNC_NODE_PORT_BY_PAGE_ID, pageId);
+	}
+
+	private static final String SQL_UPDATE_PAGE_FUNC_NODE_PORT = "UPDATE " +
+			"page_func_node_port " +
+			"SET " +
+			"page_func_node_id=?, " +
+			"port_type=?, " +
+			"flow_type=?, " +
+			"output_sequence_port_text=?, " + 
+			"input_data_port_value=? " +
+			"WHERE " +
+			"dbid=?";
+	
+	@Override
+	public void batchUpdate(List<PageFunctionNodePort> ports) {
+		jdbcTemplate.batchUpdate(SQL_UPDATE_PAGE_FUNC_NODE_PORT, new BatchPreparedStatementSetter() {
 			
 			@Override
 			public int getBatchSize() {
@@ -41,27 +78,38 @@ public class PageFunctionNodePortJdbcDaoImpl implements PageFunctionNodePortJdbc
 			@Override
 			public void setValues(PreparedStatement ps, int index) throws SQLException {
 				PageFunctionNodePort each = ports.get(index);
-				ps.setString(1, each.getId());
-				ps.setInt(2, each.getPageId());
-				ps.setString(3, each.getNodeId());
-				ps.setString(4, each.getPortType().getKey());
-				ps.setString(5, each.getFlowType().getKey());
-				ps.setString(6, each.getOutputSequencePortText());
-				ps.setString(7, each.getInputDataPortValue());
+				ps.setString(1, each.getNodeId());
+				ps.setString(2, each.getPortType().getKey());
+				ps.setString(3, each.getFlowType().getKey());
+				ps.setString(4, each.getOutputSequencePortText());
+				ps.setString(5, each.getInputDataPortValue());
+				ps.setString(6, each.getId());
 			}
 			
 		});
-		
 	}
 
-	private static final String SQL_DELETE_PAGE_FUNC_NODE_PORT_BY_PAGE_ID = "DELETE FROM " +
+	private static final String SQL_DELETE_PAGE_FUNC_NODE_PORT_BY_ID = "DELETE FROM " +
 			"page_func_node_port " +
 			"WHERE " +
-			"project_resource_id=?";
-	
+			"dbid=?";
+
 	@Override
-	public void deleteByPageId(Integer pageId) {
-		jdbcTemplate.update(SQL_DELETE_PAGE_FUNC_NODE_PORT_BY_PAGE_ID, pageId);
+	public void batchDelete(List<String> portIds) {
+		jdbcTemplate.batchUpdate(SQL_DELETE_PAGE_FUNC_NODE_PORT_BY_ID, new BatchPreparedStatementSetter() {
+
+			@Override
+			public int getBatchSize() {
+				return portIds.size();
+			}
+
+			@Override
+			public void setValues(PreparedStatement ps, int index)
+					throws SQLException {
+				ps.setString(1, portIds.get(index));
+			}
+			
+		});
 	}
 
 }
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import com.blocklang.develop.dao.PageWidgetJdbcDao;
 import com.blocklang.develop.designer.data.AttachedWidget;
+import com.blocklang.develop.model.PageWidget;
 import com.blocklang.develop.model.PageWidgetAttrValue;
 
 @Repository
@@ -18,6 +19,8 @@ public class PageWidgetJdbcDaoImpl implements PageWidgetJdbcDao {
 
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private JdbcBulkInsert jdbcBulkInsert;
 
 	// 当 Text Block 发布后再支持
 //	private static final String SQL_INSERT_PAGE_WIDGET = """
@@ -42,26 +45,14 @@ public class PageWidgetJdbcDaoImpl implements PageWidgetJdbcDao {
 
 	@Override
 	public void batchSaveWidgets(Integer pageId, List<AttachedWidget> widgets) {
-		jdbcTemplate.batchUpdate(SQL_INSERT_PAGE_WIDGET, new BatchPreparedStatementSetter() {
-
-			@Override
-			public int getBatchSize() {
-				return widgets.size();
-			}
-
-			@Override
-			public void setValues(PreparedStatement ps, int index)
-					throws SQLException {
-				AttachedWidget each = widgets.get(index);
-				ps.setString(1, each.getId());
-				ps.setInt(2, pageId);
-				ps.setInt(3, each.getApiRepoId());
-				ps.setString(4, each.getWidgetCode());
-				ps.setString(5, each.getParentId());
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_WIDGET, widgets, (each, index) -> new Object[] {
+				each.getId(),
+				pageId,
+				each.getApiRepoId(),
+				each.getWidgetCode(),
+				each.getParentId(),
 				// seq 是从1开始的，是全页面内排序
-				ps.setInt(6, index+1);
-			}
-			
+				index+1
 		});
 	}
 
@@ -85,24 +76,12 @@ public class PageWidgetJdbcDaoImpl implements PageWidgetJdbcDao {
 
 	@Override
 	public void batchSaveWidgetProperties(List<PageWidgetAttrValue> properties) {
-		jdbcTemplate.batchUpdate(SQL_INSERT_PAGE_WIDGET_ATTR_VALUE, new BatchPreparedStatementSetter() {
-
-			@Override
-			public int getBatchSize() {
-				return properties.size();
-			}
-
-			@Override
-			public void setValues(PreparedStatement ps, int index)
-					throws SQLException {
-				PageWidgetAttrValue each = properties.get(index);
-				ps.setString(1, each.getId());
-				ps.setString(2, each.getPageWidgetId());
-				ps.setString(3, each.getWidgetAttrCode());
-				ps.setString(4, each.getAttrValue());
-				ps.setBoolean(5, each.isExpr());
-			}
-			
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_WIDGET_ATTR_VALUE, properties, (each, index) -> new Object[] {
+				each.getId(),
+				each.getPageWidgetId(),
+				each.getWidgetAttrCode(),
+				each.getAttrValue(),
+				each.isExpr()
 		});
 	}
 
@@ -141,5 +120,128 @@ public class PageWidgetJdbcDaoImpl implements PageWidgetJdbcDao {
 		jdbcTemplate.update(SQL_DELETE_PAGE_WIDGET, pageId);
 	}
 
+	@Override
+	public void batchSaveWidgets(List<PageWidget> widgets) {
+		jdbcBulkInsert.insert(SQL_INSERT_PAGE_WIDGET, widgets, (each, index) -> new Object[] {
+				each.getId(),
+				each.getPageId(),
+				each.getApiRepoId(),
+				each.getWidgetCode(),
+				each.getParentId(),
+				each.getSeq()
+		});
+	}
+
+	private static final String SQL_UPDATE_PAGE_WIDGET = "UPDATE "+
+			"page_widget "+
+			"SET "+
+			"api_repo_id=?, "+
+			"widget_code=?, "+
+			"parent_id=?, "+
+			"seq=? "+
+			"WHERE "+
+			"dbid=?";
+	
+	@Override
+	public void batchUpdateWidgets(List<PageWidget> widgets) {
+		jdbcTemplate.batchUpdate(SQL_UPDATE_PAGE_WIDGET, new BatchPreparedStatementSetter() {
+
+			@Override
+			public int getBatchSize() {
+				return widgets.size();
+			}
+
+			@Override
+			public void setValues(PreparedStatement ps, int index)
+					throws SQLException {
+				PageWidget each = widgets.get(index);
+				ps.setInt(1, each.getApiRepoId());
+				ps.setString(2, each.getWidgetCode());
+				ps.setString(3, each.getParentId());
+				ps.setInt(4, each.getSeq());
+				ps.setString(5, each.getId());
+			}
+			
+		});
+	}
+
+	private static final String SQL_DELETE_PAGE_WIDGET_BY_ID = "DELETE FROM "+
+			"page_widget "+
+			"WHERE "+
+			"dbid=?";
+
+	@Override
+	public void batchDeleteWidgets(List<String> widgetIds) {
+		jdbcTemplate.batchUpdate(SQL_DELETE_PAGE_WIDGET_BY_ID, new BatchPreparedStatementSetter() {
+
+			@Override
+			public int getBatchSize() {
+				return widgetIds.size();
+			}
+
+			@Override
+			public void setValues(PreparedStatement ps, int index)
+					throws SQLException {
+				ps.setString(1, widgetIds.get(index));
+			}
+			
+		});
+	}
+
+	private static final String SQL_UPDATE_PAGE_WIDGET_ATTR_VALUE = "UPDATE "+
+			"page_widget_attr_value "+
+			"SET "+
+			"page_widget_id=?, "+
+			"widget_attr_code=?, "+
+			"attr_value=?, "+
+			"is_expr=? "+
+			"WHERE "+
+			"dbid=?";
 	
+	@Override
+	public void batchUpdateWidgetProperties(List<PageWidgetAttrValue> properties) {
+		jdbcTemplate.batchUpdate(SQL_UPDATE_PAGE_WIDGET_ATTR_VALUE, new BatchPreparedStatementSetter() {
+
+			@Override
+			public int getBatchSize() {
+				return properties.size();
+			}
+
+			@Override
+			public void setValues(PreparedStatement ps, int index)
+					throws SQLException {
+				PageWidgetAttrValue each = properties.get(index);
+				ps.setString(1, each.getPageWidgetId());
+				ps.setString(2, each.getWidgetAttrCode());
+				ps.setString(3, each.getAttrValue());
+				ps.setBoolean(4, each.isExpr());
+				ps.setString(5, each.getId());
+			}
+			
+		});
+	}
+
+	private static final String SQL_DELETE_PAGE_WIDGET_ATTR_VALUE_BY_ID = "DELETE FROM "+
+			"page_widget_attr_value "+
+			"WHERE "+
+			"dbid=?";
+
+	@Override
+	public void batchDeleteWidgetProperties(List<String> propertyIds) {
+		jdbcTemplate.batchUpdate(SQL_DELETE_PAGE_WIDGET_ATTR_VALUE_BY_ID, new BatchPreparedStatementSetter() {
+
+			@Override
+			public int getBatchSize() {
+				return propertyIds.size();
+			}
+
+			@Override
+			public void setValues(PreparedStatement ps, int index)
+					throws SQLException {
+				ps.setString(1, propertyIds.get(index));
+			}
+			
+		});
+	}
+
 }
@@ -0,0 +1,75 @@
+package com.blocklang.develop.data;
+
+/**
+ * 页面文件写入队列的统计信息
+ * 
+ * @author Zhengwei Jin
+ */
+public class PageFileWriteStats {
+
+	private final int pendingCount;
+	private final long writtenCount;
+	private final long coalescedCount;
+	private final long failedCount;
+	private final long lastFlushLagMillis;
+	private final long maxFlushLagMillis;
+
+	public PageFileWriteStats(int pendingCount, long writtenCount, long coalescedCount, long failedCount,
+			long lastFlushLagMillis, long maxFlushLagMillis) {
+		this.pendingCount = pendingCount;
+		this.writtenCount = writtenCount;
+		this.coalescedCount = coalescedCount;
+		this.failedCount = failedCount;
+		this.lastFlushLagMillis = lastFlushLagMillis;
+		this.maxFlushLagMillis = maxFlushLagMillis;
+	}
+
+	/**
+	 * 队列中待写的页面数
+	 */
+	public int getPendingCount() {
+		return pendingCount;
+	}
+
+	/**
+	 * 已写入的文件数
+	 */
+	public long getWrittenCount() {
+		return writtenCount;
+	}
+
+	/**
+	 * 被合并到待写页面中，不需要单独写入的次数
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount;
+	}
+
+	/**
+	 * 写文件失败的次数
+	 */
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * 最近一次写入的延迟，即从页面加入队列到写完文件的时间，单位毫秒
+	 */
+	public long getLastFlushLagMillis() {
+		return lastFlushLagMillis;
+	}
+
+	/**
+	 * 最大的写入延迟，单位毫秒
+	 */
+	public long getMaxFlushLagMillis() {
+		return maxFlushLagMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "PageFileWriteStats [pendingCount=" + pendingCount + ", writtenCount=" + writtenCount
+				+ ", coalescedCount=" + coalescedCount + ", failedCount=" + failedCount + ", lastFlushLagMillis="
+				+ lastFlushLagMillis + ", maxFlushLagMillis=" + maxFlushLagMillis + "]";
+	}
+}
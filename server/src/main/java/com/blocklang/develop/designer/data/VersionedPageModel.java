@@ -0,0 +1,36 @@
+package com.blocklang.develop.designer.data;
+
+/**
+ * 页面模型及其 ETag，读取页面模型时一起返回，只需查询一次快照
+ * 
+ * @author Zhengwei Jin
+ *
+ */
+public class VersionedPageModel {
+
+	private final PageModel model;
+	private final String eTag;
+
+	/**
+	 * 
+	 * @param model 页面模型
+	 * @param eTag 页面模型的 ETag，如果没有生成快照，则为 null
+	 */
+	public VersionedPageModel(PageModel model, String eTag) {
+		this.model = model;
+		this.eTag = eTag;
+	}
+
+	public PageModel getModel() {
+		return model;
+	}
+
+	/**
+	 * 获取页面模型的 ETag
+	 * 
+	 * @return 页面模型的 ETag，不包含引号；如果没有生成快照，则为 null
+	 */
+	public String getETag() {
+		return eTag;
+	}
+}
@@ -15,6 +15,7 @@ public class AppGlobalContext {
 	
 	private static final String APPS_DIRECTORY_NAME = "apps";
 	private static final String REPO_DIRECTORY_NAME = "repository";
+	private static final String GIT_REPO_ROOT_PATH = "gitRepo";
 
 	protected String dataRootPath; // block lang 站点的项目文件根目录
 	protected String mavenRootPath;
@@ -51,6 +52,15 @@ public class AppGlobalContext {
 		return Paths.get(this.dataRootPath, APPS_DIRECTORY_NAME);
 	}
 	
+	/**
+	 * 存放所有项目 git 仓库的根目录，其下按 {owner}/{projectName} 存放每个项目的 git 仓库
+	 * 
+	 * @return 根目录
+	 */
+	public Path getGitRepositoriesRootDirectory() {
+		return Paths.get(this.dataRootPath, GIT_REPO_ROOT_PATH);
+	}
+	
 	public Path getMavenRepositoryRootDirectory() {
 		return Paths.get(this.mavenRootPath, REPO_DIRECTORY_NAME);
 	}
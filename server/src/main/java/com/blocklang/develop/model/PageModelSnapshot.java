@@ -0,0 +1,106 @@
+package com.blocklang.develop.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+/**
+ * 页面模型快照，存储已解析好部件信息的页面模型，读取页面模型时只需查询一条记录。
+ * 
+ * <p>
+ * 页面模型仍以 page_widget 等表中的记录为准，快照在每次保存页面模型时更新，
+ * 当项目依赖的 API 仓库版本变化时，快照失效，需重新生成。
+ * </p>
+ * 
+ * @author Zhengwei Jin
+ *
+ */
+@Entity
+@Table(name = "page_model_snapshot")
+public class PageModelSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 4410853632471539417L;
+
+	@Id
+	@Column(name = "project_resource_id", updatable = false)
+	private Integer pageId;
+	
+	@Column(name = "project_id", nullable = false)
+	private Integer projectId;
+	
+	/**
+	 * 每次更新快照时加 1，同时用于并发更新时的乐观锁校验
+	 */
+	@Version
+	@Column(name = "model_version", nullable = false)
+	private Integer modelVersion;
+	
+	/**
+	 * 解析部件时使用的 API 仓库版本标识，按从小到大排序，用逗号分隔
+	 */
+	@Column(name = "catalog_versions", nullable = false)
+	private String catalogVersions;
+	
+	/**
+	 * 使用 gzip 压缩后的页面模型 json
+	 */
+	@Column(name = "model_data", nullable = false)
+	private byte[] modelData;
+	
+	@Column(name = "last_update_time")
+	private LocalDateTime lastUpdateTime;
+
+	public Integer getPageId() {
+		return pageId;
+	}
+
+	public void setPageId(Integer pageId) {
+		this.pageId = pageId;
+	}
+
+	public Integer getProjectId() {
+		return projectId;
+	}
+
+	public void setProjectId(Integer projectId) {
+		this.projectId = projectId;
+	}
+
+	public Integer getModelVersion() {
+		return modelVersion;
+	}
+
+	public void setModelVersion(Integer modelVersion) {
+		this.modelVersion = modelVersion;
+	}
+
+	public String getCatalogVersions() {
+		return catalogVersions;
+	}
+
+	public void setCatalogVersions(String catalogVersions) {
+		this.catalogVersions = catalogVersions;
+	}
+
+	public byte[] getModelData() {
+		return modelData;
+	}
+
+	public void setModelData(byte[] modelData) {
+		this.modelData = modelData;
+	}
+
+	public LocalDateTime getLastUpdateTime() {
+		return lastUpdateTime;
+	}
+
+	public void setLastUpdateTime(LocalDateTime lastUpdateTime) {
+		this.lastUpdateTime = lastUpdateTime;
+	}
+
+}
@@ -1,7 +1,6 @@
 package com.blocklang.develop.model;
 
 import java.nio.file.Path;
-import java.nio.file.Paths;
 
 import org.springframework.util.Assert;
 
@@ -13,8 +12,6 @@ import org.springframework.util.Assert;
  */
 public class ProjectContext extends AppGlobalContext{
 	
-	private static final String GIT_REPO_ROOT_PATH = "gitRepo";
-
 	private Integer projectId;
 	protected String owner;
 	protected String projectName;
@@ -46,7 +43,7 @@ public class ProjectContext extends AppGlobalContext{
 	}
 
 	public Path getGitRepositoryDirectory() {
-		return Paths.get(this.dataRootPath, GIT_REPO_ROOT_PATH, this.owner, this.projectName);
+		return getGitRepositoriesRootDirectory().resolve(this.owner).resolve(this.projectName);
 	}
 
 	public Integer getProjectId() {
@@ -1,6 +1,7 @@
 package com.blocklang.develop.model;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Locale;
 
 import javax.persistence.Column;
@@ -44,6 +45,10 @@ public class ProjectResource extends PartialOperateFields{
 	public static final String README_NAME = "README.md";
 	public static final String DEPENDENCE_KEY = "DEPENDENCE";
 	public static final String DEPENDENCE_NAME = "DEPENDENCE.json";
+	/**
+	 * 根目录下资源的 id 路径
+	 */
+	public static final String ROOT_ID_PATH = "/";
 
 	@Column(name = "project_id", nullable = false)
 	private Integer projectId;
@@ -72,6 +77,13 @@ public class ProjectResource extends PartialOperateFields{
 	@Column(name = "seq", nullable = false)
 	private Integer seq;
 	
+	/**
+	 * 所有上级资源的标识，从根目录开始用 / 分隔，如 /1/5/，根目录下的资源为 /。
+	 * 为 null 时表示还没有计算 id 路径，需要按 parent_id 逐级查找。
+	 */
+	@Column(name = "id_path", length = 512)
+	private String idPath;
+	
 	@Transient
 	private String latestCommitId;
 	@Transient
@@ -82,6 +94,11 @@ public class ProjectResource extends PartialOperateFields{
 	private LocalDateTime latestCommitTime;
 	@Transient 
 	private GitFileStatus gitStatus;
+	/**
+	 * 子资源，只在获取资源树时设置
+	 */
+	@Transient
+	private List<ProjectResource> children;
 
 	public Integer getProjectId() {
 		return projectId;
@@ -147,6 +164,26 @@ public class ProjectResource extends PartialOperateFields{
 		this.seq = seq;
 	}
 
+	public String getIdPath() {
+		return idPath;
+	}
+
+	public void setIdPath(String idPath) {
+		this.idPath = idPath;
+	}
+	
+	/**
+	 * 获取子资源的 id 路径，也是所有下级资源 id 路径的前缀
+	 * 
+	 * @return 子资源的 id 路径，如果当前资源没有 id 路径，则返回 null
+	 */
+	public String buildChildIdPath() {
+		if(idPath == null || getId() == null) {
+			return null;
+		}
+		return idPath + getId() + "/";
+	}
+
 	public String getLatestCommitId() {
 		return latestCommitId;
 	}
@@ -297,5 +334,13 @@ public class ProjectResource extends PartialOperateFields{
 	public void setGitStatus(GitFileStatus gitStatus) {
 		this.gitStatus = gitStatus;
 	}
+
+	public List<ProjectResource> getChildren() {
+		return children;
+	}
+
+	public void setChildren(List<ProjectResource> children) {
+		this.children = children;
+	}
 	
 }
@@ -0,0 +1,47 @@
+package com.blocklang.develop.service;
+
+import com.blocklang.develop.data.PageFileWriteStats;
+import com.blocklang.develop.designer.data.PageModel;
+import com.blocklang.develop.model.Project;
+import com.blocklang.develop.model.ProjectResource;
+
+/**
+ * 将页面模型写入 git 仓库工作区中的 json 文件。
+ * 
+ * <p>
+ * 页面设计器会频繁的自动保存页面模型，所以不在保存页面模型的请求中写文件，
+ * 而是按页面合并写文件请求，在一段时间内没有新的修改后，只写入最新的页面模型。
+ * </p>
+ * 
+ * @author Zhengwei Jin
+ */
+public interface PageFileWriteService {
+
+	/**
+	 * 将页面模型加入待写队列，如果该页面已在队列中，则替换为最新的页面模型
+	 * 
+	 * @param project 项目
+	 * @param page 页面
+	 * @param pageModel 页面模型
+	 */
+	void write(Project project, ProjectResource page, PageModel pageModel);
+	
+	/**
+	 * 立即写入项目中所有待写的页面，在查看 git 仓库状态或提交之前调用
+	 * 
+	 * @param projectId 项目标识
+	 */
+	void flush(Integer projectId);
+	
+	/**
+	 * 立即写入所有待写的页面
+	 */
+	void flushAll();
+	
+	/**
+	 * 获取写文件的统计信息
+	 * 
+	 * @return 统计信息
+	 */
+	PageFileWriteStats getStats();
+}
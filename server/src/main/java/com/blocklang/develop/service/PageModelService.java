@@ -0,0 +1,50 @@
+package com.blocklang.develop.service;
+
+import com.blocklang.core.exception.PreconditionFailedException;
+import com.blocklang.develop.designer.data.PageModel;
+import com.blocklang.develop.designer.data.VersionedPageModel;
+
+/**
+ * 保存和读取页面模型
+ * 
+ * @author Zhengwei Jin
+ */
+public interface PageModelService {
+
+	/**
+	 * 将页面模型与数据库中已存储的页面模型按 id 比较，只新增、修改和删除有变化的记录。
+	 * 
+	 * @param pageModel 页面模型
+	 */
+	void updatePageModel(PageModel pageModel);
+	
+	/**
+	 * 与 {@link #updatePageModel(PageModel)} 相同，但在保存之前校验页面模型是否已被其他人修改。
+	 * 
+	 * @param pageModel 页面模型
+	 * @param expectedETag 客户端获取页面模型时得到的 ETag，如果为 null，则不校验
+	 * @return 保存后页面模型的 ETag，如果没有生成快照则返回 null
+	 * @throws PreconditionFailedException 如果页面模型当前的 ETag 与 expectedETag 不相同
+	 */
+	String updatePageModel(PageModel pageModel, String expectedETag);
+	
+	/**
+	 * 获取页面模型。
+	 * 
+	 * 优先从页面模型快照中读取，当快照不存在或项目依赖的 API 仓库版本已变化时，从页面模型的各表中重新生成快照。
+	 * 
+	 * @param projectId 项目标识
+	 * @param pageId 页面标识
+	 * @return 页面模型
+	 */
+	PageModel getPageModel(Integer projectId, Integer pageId);
+	
+	/**
+	 * 获取页面模型及其 ETag，如果快照有效，则只需查询一次快照。
+	 * 
+	 * @param projectId 项目标识
+	 * @param pageId 页面标识
+	 * @return 页面模型及其 ETag
+	 */
+	VersionedPageModel getPageModelWithETag(Integer projectId, Integer pageId);
+}
@@ -70,5 +70,16 @@ public interface ProjectDependenceService {
 	 * @return 先按仓库分组，在根据 category 分组的部件列表
 	 */
 	List<RepoWidgetList> findAllWidgets(Integer projectId);
+	
+	/**
+	 * 获取 {@link #findAllWidgets(Integer)} 返回结果的 ETag。
+	 * 
+	 * 使用项目依赖的 widget 仓库版本和版本中部件内容的 md5 值计算 ETag，
+	 * 项目依赖的版本变化，或者部件重新发布到已依赖的版本后，ETag 才会变化。
+	 * 
+	 * @param projectId 项目标识
+	 * @return ETag
+	 */
+	String getWidgetsETag(Integer projectId);
 
 }
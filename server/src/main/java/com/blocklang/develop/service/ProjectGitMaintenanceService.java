@@ -0,0 +1,14 @@
+package com.blocklang.develop.service;
+
+/**
+ * 定期维护项目的 git 仓库
+ * 
+ * @author Zhengwei Jin
+ */
+public interface ProjectGitMaintenanceService {
+
+	/**
+	 * 检查所有项目的 git 仓库，对松散对象或 pack 文件过多的仓库执行 git gc
+	 */
+	void maintainAll();
+}
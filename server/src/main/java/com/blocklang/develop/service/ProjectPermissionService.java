@@ -100,4 +100,11 @@ public interface ProjectPermissionService {
 	 * @return 权限信息
 	 */
 	AccessLevel findTopestPermission(Principal loginUser, Project project);
+	
+	/**
+	 * 清除项目的所有权限缓存，在新增、修改或删除项目的授权信息后调用。
+	 * 
+	 * @param projectId 项目标识
+	 */
+	void evict(Integer projectId);
 }
@@ -8,6 +8,7 @@ import com.blocklang.develop.constant.AppType;
 import com.blocklang.develop.constant.ProjectResourceType;
 import com.blocklang.develop.data.UncommittedFile;
 import com.blocklang.develop.designer.data.PageModel;
+import com.blocklang.develop.designer.data.VersionedPageModel;
 import com.blocklang.develop.model.Project;
 import com.blocklang.develop.model.ProjectResource;
 
@@ -24,6 +25,16 @@ public interface ProjectResourceService {
 	 */
 	List<ProjectResource> findChildren(Project project, Integer parentResourceId);
 	
+	/**
+	 * 获取资源树，一次查出所有下级资源，并一次获取整个仓库的文件状态和最近提交信息。
+	 * 
+	 * @param project 项目
+	 * @param parentResourceId 从该资源的子资源开始，根目录为 -1
+	 * @param depth 返回的层数，1 表示只返回直接子资源，null 或小于 1 表示返回所有层级
+	 * @return 直接子资源，下级资源保存在 <code>children</code> 中
+	 */
+	List<ProjectResource> findTree(Project project, Integer parentResourceId, Integer depth);
+	
 	/**
 	 * 获取资源的父路径，包含当前资源，如果是根目录，则返回空数组。
 	 * 
@@ -33,6 +44,31 @@ public interface ProjectResourceService {
 	 * @return
 	 */
 	List<String> findParentPathes(Integer resourceId);
+	
+	/**
+	 * 获取资源的父路径，包含当前资源，与 {@link #findParentPathes(Integer)} 相同，
+	 * 但直接使用已查出的资源，只需根据 id 路径一次查出所有上级资源。
+	 * 
+	 * @param resource 项目资源
+	 * @return 资源的父路径，可以修改返回的列表
+	 */
+	List<String> findParentPathes(ProjectResource resource);
+	
+	/**
+	 * 获取资源的所有上级资源，按从根目录到父资源的顺序排列，不包含当前资源。
+	 * 
+	 * @param resource 项目资源
+	 * @return 上级资源列表，如果是根目录下的资源，则返回空列表
+	 */
+	List<ProjectResource> findAncestors(ProjectResource resource);
+	
+	/**
+	 * 获取资源的所有下级资源，不包含当前资源，返回的列表没有排序。
+	 * 
+	 * @param resource 项目资源
+	 * @return 下级资源列表
+	 */
+	List<ProjectResource> findDescendants(ProjectResource resource);
 
 	/**
 	 * 在同一层级下，根据 key 查找
@@ -106,6 +142,17 @@ public interface ProjectResourceService {
 	String commit(UserInfo user, Project project, String commitMessage);
 
 	void updatePageModel(Project project, ProjectResource projectResource, PageModel pageModel);
+	
+	/**
+	 * 保存页面模型，如果页面模型已被其他人修改，则不保存。
+	 * 
+	 * @param project 项目
+	 * @param projectResource 页面
+	 * @param pageModel 页面模型
+	 * @param expectedETag 客户端获取页面模型时得到的 ETag，如果为 null，则不校验
+	 * @return 保存后页面模型的 ETag
+	 */
+	String updatePageModel(Project project, ProjectResource projectResource, PageModel pageModel, String expectedETag);
 
 	/**
 	 * 获取页面模型
@@ -115,6 +162,15 @@ public interface ProjectResourceService {
 	 * @return 返回页面模型，不能返回 null，如果页面模型中没有内容，则返回空的 PageModel 对象
 	 */
 	PageModel getPageModel(Integer projectId, Integer pageId);
+	
+	/**
+	 * 获取页面模型及其 ETag
+	 * 
+	 * @param projectId 项目标识
+	 * @param pageId 页面标识
+	 * @return 页面模型及其 ETag
+	 */
+	VersionedPageModel getPageModelWithETag(Integer projectId, Integer pageId);
 
 	/**
 	 * 默认创建的空页面中包含一个 Page 部件
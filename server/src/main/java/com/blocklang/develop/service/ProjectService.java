@@ -1,5 +1,6 @@
 package com.blocklang.develop.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,6 +54,21 @@ public interface ProjectService {
 	 * @return 项目清单，默认按照项目最近活动时间倒排
 	 */
 	List<Project> findCanAccessProjectsByUserId(Integer userId);
+	
+	/**
+	 * 分页获取用户有权访问的项目，使用上一页最后一个项目作为分页的起点（keyset 分页），
+	 * 查询耗时不随用户有权访问的项目个数增加。
+	 * 
+	 * 传入的是上一页最后一个项目的最近活动时间和标识，而不是重新查询该项目，
+	 * 所以该项目的最近活动时间变化或被删除后，也能正确获取下一页。
+	 * 
+	 * @param userId 用户标识
+	 * @param lastActiveTime 上一页最后一个项目的最近活动时间，如果为 <code>null</code>，则获取第一页
+	 * @param lastProjectId 上一页最后一个项目的标识，如果为 <code>null</code>，则获取第一页
+	 * @param size 每页的项目个数
+	 * @return 项目清单，按照项目最近活动时间倒排
+	 */
+	List<Project> findCanAccessProjectsByUserId(Integer userId, LocalDateTime lastActiveTime, Integer lastProjectId, int size);
 
 	Optional<GitCommitInfo> findLatestCommitInfo(Project project, String relativeFilePath);
 
@@ -0,0 +1,333 @@
+package com.blocklang.develop.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.blocklang.core.constant.CmPropKey;
+import com.blocklang.core.constant.Constant;
+import com.blocklang.core.git.GitRepositoryLocks;
+import com.blocklang.core.git.GitUtils;
+import com.blocklang.core.model.UserInfo;
+import com.blocklang.core.service.PropertyService;
+import com.blocklang.core.service.UserService;
+import com.blocklang.develop.data.PageFileWriteStats;
+import com.blocklang.develop.designer.data.PageModel;
+import com.blocklang.develop.model.Project;
+import com.blocklang.develop.model.ProjectContext;
+import com.blocklang.develop.model.ProjectResource;
+import com.blocklang.develop.service.PageFileWriteService;
+import com.blocklang.develop.service.ProjectResourceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 按页面合并写文件请求，页面在 {@link #DEBOUNCE_MILLIS} 内没有新的修改时才写文件，
+ * 如果页面一直在修改，则最多等待 {@link #MAX_DELAY_MILLIS}。
+ * 
+ * <p>
+ * 最多同时有 {@link #MAX_WRITERS} 个线程写文件，同一个页面按加入队列的顺序写入。
+ * </p>
+ * 
+ * <p>
+ * 写文件失败时，如果期间没有加入新的页面模型，则将页面模型放回队列，
+ * 等待时间从 {@link #DEBOUNCE_MILLIS} 开始逐次加倍，最多 {@link #MAX_RETRY_DELAY_MILLIS}，
+ * 重试 {@link #MAX_RETRIES} 次后仍失败则放弃。
+ * </p>
+ * 
+ * @author Zhengwei Jin
+ */
+@Service
+public class PageFileWriteServiceImpl implements PageFileWriteService {
+
+	private static final Logger logger = LoggerFactory.getLogger(PageFileWriteServiceImpl.class);
+	
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	
+	/**
+	 * 页面最后一次修改后，等待多长时间再写文件，单位毫秒
+	 */
+	private static final long DEBOUNCE_MILLIS = 1000;
+	
+	/**
+	 * 页面一直在修改时，从第一次修改开始最多等待多长时间，单位毫秒
+	 */
+	private static final long MAX_DELAY_MILLIS = 5000;
+	
+	/**
+	 * 写文件失败后，最多等待多长时间再重试，单位毫秒
+	 */
+	private static final long MAX_RETRY_DELAY_MILLIS = 5 * 60 * 1000;
+	
+	/**
+	 * 写文件失败后，最多重试的次数
+	 */
+	private static final int MAX_RETRIES = 10;
+	
+	/**
+	 * 最多同时写文件的线程数
+	 */
+	private static final int MAX_WRITERS = 2;
+	
+	/**
+	 * 按页面标识分段加锁，确保同一个页面不会同时写入
+	 */
+	private static final int LOCK_STRIPES = 64;
+	
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private PropertyService propertyService;
+	@Autowired
+	private ProjectResourceService projectResourceService;
+	
+	/**
+	 * key 为页面标识
+	 */
+	private final Map<Integer, PendingWrite> pending = new ConcurrentHashMap<Integer, PendingWrite>();
+	private final Object[] locks = new Object[LOCK_STRIPES];
+	private final ScheduledExecutorService executor;
+	
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong lastFlushLagMillis = new AtomicLong();
+	private final AtomicLong maxFlushLagMillis = new AtomicLong();
+	
+	public PageFileWriteServiceImpl() {
+		for(int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new Object();
+		}
+		AtomicInteger threadNumber = new AtomicInteger();
+		executor = Executors.newScheduledThreadPool(MAX_WRITERS, runnable -> {
+			Thread thread = new Thread(runnable, "page-file-writer-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	@Override
+	public void write(Project project, ProjectResource page, PageModel pageModel) {
+		// 确保这是一个页面
+		if(!page.isPage()) {
+			logger.warn("往 git 仓库中更新页面模型失败：不是一个有效的页面");
+			return;
+		}
+		
+		long now = System.currentTimeMillis();
+		AtomicBoolean created = new AtomicBoolean(false);
+		pending.compute(page.getId(), (pageId, previous) -> {
+			if(previous == null) {
+				created.set(true);
+				return new PendingWrite(project, page, pageModel, now, now, 0, 0);
+			}
+			// 只保留最新的页面模型，等待时间从第一次修改开始计算，如果正在等待重试，则继续等待
+			return new PendingWrite(project, page, pageModel, previous.firstEnqueueTime, now, previous.failedTimes, previous.retryTime);
+		});
+		
+		if(created.get()) {
+			schedule(page.getId(), DEBOUNCE_MILLIS);
+		} else {
+			coalescedCount.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void flush(Integer projectId) {
+		pending.forEach((pageId, entry) -> {
+			if(entry.project.getId() != null && entry.project.getId().equals(projectId)) {
+				synchronized(lockFor(pageId)) {
+					writeNow(pageId);
+				}
+			}
+		});
+	}
+
+	@Override
+	public void flushAll() {
+		pending.keySet().forEach(pageId -> {
+			synchronized(lockFor(pageId)) {
+				writeNow(pageId);
+			}
+		});
+	}
+
+	@Override
+	public PageFileWriteStats getStats() {
+		return new PageFileWriteStats(pending.size(), writtenCount.get(), coalescedCount.get(), failedCount.get(),
+				lastFlushLagMillis.get(), maxFlushLagMillis.get());
+	}
+	
+	/**
+	 * 程序关闭前写入所有待写的页面
+	 */
+	@PreDestroy
+	public void destroy() {
+		flushAll();
+		executor.shutdownNow();
+	}
+	
+	private void schedule(Integer pageId, long delayMillis) {
+		executor.schedule(() -> flushIfDue(pageId), delayMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	private void flushIfDue(Integer pageId) {
+		synchronized(lockFor(pageId)) {
+			PendingWrite entry = pending.get(pageId);
+			if(entry == null) {
+				// 已在 flush 中写入
+				return;
+			}
+			
+			long delayMillis = entry.getDueTime() - System.currentTimeMillis();
+			if(delayMillis > 0) {
+				// 等待期间页面又被修改了
+				schedule(pageId, delayMillis);
+				return;
+			}
+			writeNow(pageId);
+		}
+	}
+	
+	/**
+	 * 调用此方法前，需要先获取页面对应的锁
+	 */
+	private void writeNow(Integer pageId) {
+		PendingWrite entry = pending.remove(pageId);
+		if(entry == null) {
+			return;
+		}
+		
+		boolean success;
+		try {
+			success = writeFile(entry.project, entry.page, entry.pageModel);
+		} catch (RuntimeException e) {
+			// 如等待 git 仓库的锁超时
+			logger.error("为页面生成 json文件时出错！", e);
+			success = false;
+		}
+		
+		if(!success) {
+			failedCount.incrementAndGet();
+			retry(pageId, entry);
+			return;
+		}
+		
+		writtenCount.incrementAndGet();
+		long lagMillis = System.currentTimeMillis() - entry.firstEnqueueTime;
+		lastFlushLagMillis.set(lagMillis);
+		maxFlushLagMillis.accumulateAndGet(lagMillis, Math::max);
+		logger.debug("写入页面 {} 的 json 文件，延迟 {} 毫秒", pageId, lagMillis);
+	}
+	
+	/**
+	 * 将写入失败的页面模型放回队列，如果期间已加入新的页面模型，则只写入新的页面模型
+	 */
+	private void retry(Integer pageId, PendingWrite entry) {
+		int failedTimes = entry.failedTimes + 1;
+		if(failedTimes > MAX_RETRIES) {
+			logger.error("页面 {} 的 json 文件已写入失败 {} 次，不再重试", pageId, failedTimes);
+			return;
+		}
+		
+		long retryDelayMillis = Math.min(DEBOUNCE_MILLIS << (failedTimes - 1), MAX_RETRY_DELAY_MILLIS);
+		long retryTime = System.currentTimeMillis() + retryDelayMillis;
+		PendingWrite failed = new PendingWrite(entry.project, entry.page, entry.pageModel, entry.firstEnqueueTime,
+				entry.lastEnqueueTime, failedTimes, retryTime);
+		if(pending.putIfAbsent(pageId, failed) == null) {
+			logger.warn("页面 {} 的 json 文件写入失败，{} 毫秒后重试", pageId, retryDelayMillis);
+			schedule(pageId, retryDelayMillis);
+		}
+	}
+	
+	/**
+	 * 将页面模型写入 git 仓库工作区中的 json 文件
+	 * 
+	 * @return 如果写入成功则返回 <code>true</code>；否则返回 <code>false</code>
+	 */
+	private boolean writeFile(Project project, ProjectResource projectResource, PageModel pageModel) {
+		UserInfo user = userService.findById(project.getCreateUserId()).orElse(null);
+		if(user == null) {
+			logger.warn("往 git 仓库中更新页面模型失败：未找到项目创建者的用户信息");
+			return false;
+		}
+		
+		Integer parentResourceId = projectResource.getParentId();
+		String relativeDir = parentResourceId == Constant.TREE_ROOT_ID ? null: String.join("/", projectResourceService.findParentPathes(parentResourceId));
+		
+		return propertyService.findStringValue(CmPropKey.BLOCKLANG_ROOT_PATH).map(rootDir -> {
+			return new ProjectContext(user.getLoginName(), project.getName(), rootDir).getGitRepositoryDirectory();
+		}).map(rootPath -> {
+			Path path = rootPath;
+			if(StringUtils.isNotBlank(relativeDir)) {
+				path = path.resolve(relativeDir);
+			}
+			
+			Path filePath = path.resolve(projectResource.getFileName());
+			return GitRepositoryLocks.write(rootPath, () -> {
+				try {
+					String json = OBJECT_MAPPER.writeValueAsString(pageModel);
+					Files.writeString(filePath, json);
+				} catch (IOException e) {
+					logger.error("为页面生成 json文件时出错！", e);
+					return false;
+				}
+				GitUtils.markChanged(rootPath, rootPath.relativize(filePath).toString());
+				return true;
+			});
+		}).orElseGet(() -> {
+			logger.warn("往 git 仓库中更新页面模型失败：未配置 {}", CmPropKey.BLOCKLANG_ROOT_PATH);
+			return false;
+		});
+	}
+	
+	private Object lockFor(Integer pageId) {
+		return locks[Math.floorMod(pageId.hashCode(), LOCK_STRIPES)];
+	}
+	
+	private static class PendingWrite {
+		private final Project project;
+		private final ProjectResource page;
+		private final PageModel pageModel;
+		private final long firstEnqueueTime;
+		private final long lastEnqueueTime;
+		/**
+		 * 已写入失败的次数
+		 */
+		private final int failedTimes;
+		/**
+		 * 写入失败后，在此时间之前不再重试
+		 */
+		private final long retryTime;
+		
+		private PendingWrite(Project project, ProjectResource page, PageModel pageModel, long firstEnqueueTime, long lastEnqueueTime,
+				int failedTimes, long retryTime) {
+			this.project = project;
+			this.page = page;
+			this.pageModel = pageModel;
+			this.firstEnqueueTime = firstEnqueueTime;
+			this.lastEnqueueTime = lastEnqueueTime;
+			this.failedTimes = failedTimes;
+			this.retryTime = retryTime;
+		}
+		
+		private long getDueTime() {
+			return Math.max(Math.min(lastEnqueueTime + DEBOUNCE_MILLIS, firstEnqueueTime + MAX_DELAY_MILLIS), retryTime);
+		}
+	}
+}
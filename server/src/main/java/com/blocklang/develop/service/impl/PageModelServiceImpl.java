@@ -0,0 +1,1019 @@
+package com.blocklang.develop.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.transaction.Transactional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import com.blocklang.core.exception.PreconditionFailedException;
+import com.blocklang.develop.constant.FlowType;
+import com.blocklang.develop.constant.NodeCategory;
+import com.blocklang.develop.constant.NodeLayout;
+import com.blocklang.develop.constant.PortType;
+import com.blocklang.develop.dao.PageDataDao;
+import com.blocklang.develop.dao.PageDataJdbcDao;
+import com.blocklang.develop.dao.PageFunctionConnectionDao;
+import com.blocklang.develop.dao.PageFunctionConnectionJdbcDao;
+import com.blocklang.develop.dao.PageFunctionDao;
+import com.blocklang.develop.dao.PageFunctionJdbcDao;
+import com.blocklang.develop.dao.PageFunctionNodeDao;
+import com.blocklang.develop.dao.PageFunctionNodeJdbcDao;
+import com.blocklang.develop.dao.PageFunctionNodePortDao;
+import com.blocklang.develop.dao.PageFunctionNodePortJdbcDao;
+import com.blocklang.develop.dao.PageModelSnapshotDao;
+import com.blocklang.develop.dao.PageModelSnapshotDao.SnapshotData;
+import com.blocklang.develop.dao.PageWidgetAttrValueDao;
+import com.blocklang.develop.dao.PageWidgetDao;
+import com.blocklang.develop.dao.PageWidgetJdbcDao;
+import com.blocklang.develop.dao.ProjectResourceDao;
+import com.blocklang.develop.designer.data.AttachedWidget;
+import com.blocklang.develop.designer.data.AttachedWidgetProperty;
+import com.blocklang.develop.designer.data.DataPort;
+import com.blocklang.develop.designer.data.EventArgument;
+import com.blocklang.develop.designer.data.InputDataPort;
+import com.blocklang.develop.designer.data.InputSequencePort;
+import com.blocklang.develop.designer.data.NodeConnection;
+import com.blocklang.develop.designer.data.OutputSequencePort;
+import com.blocklang.develop.designer.data.PageEventHandler;
+import com.blocklang.develop.designer.data.PageModel;
+import com.blocklang.develop.designer.data.VersionedPageModel;
+import com.blocklang.develop.designer.data.VisualNode;
+import com.blocklang.develop.model.PageDataItem;
+import com.blocklang.develop.model.PageFunction;
+import com.blocklang.develop.model.PageFunctionConnection;
+import com.blocklang.develop.model.PageFunctionNode;
+import com.blocklang.develop.model.PageFunctionNodePort;
+import com.blocklang.develop.model.PageModelSnapshot;
+import com.blocklang.develop.model.PageWidget;
+import com.blocklang.develop.model.PageWidgetAttrValue;
+import com.blocklang.develop.model.ProjectDependence;
+import com.blocklang.develop.model.ProjectResource;
+import com.blocklang.develop.service.PageModelService;
+import com.blocklang.develop.service.ProjectDependenceService;
+import com.blocklang.marketplace.constant.ComponentAttrValueType;
+import com.blocklang.marketplace.constant.RepoCategory;
+import com.blocklang.marketplace.data.WidgetCatalog;
+import com.blocklang.marketplace.service.WidgetCatalogService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 页面设计器每次保存时，通常只修改了几个属性，所以不再先删除页面的所有记录再全部插入，
+ * 而是先查出已存储的记录，按 id 与新的页面模型比较，只新增、修改和删除有变化的记录。
+ * 
+ * <p>
+ * 删除时先删除子表中的记录，新增和修改时先处理主表中的记录，所有操作在同一个事务中执行。
+ * </p>
+ * 
+ * <p>
+ * page_data 和 page_widget_attr_value 表上有唯一约束，重命名数据项后再新增一个与旧名称同名的数据项，
+ * 或互换两个数据项的名称时，直接新增或修改会违反唯一约束（PostgreSQL 会立即检查唯一约束），
+ * 所以唯一约束中的字段变化时，先删除再重新插入该记录，并且先修改再新增。
+ * </p>
+ * 
+ * <p>
+ * 保存页面模型时，在同一个事务中将解析好部件信息的页面模型压缩后存到 page_model_snapshot 表中，
+ * 读取页面模型时只需查询快照。快照中记录了解析部件时使用的 API 仓库版本和部件内容的 md5 值，
+ * 当项目依赖的版本变化或部件重新发布到已依赖的版本时，再从页面模型的各表中重新生成快照。
+ * </p>
+ * 
+ * <p>
+ * 保存页面模型和重新生成快照时都会先锁定页面所在的行，同一个页面的快照依次写入，
+ * 所以保存时只需比较页面模型内容的 ETag，重新生成快照不会导致保存失败。
+ * </p>
+ * 
+ * @author Zhengwei Jin
+ */
+@Service
+public class PageModelServiceImpl implements PageModelService {
+
+	private static final Logger logger = LoggerFactory.getLogger(PageModelServiceImpl.class);
+	
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	
+	@Autowired
+	private PageWidgetDao pageWidgetDao;
+	@Autowired
+	private PageWidgetJdbcDao pageWidgetJdbcDao;
+	@Autowired
+	private PageWidgetAttrValueDao pageWidgetAttrValueDao;
+	@Autowired
+	private PageDataDao pageDataDao;
+	@Autowired
+	private PageDataJdbcDao pageDataJdbcDao;
+	@Autowired
+	private PageFunctionDao pageFunctionDao;
+	@Autowired
+	private PageFunctionJdbcDao pageFunctionJdbcDao;
+	@Autowired
+	private PageFunctionNodeDao pageFunctionNodeDao;
+	@Autowired
+	private PageFunctionNodeJdbcDao pageFunctionNodeJdbcDao;
+	@Autowired
+	private PageFunctionNodePortDao pageFunctionNodePortDao;
+	@Autowired
+	private PageFunctionNodePortJdbcDao pageFunctionNodePortJdbcDao;
+	@Autowired
+	private PageFunctionConnectionDao pageFunctionConnectionDao;
+	@Autowired
+	private PageFunctionConnectionJdbcDao pageFunctionConnectionJdbcDao;
+	@Autowired
+	private PageModelSnapshotDao pageModelSnapshotDao;
+	@Autowired
+	private ProjectResourceDao projectResourceDao;
+	@Autowired
+	private ProjectDependenceService projectDependenceService;
+	@Autowired
+	private WidgetCatalogService widgetCatalogService;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
+	@Transactional
+	@Override
+	public void updatePageModel(PageModel pageModel) {
+		updatePageModel(pageModel, null);
+	}
+	
+	@Transactional
+	@Override
+	public String updatePageModel(PageModel pageModel, String expectedETag) {
+		Integer pageId = pageModel.getPageId();
+		// 锁定页面，直到保存完成，期间其他请求不能保存页面模型或重新生成快照
+		Optional<ProjectResource> pageOption = projectResourceDao.findWithLockById(pageId);
+		
+		// 在修改任何记录之前，先校验页面模型是否已被其他人修改
+		if(expectedETag != null) {
+			String currentETag = pageOption.map(page -> getCurrentETag(page.getProjectId(), pageId)).orElse(null);
+			if(!expectedETag.equals(currentETag)) {
+				throw new PreconditionFailedException();
+			}
+		}
+		
+		// 一. 将页面模型转换为数据库中的记录
+		List<PageWidget> widgets = new ArrayList<>();
+		List<PageWidgetAttrValue> properties = new ArrayList<>();
+		toWidgets(pageId, pageModel.getWidgets(), widgets, properties);
+		
+		List<PageDataItem> allData = toData(pageId, pageModel.getData());
+		
+		List<PageFunction> funcs = new ArrayList<>();
+		List<PageFunctionNode> nodes = new ArrayList<>();
+		List<PageFunctionNodePort> ports = new ArrayList<>();
+		List<PageFunctionConnection> connections = new ArrayList<>();
+		toFunctions(pageId, pageModel.getFunctions(), funcs, nodes, ports, connections);
+		
+		// 二. 与已存储的记录比较
+		List<PageWidget> storedWidgets = pageWidgetDao.findAllByPageIdOrderBySeq(pageId);
+		List<PageWidgetAttrValue> storedProperties = storedWidgets.isEmpty() ? Collections.emptyList() : pageWidgetAttrValueDao
+				.findAllByPageWidgetIdIn(storedWidgets.stream().map(PageWidget::getId).collect(Collectors.toList()));
+		
+		RowDiff<PageWidget> widgetDiff = RowDiff.compare(storedWidgets, widgets, PageWidget::getId, this::isSameWidget);
+		RowDiff<PageWidgetAttrValue> propertyDiff = RowDiff.compare(storedProperties, properties, PageWidgetAttrValue::getId, this::isSameProperty, this::isSamePropertyKey);
+		RowDiff<PageDataItem> dataDiff = RowDiff.compare(pageDataDao.findAllByPageId(pageId), allData, PageDataItem::getId, this::isSameData, this::isSameDataKey);
+		// 函数中只存储了 id，所以只有新增和删除
+		RowDiff<PageFunction> funcDiff = RowDiff.compare(pageFunctionDao.findAllByPageId(pageId), funcs, PageFunction::getId, (stored, current) -> true);
+		RowDiff<PageFunctionNode> nodeDiff = RowDiff.compare(pageFunctionNodeDao.findAllByPageId(pageId), nodes, PageFunctionNode::getId, this::isSameNode);
+		RowDiff<PageFunctionNodePort> portDiff = RowDiff.compare(pageFunctionNodePortDao.findAllByPageId(pageId), ports, PageFunctionNodePort::getId, this::isSamePort);
+		RowDiff<PageFunctionConnection> connectionDiff = RowDiff.compare(pageFunctionConnectionDao.findAllByPageId(pageId), connections, PageFunctionConnection::getId, this::isSameConnection);
+		
+		// 三. 先删除子表中的记录
+		if(!connectionDiff.deletedIds.isEmpty()) {
+			pageFunctionConnectionJdbcDao.batchDelete(connectionDiff.deletedIds);
+		}
+		if(!portDiff.deletedIds.isEmpty()) {
+			pageFunctionNodePortJdbcDao.batchDelete(portDiff.deletedIds);
+		}
+		if(!nodeDiff.deletedIds.isEmpty()) {
+			pageFunctionNodeJdbcDao.batchDelete(nodeDiff.deletedIds);
+		}
+		if(!funcDiff.deletedIds.isEmpty()) {
+			pageFunctionJdbcDao.batchDelete(funcDiff.deletedIds);
+		}
+		if(!propertyDiff.deletedIds.isEmpty()) {
+			pageWidgetJdbcDao.batchDeleteWidgetProperties(propertyDiff.deletedIds);
+		}
+		if(!widgetDiff.deletedIds.isEmpty()) {
+			pageWidgetJdbcDao.batchDeleteWidgets(widgetDiff.deletedIds);
+		}
+		if(!dataDiff.deletedIds.isEmpty()) {
+			pageDataJdbcDao.batchDelete(dataDiff.deletedIds);
+		}
+		
+		// 四. 再新增和修改，先处理主表中的记录；有唯一约束的表先修改再新增
+		if(!widgetDiff.inserted.isEmpty()) {
+			pageWidgetJdbcDao.batchSaveWidgets(widgetDiff.inserted);
+		}
+		if(!widgetDiff.updated.isEmpty()) {
+			pageWidgetJdbcDao.batchUpdateWidgets(widgetDiff.updated);
+		}
+		if(!propertyDiff.updated.isEmpty()) {
+			pageWidgetJdbcDao.batchUpdateWidgetProperties(propertyDiff.updated);
+		}
+		if(!propertyDiff.inserted.isEmpty()) {
+			pageWidgetJdbcDao.batchSaveWidgetProperties(propertyDiff.inserted);
+		}
+		if(!dataDiff.updated.isEmpty()) {
+			pageDataJdbcDao.batchUpdate(dataDiff.updated);
+		}
+		if(!dataDiff.inserted.isEmpty()) {
+			pageDataJdbcDao.batchSave(dataDiff.inserted);
+		}
+		if(!funcDiff.inserted.isEmpty()) {
+			pageFunctionJdbcDao.batchSave(funcDiff.inserted);
+		}
+		if(!nodeDiff.inserted.isEmpty()) {
+			pageFunctionNodeJdbcDao.batchSave(nodeDiff.inserted);
+		}
+		if(!nodeDiff.updated.isEmpty()) {
+			pageFunctionNodeJdbcDao.batchUpdate(nodeDiff.updated);
+		}
+		if(!portDiff.inserted.isEmpty()) {
+			pageFunctionNodePortJdbcDao.batchSave(portDiff.inserted);
+		}
+		if(!portDiff.updated.isEmpty()) {
+			pageFunctionNodePortJdbcDao.batchUpdate(portDiff.updated);
+		}
+		if(!connectionDiff.inserted.isEmpty()) {
+			pageFunctionConnectionJdbcDao.batchSave(connectionDiff.inserted);
+		}
+		if(!connectionDiff.updated.isEmpty()) {
+			pageFunctionConnectionJdbcDao.batchUpdate(connectionDiff.updated);
+		}
+		
+		logger.debug("保存页面 {} 的模型，部件 {}，属性 {}，数据 {}，函数 {}，节点 {}，端口 {}，连接 {}", 
+				pageId, widgetDiff, propertyDiff, dataDiff, funcDiff, nodeDiff, portDiff, connectionDiff);
+		
+		// 五. 更新页面模型快照
+		return saveSnapshot(pageId, pageOption, widgets, properties, allData, funcs, nodes, ports, connections);
+	}
+	
+	/**
+	 * 在锁定页面后获取页面模型当前的 ETag。
+	 * 
+	 * 如果快照不存在（如生成快照失败后已删除）或已失效，则与读取页面模型时一样，先重新生成快照，再返回快照的 ETag。
+	 */
+	private String getCurrentETag(Integer projectId, Integer pageId) {
+		Map<Integer, WidgetCatalog> catalogs = findWidgetCatalogs(projectId);
+		String catalogVersions = toCatalogVersions(catalogs);
+		Optional<SnapshotData> snapshotOption = pageModelSnapshotDao.findDataByPageId(pageId);
+		if(snapshotOption.isPresent() && catalogVersions.equals(snapshotOption.get().getCatalogVersions())) {
+			return toETag(snapshotOption.get().getModelData());
+		}
+		
+		// 已锁定页面，在当前事务中重新生成快照
+		return rebuildSnapshot(projectId, pageId, catalogs, catalogVersions).getETag();
+	}
+	
+	@Override
+	public PageModel getPageModel(Integer projectId, Integer pageId) {
+		return getPageModelWithETag(projectId, pageId).getModel();
+	}
+	
+	@Override
+	public VersionedPageModel getPageModelWithETag(Integer projectId, Integer pageId) {
+		Map<Integer, WidgetCatalog> catalogs = findWidgetCatalogs(projectId);
+		String catalogVersions = toCatalogVersions(catalogs);
+		
+		// 一. 如果快照是基于项目当前依赖的 API 仓库版本生成的，则直接返回快照
+		Optional<VersionedPageModel> snapshotModel = readSnapshot(pageId, catalogVersions);
+		if(snapshotModel.isPresent()) {
+			return snapshotModel.get();
+		}
+		
+		// 二. 否则在锁定页面后，从页面模型的各表中重新生成快照
+		return transactionTemplate.execute(status -> rebuildSnapshot(projectId, pageId, catalogs, catalogVersions));
+	}
+	
+	/**
+	 * 如果快照是基于 catalogVersions 生成的，则返回快照中的页面模型和快照的 ETag
+	 */
+	private Optional<VersionedPageModel> readSnapshot(Integer pageId, String catalogVersions) {
+		Optional<SnapshotData> snapshotOption = pageModelSnapshotDao.findDataByPageId(pageId);
+		if(snapshotOption.isPresent() && catalogVersions.equals(snapshotOption.get().getCatalogVersions())) {
+			byte[] modelData = snapshotOption.get().getModelData();
+			try {
+				return Optional.of(new VersionedPageModel(decompress(modelData), toETag(modelData)));
+			} catch (IOException e) {
+				logger.error("读取页面 " + pageId + " 的模型快照时出错，重新生成快照", e);
+			}
+		}
+		return Optional.empty();
+	}
+	
+	/**
+	 * 在事务中执行，与保存页面模型时一样先锁定页面，所以不会与保存页面模型同时写入快照。
+	 */
+	private VersionedPageModel rebuildSnapshot(Integer projectId, Integer pageId, Map<Integer, WidgetCatalog> catalogs, String catalogVersions) {
+		Optional<ProjectResource> pageOption = projectResourceDao.findWithLockById(pageId);
+		
+		// 等待锁期间，其他请求可能已保存了页面模型或重新生成了快照
+		Optional<VersionedPageModel> snapshotModel = readSnapshot(pageId, catalogVersions);
+		if(snapshotModel.isPresent()) {
+			return snapshotModel.get();
+		}
+		
+		PageModel model = loadPageModel(pageId, catalogs);
+		if(pageOption.isEmpty()) {
+			return new VersionedPageModel(model, null);
+		}
+		
+		// 快照只用于加快读取，生成快照失败时不影响返回结果
+		PageModelSnapshot snapshot = pageModelSnapshotDao.findById(pageId).orElseGet(PageModelSnapshot::new);
+		try {
+			fillSnapshot(snapshot, projectId, pageId, catalogVersions, model);
+			pageModelSnapshotDao.save(snapshot);
+		} catch (IOException e) {
+			logger.warn("保存页面 " + pageId + " 的模型快照失败", e);
+			return new VersionedPageModel(model, null);
+		}
+		return new VersionedPageModel(model, toETag(snapshot.getModelData()));
+	}
+	
+	/**
+	 * 从页面模型的各表中生成页面模型
+	 */
+	private PageModel loadPageModel(Integer pageId, Map<Integer, WidgetCatalog> catalogs) {
+		List<PageWidget> widgets = pageWidgetDao.findAllByPageIdOrderBySeq(pageId);
+		List<PageWidgetAttrValue> properties = widgets.isEmpty() ? Collections.emptyList() : pageWidgetAttrValueDao
+				.findAllByPageWidgetIdIn(widgets.stream().map(PageWidget::getId).collect(Collectors.toList()));
+		List<PageDataItem> data = pageDataDao.findAllByPageId(pageId);
+		// 因为事件处理函数是与部件上的事件绑定的，所以这里加一层判断，尽量减少查询次数
+		List<PageFunction> funcs = widgets.isEmpty() ? Collections.emptyList() : pageFunctionDao.findAllByPageId(pageId);
+		List<PageFunctionNode> nodes = funcs.isEmpty() ? Collections.emptyList() : pageFunctionNodeDao.findAllByPageId(pageId);
+		List<PageFunctionNodePort> ports = nodes.isEmpty() ? Collections.emptyList() : pageFunctionNodePortDao.findAllByPageId(pageId);
+		List<PageFunctionConnection> connections = ports.isEmpty() ? Collections.emptyList() : pageFunctionConnectionDao.findAllByPageId(pageId);
+		
+		return toPageModel(pageId, catalogs, widgets, properties, data, funcs, nodes, ports, connections);
+	}
+	
+	/**
+	 * 在保存页面模型的事务中更新快照。
+	 * 
+	 * 直接使用内存中的记录生成页面模型，因为刚通过 jdbc 修改了这些表，再通过 jpa 查询会取到一级缓存中的旧记录。
+	 * 
+	 * @return 快照的 ETag，如果没有生成快照则返回 null
+	 */
+	private String saveSnapshot(
+			Integer pageId, 
+			Optional<ProjectResource> pageOption, 
+			List<PageWidget> widgets, 
+			List<PageWidgetAttrValue> properties, 
+			List<PageDataItem> data,
+			List<PageFunction> funcs,
+			List<PageFunctionNode> nodes,
+			List<PageFunctionNodePort> ports,
+			List<PageFunctionConnection> connections) {
+		Optional<PageModelSnapshot> snapshotOption = pageModelSnapshotDao.findById(pageId);
+		if(pageOption.isEmpty()) {
+			snapshotOption.ifPresent(pageModelSnapshotDao::delete);
+			return null;
+		}
+		
+		Integer projectId = pageOption.get().getProjectId();
+		Map<Integer, WidgetCatalog> catalogs = findWidgetCatalogs(projectId);
+		PageModelSnapshot snapshot = snapshotOption.orElseGet(PageModelSnapshot::new);
+		try {
+			PageModel model = toPageModel(pageId, catalogs, widgets, properties, data, funcs, nodes, ports, connections);
+			fillSnapshot(snapshot, projectId, pageId, toCatalogVersions(catalogs), model);
+		} catch (IOException | RuntimeException e) {
+			// 生成快照失败时不影响保存页面模型，删除旧快照，下次读取时再从表中生成
+			logger.error("生成页面 " + pageId + " 的模型快照时出错", e);
+			snapshotOption.ifPresent(pageModelSnapshotDao::delete);
+			return null;
+		}
+		
+		pageModelSnapshotDao.save(snapshot);
+		return toETag(snapshot.getModelData());
+	}
+	
+	private void fillSnapshot(PageModelSnapshot snapshot, Integer projectId, Integer pageId, String catalogVersions, PageModel model) throws IOException {
+		snapshot.setPageId(pageId);
+		snapshot.setProjectId(projectId);
+		snapshot.setCatalogVersions(catalogVersions);
+		snapshot.setModelData(compress(model));
+		snapshot.setLastUpdateTime(LocalDateTime.now());
+	}
+	
+	/**
+	 * 使用压缩后的页面模型的 md5 值作为 ETag，页面模型的内容不变时 ETag 也不变
+	 */
+	private String toETag(byte[] modelData) {
+		return DigestUtils.md5DigestAsHex(modelData);
+	}
+	
+	/**
+	 * 获取项目依赖的所有 widget 仓库中的部件，从缓存中获取
+	 * 
+	 * @param projectId 项目标识
+	 * @return key 为 apiRepoId
+	 */
+	private Map<Integer, WidgetCatalog> findWidgetCatalogs(Integer projectId) {
+		Map<Integer, WidgetCatalog> result = new HashMap<>();
+		// 1. 获取项目的所有依赖
+		List<Integer> componentRepoVersionIds = projectDependenceService
+			.findAllByProjectId(projectId)
+			.stream()
+			.map(ProjectDependence::getComponentRepoVersionId)
+			.collect(Collectors.toList());
+		widgetCatalogService
+			// 2. 一次找出组件仓库版本对应的 API 仓库版本中的所有部件
+			.findAllByComponentRepoVersionIds(componentRepoVersionIds)
+			.stream()
+			// 3. 过滤出其中的 widget 仓库
+			.filter(catalog -> catalog.getCategory() == RepoCategory.WIDGET)
+			.forEach(catalog -> result.put(catalog.getApiRepoId(), catalog));
+		return result;
+	}
+	
+	/**
+	 * 将 API 仓库版本标识按从小到大排序后，用逗号拼接，再加上这些版本中部件内容的 md5 值，
+	 * 项目依赖的版本变化或部件重新发布到已依赖的版本后，快照失效
+	 */
+	private String toCatalogVersions(Map<Integer, WidgetCatalog> catalogs) {
+		if(catalogs.isEmpty()) {
+			return "";
+		}
+		List<WidgetCatalog> sortedCatalogs = catalogs.values()
+				.stream()
+				.sorted(Comparator.comparing(WidgetCatalog::getApiRepoVersionId))
+				.collect(Collectors.toList());
+		String versions = sortedCatalogs.stream()
+				.map(catalog -> String.valueOf(catalog.getApiRepoVersionId()))
+				.collect(Collectors.joining(","));
+		// 只存储所有部件内容的 md5 值，避免超出字段长度
+		String contentHashes = sortedCatalogs.stream()
+				.map(WidgetCatalog::getContentHash)
+				.collect(Collectors.joining(","));
+		return versions + ";" + DigestUtils.md5DigestAsHex(contentHashes.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private byte[] compress(PageModel model) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			OBJECT_MAPPER.writeValue(gzip, model);
+		}
+		return out.toByteArray();
+	}
+	
+	private PageModel decompress(byte[] modelData) throws IOException {
+		try(GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(modelData))) {
+			return OBJECT_MAPPER.readValue(gzip, PageModel.class);
+		}
+	}
+	
+	private PageModel toPageModel(
+			Integer pageId, 
+			Map<Integer, WidgetCatalog> catalogs,
+			List<PageWidget> pageWidgets, 
+			List<PageWidgetAttrValue> properties, 
+			List<PageDataItem> pageData,
+			List<PageFunction> funcs,
+			List<PageFunctionNode> nodes,
+			List<PageFunctionNodePort> ports,
+			List<PageFunctionConnection> connections) {
+		PageModel model = new PageModel();
+		
+		model.setPageId(pageId);
+		
+		List<AttachedWidget> widgets = toAttachedWidgets(catalogs, pageWidgets, properties);
+		model.setWidgets(widgets);
+		
+		model.setData(pageData);
+		
+		List<PageEventHandler> functions;
+		// 因为事件处理函数是与部件上的事件绑定的，所以这里加一层判断
+		if(widgets.isEmpty()) {
+			functions = Collections.emptyList();
+		}else {
+			// 获取页面中所有事件
+			List<AttachedWidgetProperty> events = widgets.stream().flatMap(widget -> {
+				return widget.getProperties().stream().filter(prop -> prop.getValueType().equals(ComponentAttrValueType.FUNCTION.getKey()));
+			}).collect(Collectors.toList());
+			functions = toPageEventHandlers(events, pageData, funcs, nodes, ports, connections);
+		}
+		model.setFunctions(functions);
+		
+		return model;
+	}
+
+	private List<AttachedWidget> toAttachedWidgets(Map<Integer, WidgetCatalog> catalogs, List<PageWidget> pageWidgets, List<PageWidgetAttrValue> widgetAttrValues) {
+		if(pageWidgets.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		// 以下逻辑是用来支持版本升级的
+		// 根据项目依赖的部件列表来匹配，当项目中没有添加部件所属 API 仓库的依赖时，部件不会匹配到任何属性
+		Map<String, WidgetCatalog.Component> matchedComponents = new HashMap<>();
+		pageWidgets.forEach(item -> {
+			WidgetCatalog catalog = catalogs.get(item.getApiRepoId());
+			if(catalog != null) {
+				catalog.findComponentByCode(item.getWidgetCode()).ifPresent(component -> matchedComponents.put(item.getId(), component));
+			}
+		});
+		
+		// 页面中所有部件实例的属性值，key 为部件实例 id，value 的 key 为属性编码
+		Map<String, Map<String, PageWidgetAttrValue>> attrValues = new HashMap<>();
+		widgetAttrValues.forEach(attrValue -> {
+			attrValues
+				.computeIfAbsent(attrValue.getPageWidgetId(), key -> new HashMap<>())
+				.putIfAbsent(attrValue.getWidgetAttrCode(), attrValue);
+		});
+		
+		return pageWidgets.stream().map(item -> {
+			AttachedWidget result = new AttachedWidget();
+			result.setId(item.getId());
+			result.setParentId(item.getParentId());
+			result.setWidgetCode(item.getWidgetCode());
+			result.setApiRepoId(item.getApiRepoId());
+			
+			WidgetCatalog.Component component = matchedComponents.get(item.getId());
+			if(component == null) {
+				result.setProperties(Collections.emptyList());
+				return result;
+			}
+			
+			// 因为页面设计器中需要根据 widgetName 来定位部件实例，所以不能使用 label
+			result.setWidgetName(component.getName());
+			result.setWidgetId(component.getId());
+			result.setCanHasChildren(component.getCanHasChildren());
+			
+			Map<String, PageWidgetAttrValue> attachedProperties = attrValues.getOrDefault(item.getId(), Collections.emptyMap());
+			
+			List<AttachedWidgetProperty> properties = component
+					.getAttrs()
+					.stream()
+					.map(componentAttr -> {
+						// 注意，属性列表要先获取部件的属性列表，然后再赋值，确保新增的属性（页面模型中未添加）也能包括进来
+						// 部件属性基本信息
+						AttachedWidgetProperty property = new AttachedWidgetProperty();
+						property.setCode(componentAttr.getCode());
+						
+						// name 只能取 name，不能取 label
+						property.setName(componentAttr.getName());
+						property.setValueType(componentAttr.getValueType().getKey());
+						// 如果属性为事件，则添加事件参数
+						if(componentAttr.getValueType() == ComponentAttrValueType.FUNCTION) {
+							List<EventArgument> eventArgs = componentAttr.getFunArgs().stream().map(arg -> {
+								EventArgument ea = new EventArgument();
+								ea.setCode(arg.getCode());
+								ea.setName(arg.getName());
+								ea.setLabel(arg.getLabel());
+								ea.setValueType(arg.getValueType().getKey());
+								ea.setDefaultValue(arg.getDefaultValue());
+								ea.setDescription(arg.getDescription());
+								return ea;
+							}).collect(Collectors.toList());
+							property.setEventArgs(eventArgs);
+						}
+						
+						// 以下设置部件属性的实例信息
+						PageWidgetAttrValue matchedAttr = attachedProperties.get(componentAttr.getCode());
+						if(matchedAttr != null) {
+							property.setId(matchedAttr.getId());
+							// 如果实例中没有设置值，则取默认值，如果没有默认值，则保持为 null
+							String value = matchedAttr.getAttrValue();
+							if(StringUtils.isBlank(value)) {
+								value = componentAttr.getDefaultValue();
+							}
+							property.setValue(value);
+						} else {
+							// id 的值，如果是新增属性，则根据部件实例 id 和属性编码生成一个 id，
+							// 确保每次从表中生成的页面模型都相同，ETag 也相同
+							property.setId(toPropertyId(item.getId(), componentAttr.getCode()));
+							// 如果实例中没有设置值，则取默认值，否则保持为 null
+							property.setValue(componentAttr.getDefaultValue());
+						}
+						return property;
+					})
+					.collect(Collectors.toList());
+			result.setProperties(properties);
+			return result;
+		}).collect(Collectors.toList());
+	}
+	
+	private String toPropertyId(String widgetId, String attrCode) {
+		return UUID.nameUUIDFromBytes((widgetId + ":" + attrCode).getBytes(StandardCharsets.UTF_8)).toString().replace("-", "");
+	}
+	
+	private List<PageEventHandler> toPageEventHandlers(
+			List<AttachedWidgetProperty> events, 
+			List<PageDataItem> pageData,
+			List<PageFunction> functions,
+			List<PageFunctionNode> nodes,
+			List<PageFunctionNodePort> ports,
+			List<PageFunctionConnection> connections) {
+		return functions.stream().map(func -> {
+			PageEventHandler handler = new PageEventHandler();
+			
+			handler.setId(func.getId());
+			
+			// 获取对应的事件定义，因为肯定会存在对应的事件定义，所以这里直接使用 get()
+			AttachedWidgetProperty event = events.stream().filter(e -> e.getValue().equals(func.getId())).findAny().get();
+			
+			// 过滤出当前函数中的节点
+			List<VisualNode> visualNodes = nodes.stream().filter(node -> node.getFunctionId().equals(func.getId())).map(node -> {
+				VisualNode visualNode = new VisualNode();
+				visualNode.setId(node.getId());
+				visualNode.setLeft(node.getLeft());
+				visualNode.setTop(node.getTop());
+				
+				String dataItemId = node.getDataItemId();
+				visualNode.setDataItemId(dataItemId);
+				
+				Optional<PageDataItem> refDataItemOption = pageData
+					.stream()
+					.filter(dataItem -> dataItem.getId().equals(dataItemId))
+					.findAny();
+				
+				// 如果是函数定义，则从事件定义中获取相关信息
+				if(node.getCategory() == NodeCategory.FUNCTION) {
+					visualNode.setCaption("事件处理函数");
+					visualNode.setText(event.getName());
+				} else if(node.getCategory() == NodeCategory.VARIABLE_SET) {
+					refDataItemOption
+						.ifPresentOrElse(dataItem -> visualNode.setCaption("Set " + dataItem.getName()), ()->{
+							// TODO: 打印错误日志
+						});
+				} else if(node.getCategory() == NodeCategory.VARIABLE_GET) {
+					refDataItemOption
+						.ifPresentOrElse(dataItem -> visualNode.setCaption("Get " + dataItem.getName()), ()->{
+							// TODO: 打印错误日志
+						});
+				}
+				
+				visualNode.setLayout(node.getLayout().getKey());
+				visualNode.setCategory(node.getCategory().getKey());
+				
+				ports.stream().filter(port -> port.getNodeId().equals(node.getId())).forEach(port -> {
+					if(port.getPortType() == PortType.SEQUENCE) {
+						if(port.getFlowType() == FlowType.INPUT) {
+							// input sequence port
+							InputSequencePort isp = new InputSequencePort();
+							isp.setId(port.getId());
+							visualNode.setInputSequencePort(isp);
+						} else if(port.getFlowType() == FlowType.OUTPUT) {
+							// output sequence port
+							OutputSequencePort osp = new OutputSequencePort();
+							osp.setId(port.getId());
+							osp.setText(port.getOutputSequencePortText());
+							visualNode.addOutputSequencePort(osp);
+						}
+					}else if(port.getPortType() == PortType.DATA) {
+						if(port.getFlowType() == FlowType.INPUT) {
+							// input data port
+							InputDataPort idp = new InputDataPort();
+							idp.setId(port.getId());
+							if(node.getCategory() == NodeCategory.VARIABLE_SET) {
+								idp.setName("set"); // 固定值
+								// 获取变量定义中的类型信息
+								refDataItemOption.ifPresent(dataItem -> idp.setType(dataItem.getType()));
+								idp.setValue(port.getInputDataPortValue());
+							}
+							visualNode.addInputDataPort(idp);
+						} else if(port.getFlowType() == FlowType.OUTPUT) {
+							// output data port
+							if(node.getCategory() == NodeCategory.FUNCTION) {
+								event.getEventArgs().forEach(arg -> {
+									DataPort odp = new DataPort();
+									odp.setId(port.getId());
+									odp.setName(arg.getName());
+									odp.setType(arg.getValueType());
+									visualNode.addOutputDataPort(odp);
+								});
+							}else if(node.getCategory() == NodeCategory.VARIABLE_GET) {
+								// variable get 节点只有一个 output data port
+								DataPort odp = new DataPort();
+								odp.setId(port.getId());
+								odp.setName("value");
+								refDataItemOption.ifPresent(dataItem -> odp.setType(dataItem.getType()));
+								
+								visualNode.addOutputDataPort(odp);
+							}
+						}
+					}
+				});
+				
+				return visualNode;
+			}).collect(Collectors.toList());
+			handler.setNodes(visualNodes);
+			
+			List<NodeConnection> dataConnections = new ArrayList<NodeConnection>();
+			List<NodeConnection> sequenceConnections = new ArrayList<NodeConnection>();
+			// 过滤出当前函数的连接
+			connections.stream().filter(conn -> conn.getFunctionId().equals(func.getId())).forEach(conn -> {
+				NodeConnection nodeConnection = new NodeConnection();
+				nodeConnection.setId(conn.getId());
+				nodeConnection.setFromNode(conn.getFromNodeId());
+				nodeConnection.setFromOutput(conn.getFromOutputPortId());
+				nodeConnection.setToNode(conn.getToNodeId());
+				nodeConnection.setToInput(conn.getToInputPortId());
+				
+				String fromNodeId = conn.getFromNodeId();
+				String fromOutputId = conn.getFromOutputPortId();
+				// 找到节点 -> 然后从节点中找到端口 -> 判断端口的类型 -> 将连接分为序列连接和数据连接
+				visualNodes.stream().filter(visualNode -> visualNode.getId().equals(fromNodeId)).findAny().ifPresent(visualNode -> {
+					if(visualNode.getOutputSequencePorts().stream().anyMatch(osp -> fromOutputId.equals(osp.getId()))) {
+						sequenceConnections.add(nodeConnection);
+					}else {
+						dataConnections.add(nodeConnection);
+					}
+				});
+			});
+			
+			handler.setSequenceConnections(sequenceConnections);
+			handler.setDataConnections(dataConnections);
+			
+			return handler;
+		}).collect(Collectors.toList());
+	}
+	
+
+	private void toWidgets(Integer pageId, List<AttachedWidget> attachedWidgets, List<PageWidget> widgets, List<PageWidgetAttrValue> properties) {
+		for(int i = 0; i < attachedWidgets.size(); i++) {
+			AttachedWidget attachedWidget = attachedWidgets.get(i);
+			PageWidget widget = new PageWidget();
+			widget.setId(attachedWidget.getId());
+			widget.setPageId(pageId);
+			widget.setApiRepoId(attachedWidget.getApiRepoId());
+			widget.setWidgetCode(attachedWidget.getWidgetCode());
+			widget.setParentId(attachedWidget.getParentId());
+			// seq 是从1开始的，是全页面内排序
+			widget.setSeq(i + 1);
+			widgets.add(widget);
+			
+			attachedWidget.getProperties()
+				.stream()
+				// 如果属性值为空，则不需要存储
+				// 但是在查询时，也要返回值为空的属性信息
+				.filter(prop -> prop.getValue() != null)
+				.forEach(prop -> {
+					PageWidgetAttrValue p = new PageWidgetAttrValue();
+					p.setPageWidgetId(attachedWidget.getId());
+					p.setId(prop.getId());
+					p.setWidgetAttrCode(prop.getCode());
+					p.setAttrValue(prop.getValue());
+					p.setExpr(prop.isExpr());
+					properties.add(p);
+				});
+		}
+	}
+	
+	/**
+	 * 复制一份，不修改页面模型中的数据项
+	 */
+	private List<PageDataItem> toData(Integer pageId, List<PageDataItem> allData) {
+		if(allData == null) {
+			return Collections.emptyList();
+		}
+		List<PageDataItem> result = new ArrayList<>(allData.size());
+		for(int i = 0; i < allData.size(); i++) {
+			PageDataItem each = allData.get(i);
+			PageDataItem item = new PageDataItem();
+			item.setId(each.getId());
+			item.setPageId(pageId);
+			item.setName(each.getName());
+			item.setType(each.getType());
+			item.setValue(each.getValue());
+			item.setParentId(each.getParentId());
+			// seq 是从1开始的，是全页面内排序
+			item.setSeq(i + 1);
+			result.add(item);
+		}
+		return result;
+	}
+	
+	private void toFunctions(
+			Integer pageId, 
+			List<PageEventHandler> handlers, 
+			List<PageFunction> funcs, 
+			List<PageFunctionNode> nodes, 
+			List<PageFunctionNodePort> ports, 
+			List<PageFunctionConnection> connections) {
+		if(handlers == null) {
+			return;
+		}
+		handlers.forEach(handler -> {
+			PageFunction func = new PageFunction();
+			func.setId(handler.getId());
+			func.setPageId(pageId);
+			funcs.add(func);
+			
+			handler.getNodes().forEach(visualNode -> {
+				PageFunctionNode node = new PageFunctionNode();
+				node.setPageId(pageId);
+				node.setId(visualNode.getId());
+				node.setFunctionId(handler.getId());
+				node.setLeft(visualNode.getLeft());
+				node.setTop(visualNode.getTop());
+				node.setLayout(NodeLayout.fromKey(visualNode.getLayout()));
+				node.setCategory(NodeCategory.fromKey(visualNode.getCategory()));
+				node.setDataItemId(visualNode.getDataItemId());
+				// 函数定义不需要设置 bind_source、api_repo_id 和 code
+				nodes.add(node);
+				
+				InputSequencePort isp = visualNode.getInputSequencePort();
+				if(isp != null) {
+					PageFunctionNodePort port = new PageFunctionNodePort();
+					port.setPageId(pageId);
+					port.setId(isp.getId());
+					port.setNodeId(visualNode.getId());
+					port.setPortType(PortType.SEQUENCE);
+					port.setFlowType(FlowType.INPUT);
+					ports.add(port);
+				}
+				visualNode.getOutputSequencePorts().forEach(osp -> {
+					PageFunctionNodePort port = new PageFunctionNodePort();
+					port.setPageId(pageId);
+					port.setId(osp.getId());
+					port.setNodeId(visualNode.getId());
+					port.setPortType(PortType.SEQUENCE);
+					port.setFlowType(FlowType.OUTPUT);
+					port.setOutputSequencePortText(osp.getText());
+					ports.add(port);
+				});
+				visualNode.getInputDataPorts().forEach(idp -> {
+					PageFunctionNodePort port = new PageFunctionNodePort();
+					port.setPageId(pageId);
+					port.setId(idp.getId());
+					port.setNodeId(visualNode.getId());
+					port.setPortType(PortType.DATA);
+					port.setFlowType(FlowType.INPUT);
+					port.setInputDataPortValue(idp.getValue());
+					// TODO: code
+					ports.add(port);
+				});
+				
+				visualNode.getOutputDataPorts().forEach(odp -> {
+					PageFunctionNodePort port = new PageFunctionNodePort();
+					port.setPageId(pageId);
+					port.setId(odp.getId());
+					port.setNodeId(visualNode.getId());
+					port.setPortType(PortType.DATA);
+					port.setFlowType(FlowType.OUTPUT);
+					// TODO: code
+					ports.add(port);
+				});
+			});
+			
+			// 连接
+			handler.getSequenceConnections().forEach(sc -> {
+				PageFunctionConnection conn = new PageFunctionConnection();
+				conn.setPageId(pageId);
+				conn.setId(sc.getId());
+				conn.setFunctionId(handler.getId());
+				conn.setFromNodeId(sc.getFromNode());
+				conn.setFromOutputPortId(sc.getFromOutput());
+				conn.setToNodeId(sc.getToNode());
+				conn.setToInputPortId(sc.getToInput());
+				connections.add(conn);
+			});
+
+			handler.getDataConnections().forEach(dc -> {
+				PageFunctionConnection conn = new PageFunctionConnection();
+				conn.setPageId(pageId);
+				conn.setId(dc.getId());
+				conn.setFunctionId(handler.getId());
+				conn.setFromNodeId(dc.getFromNode());
+				conn.setFromOutputPortId(dc.getFromOutput());
+				conn.setToNodeId(dc.getToNode());
+				conn.setToInputPortId(dc.getToInput());
+				connections.add(conn);
+			});
+		});
+	}
+	
+	private boolean isSameWidget(PageWidget stored, PageWidget current) {
+		return Objects.equals(stored.getParentId(), current.getParentId()) &&
+				Objects.equals(stored.getSeq(), current.getSeq()) &&
+				Objects.equals(stored.getApiRepoId(), current.getApiRepoId()) &&
+				Objects.equals(stored.getWidgetCode(), current.getWidgetCode());
+	}
+	
+	private boolean isSameProperty(PageWidgetAttrValue stored, PageWidgetAttrValue current) {
+		return Objects.equals(stored.getPageWidgetId(), current.getPageWidgetId()) &&
+				Objects.equals(stored.getWidgetAttrCode(), current.getWidgetAttrCode()) &&
+				Objects.equals(stored.getAttrValue(), current.getAttrValue()) &&
+				Objects.equals(stored.isExpr(), current.isExpr());
+	}
+	
+	/**
+	 * 对应唯一约束 (page_widget_id, widget_attr_code)
+	 */
+	private boolean isSamePropertyKey(PageWidgetAttrValue stored, PageWidgetAttrValue current) {
+		return Objects.equals(stored.getPageWidgetId(), current.getPageWidgetId()) &&
+				Objects.equals(stored.getWidgetAttrCode(), current.getWidgetAttrCode());
+	}
+	
+	private boolean isSameData(PageDataItem stored, PageDataItem current) {
+		return Objects.equals(stored.getName(), current.getName()) &&
+				Objects.equals(stored.getType(), current.getType()) &&
+				Objects.equals(stored.getValue(), current.getValue()) &&
+				Objects.equals(stored.getParentId(), current.getParentId()) &&
+				Objects.equals(stored.getSeq(), current.getSeq());
+	}
+	
+	/**
+	 * 对应唯一约束 (project_resource_id, parent_id, name)
+	 */
+	private boolean isSameDataKey(PageDataItem stored, PageDataItem current) {
+		return Objects.equals(stored.getPageId(), current.getPageId()) &&
+				Objects.equals(stored.getParentId(), current.getParentId()) &&
+				Objects.equals(stored.getName(), current.getName());
+	}
+	
+	private boolean isSameNode(PageFunctionNode stored, PageFunctionNode current) {
+		return Objects.equals(stored.getFunctionId(), current.getFunctionId()) &&
+				Objects.equals(stored.getLeft(), current.getLeft()) &&
+				Objects.equals(stored.getTop(), current.getTop()) &&
+				stored.getLayout() == current.getLayout() &&
+				stored.getCategory() == current.getCategory() &&
+				Objects.equals(stored.getDataItemId(), current.getDataItemId());
+	}
+	
+	private boolean isSamePort(PageFunctionNodePort stored, PageFunctionNodePort current) {
+		return Objects.equals(stored.getNodeId(), current.getNodeId()) &&
+				stored.getPortType() == current.getPortType() &&
+				stored.getFlowType() == current.getFlowType() &&
+				Objects.equals(stored.getOutputSequencePortText(), current.getOutputSequencePortText()) &&
+				Objects.equals(stored.getInputDataPortValue(), current.getInputDataPortValue());
+	}
+	
+	private boolean isSameConnection(PageFunctionConnection stored, PageFunctionConnection current) {
+		return Objects.equals(stored.getFunctionId(), current.getFunctionId()) &&
+				Objects.equals(stored.getFromNodeId(), current.getFromNodeId()) &&
+				Objects.equals(stored.getFromOutputPortId(), current.getFromOutputPortId()) &&
+				Objects.equals(stored.getToNodeId(), current.getToNodeId()) &&
+				Objects.equals(stored.getToInputPortId(), current.getToInputPortId());
+	}
+	
+	/**
+	 * 按 id 比较已存储的记录和新的记录
+	 */
+	static class RowDiff<T> {
+		final List<T> inserted = new ArrayList<>();
+		final List<T> updated = new ArrayList<>();
+		final List<String> deletedIds = new ArrayList<>();
+		
+		static <T> RowDiff<T> compare(List<T> stored, List<T> current, Function<T, String> getId, BiPredicate<T, T> isSame) {
+			return compare(stored, current, getId, isSame, (storedRow, currentRow) -> true);
+		}
+		
+		/**
+		 * @param isSameKey 比较唯一约束中的字段，如果发生变化，则先删除再重新插入该记录
+		 */
+		static <T> RowDiff<T> compare(List<T> stored, List<T> current, Function<T, String> getId, BiPredicate<T, T> isSame, BiPredicate<T, T> isSameKey) {
+			RowDiff<T> diff = new RowDiff<>();
+			Map<String, T> storedById = new LinkedHashMap<>(stored.size() * 2);
+			stored.forEach(row -> storedById.put(getId.apply(row), row));
+			
+			Map<String, T> currentById = new HashMap<>(current.size() * 2);
+			for(T row : current) {
+				String id = getId.apply(row);
+				currentById.put(id, row);
+				T storedRow = storedById.get(id);
+				if(storedRow == null) {
+					diff.inserted.add(row);
+				} else if(!isSameKey.test(storedRow, row)) {
+					diff.deletedIds.add(id);
+					diff.inserted.add(row);
+				} else if(!isSame.test(storedRow, row)) {
+					diff.updated.add(row);
+				}
+			}
+			
+			storedById.keySet().stream().filter(id -> !currentById.containsKey(id)).forEach(diff.deletedIds::add);
+			return diff;
+		}
+		
+		@Override
+		public String toString() {
+			return "+" + inserted.size() + " ~" + updated.size() + " -" + deletedIds.size();
+		}
+	}
+}
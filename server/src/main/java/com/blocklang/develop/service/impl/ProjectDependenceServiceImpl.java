@@ -1,6 +1,7 @@
 package com.blocklang.develop.service.impl;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
@@ -9,8 +10,11 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.transaction.Transactional;
 
@@ -18,15 +22,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 import com.blocklang.core.constant.CmPropKey;
+import com.blocklang.core.git.GitUtils;
 import com.blocklang.core.service.PropertyService;
+import com.blocklang.core.util.StreamUtil;
 import com.blocklang.develop.constant.AppType;
 import com.blocklang.develop.dao.ProjectBuildProfileDao;
 import com.blocklang.develop.dao.ProjectDao;
 import com.blocklang.develop.dao.ProjectDependenceDao;
 import com.blocklang.develop.data.ProjectDependenceData;
-import com.blocklang.develop.designer.data.ApiRepoVersionInfo;
 import com.blocklang.develop.designer.data.EventArgument;
 import com.blocklang.develop.designer.data.Widget;
 import com.blocklang.develop.designer.data.WidgetCategory;
@@ -40,19 +46,18 @@ import com.blocklang.develop.model.ProjectResource;
 import com.blocklang.develop.service.ProjectDependenceService;
 import com.blocklang.marketplace.constant.ComponentAttrValueType;
 import com.blocklang.marketplace.constant.RepoCategory;
-import com.blocklang.marketplace.dao.ApiComponentAttrDao;
-import com.blocklang.marketplace.dao.ApiComponentAttrFunArgDao;
-import com.blocklang.marketplace.dao.ApiComponentDao;
 import com.blocklang.marketplace.dao.ApiRepoDao;
 import com.blocklang.marketplace.dao.ApiRepoVersionDao;
 import com.blocklang.marketplace.dao.ComponentRepoDao;
 import com.blocklang.marketplace.dao.ComponentRepoVersionDao;
+import com.blocklang.marketplace.data.WidgetCatalog;
 import com.blocklang.marketplace.model.ApiComponentAttrFunArg;
 import com.blocklang.marketplace.model.ApiRepo;
 import com.blocklang.marketplace.model.ApiRepoVersion;
 import com.blocklang.marketplace.model.ComponentRepo;
 import com.blocklang.marketplace.model.ComponentRepoVersion;
 import com.blocklang.marketplace.service.ComponentRepoVersionService;
+import com.blocklang.marketplace.service.WidgetCatalogService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -80,11 +85,7 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 	@Autowired
 	private ApiRepoVersionDao apiRepoVersionDao;
 	@Autowired
-	private ApiComponentDao apiComponentDao;
-	@Autowired
-	private ApiComponentAttrDao apiComponentAttrDao;
-	@Autowired
-	private ApiComponentAttrFunArgDao apiComponentAttrFunArgDao;
+	private WidgetCatalogService widgetCatalogService;
 	@Autowired
 	private PropertyService propertyService;
 	
@@ -235,6 +236,7 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 			} catch (IOException e) {
 				logger.error("往 " + fileName + " 文件写入内容时出错", e);
 			}
+			GitUtils.markChanged(rootPath, fileName);
 		});
 	}
 
@@ -321,13 +323,17 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 	private List<ProjectDependenceData> appendBuildProfile(Integer projectId) {
 		// 获取项目的所有依赖
 		List<ProjectDependenceData> dependences = findProjectDependences(projectId);
-		// 补充 profile 信息
+		// 补充 profile 信息，一次查出所有 profile
+		List<Integer> profileIds = distinctIds(dependences.stream().map(data -> data.getDependence().getProfileId()));
+		if(profileIds.isEmpty()) {
+			return dependences;
+		}
+		Map<Integer, ProjectBuildProfile> profiles = toMap(projectBuildProfileDao.findAllById(profileIds), ProjectBuildProfile::getId);
 		for(ProjectDependenceData data : dependences) {
-			// 先获取依赖信息
-			ProjectDependence dependence = data.getDependence();
-			// 然后根据依赖信息获取 profile 信息
-			if(dependence.getProfileId() != null) {
-				projectBuildProfileDao.findById(dependence.getProfileId()).ifPresent(profile -> data.setProfile(profile));
+			// 只有 build 版才有 profileId 值
+			Integer profileId = data.getDependence().getProfileId();
+			if(profileId != null && profiles.containsKey(profileId)) {
+				data.setProfile(profiles.get(profileId));
 			}
 		}
 		return dependences;
@@ -345,20 +351,35 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 		return convert(dependences);
 	}
 
+	/**
+	 * 每类数据只查询一次，然后在内存中组装，查询次数不随依赖的个数增加
+	 */
 	private List<ProjectDependenceData> convert(List<ProjectDependence> dependences) {
+		if(dependences.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		Map<Integer, ComponentRepoVersion> componentRepoVersions = toMap(componentRepoVersionDao.findAllById(
+				distinctIds(dependences.stream().map(ProjectDependence::getComponentRepoVersionId))), ComponentRepoVersion::getId);
+		Map<Integer, ComponentRepo> componentRepos = toMap(componentRepoDao.findAllById(
+				distinctIds(componentRepoVersions.values().stream().map(ComponentRepoVersion::getComponentRepoId))), ComponentRepo::getId);
+		Map<Integer, ApiRepoVersion> apiRepoVersions = toMap(apiRepoVersionDao.findAllById(
+				distinctIds(componentRepoVersions.values().stream().map(ComponentRepoVersion::getApiRepoVersionId))), ApiRepoVersion::getId);
+		Map<Integer, ApiRepo> apiRepos = toMap(apiRepoDao.findAllById(
+				distinctIds(apiRepoVersions.values().stream().map(ApiRepoVersion::getApiRepoId))), ApiRepo::getId);
+		
 		return dependences.stream().map(dependence -> {
-			ComponentRepoVersion componentRepoVersion = null;
 			ComponentRepo componentRepo = null;
 			ApiRepo apiRepo = null;
 			ApiRepoVersion apiRepoVersion = null;
 			
-			componentRepoVersion = componentRepoVersionDao.findById(dependence.getComponentRepoVersionId()).orElse(null);
+			ComponentRepoVersion componentRepoVersion = componentRepoVersions.get(dependence.getComponentRepoVersionId());
 			if(componentRepoVersion != null) {
-				componentRepo = componentRepoDao.findById(componentRepoVersion.getComponentRepoId()).orElse(null);
-				apiRepoVersion = apiRepoVersionDao.findById(componentRepoVersion.getApiRepoVersionId()).orElse(null);
+				componentRepo = componentRepos.get(componentRepoVersion.getComponentRepoId());
+				apiRepoVersion = apiRepoVersions.get(componentRepoVersion.getApiRepoVersionId());
 			}
 			if(apiRepoVersion != null) {
-				apiRepo = apiRepoDao.findById(apiRepoVersion.getApiRepoId()).orElse(null);
+				apiRepo = apiRepos.get(apiRepoVersion.getApiRepoId());
 			}
 			
 			ProjectDependenceData data = new ProjectDependenceData(dependence, componentRepo, componentRepoVersion, apiRepo, apiRepoVersion);
@@ -366,6 +387,14 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 		}).collect(Collectors.toList());
 	}
 	
+	private List<Integer> distinctIds(Stream<Integer> ids) {
+		return ids.filter(Objects::nonNull).distinct().collect(Collectors.toList());
+	}
+	
+	private <T> Map<Integer, T> toMap(List<T> entities, Function<T, Integer> idGetter) {
+		return entities.stream().collect(Collectors.toMap(idGetter, Function.identity()));
+	}
+	
 	@Override
 	public List<ProjectDependenceData> findProjectDependences(Integer projectId) {
 		return this.findProjectDependences(projectId, false);
@@ -417,34 +446,12 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 	
 	@Override
 	public List<RepoWidgetList> findAllWidgets(Integer projectId) {
-		// 获取项目的所有依赖，包含组件仓库的版本信息
-		List<ProjectDependence> allDependences = projectDependenceDao.findAllByProjectId(projectId);
-		
-		// 转换为对应的 API 仓库的版本信息
-		return allDependences
+		return findWidgetCatalogs(projectId)
 			.stream()
-			.flatMap(item -> componentRepoVersionDao.findById(item.getComponentRepoVersionId()).stream())
-			.map(item -> item.getApiRepoVersionId())
-			// 如果多个组件实现的是同一个 api repo version，则先去重
-			.distinct()
-			.map(apiVersionId -> {
-				Optional<ApiRepo> apiRepoOption = apiRepoVersionDao
-						.findById(apiVersionId)
-						.flatMap(apiRepoVersion -> apiRepoDao.findById(apiRepoVersion.getApiRepoId()));
-				ApiRepoVersionInfo result = new ApiRepoVersionInfo();
-				result.setApiRepoVersionId(apiVersionId);
-				apiRepoOption.ifPresent(apiRepo -> {
-					result.setApiRepoName(apiRepo.getName());
-					result.setApiRepoId(apiRepo.getId());
-					result.setCategory(apiRepo.getCategory());
-				});
-				return result;
-			})
-			.filter(apiVersionInfo -> apiVersionInfo.getCategory() == RepoCategory.WIDGET)
-			.map(apiVersionInfo -> {
+			.map(catalog -> {
 				// 查出依赖中的所有部件
-				List<Widget> widgets = apiComponentDao
-						.findAllByApiRepoVersionId(apiVersionInfo.getApiRepoVersionId())
+				List<Widget> widgets = catalog
+						.getComponents()
 						.stream()
 						.map(apiComponent -> {
 							Widget result = new Widget();
@@ -453,9 +460,9 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 							result.setWidgetName(apiComponent.getName());
 							result.setCanHasChildren(apiComponent.getCanHasChildren());
 							
-							result.setApiRepoId(apiVersionInfo.getApiRepoId());
+							result.setApiRepoId(catalog.getApiRepoId());
 							// 添加属性列表
-							List<WidgetProperty> properties = apiComponentAttrDao.findAllByApiComponentIdOrderByCode(apiComponent.getId()).stream().map(property -> {
+							List<WidgetProperty> properties = apiComponent.getAttrs().stream().map(property -> {
 								WidgetProperty each = new WidgetProperty();
 								each.setCode(property.getCode());
 								each.setName(property.getName());
@@ -464,7 +471,7 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 								
 								// 添加事件参数列表
 								if(property.getValueType() == ComponentAttrValueType.FUNCTION) {
-									List<EventArgument> eventArgs = apiComponentAttrFunArgDao.findAllByApiComponentAttrId(property.getId()).stream().map(eventArg -> {
+									List<EventArgument> eventArgs = property.getFunArgs().stream().map(eventArg -> {
 										EventArgument ea = new EventArgument();
 										ea.setCode(eventArg.getCode());
 										ea.setName(eventArg.getName());
@@ -486,12 +493,47 @@ public class ProjectDependenceServiceImpl implements ProjectDependenceService{
 				category.setWidgets(widgets);
 				
 				RepoWidgetList widgetRepo = new RepoWidgetList();
-				widgetRepo.setApiRepoId(apiVersionInfo.getApiRepoId());
-				widgetRepo.setApiRepoName(apiVersionInfo.getApiRepoName());
+				widgetRepo.setApiRepoId(catalog.getApiRepoId());
+				widgetRepo.setApiRepoName(catalog.getApiRepoName());
 				widgetRepo.setWidgetCategories(Collections.singletonList(category));
 				return widgetRepo;
 			}).collect(Collectors.toList());
 	}
+	
+	@Override
+	public String getWidgetsETag(Integer projectId) {
+		// 返回结果中仓库的顺序与依赖的顺序相同，所以不排序；
+		// 重新发布到已存在的版本时会新增部件，所以还要加上部件内容的 md5 值
+		String catalogVersions = findWidgetCatalogs(projectId)
+				.stream()
+				.map(catalog -> catalog.getApiRepoVersionId() + ":" + catalog.getContentHash())
+				.collect(Collectors.joining(","));
+		return DigestUtils.md5DigestAsHex(catalogVersions.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * 获取项目依赖的所有 widget 仓库中的部件，从缓存中获取，
+	 * 未缓存的组件仓库版本和 API 仓库版本一次查出，查询次数不随依赖的个数增加。
+	 * 
+	 * @param projectId 项目标识
+	 * @return 部件目录，按项目依赖的顺序排列
+	 */
+	private List<WidgetCatalog> findWidgetCatalogs(Integer projectId) {
+		// 获取项目的所有依赖，包含组件仓库的版本信息
+		List<Integer> componentRepoVersionIds = projectDependenceDao
+				.findAllByProjectId(projectId)
+				.stream()
+				.map(ProjectDependence::getComponentRepoVersionId)
+				.collect(Collectors.toList());
+		
+		return widgetCatalogService
+			.findAllByComponentRepoVersionIds(componentRepoVersionIds)
+			.stream()
+			// 如果多个组件实现的是同一个 api repo version，则先去重
+			.filter(StreamUtil.distinctByKey(WidgetCatalog::getApiRepoVersionId))
+			.filter(catalog -> catalog.getCategory() == RepoCategory.WIDGET)
+			.collect(Collectors.toList());
+	}
 
 	@Override
 	public List<ProjectDependence> findAllByProjectId(Integer projectId) {
@@ -0,0 +1,109 @@
+package com.blocklang.develop.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blocklang.core.constant.CmPropKey;
+import com.blocklang.core.git.GitUtils;
+import com.blocklang.core.service.PropertyService;
+import com.blocklang.develop.model.AppGlobalContext;
+import com.blocklang.develop.service.ProjectGitMaintenanceService;
+
+/**
+ * 每天凌晨访问量较少时，依次检查所有项目的 git 仓库，最多同时对 {@link #MAX_CONCURRENT_GC} 个仓库执行 gc。
+ * 
+ * 正在被修改的仓库会跳过，等下次再执行。
+ * 
+ * @author Zhengwei Jin
+ */
+@Service
+public class ProjectGitMaintenanceServiceImpl implements ProjectGitMaintenanceService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProjectGitMaintenanceServiceImpl.class);
+	
+	/**
+	 * 最多同时执行 gc 的仓库数
+	 */
+	private static final int MAX_CONCURRENT_GC = 2;
+	
+	/**
+	 * 等待所有仓库 gc 完成的最长时间，单位小时
+	 */
+	private static final long MAX_DURATION_HOURS = 3;
+	
+	@Autowired
+	private PropertyService propertyService;
+	
+	private final AtomicBoolean running = new AtomicBoolean(false);
+	
+	@Scheduled(cron = "0 0 3 * * ?")
+	@Override
+	public void maintainAll() {
+		if(!running.compareAndSet(false, true)) {
+			logger.info("上一次 git 仓库维护尚未结束，跳过本次维护");
+			return;
+		}
+		try {
+			propertyService.findStringValue(CmPropKey.BLOCKLANG_ROOT_PATH)
+				.map(rootDir -> new AppGlobalContext(rootDir).getGitRepositoriesRootDirectory())
+				.filter(Files::isDirectory)
+				.ifPresent(this::maintain);
+		} finally {
+			running.set(false);
+		}
+	}
+	
+	private void maintain(Path gitRepositoriesRoot) {
+		List<Path> gitRepoPaths = null;
+		// 目录结构为 {owner}/{projectName}
+		try(Stream<Path> paths = Files.walk(gitRepositoriesRoot, 2)) {
+			gitRepoPaths = paths
+					.filter(path -> gitRepositoriesRoot.relativize(path).getNameCount() == 2)
+					.filter(GitUtils::isGitRepo)
+					.collect(Collectors.toList());
+		} catch (IOException e) {
+			logger.error("查找项目的 git 仓库失败", e);
+			return;
+		}
+		
+		long start = System.currentTimeMillis();
+		ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_GC);
+		try {
+			gitRepoPaths.forEach(path -> executor.execute(() -> gc(path)));
+			executor.shutdown();
+			if(!executor.awaitTermination(MAX_DURATION_HOURS, TimeUnit.HOURS)) {
+				logger.warn("git 仓库维护超过 {} 小时，停止维护", MAX_DURATION_HOURS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+		logger.info("检查了 {} 个 git 仓库，耗时 {} 毫秒", gitRepoPaths.size(), System.currentTimeMillis() - start);
+	}
+	
+	private void gc(Path gitRepoPath) {
+		try {
+			// gc 结果只记录在日志中
+			GitUtils.gc(gitRepoPath).ifPresent(result -> logger.info("git gc 完成 {}", result));
+		} catch (RuntimeException e) {
+			// 一个仓库失败不影响其他仓库
+			logger.error("git gc 失败 " + gitRepoPath, e);
+		}
+	}
+
+}
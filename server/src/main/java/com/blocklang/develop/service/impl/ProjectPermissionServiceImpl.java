@@ -1,14 +1,19 @@
 package com.blocklang.develop.service.impl;
 
 import java.security.Principal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.blocklang.core.exception.NoAuthorizationException;
-import com.blocklang.core.model.UserInfo;
 import com.blocklang.core.service.UserService;
 import com.blocklang.develop.constant.AccessLevel;
 import com.blocklang.develop.dao.ProjectAuthorizationDao;
@@ -16,15 +21,54 @@ import com.blocklang.develop.model.Project;
 import com.blocklang.develop.model.ProjectAuthorization;
 import com.blocklang.develop.service.ProjectPermissionService;
 
-//read < write < admin
+/**
+ * read < write < admin
+ *
+ * <p>
+ * 用户对项目拥有的最高权限只查询一次，然后在一次请求中缓存，同时缓存在最多包含
+ * {@link #MAX_CACHED_PERMISSIONS} 个权限的跨请求缓存中，超出后移除最久未使用的权限。
+ * 项目的授权信息变化后，调用 {@link #evict(Integer)} 清除项目的所有权限缓存。
+ * </p>
+ *
+ * <p>
+ * 在事务中查出的授权信息可能还未提交，所以只在请求中缓存，不放入跨请求缓存。
+ * </p>
+ *
+ * @author jinzw
+ *
+ */
 @Service
 public class ProjectPermissionServiceImpl implements ProjectPermissionService {
 
+	/**
+	 * 跨请求缓存中最多缓存的权限个数
+	 */
+	static final int MAX_CACHED_PERMISSIONS = 1024;
+
+	private static final String REQUEST_PERMISSIONS_KEY = ProjectPermissionServiceImpl.class.getName() + ".permissions";
+
 	@Autowired
 	private ProjectAuthorizationDao projectAuthorizationDao;
 	@Autowired
 	private UserService userService;
-	
+
+	/**
+	 * key 为 projectId:loginName
+	 */
+	private final Map<String, ResolvedPermission> permissions = new LinkedHashMap<String, ResolvedPermission>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ResolvedPermission> eldest) {
+			return size() > MAX_CACHED_PERMISSIONS;
+		}
+	};
+
+	/**
+	 * 每次清除缓存时加 1，用于判断查询期间授权信息是否发生变化，如果发生变化，则不放入缓存
+	 */
+	private long generation;
+
 	@Override
 	public Optional<AccessLevel> canRead(Principal loginUser, Project project) {
 		if (project.getIsPublic()) {
@@ -34,16 +78,16 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
 		if (loginUser == null) {
 			return Optional.empty();
 		}
-		
+
 		return hasPermission(loginUser.getName(), project, AccessLevel.READ);
 	}
-	
+
 	@Override
 	public Optional<AccessLevel> canWrite(Principal loginUser, Project project) {
 		if (loginUser == null) {
 			return Optional.empty();
 		}
-		
+
 		return hasPermission(loginUser.getName(), project, AccessLevel.WRITE);
 	}
 
@@ -52,15 +96,14 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
 		if (loginUser == null) {
 			return Optional.empty();
 		}
-		
+
 		return hasPermission(loginUser.getName(), project, AccessLevel.ADMIN);
 	}
-	
+
 	private Optional<AccessLevel> hasPermission(String loginName, Project project, AccessLevel expectedPermission) {
-		return userService.findByLoginName(loginName)
-				.flatMap(user -> projectAuthorizationDao.findAllByUserIdAndProjectId(user.getId(), project.getId())
-						.stream().map(ProjectAuthorization::getAccessLevel)
-						.filter(accessLevel -> accessLevel.getScore() >= expectedPermission.getScore()).findAny());
+		ResolvedPermission permission = resolve(loginName, project.getId());
+		return Optional.ofNullable(permission.accessLevel)
+				.filter(accessLevel -> accessLevel.getScore() >= expectedPermission.getScore());
 	}
 
 	@Override
@@ -71,18 +114,112 @@ public class ProjectPermissionServiceImpl implements ProjectPermissionService {
 			}
 			return AccessLevel.FORBIDDEN;
 		}
-		
+
+		ResolvedPermission permission = resolve(loginUser.getName(), project.getId());
 		// 如果用户登录名不存在
-		UserInfo user = userService.findByLoginName(loginUser.getName()).orElseThrow(NoAuthorizationException::new);
-		List<ProjectAuthorization> authes = projectAuthorizationDao.findAllByUserIdAndProjectId(user.getId(), project.getId());
-		if(authes.isEmpty()) {
+		if(!permission.userExists) {
+			throw new NoAuthorizationException();
+		}
+		if(permission.accessLevel == null) {
 			if(project.getIsPublic()) {
 				return AccessLevel.READ;
 			}
 			return AccessLevel.FORBIDDEN;
 		}
-		
-		return authes.stream().map(ProjectAuthorization::getAccessLevel)
-						.max((o1, o2) -> o1.getScore() - o2.getScore()).get();
+
+		return permission.accessLevel;
+	}
+
+	@Override
+	public void evict(Integer projectId) {
+		String keyPrefix = projectId + ":";
+		synchronized(permissions) {
+			generation++;
+			permissions.keySet().removeIf(key -> key.startsWith(keyPrefix));
+		}
+		Map<String, ResolvedPermission> requestPermissions = getRequestPermissions();
+		if(requestPermissions != null) {
+			requestPermissions.keySet().removeIf(key -> key.startsWith(keyPrefix));
+		}
+	}
+
+	/**
+	 * 依次从请求缓存、跨请求缓存和数据库中获取用户对项目拥有的最高权限
+	 */
+	private ResolvedPermission resolve(String loginName, Integer projectId) {
+		String key = projectId + ":" + loginName;
+
+		Map<String, ResolvedPermission> requestPermissions = getRequestPermissions();
+		if(requestPermissions != null) {
+			ResolvedPermission permission = requestPermissions.get(key);
+			if(permission != null) {
+				return permission;
+			}
+		}
+
+		long expectedGeneration;
+		ResolvedPermission permission;
+		synchronized(permissions) {
+			expectedGeneration = generation;
+			permission = permissions.get(key);
+		}
+
+		if(permission == null) {
+			permission = load(loginName, projectId);
+			if(!TransactionSynchronizationManager.isActualTransactionActive()) {
+				synchronized(permissions) {
+					if(expectedGeneration == generation) {
+						permissions.put(key, permission);
+					}
+				}
+			}
+		}
+
+		if(requestPermissions != null) {
+			requestPermissions.put(key, permission);
+		}
+		return permission;
+	}
+
+	private ResolvedPermission load(String loginName, Integer projectId) {
+		return userService.findByLoginName(loginName).map(user -> {
+			List<ProjectAuthorization> authes = projectAuthorizationDao.findAllByUserIdAndProjectId(user.getId(), projectId);
+			AccessLevel accessLevel = authes.stream().map(ProjectAuthorization::getAccessLevel)
+					.max((o1, o2) -> o1.getScore() - o2.getScore()).orElse(null);
+			return new ResolvedPermission(true, accessLevel);
+		}).orElseGet(() -> new ResolvedPermission(false, null));
+	}
+
+	/**
+	 * 获取当前请求中缓存的权限，如果不是在请求中调用，则返回 null
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, ResolvedPermission> getRequestPermissions() {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		if(requestAttributes == null) {
+			return null;
+		}
+		Map<String, ResolvedPermission> result = (Map<String, ResolvedPermission>) requestAttributes.getAttribute(REQUEST_PERMISSIONS_KEY, RequestAttributes.SCOPE_REQUEST);
+		if(result == null) {
+			result = new HashMap<String, ResolvedPermission>();
+			requestAttributes.setAttribute(REQUEST_PERMISSIONS_KEY, result, RequestAttributes.SCOPE_REQUEST);
+		}
+		return result;
+	}
+
+	/**
+	 * 用户对项目拥有的最高权限，创建后不再修改
+	 */
+	private static class ResolvedPermission {
+		private final boolean userExists;
+		/**
+		 * 如果没有为用户分配项目权限，则为 null
+		 */
+		private final AccessLevel accessLevel;
+
+		private ResolvedPermission(boolean userExists, AccessLevel accessLevel) {
+			this.userExists = userExists;
+			this.accessLevel = accessLevel;
+		}
 	}
 }
@@ -1,8 +1,10 @@
 package com.blocklang.develop.service.impl;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -12,7 +14,10 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.blocklang.core.constant.CmPropKey;
 import com.blocklang.core.constant.Constant;
@@ -38,6 +43,7 @@ import com.blocklang.develop.model.ProjectCommit;
 import com.blocklang.develop.model.ProjectContext;
 import com.blocklang.develop.model.ProjectFile;
 import com.blocklang.develop.model.ProjectResource;
+import com.blocklang.develop.service.ProjectPermissionService;
 import com.blocklang.develop.service.ProjectResourceService;
 import com.blocklang.develop.service.ProjectService;
 import com.blocklang.release.dao.AppDao;
@@ -66,21 +72,97 @@ public class ProjectServiceImpl implements ProjectService {
 	private ProjectResourceService projectResourceService;
 	@Autowired
 	private ProjectResourceDao projectResourceDao;
+	@Autowired
+	private ProjectPermissionService projectPermissionService;
 	
 	// 如果需要缓存时，使用 service，不要使用 dao
 	// 因为只会为 service 添加缓存
 	@Autowired
 	private UserService userService;
 	
+	/**
+	 * 最多缓存的项目个数
+	 */
+	static final int MAX_CACHED_PROJECTS = 1024;
+	
+	/**
+	 * 按项目拥有者的登录名和项目名缓存项目基本信息，超出 {@link #MAX_CACHED_PROJECTS} 个后移除最久未使用的项目，
+	 * key 为 loginName/projectName
+	 */
+	private final Map<String, Project> projects = new LinkedHashMap<String, Project>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Project> eldest) {
+			return size() > MAX_CACHED_PROJECTS;
+		}
+	};
+	
+	/**
+	 * 每次清除缓存时加 1，用于判断查询期间项目是否发生变化，如果发生变化，则不放入缓存
+	 */
+	private long generation;
+	
+	/**
+	 * 先从缓存中获取，返回的是缓存中项目的副本，修改返回的项目不会影响缓存。
+	 * 
+	 * 在事务中查出的项目可能还未提交，所以不放入缓存。
+	 */
 	@Override
 	public Optional<Project> find(String userName, String projectName) {
+		String key = userName + "/" + projectName;
+		long expectedGeneration;
+		synchronized(projects) {
+			expectedGeneration = generation;
+			Project cached = projects.get(key);
+			if(cached != null) {
+				return Optional.of(copy(cached));
+			}
+		}
+		
 		return userService.findByLoginName(userName).flatMap(user -> {
 			return projectDao.findByCreateUserIdAndName(user.getId(), projectName);
 		}).map(project -> {
 			project.setCreateUserName(userName);
+			if(!TransactionSynchronizationManager.isActualTransactionActive()) {
+				synchronized(projects) {
+					if(expectedGeneration == generation) {
+						projects.put(key, copy(project));
+					}
+				}
+			}
 			return project;
 		});
 	}
+	
+	/**
+	 * 新建项目、修改项目名或修改项目的可见性后，清除项目的缓存
+	 * 
+	 * @param loginName 项目拥有者的登录名
+	 * @param projectName 项目名
+	 */
+	private void evictCache(String loginName, String projectName) {
+		synchronized(projects) {
+			generation++;
+			projects.remove(loginName + "/" + projectName);
+		}
+	}
+	
+	private Project copy(Project project) {
+		Project result = new Project();
+		result.setId(project.getId());
+		result.setName(project.getName());
+		result.setDescription(project.getDescription());
+		result.setIsPublic(project.getIsPublic());
+		result.setLastActiveTime(project.getLastActiveTime());
+		result.setAvatarUrl(project.getAvatarUrl());
+		result.setCreateUserName(project.getCreateUserName());
+		result.setCreateUserId(project.getCreateUserId());
+		result.setCreateTime(project.getCreateTime());
+		result.setLastUpdateUserId(project.getLastUpdateUserId());
+		result.setLastUpdateTime(project.getLastUpdateTime());
+		return result;
+	}
 
 	// TODO: 添加数据库事务
 	@Override
@@ -89,6 +171,7 @@ public class ProjectServiceImpl implements ProjectService {
 		// 保存项目基本信息
 		Project savedProject = projectDao.save(project);
 		Integer projectId = savedProject.getId();
+		evictCache(user.getLoginName(), savedProject.getName());
 		
 		LocalDateTime createTime = project.getCreateTime();
 		Integer createUserId = project.getCreateUserId();
@@ -100,6 +183,7 @@ public class ProjectServiceImpl implements ProjectService {
 		auth.setCreateTime(LocalDateTime.now());
 		auth.setCreateUserId(createUserId);
 		projectAuthorizationDao.save(auth);
+		projectPermissionService.evict(projectId);
 		
 		// 保存 APP 基本信息
 		App app = new App();
@@ -175,6 +259,7 @@ public class ProjectServiceImpl implements ProjectService {
 		resource.setResourceType(ProjectResourceType.PAGE);
 		resource.setAppType(AppType.WEB);
 		resource.setParentId(Constant.TREE_ROOT_ID);
+		resource.setIdPath(ProjectResource.ROOT_ID_PATH);
 		resource.setSeq(1);
 		resource.setCreateUserId(createUserId);
 		resource.setCreateTime(createTime);
@@ -200,6 +285,7 @@ public class ProjectServiceImpl implements ProjectService {
 		resource.setResourceType(ProjectResourceType.FILE);
 		resource.setAppType(AppType.UNKNOWN);
 		resource.setParentId(Constant.TREE_ROOT_ID);
+		resource.setIdPath(ProjectResource.ROOT_ID_PATH);
 		resource.setSeq(2); // 排在 Main 页面之后
 		resource.setCreateUserId(createUserId);
 		resource.setCreateTime(createTime);
@@ -223,6 +309,7 @@ public class ProjectServiceImpl implements ProjectService {
 		resource.setResourceType(ProjectResourceType.DEPENDENCE);
 		resource.setAppType(AppType.UNKNOWN);
 		resource.setParentId(Constant.TREE_ROOT_ID);
+		resource.setIdPath(ProjectResource.ROOT_ID_PATH);
 		resource.setSeq(3); // 排在 README.md 页面之后
 		resource.setCreateUserId(createUserId);
 		resource.setCreateTime(createTime);
@@ -233,16 +320,34 @@ public class ProjectServiceImpl implements ProjectService {
 
 	@Override
 	public List<Project> findCanAccessProjectsByUserId(Integer userId) {
-		List<Project> projects = projectAuthorizationDao.findAllByUserId(userId).stream().flatMap(projectAuthoriation -> {
-			return projectDao.findById(projectAuthoriation.getProjectId()).stream();
-		}).sorted(Comparator.comparing(Project::getLastActiveTime).reversed()).collect(Collectors.toList());
-		
+		List<Project> projects = projectDao.findCanAccessProjects(userId, Pageable.unpaged());
+		setCreateUserNames(projects);
+		return projects;
+	}
+	
+	@Override
+	public List<Project> findCanAccessProjectsByUserId(Integer userId, LocalDateTime lastActiveTime, Integer lastProjectId, int size) {
+		Pageable page = PageRequest.of(0, size);
+		List<Project> projects;
+		if(lastActiveTime == null || lastProjectId == null) {
+			projects = projectDao.findCanAccessProjects(userId, page);
+		} else {
+			projects = projectDao.findCanAccessProjectsAfter(userId, lastActiveTime, lastProjectId, page);
+		}
+		setCreateUserNames(projects);
+		return projects;
+	}
+	
+	/**
+	 * 同一个用户创建的项目只查询一次用户信息
+	 */
+	private void setCreateUserNames(List<Project> projects) {
+		Map<Integer, String> loginNames = new HashMap<Integer, String>();
 		projects.forEach(each -> {
-			String loginName = userService.findById(each.getCreateUserId()).map(UserInfo::getLoginName).orElse(null);
+			String loginName = loginNames.computeIfAbsent(each.getCreateUserId(), 
+					createUserId -> userService.findById(createUserId).map(UserInfo::getLoginName).orElse(null));
 			each.setCreateUserName(loginName);
 		});
-		
-		return projects;
 	}
 
 	@Override
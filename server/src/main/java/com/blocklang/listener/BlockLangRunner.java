@@ -15,6 +15,7 @@ import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
 import com.blocklang.core.constant.CmPropKey;
+import com.blocklang.core.git.GitBlobCache;
 import com.blocklang.core.service.PropertyService;
 
 @Component
@@ -59,6 +60,16 @@ public class BlockLangRunner implements ApplicationRunner {
 			}
 		}
 		
+		// 3. 设置 git 文件内容缓存的总容量
+		Integer blobCacheMaxBytes = propertyService.findIntegerValue(CmPropKey.GIT_BLOB_CACHE_MAX_BYTES, null);
+		if(blobCacheMaxBytes != null) {
+			if(blobCacheMaxBytes < 0) {
+				errors.add("参数 " + CmPropKey.GIT_BLOB_CACHE_MAX_BYTES + " 的值不能小于 0。");
+			} else {
+				GitBlobCache.setMaxBytes(blobCacheMaxBytes);
+			}
+		}
+		
 		if(!errors.isEmpty()) {
 			errors.forEach(error -> logger.error(error));
 			throw new Exception("存在无效的参数");
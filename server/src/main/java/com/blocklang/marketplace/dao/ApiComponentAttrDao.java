@@ -1,5 +1,6 @@
 package com.blocklang.marketplace.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,4 +10,6 @@ import com.blocklang.marketplace.model.ApiComponentAttr;
 public interface ApiComponentAttrDao extends JpaRepository<ApiComponentAttr, Integer> {
 
 	List<ApiComponentAttr> findAllByApiComponentIdOrderByCode(Integer apiComponentId);
+
+	List<ApiComponentAttr> findAllByApiComponentIdInOrderByCode(Collection<Integer> apiComponentIds);
 }
@@ -1,5 +1,6 @@
 package com.blocklang.marketplace.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,4 +11,6 @@ public interface ApiComponentAttrFunArgDao extends JpaRepository<ApiComponentAtt
 
 	List<ApiComponentAttrFunArg> findAllByApiComponentAttrId(Integer apiComponentAttrId);
 
+	List<ApiComponentAttrFunArg> findAllByApiComponentAttrIdIn(Collection<Integer> apiComponentAttrIds);
+
 }
@@ -1,9 +1,13 @@
 package com.blocklang.marketplace.dao;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.blocklang.marketplace.model.ApiComponentAttrValOpt;
 
 public interface ApiComponentAttrValOptDao extends JpaRepository<ApiComponentAttrValOpt, Integer> {
 
+	List<ApiComponentAttrValOpt> findAllByApiComponentAttrIdIn(Collection<Integer> apiComponentAttrIds);
 }
@@ -0,0 +1,359 @@
+package com.blocklang.marketplace.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.util.DigestUtils;
+
+import com.blocklang.marketplace.constant.ComponentAttrValueType;
+import com.blocklang.marketplace.constant.RepoCategory;
+import com.blocklang.marketplace.model.ApiComponent;
+import com.blocklang.marketplace.model.ApiComponentAttr;
+import com.blocklang.marketplace.model.ApiComponentAttrFunArg;
+import com.blocklang.marketplace.model.ApiComponentAttrValOpt;
+import com.blocklang.marketplace.model.ApiRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * API 仓库某一个版本中的所有部件，包括部件的属性、属性的可选值和事件参数。
+ *
+ * <p>
+ * 创建时复制了所有字段，创建后不再修改，可以在多个线程之间共享，所以可以缓存。
+ * 但重新发布到已存在的 API 仓库版本时会新增部件，此时需要重新创建，
+ * 可以通过 {@link #getContentHash()} 判断版本中的部件是否有变化。
+ * </p>
+ *
+ * <p>
+ * 属性按 code 排序，可选值按 code 排序，事件参数按 seq 排序。
+ * </p>
+ *
+ * @author Zhengwei Jin
+ */
+public class WidgetCatalog {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+
+	private final Integer apiRepoVersionId;
+	private final Integer apiRepoId;
+	private final String apiRepoName;
+	private final RepoCategory category;
+	private final List<Component> components;
+	private final Map<String, Component> componentsByCode;
+	private final String contentHash;
+
+	/**
+	 *
+	 * @param apiRepoVersionId API 仓库的版本标识
+	 * @param apiRepo API 仓库
+	 * @param components 部件列表
+	 * @param attrs 部件的所有属性
+	 * @param valOpts 属性的所有可选值
+	 * @param funArgs 事件的所有参数
+	 */
+	public WidgetCatalog(
+			Integer apiRepoVersionId,
+			ApiRepo apiRepo,
+			List<ApiComponent> components,
+			List<ApiComponentAttr> attrs,
+			List<ApiComponentAttrValOpt> valOpts,
+			List<ApiComponentAttrFunArg> funArgs) {
+		this.apiRepoVersionId = apiRepoVersionId;
+		this.apiRepoId = apiRepo.getId();
+		this.apiRepoName = apiRepo.getName();
+		this.category = apiRepo.getCategory();
+
+		Map<Integer, List<ValOpt>> valOptsByAttr = valOpts.stream()
+				.sorted(Comparator.comparing(ApiComponentAttrValOpt::getCode))
+				.collect(Collectors.groupingBy(ApiComponentAttrValOpt::getApiComponentAttrId,
+						Collectors.mapping(ValOpt::new, Collectors.toList())));
+		Map<Integer, List<FunArg>> funArgsByAttr = funArgs.stream()
+				.sorted(Comparator.comparing(ApiComponentAttrFunArg::getSeq, Comparator.nullsLast(Comparator.naturalOrder())))
+				.collect(Collectors.groupingBy(ApiComponentAttrFunArg::getApiComponentAttrId,
+						Collectors.mapping(FunArg::new, Collectors.toList())));
+		Map<Integer, List<Attr>> attrsByComponent = attrs.stream()
+				.sorted(Comparator.comparing(ApiComponentAttr::getCode))
+				.collect(Collectors.groupingBy(ApiComponentAttr::getApiComponentId,
+						Collectors.mapping(attr -> new Attr(
+								attr,
+								valOptsByAttr.getOrDefault(attr.getId(), Collections.emptyList()),
+								funArgsByAttr.getOrDefault(attr.getId(), Collections.emptyList())), Collectors.toList())));
+
+		List<Component> list = new ArrayList<Component>(components.size());
+		Map<String, Component> byCode = new HashMap<String, Component>();
+		for(ApiComponent apiComponent : components) {
+			Component component = new Component(apiComponent, attrsByComponent.getOrDefault(apiComponent.getId(), Collections.emptyList()));
+			list.add(component);
+			byCode.putIfAbsent(component.getCode(), component);
+		}
+		this.components = Collections.unmodifiableList(list);
+		this.componentsByCode = Collections.unmodifiableMap(byCode);
+		this.contentHash = hash(this.components);
+	}
+
+	private static String hash(List<Component> components) {
+		try {
+			return DigestUtils.md5DigestAsHex(OBJECT_MAPPER.writeValueAsBytes(components));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public Integer getApiRepoVersionId() {
+		return apiRepoVersionId;
+	}
+
+	public Integer getApiRepoId() {
+		return apiRepoId;
+	}
+
+	public String getApiRepoName() {
+		return apiRepoName;
+	}
+
+	public RepoCategory getCategory() {
+		return category;
+	}
+
+	/**
+	 * 获取所有部件的 md5 值，部件、属性、可选值或事件参数变化后，md5 值也会变化
+	 *
+	 * @return 部件内容的 md5 值
+	 */
+	public String getContentHash() {
+		return contentHash;
+	}
+
+	/**
+	 * 获取所有部件
+	 *
+	 * @return 部件列表，不能修改
+	 */
+	public List<Component> getComponents() {
+		return components;
+	}
+
+	/**
+	 * 根据部件编码查找部件
+	 *
+	 * @param code 部件编码
+	 * @return 部件
+	 */
+	public Optional<Component> findComponentByCode(String code) {
+		return Optional.ofNullable(componentsByCode.get(code));
+	}
+
+	/**
+	 * 部件
+	 */
+	public static class Component {
+		private final Integer id;
+		private final String code;
+		private final String name;
+		private final String label;
+		private final String description;
+		private final Boolean canHasChildren;
+		private final List<Attr> attrs;
+
+		private Component(ApiComponent component, List<Attr> attrs) {
+			this.id = component.getId();
+			this.code = component.getCode();
+			this.name = component.getName();
+			this.label = component.getLabel();
+			this.description = component.getDescription();
+			this.canHasChildren = component.getCanHasChildren();
+			this.attrs = Collections.unmodifiableList(attrs);
+		}
+
+		public Integer getId() {
+			return id;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public Boolean getCanHasChildren() {
+			return canHasChildren;
+		}
+
+		/**
+		 * 获取部件的属性和事件，按 code 排序
+		 *
+		 * @return 属性列表，不能修改
+		 */
+		public List<Attr> getAttrs() {
+			return attrs;
+		}
+	}
+
+	/**
+	 * 部件的属性或事件
+	 */
+	public static class Attr {
+		private final Integer id;
+		private final String code;
+		private final String name;
+		private final String label;
+		private final String description;
+		private final ComponentAttrValueType valueType;
+		private final String defaultValue;
+		private final List<ValOpt> valOpts;
+		private final List<FunArg> funArgs;
+
+		private Attr(ApiComponentAttr attr, List<ValOpt> valOpts, List<FunArg> funArgs) {
+			this.id = attr.getId();
+			this.code = attr.getCode();
+			this.name = attr.getName();
+			this.label = attr.getLabel();
+			this.description = attr.getDescription();
+			this.valueType = attr.getValueType();
+			this.defaultValue = attr.getDefaultValue();
+			this.valOpts = Collections.unmodifiableList(valOpts);
+			this.funArgs = Collections.unmodifiableList(funArgs);
+		}
+
+		public Integer getId() {
+			return id;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public ComponentAttrValueType getValueType() {
+			return valueType;
+		}
+
+		public String getDefaultValue() {
+			return defaultValue;
+		}
+
+		/**
+		 * 获取属性的可选值，按 code 排序
+		 *
+		 * @return 可选值列表，不能修改
+		 */
+		public List<ValOpt> getValOpts() {
+			return valOpts;
+		}
+
+		/**
+		 * 获取事件的参数，按 seq 排序
+		 *
+		 * @return 参数列表，不能修改
+		 */
+		public List<FunArg> getFunArgs() {
+			return funArgs;
+		}
+	}
+
+	/**
+	 * 属性的可选值
+	 */
+	public static class ValOpt {
+		private final String code;
+		private final String value;
+		private final String label;
+		private final String description;
+
+		private ValOpt(ApiComponentAttrValOpt valOpt) {
+			this.code = valOpt.getCode();
+			this.value = valOpt.getValue();
+			this.label = valOpt.getLabel();
+			this.description = valOpt.getDescription();
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public String getValue() {
+			return value;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+
+	/**
+	 * 事件的参数
+	 */
+	public static class FunArg {
+		private final String code;
+		private final String name;
+		private final String label;
+		private final ComponentAttrValueType valueType;
+		private final String defaultValue;
+		private final String description;
+
+		private FunArg(ApiComponentAttrFunArg funArg) {
+			this.code = funArg.getCode();
+			this.name = funArg.getName();
+			this.label = funArg.getLabel();
+			this.valueType = funArg.getValueType();
+			this.defaultValue = funArg.getDefaultValue();
+			this.description = funArg.getDescription();
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public ComponentAttrValueType getValueType() {
+			return valueType;
+		}
+
+		public String getDefaultValue() {
+			return defaultValue;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+}
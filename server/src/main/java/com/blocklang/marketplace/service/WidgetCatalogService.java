@@ -0,0 +1,48 @@
+package com.blocklang.marketplace.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.blocklang.marketplace.data.WidgetCatalog;
+
+/**
+ * 缓存已发布的 API 仓库版本中的部件信息。
+ * 
+ * @author Zhengwei Jin
+ *
+ */
+public interface WidgetCatalogService {
+
+	/**
+	 * 获取 API 仓库版本中的所有部件，只有 widget 类型的 API 仓库中才包含部件
+	 * 
+	 * @param apiRepoVersionId API 仓库的版本标识
+	 * @return 部件目录，如果 API 仓库的版本不存在，则返回 <code>Optional.empty()</code>
+	 */
+	Optional<WidgetCatalog> findByApiRepoVersionId(Integer apiRepoVersionId);
+	
+	/**
+	 * 获取组件仓库版本实现的 API 仓库版本中的所有部件
+	 * 
+	 * @param componentRepoVersionId 组件仓库的版本标识
+	 * @return 部件目录，如果组件仓库的版本不存在，则返回 <code>Optional.empty()</code>
+	 */
+	Optional<WidgetCatalog> findByComponentRepoVersionId(Integer componentRepoVersionId);
+	
+	/**
+	 * 批量获取组件仓库版本实现的 API 仓库版本中的所有部件，未缓存的版本一次查出
+	 * 
+	 * @param componentRepoVersionIds 组件仓库的版本标识
+	 * @return 部件目录，与传入的组件仓库版本的顺序相同，不包含不存在的版本；
+	 * 多个组件仓库版本实现的是同一个 API 仓库版本时，可能包含重复的部件目录
+	 */
+	List<WidgetCatalog> findAllByComponentRepoVersionIds(Collection<Integer> componentRepoVersionIds);
+	
+	/**
+	 * 从数据库中重新加载 API 仓库版本中的部件，在发布 API 仓库后调用
+	 * 
+	 * @param apiRepoVersionId API 仓库的版本标识
+	 */
+	void refresh(Integer apiRepoVersionId);
+}
@@ -26,6 +26,7 @@ import com.blocklang.marketplace.dao.ComponentRepoPublishTaskDao;
 import com.blocklang.marketplace.dao.ComponentRepoVersionDao;
 import com.blocklang.marketplace.model.ComponentRepoPublishTask;
 import com.blocklang.marketplace.service.PublishService;
+import com.blocklang.marketplace.service.WidgetCatalogService;
 import com.blocklang.marketplace.task.ApiChangeLogParseGroupTask;
 import com.blocklang.marketplace.task.ApiChangeLogsSetupGroupTask;
 import com.blocklang.marketplace.task.ApiJsonParseGroupTask;
@@ -61,6 +62,8 @@ public class PublishServiceImpl implements PublishService {
 	private ApiChangeLogDao apiChangeLogDao;
 	@Autowired
 	private SimpMessagingTemplate messagingTemplate;
+	@Autowired
+	private WidgetCatalogService widgetCatalogService;
 	
 	@Async
 	@Override
@@ -156,6 +159,10 @@ public class PublishServiceImpl implements PublishService {
 			success = task.run().isPresent();
 			if(success) {
 				logger.info("安装完成");
+				// 发布后的部件不会再修改，预先加载到缓存中
+				if(task.getApiRepoVersionId() != null) {
+					widgetCatalogService.refresh(task.getApiRepoVersionId());
+				}
 			} else {
 				logger.error("安装失败");
 			}
@@ -0,0 +1,241 @@
+package com.blocklang.marketplace.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.blocklang.marketplace.constant.ComponentAttrValueType;
+import com.blocklang.marketplace.constant.RepoCategory;
+import com.blocklang.marketplace.dao.ApiComponentAttrDao;
+import com.blocklang.marketplace.dao.ApiComponentAttrFunArgDao;
+import com.blocklang.marketplace.dao.ApiComponentAttrValOptDao;
+import com.blocklang.marketplace.dao.ApiComponentDao;
+import com.blocklang.marketplace.dao.ApiRepoDao;
+import com.blocklang.marketplace.dao.ApiRepoVersionDao;
+import com.blocklang.marketplace.dao.ComponentRepoVersionDao;
+import com.blocklang.marketplace.data.WidgetCatalog;
+import com.blocklang.marketplace.model.ApiComponent;
+import com.blocklang.marketplace.model.ApiComponentAttr;
+import com.blocklang.marketplace.model.ApiComponentAttrFunArg;
+import com.blocklang.marketplace.model.ApiComponentAttrValOpt;
+import com.blocklang.marketplace.model.ApiRepo;
+import com.blocklang.marketplace.model.ApiRepoVersion;
+import com.blocklang.marketplace.model.ComponentRepoVersion;
+import com.blocklang.marketplace.service.WidgetCatalogService;
+
+/**
+ * 按 apiRepoVersionId 缓存 API 仓库版本中的部件，重新发布到已存在的版本后，调用 {@link #refresh(Integer)} 重新加载，
+ * 组件仓库的版本与 API 仓库版本的对应关系不会修改，同样缓存。
+ * 
+ * <p>
+ * 最多缓存 {@link #MAX_CACHED_VERSIONS} 个版本，超出后移除最久未使用的版本。
+ * </p>
+ * 
+ * @author Zhengwei Jin
+ *
+ */
+@Service
+public class WidgetCatalogServiceImpl implements WidgetCatalogService {
+
+	/**
+	 * 最多缓存的 API 仓库版本数
+	 */
+	static final int MAX_CACHED_VERSIONS = 128;
+	
+	@Autowired
+	private ComponentRepoVersionDao componentRepoVersionDao;
+	@Autowired
+	private ApiRepoDao apiRepoDao;
+	@Autowired
+	private ApiRepoVersionDao apiRepoVersionDao;
+	@Autowired
+	private ApiComponentDao apiComponentDao;
+	@Autowired
+	private ApiComponentAttrDao apiComponentAttrDao;
+	@Autowired
+	private ApiComponentAttrValOptDao apiComponentAttrValOptDao;
+	@Autowired
+	private ApiComponentAttrFunArgDao apiComponentAttrFunArgDao;
+	
+	private final Map<Integer, WidgetCatalog> catalogs = new LinkedHashMap<Integer, WidgetCatalog>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, WidgetCatalog> eldest) {
+			return size() > MAX_CACHED_VERSIONS;
+		}
+	};
+	
+	/**
+	 * key 为 componentRepoVersionId，value 为 apiRepoVersionId
+	 */
+	private final Map<Integer, Integer> apiRepoVersionIds = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+			return size() > MAX_CACHED_VERSIONS;
+		}
+	};
+	
+	@Override
+	public Optional<WidgetCatalog> findByApiRepoVersionId(Integer apiRepoVersionId) {
+		synchronized(catalogs) {
+			WidgetCatalog catalog = catalogs.get(apiRepoVersionId);
+			if(catalog != null) {
+				return Optional.of(catalog);
+			}
+		}
+		
+		// 在锁外加载，同时加载同一个版本时，结果相同，后放入的覆盖先放入的
+		Optional<WidgetCatalog> loaded = load(apiRepoVersionId);
+		loaded.ifPresent(catalog -> {
+			synchronized(catalogs) {
+				catalogs.put(apiRepoVersionId, catalog);
+			}
+		});
+		return loaded;
+	}
+
+	@Override
+	public Optional<WidgetCatalog> findByComponentRepoVersionId(Integer componentRepoVersionId) {
+		Integer apiRepoVersionId;
+		synchronized(apiRepoVersionIds) {
+			apiRepoVersionId = apiRepoVersionIds.get(componentRepoVersionId);
+		}
+		if(apiRepoVersionId == null) {
+			apiRepoVersionId = componentRepoVersionDao.findById(componentRepoVersionId).map(item -> item.getApiRepoVersionId()).orElse(null);
+			if(apiRepoVersionId == null) {
+				return Optional.empty();
+			}
+			synchronized(apiRepoVersionIds) {
+				apiRepoVersionIds.put(componentRepoVersionId, apiRepoVersionId);
+			}
+		}
+		return findByApiRepoVersionId(apiRepoVersionId);
+	}
+	
+	@Override
+	public List<WidgetCatalog> findAllByComponentRepoVersionIds(Collection<Integer> componentRepoVersionIds) {
+		if(componentRepoVersionIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		// 一. 找出组件仓库版本对应的 API 仓库版本，未缓存的一次查出
+		Map<Integer, Integer> versionIdMap = new HashMap<Integer, Integer>();
+		List<Integer> missedComponentRepoVersionIds = new ArrayList<Integer>();
+		synchronized(apiRepoVersionIds) {
+			for(Integer componentRepoVersionId : componentRepoVersionIds) {
+				Integer apiRepoVersionId = apiRepoVersionIds.get(componentRepoVersionId);
+				if(apiRepoVersionId == null) {
+					missedComponentRepoVersionIds.add(componentRepoVersionId);
+				} else {
+					versionIdMap.put(componentRepoVersionId, apiRepoVersionId);
+				}
+			}
+		}
+		if(!missedComponentRepoVersionIds.isEmpty()) {
+			List<ComponentRepoVersion> componentRepoVersions = componentRepoVersionDao.findAllById(missedComponentRepoVersionIds);
+			synchronized(apiRepoVersionIds) {
+				for(ComponentRepoVersion componentRepoVersion : componentRepoVersions) {
+					if(componentRepoVersion.getApiRepoVersionId() != null) {
+						versionIdMap.put(componentRepoVersion.getId(), componentRepoVersion.getApiRepoVersionId());
+						apiRepoVersionIds.put(componentRepoVersion.getId(), componentRepoVersion.getApiRepoVersionId());
+					}
+				}
+			}
+		}
+		
+		// 二. 获取 API 仓库版本中的部件，未缓存的版本一次查出 API 仓库版本和 API 仓库
+		Map<Integer, WidgetCatalog> catalogMap = new HashMap<Integer, WidgetCatalog>();
+		List<Integer> missedApiRepoVersionIds = new ArrayList<Integer>();
+		synchronized(catalogs) {
+			versionIdMap.values().stream().distinct().forEach(apiRepoVersionId -> {
+				WidgetCatalog catalog = catalogs.get(apiRepoVersionId);
+				if(catalog == null) {
+					missedApiRepoVersionIds.add(apiRepoVersionId);
+				} else {
+					catalogMap.put(apiRepoVersionId, catalog);
+				}
+			});
+		}
+		if(!missedApiRepoVersionIds.isEmpty()) {
+			List<ApiRepoVersion> apiRepoVersions = apiRepoVersionDao.findAllById(missedApiRepoVersionIds);
+			Map<Integer, ApiRepo> apiRepos = apiRepoDao
+					.findAllById(apiRepoVersions.stream().map(ApiRepoVersion::getApiRepoId).distinct().collect(Collectors.toList()))
+					.stream()
+					.collect(Collectors.toMap(ApiRepo::getId, apiRepo -> apiRepo));
+			for(ApiRepoVersion apiRepoVersion : apiRepoVersions) {
+				ApiRepo apiRepo = apiRepos.get(apiRepoVersion.getApiRepoId());
+				if(apiRepo != null) {
+					WidgetCatalog catalog = load(apiRepoVersion.getId(), apiRepo);
+					catalogMap.put(apiRepoVersion.getId(), catalog);
+					synchronized(catalogs) {
+						catalogs.put(apiRepoVersion.getId(), catalog);
+					}
+				}
+			}
+		}
+		
+		List<WidgetCatalog> result = new ArrayList<WidgetCatalog>(componentRepoVersionIds.size());
+		for(Integer componentRepoVersionId : componentRepoVersionIds) {
+			Integer apiRepoVersionId = versionIdMap.get(componentRepoVersionId);
+			if(apiRepoVersionId != null) {
+				WidgetCatalog catalog = catalogMap.get(apiRepoVersionId);
+				if(catalog != null) {
+					result.add(catalog);
+				}
+			}
+		}
+		return result;
+	}
+	
+	@Override
+	public void refresh(Integer apiRepoVersionId) {
+		Optional<WidgetCatalog> loaded = load(apiRepoVersionId);
+		synchronized(catalogs) {
+			loaded.ifPresentOrElse(catalog -> catalogs.put(apiRepoVersionId, catalog), () -> catalogs.remove(apiRepoVersionId));
+		}
+	}
+
+	/**
+	 * 每类数据只查询一次，然后在 {@link WidgetCatalog} 中组装
+	 */
+	private Optional<WidgetCatalog> load(Integer apiRepoVersionId) {
+		return apiRepoVersionDao
+				.findById(apiRepoVersionId)
+				.flatMap(apiRepoVersion -> apiRepoDao.findById(apiRepoVersion.getApiRepoId()))
+				.map(apiRepo -> load(apiRepoVersionId, apiRepo));
+	}
+	
+	private WidgetCatalog load(Integer apiRepoVersionId, ApiRepo apiRepo) {
+		// 只有 widget 仓库中才有部件
+		if(apiRepo.getCategory() != RepoCategory.WIDGET) {
+			return new WidgetCatalog(apiRepoVersionId, apiRepo, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+		}
+		
+		List<ApiComponent> components = apiComponentDao.findAllByApiRepoVersionId(apiRepoVersionId);
+		List<ApiComponentAttr> attrs = components.isEmpty() ? Collections.emptyList() : apiComponentAttrDao
+				.findAllByApiComponentIdInOrderByCode(components.stream().map(ApiComponent::getId).collect(Collectors.toList()));
+		
+		List<Integer> attrIds = attrs.stream().map(ApiComponentAttr::getId).collect(Collectors.toList());
+		List<ApiComponentAttrValOpt> valOpts = attrIds.isEmpty() ? Collections.emptyList() : apiComponentAttrValOptDao.findAllByApiComponentAttrIdIn(attrIds);
+		
+		List<Integer> eventIds = attrs.stream()
+				.filter(attr -> attr.getValueType() == ComponentAttrValueType.FUNCTION)
+				.map(ApiComponentAttr::getId)
+				.collect(Collectors.toList());
+		List<ApiComponentAttrFunArg> funArgs = eventIds.isEmpty() ? Collections.emptyList() : apiComponentAttrFunArgDao.findAllByApiComponentAttrIdIn(eventIds);
+		
+		return new WidgetCatalog(apiRepoVersionId, apiRepo, components, attrs, valOpts, funArgs);
+	}
+}
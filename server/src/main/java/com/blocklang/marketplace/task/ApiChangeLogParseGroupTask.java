@@ -1,6 +1,7 @@
 package com.blocklang.marketplace.task;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -11,6 +12,7 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.codec.digest.DigestUtils;
 
+import com.blocklang.core.git.GitBlobCache;
 import com.blocklang.core.git.GitBlobInfo;
 import com.blocklang.core.git.GitFileInfo;
 import com.blocklang.core.git.GitUtils;
@@ -158,7 +160,7 @@ public class ApiChangeLogParseGroupTask extends AbstractRepoPublishTask {
 				for(ApiChangeLog apiChangeLog : entry.getValue()) {
 					for(GitBlobInfo gitBlobInfo : blobs) {
 						if(gitBlobInfo.getPath().equals(apiChangeLog.getChangelogFileName())) {
-							String md5Now = DigestUtils.md5Hex(gitBlobInfo.getContent());
+							String md5Now = md5Hex(gitBlobInfo);
 							if(!apiChangeLog.getMd5Sum().equals(md5Now)) {
 								logger.error("{0} 文件已被修改，请使用最新版本的 API 仓库", apiChangeLog.getChangelogFileName());
 								success = false;
@@ -240,7 +242,7 @@ public class ApiChangeLogParseGroupTask extends AbstractRepoPublishTask {
 							String changeLogFilePath = componentName + "/changelog/" + changeLog.getFileName();
 							if(gitBlobInfo.getPath().equals(changeLogFilePath)) {
 								try {
-									Map<?, ?> changelogMap = objectMapper.readValue(gitBlobInfo.getContent(), Map.class);
+									Map<?, ?> changelogMap = objectMapper.treeToValue(GitBlobCache.getJsonTree(gitBlobInfo), Map.class);
 									ApiChangeLogValidateTask changeLogValidateTask = new ApiChangeLogValidateTask(context, changelogMap);
 									Optional<ChangeLog> changelogOption = changeLogValidateTask.run();
 									success = changelogOption.isPresent();
@@ -251,7 +253,7 @@ public class ApiChangeLogParseGroupTask extends AbstractRepoPublishTask {
 										changeLog.setAuthor(cl.getAuthor());
 										changeLog.setChanges(cl.getChanges());
 										changeLog.setVersion(parseVersion(changeLog.getFileName()));
-										changeLog.setMd5Sum(DigestUtils.md5Hex(gitBlobInfo.getContent()));
+										changeLog.setMd5Sum(md5Hex(gitBlobInfo));
 										
 										logger.info("{0} 解析完成", changeLogFilePath);
 									} else {
@@ -275,6 +277,18 @@ public class ApiChangeLogParseGroupTask extends AbstractRepoPublishTask {
 		return Optional.empty();
 	}
 
+	/**
+	 * 以流的方式计算文件内容的 md5 值，不需要将大文件读入内存
+	 */
+	private String md5Hex(GitBlobInfo gitBlobInfo) {
+		try (InputStream in = gitBlobInfo.openStream()) {
+			return DigestUtils.md5Hex(in);
+		} catch (IOException e) {
+			logger.error(e);
+			return null;
+		}
+	}
+
 	private String parseVersion(String fileName) {
 		return fileName.substring(0, fileName.length() - ".json".length()).replace('_', '.');
 	}
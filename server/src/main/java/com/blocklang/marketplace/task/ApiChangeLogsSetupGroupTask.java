@@ -80,6 +80,8 @@ public class ApiChangeLogsSetupGroupTask extends AbstractRepoPublishTask {
 	private ApiComponentAttrFunArgDao apiComponentAttrFunArgDao;
 	private ApiChangeLogDao apiChangeLogDao;
 	
+	private Integer apiRepoVersionId;
+	
 	public ApiChangeLogsSetupGroupTask(
 			MarketplacePublishContext marketplacePublishContext, 
 			ComponentRepoDao componentRepoDao,
@@ -174,6 +176,8 @@ public class ApiChangeLogsSetupGroupTask extends AbstractRepoPublishTask {
 		// 如果漏发，而某一个 dev 库恰好引用了，则就会出现对应关系中断的问题
 		// 在每个 tag 内都要从头到尾将其中的 changelog 执行一遍
 		
+		this.apiRepoVersionId = currentApiRepoVersionId;
+		
 		logger.info("开始保存组件库的 {0} 版本信息", context.getComponentRepoLatestVersion());
 		saveComponentRepoVersion(savedCompRepo.getId(), currentApiRepoVersionId);
 		logger.info("保存成功");
@@ -247,6 +251,15 @@ public class ApiChangeLogsSetupGroupTask extends AbstractRepoPublishTask {
 		return Optional.empty();
 	}
 
+	/**
+	 * 获取组件库引用的 API 库版本标识，在 {@link #run()} 之后调用
+	 * 
+	 * @return API 库的版本标识，如果没有找到则返回 null
+	 */
+	public Integer getApiRepoVersionId() {
+		return apiRepoVersionId;
+	}
+
 	// 注意，方法名要与操作名相同
 	private void newWidget(Integer apiRepoVersionId, NewWidgetChange newWidgetChange, CodeGenerator componentCodeGenerator) {
 		// code
@@ -3,6 +3,8 @@ package com.blocklang.marketplace.task;
 import java.io.IOException;
 import java.util.Optional;
 
+import com.blocklang.core.git.GitBlobCache;
+import com.blocklang.core.git.GitBlobInfo;
 import com.blocklang.core.git.GitUtils;
 import com.blocklang.marketplace.constant.MarketplaceConstant;
 import com.blocklang.marketplace.data.ApiJson;
@@ -78,15 +80,15 @@ public class ApiJsonParseGroupTask extends AbstractRepoPublishTask {
 		}
 		
 		// 从指定的发行版中获取 api.json 内容
-		String apiJsonContent = null;
+		GitBlobInfo apiJsonBlob = null;
 		if(success) {
 			logger.info("校验 API 仓库根目录是否存在 {0} 文件", MarketplaceConstant.FILE_NAME_API);
 			// 从组件库的 component.json 中指定的 api 版本中查找
 			ApiJsonFetchTask task = new ApiJsonFetchTask(context, apiRepoRefName);
-			Optional<String> contentOption = task.run();
+			Optional<GitBlobInfo> contentOption = task.run();
 			success = contentOption.isPresent();
 			if(success) {
-				apiJsonContent = contentOption.get();
+				apiJsonBlob = contentOption.get();
 				logger.info("存在");
 			} else {
 				logger.error("不存在");
@@ -99,7 +101,8 @@ public class ApiJsonParseGroupTask extends AbstractRepoPublishTask {
 			logger.info("将 {0} 内容转换为 java 对象", MarketplaceConstant.FILE_NAME_API);
 			ObjectMapper objectMapper = new ObjectMapper();
 			try {
-				apiJson = objectMapper.readValue(apiJsonContent, ApiJson.class);
+				// 重复发布同一个版本时，直接使用缓存中已解析的 json
+				apiJson = objectMapper.treeToValue(GitBlobCache.getJsonTree(apiJsonBlob), ApiJson.class);
 				context.setApiJson(apiJson);
 				logger.info("转换完成");
 				success = true;
@@ -6,11 +6,10 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jgit.lib.Ref;
 
+import com.blocklang.core.git.GitTagList;
 import com.blocklang.core.git.GitUtils;
 import com.blocklang.core.git.exception.GitTagFailedException;
 
-import de.skuzzle.semantic.Version;
-
 /**
  * 获取 API 仓库的所有正式版本号。
  * 
@@ -29,22 +28,15 @@ public class ApiRepoVersionsFindTask extends AbstractRepoPublishTask{
 	@Override
 	public Optional<Boolean> run() {
 		try {
-			List<Ref> tags = GitUtils.getTags(context.getLocalApiRepoPath().getRepoSourceDirectory());
+			GitTagList tagList = GitUtils.getTagList(context.getLocalApiRepoPath().getRepoSourceDirectory());
+			List<Ref> tags = tagList.getTags();
 			logger.info("共有 {0} 个 git tags", tags.size());
 			
 			context.setAllApiRepoTagNames(tags.stream().map(ref -> ref.getName()).collect(Collectors.toList()));
 			
-			List<String> versions = tags.stream()
-				.map(ref -> GitUtils.getVersionFromRefName(ref.getName()))
-				.flatMap(Optional::stream)
-				.filter(version -> {
-					if(!Version.isValidVersion(version)) {
-						logger.info("过滤掉无效的版本号 {0}", version);
-						return false;
-					}
-					return true;
-				})
-				.collect(Collectors.toList());
+			tagList.getInvalidVersionTagNames().forEach(tagName -> logger.info("过滤掉无效的版本号 {0}", tagName));
+			// 已按版本号从小到大排序
+			List<String> versions = tagList.getVersions();
 			
 			if(versions.isEmpty()) {
 				logger.error("共解析出 0 个有效的版本");
@@ -2,6 +2,7 @@ package com.blocklang.marketplace.task;
 
 import java.util.Optional;
 
+import com.blocklang.core.git.GitBlobInfo;
 import com.blocklang.core.git.GitUtils;
 import com.blocklang.core.git.exception.GitTagFailedException;
 import com.blocklang.marketplace.constant.MarketplaceConstant;
@@ -19,10 +20,10 @@ public class ComponentJsonFetchTask extends AbstractRepoPublishTask {
 	 * 获取 component.json 文件中的内容
 	 */
 	@Override
-	public Optional<String> run() {
+	public Optional<GitBlobInfo> run() {
 		try {
 			return GitUtils.getBlob(context.getLocalComponentRepoPath().getRepoSourceDirectory(), gitRefName,
-					MarketplaceConstant.FILE_NAME_COMPONENT).map(blobInfo -> blobInfo.getContent());
+					MarketplaceConstant.FILE_NAME_COMPONENT);
 		} catch (GitTagFailedException e) {
 			logger.error(e);
 			return Optional.empty();
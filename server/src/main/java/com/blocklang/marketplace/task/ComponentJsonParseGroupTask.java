@@ -5,6 +5,8 @@ import java.util.Optional;
 
 import org.eclipse.jgit.lib.Ref;
 
+import com.blocklang.core.git.GitBlobCache;
+import com.blocklang.core.git.GitBlobInfo;
 import com.blocklang.core.git.GitUtils;
 import com.blocklang.marketplace.constant.MarketplaceConstant;
 import com.blocklang.marketplace.dao.ComponentRepoDao;
@@ -98,14 +100,14 @@ public class ComponentJsonParseGroupTask extends AbstractRepoPublishTask {
 
 		// 从最新的 git tag 中查找 component.json 文件
 		// 并获取 component.json 文件中的内容
-		String componentJsonContent = null;
+		GitBlobInfo componentJsonBlob = null;
 		if(success) {
 			logger.info("在发行版 {0} 的根目录下查找 {1} 文件", componentRepoLatestVersion, MarketplaceConstant.FILE_NAME_COMPONENT);
 			ComponentJsonFetchTask task = new ComponentJsonFetchTask(context, componentRepoLatestRefName);
-			Optional<String> contentOption = task.run();
+			Optional<GitBlobInfo> contentOption = task.run();
 			success = contentOption.isPresent();
 			if(success) {
-				componentJsonContent = contentOption.get();
+				componentJsonBlob = contentOption.get();
 				logger.info("存在");
 			} else {
 				logger.error("没有找到");
@@ -118,7 +120,8 @@ public class ComponentJsonParseGroupTask extends AbstractRepoPublishTask {
 			logger.info("将 {0} 中的文本转换为 java 对象", MarketplaceConstant.FILE_NAME_COMPONENT);
 			ObjectMapper objectMapper = new ObjectMapper();
 			try {
-				componentJson = objectMapper.readValue(componentJsonContent, ComponentJson.class);
+				// 重复发布同一个版本时，直接使用缓存中已解析的 json
+				componentJson = objectMapper.treeToValue(GitBlobCache.getJsonTree(componentJsonBlob), ComponentJson.class);
 				// 在这里往 context 中保存，这样在后续的校验子任务中，可以从 context 中获取 componentJson
 				context.setComponentJson(componentJson);
 				logger.info("转换完成");
@@ -95,7 +95,7 @@ public class ProjectModelWriteTask extends AbstractTask {
 			Map<String, Object> pageInfo = new HashMap<String, Object>();
 			pageInfo.put("id", projectResource.getId());
 			pageInfo.put("key", projectResource.getKey());
-			List<String> groupPathes = projectResourceService.findParentPathes(projectResource.getId());
+			List<String> groupPathes = projectResourceService.findParentPathes(projectResource);
 			// 注意要去除当前资源的路径
 			groupPathes.remove(groupPathes.size() - 1);
 			// 临时存储
@@ -37,6 +37,7 @@ drop table page_func;
 drop table page_func_node;
 drop table page_func_node_port;
 drop table page_func_connection;
+drop table page_model_snapshot;
 
 drop table databasechangelog;
 drop table databasechangeloglock;
\ No newline at end of file
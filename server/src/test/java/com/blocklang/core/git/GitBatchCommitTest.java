@@ -0,0 +1,102 @@
+package com.blocklang.core.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.blocklang.core.git.exception.GitEmptyCommitException;
+import com.blocklang.core.test.TestHelper;
+
+public class GitBatchCommitTest {
+
+	private String gitRepoDirectory = "gitRepo";
+	private String gitUserName = "user";
+	private String gitUserMail = "user@email.com";
+	
+	@Test
+	public void commit_multiple_files(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, "a", "1.txt", "1", gitUserName, gitUserMail, "commit 1");
+		
+		String commitId = GitUtils.beginCommit(folder, gitUserName, gitUserMail)
+			.addFile("a/2.txt", "2")
+			.addFile("b/c/3.txt", "3")
+			.removeFile("a/1.txt")
+			.commit("commit 2");
+		
+		assertThat(GitUtils.getLatestCommit(folder).getName()).isEqualTo(commitId);
+		assertThat(GitUtils.getLogCount(folder)).isEqualTo(3);
+		assertThat(GitUtils.getBlob(folder, "refs/heads/master", "a/2.txt").get().getContent()).isEqualTo("2");
+		assertThat(GitUtils.getBlob(folder, "refs/heads/master", "b/c/3.txt").get().getContent()).isEqualTo("3");
+		assertThat(GitUtils.getBlob(folder, "refs/heads/master", "a/1.txt")).isEmpty();
+		
+		// 同步工作区和 index
+		assertThat(Files.readString(folder.resolve("b").resolve("c").resolve("3.txt"))).isEqualTo("3");
+		assertThat(folder.resolve("a").resolve("1.txt")).doesNotExist();
+		assertThat(GitUtils.status(folder, null)).isEmpty();
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void commit_without_sync_work_tree(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.beginCommit(folder, gitUserName, gitUserMail)
+			.addFile("1.txt", "1")
+			.setSyncWorkTree(false)
+			.commit("commit 1");
+		
+		assertThat(GitUtils.getBlob(folder, "refs/heads/master", "1.txt").get().getContent()).isEqualTo("1");
+		assertThat(folder.resolve("1.txt")).doesNotExist();
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void commit_many_files_into_pack(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitBatchCommit batchCommit = GitUtils.beginCommit(folder, gitUserName, gitUserMail);
+		for(int i = 0; i < GitBatchCommit.PACK_THRESHOLD; i++) {
+			batchCommit.addFile("pages/" + i + ".json", "{\"id\":" + i + "}");
+		}
+		batchCommit.commit("commit 1");
+		
+		assertThat(GitUtils.getBlob(folder, "refs/heads/master", "pages/0.json").get().getContent()).isEqualTo("{\"id\":0}");
+		assertThat(GitUtils.status(folder, null)).isEmpty();
+		try(var packs = Files.list(folder.resolve(".git").resolve("objects").resolve("pack"))) {
+			assertThat(packs.filter(path -> path.toString().endsWith(".pack"))).hasSize(1);
+		}
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void commit_nothing_changed(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, null, "1.txt", "1", gitUserName, gitUserMail, "commit 1");
+		
+		Assertions.assertThrows(GitEmptyCommitException.class, () -> GitUtils.beginCommit(folder, gitUserName, gitUserMail)
+				.addFile("1.txt", "1")
+				.commit("commit 2"));
+		
+		TestHelper.clearDir(folder);
+	}
+}
@@ -0,0 +1,94 @@
+package com.blocklang.core.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.blocklang.core.test.TestHelper;
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class GitBlobCacheTest {
+
+	private String gitRepoDirectory = "gitRepo";
+	private String gitUserName = "user";
+	private String gitUserMail = "user@email.com";
+	
+	@BeforeEach
+	public void setup() {
+		GitBlobCache.clear();
+		GitBlobCache.setMaxBytes(GitBlobCache.DEFAULT_MAX_BYTES);
+	}
+	
+	@AfterEach
+	public void teardown() {
+		GitBlobCache.clear();
+		GitBlobCache.setMaxBytes(GitBlobCache.DEFAULT_MAX_BYTES);
+	}
+	
+	@Test
+	public void get_blob_twice_hit_cache(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, null, "1.txt", "1", gitUserName, gitUserMail, "commit 1");
+		
+		GitBlobInfo first = GitUtils.getBlob(folder, "refs/heads/master", "1.txt").get();
+		assertThat(GitBlobCache.getStats().getMissCount()).isEqualTo(1);
+		assertThat(GitBlobCache.getStats().getSize()).isEqualTo(1);
+		
+		GitBlobInfo second = GitUtils.getBlob(folder, "refs/heads/master", "1.txt").get();
+		assertThat(GitBlobCache.getStats().getHitCount()).isEqualTo(1);
+		assertThat(second.getContent()).isEqualTo(first.getContent()).isEqualTo("1");
+		assertThat(second.getBlobId()).isEqualTo(first.getBlobId());
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void get_json_tree_cached(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, null, "1.json", "{\"a\":1}", gitUserName, gitUserMail, "commit 1");
+		
+		GitBlobInfo blob = GitUtils.getBlob(folder, "refs/heads/master", "1.json").get();
+		JsonNode first = GitBlobCache.getJsonTree(blob);
+		JsonNode second = GitBlobCache.getJsonTree(blob);
+		
+		assertThat(first.get("a").asInt()).isEqualTo(1);
+		assertThat(second).isSameAs(first);
+		// 解析后的对象也计入缓存容量
+		assertThat(GitBlobCache.getStats().getTotalBytes()).isEqualTo(blob.getContent().length() * 2L);
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void evict_when_exceed_max_bytes(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitBlobCache.setMaxBytes(15);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, null, "1.txt", "0123456789", gitUserName, gitUserMail, "commit 1");
+		GitUtils.commit(folder, null, "2.txt", "abcdefghij", gitUserName, gitUserMail, "commit 2");
+		
+		GitUtils.getBlob(folder, "refs/heads/master", "1.txt");
+		GitUtils.getBlob(folder, "refs/heads/master", "2.txt");
+		
+		assertThat(GitBlobCache.getStats().getSize()).isEqualTo(1);
+		assertThat(GitBlobCache.getStats().getTotalBytes()).isEqualTo(10);
+		assertThat(GitBlobCache.getStats().getEvictionCount()).isEqualTo(1);
+		
+		TestHelper.clearDir(folder);
+	}
+}
@@ -0,0 +1,55 @@
+package com.blocklang.core.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.blocklang.core.test.TestHelper;
+
+public class GitGcTest {
+
+	private String gitRepoDirectory = "gitRepo";
+	private String gitUserName = "user";
+	private String gitUserMail = "user@email.com";
+	
+	@Test
+	public void gc_below_threshold(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, null, "1.txt", "1", gitUserName, gitUserMail, "commit 1");
+		
+		assertThat(GitUtils.gc(folder)).isEmpty();
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void gc_pack_loose_objects(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, null, "1.txt", "1", gitUserName, gitUserMail, "commit 1");
+		GitUtils.commit(folder, "a", "2.txt", "2", gitUserName, gitUserMail, "commit 2");
+		
+		Optional<GitGcResult> result = new GitGc(folder, 0, 0).execute();
+		
+		assertThat(result).isPresent();
+		assertThat(result.get().getLooseObjectsBefore()).isGreaterThan(0);
+		assertThat(result.get().getLooseObjectsAfter()).isEqualTo(0);
+		assertThat(result.get().getPackFilesAfter()).isEqualTo(1);
+		// gc 后仍能正常读取
+		assertThat(GitUtils.getBlob(folder, "refs/heads/master", "a/2.txt").get().getContent()).isEqualTo("2");
+		assertThat(GitUtils.getLogCount(folder)).isEqualTo(3);
+		
+		TestHelper.clearDir(folder);
+	}
+}
@@ -0,0 +1,92 @@
+package com.blocklang.core.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand.ResetType;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GitLastCommitIndexTest {
+
+	private String gitRepoDirectory = "gitRepo";
+	private String gitUserName = "user";
+	private String gitUserMail = "user@email.com";
+	
+	@Test
+	public void get_latest_commit_index_saved(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		
+		GitUtils.commit(folder, "a", "1.txt", "hello", gitUserName, gitUserMail, "commit 1");
+		assertThat(GitUtils.getLatestCommit(folder, "a/1.txt").getFullMessage()).isEqualTo("commit 1");
+		
+		Path indexFile = folder.resolve(Constants.DOT_GIT).resolve(GitLastCommitIndex.INDEX_FILE_NAME);
+		assertThat(indexFile).exists();
+		
+		// 提交后增量更新
+		String commitId2 = GitUtils.commit(folder, "a/b", "2.txt", "world", gitUserName, gitUserMail, "commit 2");
+		assertThat(Files.readString(indexFile)).contains(commitId2 + " a/b/2.txt", commitId2 + " a/b", commitId2 + " a");
+		assertThat(GitUtils.getLatestCommit(folder, "a/1.txt").getFullMessage()).isEqualTo("commit 1");
+		assertThat(GitUtils.getLatestCommit(folder, "a").getFullMessage()).isEqualTo("commit 2");
+	}
+	
+	@Test
+	public void get_latest_commit_path_not_exist(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		
+		GitUtils.commit(folder, "a", "1.txt", "hello", gitUserName, gitUserMail, "commit 1");
+		assertThat(GitUtils.getLatestCommit(folder, "not-exist.txt")).isNull();
+	}
+	
+	@Test
+	public void get_latest_commit_head_moved_outside(@TempDir Path tempDir) throws IOException, GitAPIException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		
+		GitUtils.commit(folder, "a", "1.txt", "hello", gitUserName, gitUserMail, "commit 1");
+		assertThat(GitUtils.getLatestCommit(folder, "a/1.txt").getFullMessage()).isEqualTo("commit 1");
+		
+		// 不通过 GitUtils 提交
+		try(Git git = Git.open(folder.toFile())) {
+			Files.writeString(folder.resolve("a").resolve("1.txt"), "hello world");
+			git.add().addFilepattern("a/1.txt").call();
+			git.commit().setMessage("commit 2").call();
+		}
+		assertThat(GitUtils.getLatestCommit(folder, "a/1.txt").getFullMessage()).isEqualTo("commit 2");
+		
+		// 回退到上一个提交后重建索引
+		try(Git git = Git.open(folder.toFile())) {
+			git.reset().setMode(ResetType.HARD).setRef("HEAD~1").call();
+		}
+		RevCommit latestCommit = GitUtils.getLatestCommit(folder, "a/1.txt");
+		assertThat(latestCommit.getFullMessage()).isEqualTo("commit 1");
+	}
+	
+	@Test
+	public void get_latest_commit_deleted_path(@TempDir Path tempDir) throws IOException, GitAPIException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		
+		GitUtils.commit(folder, "a", "1.txt", "hello", gitUserName, gitUserMail, "commit 1");
+		assertThat(GitUtils.getLatestCommit(folder, "a/1.txt")).isNotNull();
+		
+		GitUtils.remove(folder, "a/1.txt");
+		GitUtils.commit(folder, gitUserName, gitUserMail, "commit 2");
+		
+		assertThat(GitUtils.getLatestCommit(folder, "a/1.txt")).isNull();
+		assertThat(GitUtils.getLatestCommit(folder, "a")).isNull();
+	}
+}
@@ -0,0 +1,75 @@
+package com.blocklang.core.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GitRepositoryLocksTest {
+
+	@Test
+	public void read_not_blocked_by_read(@TempDir Path tempDir) throws Exception {
+		Path folder = tempDir.resolve("gitRepo");
+		CountDownLatch reading = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			executor.submit(() -> GitRepositoryLocks.read(folder, () -> {
+				reading.countDown();
+				try {
+					return done.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					return false;
+				}
+			}));
+			assertThat(reading.await(10, TimeUnit.SECONDS)).isTrue();
+			
+			long contended = GitRepositoryLocks.getStats().getReadContendedCount();
+			assertThat(GitRepositoryLocks.read(folder, () -> "read")).isEqualTo("read");
+			assertThat(GitRepositoryLocks.getStats().getReadContendedCount()).isEqualTo(contended);
+		} finally {
+			done.countDown();
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void write_wait_for_read(@TempDir Path tempDir) throws Exception {
+		Path folder = tempDir.resolve("gitRepo");
+		CountDownLatch reading = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			executor.submit(() -> GitRepositoryLocks.read(folder, () -> {
+				reading.countDown();
+				try {
+					return done.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					return false;
+				}
+			}));
+			assertThat(reading.await(10, TimeUnit.SECONDS)).isTrue();
+			
+			long contended = GitRepositoryLocks.getStats().getWriteContendedCount();
+			Future<String> write = executor.submit(() -> GitRepositoryLocks.write(folder, () -> "write"));
+			Thread.sleep(200);
+			assertThat(write.isDone()).isFalse();
+			
+			done.countDown();
+			assertThat(write.get(10, TimeUnit.SECONDS)).isEqualTo("write");
+			assertThat(GitRepositoryLocks.getStats().getWriteContendedCount()).isEqualTo(contended + 1);
+		} finally {
+			done.countDown();
+			executor.shutdown();
+		}
+	}
+}
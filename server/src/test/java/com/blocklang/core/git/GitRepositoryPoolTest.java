@@ -0,0 +1,92 @@
+package com.blocklang.core.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.lib.Repository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GitRepositoryPoolTest {
+
+	private String gitRepoDirectory = "gitRepo";
+	private String gitUserName = "user";
+	private String gitUserMail = "user@email.com";
+	
+	@BeforeEach
+	public void setUp() {
+		GitRepositoryPool.clear();
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		GitRepositoryPool.clear();
+	}
+	
+	@Test
+	public void open_reuse_repository(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		
+		Repository first = null;
+		try(Repository repo = GitRepositoryPool.open(folder)) {
+			first = repo;
+		}
+		try(Repository repo = GitRepositoryPool.open(folder)) {
+			assertThat(repo).isSameAs(first);
+			// 关闭后依然可用
+			assertThat(repo.getObjectDatabase().exists()).isTrue();
+		}
+		assertThat(GitRepositoryPool.size()).isEqualTo(1);
+	}
+	
+	@Test
+	public void open_repo_not_exist_not_pooled(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		try(Repository repo = GitRepositoryPool.open(folder)) {
+			assertThat(repo.getObjectDatabase().exists()).isFalse();
+		}
+		assertThat(GitRepositoryPool.size()).isEqualTo(0);
+	}
+	
+	@Test
+	public void evict_success(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		
+		Repository first = null;
+		try(Repository repo = GitRepositoryPool.open(folder)) {
+			first = repo;
+			// 仓库正在使用时释放，不会影响调用方
+			GitRepositoryPool.evict(folder);
+			assertThat(repo.getObjectDatabase().exists()).isTrue();
+		}
+		assertThat(GitRepositoryPool.size()).isEqualTo(0);
+		
+		try(Repository repo = GitRepositoryPool.open(folder)) {
+			assertThat(repo).isNotSameAs(first);
+		}
+	}
+	
+	@Test
+	public void open_exceed_max_open_repositories(@TempDir Path tempDir) throws IOException {
+		for(int i = 0; i <= GitRepositoryPool.MAX_OPEN_REPOSITORIES; i++) {
+			Path folder = tempDir.resolve(gitRepoDirectory + i);
+			Files.createDirectory(folder);
+			GitUtils.init(folder, gitUserName, gitUserMail);
+			try(Repository repo = GitRepositoryPool.open(folder)) {
+			}
+		}
+		
+		assertThat(GitRepositoryPool.size()).isEqualTo(GitRepositoryPool.MAX_OPEN_REPOSITORIES);
+	}
+}
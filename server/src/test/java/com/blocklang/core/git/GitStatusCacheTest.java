@@ -0,0 +1,119 @@
+package com.blocklang.core.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.blocklang.core.constant.GitFileStatus;
+import com.blocklang.core.test.TestHelper;
+
+public class GitStatusCacheTest {
+
+	private String gitRepoDirectory = "gitRepo";
+	private String gitUserName = "user";
+	private String gitUserMail = "user@email.com";
+	
+	@BeforeEach
+	public void setup() {
+		GitStatusCache.clear();
+	}
+	
+	@AfterEach
+	public void teardown() {
+		GitStatusCache.clear();
+	}
+	
+	@Test
+	public void status_mark_changed(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, "a", "file1", "hello", gitUserName, gitUserMail, "commit 1");
+		assertThat(GitUtils.status(folder, null)).isEmpty();
+		
+		Files.writeString(folder.resolve("a").resolve("file1"), " world", StandardOpenOption.APPEND);
+		GitUtils.markChanged(folder, "a/file1");
+		
+		Map<String, GitFileStatus> status = GitUtils.status(folder, null);
+		assertThat(status).hasSize(1).containsEntry("a/file1", GitFileStatus.MODIFIED);
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void status_index_changed(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		Files.createFile(folder.resolve("file1"));
+		GitUtils.markChanged(folder, "file1");
+		assertThat(GitUtils.status(folder, null)).hasSize(1).containsEntry("file1", GitFileStatus.UNTRACKED);
+		
+		GitUtils.add(folder, "file1");
+		assertThat(GitUtils.status(folder, null)).hasSize(1).containsEntry("file1", GitFileStatus.ADDED);
+		
+		GitUtils.commit(folder, gitUserName, gitUserMail, "commit 1");
+		assertThat(GitUtils.status(folder, null)).isEmpty();
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void status_watch_working_tree(@TempDir Path tempDir) throws IOException, InterruptedException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, "a", "file1", "hello", gitUserName, gitUserMail, "commit 1");
+		assertThat(GitUtils.status(folder, null)).isEmpty();
+		
+		// 在程序之外修改文件，不调用 markChanged
+		Files.writeString(folder.resolve("a").resolve("file1"), " world", StandardOpenOption.APPEND);
+		Files.createDirectories(folder.resolve("b").resolve("c"));
+		Files.writeString(folder.resolve("b").resolve("c").resolve("file2"), "hello");
+		
+		Map<String, GitFileStatus> status = GitUtils.status(folder, null);
+		for(int i = 0; i < 50 && status.size() < 3; i++) {
+			Thread.sleep(100);
+			status = GitUtils.status(folder, null);
+		}
+		assertThat(status).hasSize(3)
+			.containsEntry("a/file1", GitFileStatus.MODIFIED)
+			.containsEntry("b", GitFileStatus.UNTRACKED)
+			.containsEntry("b/c/file2", GitFileStatus.UNTRACKED);
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void status_sub_dir_same_as_git_status(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, "c", "file1", "hello", gitUserName, gitUserMail, "commit 1");
+		Files.createDirectories(folder.resolve("a").resolve("b").resolve("c"));
+		Files.writeString(folder.resolve("a").resolve("b").resolve("c").resolve("file2"), "hello");
+		Files.writeString(folder.resolve("a").resolve("file3"), "hello");
+		Files.createDirectories(folder.resolve("c").resolve("e"));
+		Files.writeString(folder.resolve("c").resolve("e").resolve("file4"), "hello");
+		Files.writeString(folder.resolve("c").resolve("file1"), " world", StandardOpenOption.APPEND);
+		
+		for(String dir : new String[] {null, "a", "a/b", "a/b/c", "c", "c/e", "not-exist"}) {
+			assertThat(GitUtils.status(folder, dir)).as(dir).isEqualTo(new GitStatus(folder, dir).execute());
+		}
+		
+		TestHelper.clearDir(folder);
+	}
+}
@@ -0,0 +1,75 @@
+package com.blocklang.core.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.blocklang.core.test.TestHelper;
+
+public class GitTagIndexTest {
+
+	private String gitRepoDirectory = "gitRepo";
+	private String gitUserName = "user";
+	private String gitUserMail = "user@email.com";
+	
+	@Test
+	public void get_tag_list_order_by_semantic_version(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.tag(folder, "v0.9.0", "message");
+		GitUtils.tag(folder, "v0.10.0", "message");
+		GitUtils.tag(folder, "v1.0.0-alpha", "message");
+		GitUtils.tag(folder, "v0.2.0", "message");
+		GitUtils.tag(folder, "not-a-version", "message");
+		
+		GitTagList tagList = GitUtils.getTagList(folder);
+		assertThat(tagList.getCount()).isEqualTo(5);
+		assertThat(tagList.getReleaseVersions()).containsExactly("0.2.0", "0.9.0", "0.10.0");
+		assertThat(tagList.getPreReleaseVersions()).containsExactly("1.0.0-alpha");
+		assertThat(tagList.getVersions()).containsExactly("0.2.0", "0.9.0", "0.10.0", "1.0.0-alpha");
+		assertThat(tagList.getInvalidVersionTagNames()).containsExactly("not-a-version");
+		assertThat(GitUtils.getLatestTag(folder).get().getName()).isEqualTo("refs/tags/v0.10.0");
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void get_tag_list_cached(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.tag(folder, "v0.1.0", "message");
+		
+		assertThat(GitUtils.getTagList(folder)).isSameAs(GitUtils.getTagList(folder));
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void get_tag_list_reload_when_tag_added_outside(@TempDir Path tempDir) throws IOException, GitAPIException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.tag(folder, "v0.1.0", "message");
+		assertThat(GitUtils.getTagCount(folder)).isEqualTo(1);
+		
+		// 不通过 GitUtils 新增 tag，如 git pull
+		try(Git git = Git.open(folder.toFile())) {
+			git.tag().setName("release/v0.2.0").setMessage("message").call();
+		}
+		assertThat(GitUtils.getTagCount(folder)).isEqualTo(2);
+		
+		TestHelper.clearDir(folder);
+	}
+}
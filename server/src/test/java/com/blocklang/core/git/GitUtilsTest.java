@@ -3,6 +3,7 @@ package com.blocklang.core.git;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -225,6 +226,64 @@ public class GitUtilsTest {
 		TestHelper.clearDir(folder);
 	}
 	
+	// 只适用于 master 分支
+	@Test
+	public void get_files_at_root_latest_commit_of_each_entry(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		
+		GitUtils.commit(folder, null, "1.txt", "hello", gitUserName, gitUserMail, "commit 1");
+		GitUtils.commit(folder, "a", "2.txt", "world", gitUserName, gitUserMail, "commit 2");
+		String commitId3 = GitUtils.commit(folder, null, "1.txt", "hello world", gitUserName, gitUserMail, "commit 3");
+		String commitId4 = GitUtils.commit(folder, "a/b", "3.txt", "!", gitUserName, gitUserMail, "commit 4");
+		GitUtils.commit(folder, null, "4.txt", "4", gitUserName, gitUserMail, "commit 5");
+		
+		List<GitFileInfo> gitFiles = GitUtils.getFiles(folder, null);
+		assertThat(gitFiles).anyMatch(gitFile -> {
+			return gitFile.getPath().equals("1.txt") && gitFile.getCommitId().equals(commitId3);
+		}).anyMatch(gitFile -> {
+			return gitFile.getPath().equals("a") && gitFile.isFolder() && gitFile.getCommitId().equals(commitId4);
+		});
+		
+		gitFiles = GitUtils.getFiles(folder, "a");
+		assertThat(gitFiles).hasSize(2).anyMatch(gitFile -> {
+			return gitFile.getPath().equals("a/2.txt") && gitFile.getLatestShortMessage().equals("commit 2");
+		}).anyMatch(gitFile -> {
+			return gitFile.getPath().equals("a/b") && gitFile.getCommitId().equals(commitId4);
+		});
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void get_all_files_recursive_with_latest_commit(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		
+		GitUtils.commit(folder, null, "1.txt", "hello", gitUserName, gitUserMail, "commit 1");
+		String commitId2 = GitUtils.commit(folder, "a", "2.txt", "world", gitUserName, gitUserMail, "commit 2");
+		String commitId3 = GitUtils.commit(folder, "a/b", "3.txt", "!", gitUserName, gitUserMail, "commit 3");
+		
+		List<GitFileInfo> gitFiles = GitUtils.getAllFiles(folder, null);
+		assertThat(gitFiles).extracting(GitFileInfo::getPath).containsExactlyInAnyOrder("1.txt", "a", "a/2.txt", "a/b", "a/b/3.txt");
+		assertThat(gitFiles).anyMatch(gitFile -> {
+			return gitFile.getPath().equals("a") && gitFile.isFolder() && gitFile.getCommitId().equals(commitId3);
+		}).anyMatch(gitFile -> {
+			return gitFile.getPath().equals("a/2.txt") && gitFile.getCommitId().equals(commitId2);
+		}).anyMatch(gitFile -> {
+			return gitFile.getPath().equals("a/b/3.txt") && gitFile.getLatestShortMessage().equals("commit 3");
+		});
+		
+		gitFiles = GitUtils.getAllFiles(folder, "a");
+		assertThat(gitFiles).extracting(GitFileInfo::getPath).containsExactlyInAnyOrder("a/2.txt", "a/b", "a/b/3.txt");
+		
+		TestHelper.clearDir(folder);
+	}
+	
 	// 只适用于 master 分支
 	@Test
 	public void get_files_folder_not_commit(@TempDir Path tempDir) throws IOException {
@@ -726,6 +785,84 @@ public class GitUtilsTest {
 		TestHelper.clearDir(folder);
 	}
 	
+	@Test
+	public void load_data_multiple_files(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, "a", "1.json", "1", gitUserName, gitUserMail, "commit 1");
+		GitUtils.commit(folder, "a/b", "2.json", "2", gitUserName, gitUserMail, "commit 2");
+		GitUtils.commit(folder, null, "3.json", "3", gitUserName, gitUserMail, "commit 3");
+		GitUtils.tag(folder, "v0.1.0", "message");
+		
+		List<GitFileInfo> gitFiles = GitUtils.getAllFilesFromTag(folder, "refs/tags/v0.1.0", ".json");
+		Collections.reverse(gitFiles);
+		GitFileInfo notExist = new GitFileInfo();
+		notExist.setPath("a/not-exist.json");
+		gitFiles.add(notExist);
+		
+		List<GitBlobInfo> files = GitUtils.loadDataFromTag(folder, "refs/tags/v0.1.0", gitFiles);
+		assertThat(files).hasSize(3);
+		// 与传入的顺序相同
+		for(int i = 0; i < files.size(); i++) {
+			assertThat(files.get(i).getPath()).isEqualTo(gitFiles.get(i).getPath());
+			assertThat(files.get(i).isLarge()).isFalse();
+		}
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void load_data_large_file(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		String content = "a".repeat((int)GitBlob.LARGE_FILE_THRESHOLD + 1);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, null, "1.txt", content, gitUserName, gitUserMail, "commit 1");
+		GitUtils.tag(folder, "v0.1.0", "message");
+		
+		List<GitFileInfo> gitFiles = GitUtils.getAllFilesFromTag(folder, "refs/tags/v0.1.0", null);
+		List<GitBlobInfo> files = GitUtils.loadDataFromTag(folder, "refs/tags/v0.1.0", gitFiles);
+		
+		assertThat(files).hasSize(1);
+		GitBlobInfo blob = files.get(0);
+		assertThat(blob.isLarge()).isTrue();
+		assertThat(blob.getSize()).isEqualTo(content.length());
+		try(InputStream in = blob.openStream()) {
+			assertThat(new String(in.readAllBytes())).isEqualTo(content);
+		}
+		
+		TestHelper.clearDir(folder);
+	}
+	
+	@Test
+	public void load_data_large_file_after_repository_evicted(@TempDir Path tempDir) throws IOException {
+		Path folder = tempDir.resolve(gitRepoDirectory);
+		Files.createDirectory(folder);
+		
+		String content = "a".repeat((int)GitBlob.LARGE_FILE_THRESHOLD + 1);
+		GitUtils.init(folder, gitUserName, gitUserMail);
+		GitUtils.commit(folder, null, "1.txt", content, gitUserName, gitUserMail, "commit 1");
+		GitUtils.tag(folder, "v0.1.0", "message");
+		
+		List<GitFileInfo> gitFiles = GitUtils.getAllFilesFromTag(folder, "refs/tags/v0.1.0", null);
+		List<GitBlobInfo> files = GitUtils.loadDataFromTag(folder, "refs/tags/v0.1.0", gitFiles);
+		
+		// 对象池释放仓库后，仍能读取大文件
+		GitRepositoryPool.evict(folder);
+		
+		GitBlobInfo blob = files.get(0);
+		try(InputStream in = blob.openStream()) {
+			GitRepositoryPool.evict(folder);
+			assertThat(new String(in.readAllBytes())).isEqualTo(content);
+		}
+		assertThat(blob.getContent()).isEqualTo(content);
+		
+		TestHelper.clearDir(folder);
+	}
+	
 	@Test
 	public void get_version_from_ref_name_when_tag_name_is_null() {
 		assertThat(GitUtils.getVersionFromRefName(null)).isEmpty();
@@ -9,6 +9,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -846,6 +847,74 @@ public class GroupControllerTest extends AbstractControllerTest{
 					"childResources.size()", equalTo(1));
 	}
 	
+	@Test
+	public void get_resource_tree_from_root() {
+		String owner = "owner";
+		String projectName = "public-project";
+
+		Project project = new Project();
+		project.setId(1);
+		when(projectService.find(anyString(), anyString())).thenReturn(Optional.of(project));
+		
+		when(projectPermissionService.canRead(any(), any())).thenReturn(Optional.of(AccessLevel.READ));
+		
+		ProjectResource groupA = new ProjectResource();
+		groupA.setId(2);
+		groupA.setKey("a");
+		groupA.setResourceType(ProjectResourceType.GROUP);
+		ProjectResource child1 = new ProjectResource();
+		child1.setId(11);
+		child1.setKey("child_1");
+		groupA.setChildren(Collections.singletonList(child1));
+		when(projectResourceService.findTree(any(), eq(Constant.TREE_ROOT_ID), eq(2))).thenReturn(Collections.singletonList(groupA));
+		
+		String eTag = given()
+			.contentType(ContentType.JSON)
+			.queryParam("depth", 2)
+		.when()
+			.get("/projects/{owner}/{projectName}/tree", owner, projectName)
+		.then()
+			.statusCode(HttpStatus.SC_OK)
+			.header("ETag", notNullValue())
+			.body("id", equalTo(-1),
+					"parentGroups.size()", equalTo(0),
+					"childResources.size()", equalTo(1),
+					"childResources[0].children.size()", equalTo(1),
+					"childResources[0].children[0].key", equalTo("child_1"))
+			.extract()
+			.header("ETag");
+		
+		given()
+			.contentType(ContentType.JSON)
+			.queryParam("depth", 2)
+			.header("If-None-Match", eTag)
+		.when()
+			.get("/projects/{owner}/{projectName}/tree", owner, projectName)
+		.then()
+			.statusCode(HttpStatus.SC_NOT_MODIFIED);
+	}
+	
+	@Test
+	public void get_resource_tree_from_sub_group_parent_group_can_not_be_empty() {
+		String owner = "owner";
+		String projectName = "public-project";
+
+		Project project = new Project();
+		project.setId(1);
+		when(projectService.find(anyString(), anyString())).thenReturn(Optional.of(project));
+		
+		when(projectPermissionService.canRead(any(), any())).thenReturn(Optional.of(AccessLevel.READ));
+		
+		when(projectResourceService.findParentGroupsByParentPath(1, "a")).thenReturn(Collections.emptyList());
+
+		given()
+			.contentType(ContentType.JSON)
+		.when()
+			.get("/projects/{owner}/{projectName}/tree/a", owner, projectName)
+		.then()
+			.statusCode(HttpStatus.SC_NOT_FOUND);
+	}
+	
 	@Test
 	public void get_group_path_project_not_exist() {
 		String owner = "owner";
@@ -7,6 +7,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,12 +30,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.web.util.NestedServletException;
 
+import com.blocklang.core.exception.PreconditionFailedException;
 import com.blocklang.core.model.UserInfo;
 import com.blocklang.core.test.AbstractControllerTest;
 import com.blocklang.develop.constant.AccessLevel;
 import com.blocklang.develop.constant.ProjectResourceType;
 import com.blocklang.develop.data.ProjectDependenceData;
 import com.blocklang.develop.designer.data.PageModel;
+import com.blocklang.develop.designer.data.VersionedPageModel;
 import com.blocklang.develop.model.Project;
 import com.blocklang.develop.model.ProjectDependence;
 import com.blocklang.develop.model.ProjectResource;
@@ -214,6 +219,7 @@ public class PageDesignerControllerTest extends AbstractControllerTest {
 		
 		when(projectPermissionService.canRead(any(), any())).thenReturn(Optional.of(AccessLevel.READ));
 		when(projectDependenceService.findAllWidgets(anyInt())).thenReturn(Collections.emptyList());
+		when(projectDependenceService.getWidgetsETag(anyInt())).thenReturn("1");
 		
 		given()
 			.contentType(ContentType.JSON)
@@ -221,8 +227,29 @@ public class PageDesignerControllerTest extends AbstractControllerTest {
 			.get("/designer/projects/{projectId}/dependences/widgets", 1)
 		.then()
 			.statusCode(HttpStatus.SC_OK)
+			.header("ETag", "\"1\"")
 			.body(equalTo("[]"));
 	}
+	
+	@Test
+	public void get_project_dependeces_widgets_not_modified() {
+		Project project = new Project();
+		project.setId(1);
+		when(projectService.findById(anyInt())).thenReturn(Optional.of(project));
+		
+		when(projectPermissionService.canRead(any(), any())).thenReturn(Optional.of(AccessLevel.READ));
+		when(projectDependenceService.getWidgetsETag(anyInt())).thenReturn("1");
+		
+		given()
+			.contentType(ContentType.JSON)
+			.header("If-None-Match", "\"1\"")
+		.when()
+			.get("/designer/projects/{projectId}/dependences/widgets", 1)
+		.then()
+			.statusCode(HttpStatus.SC_NOT_MODIFIED);
+		
+		verify(projectDependenceService, never()).findAllWidgets(anyInt());
+	}
 
 	@Test
 	public void get_page_model_page_not_found() {
@@ -313,16 +340,73 @@ public class PageDesignerControllerTest extends AbstractControllerTest {
 		
 		when(projectPermissionService.canRead(any(), any())).thenReturn(Optional.of(AccessLevel.READ));
 		
-		when(projectResourceService.getPageModel(anyInt(), anyInt())).thenReturn(new PageModel());
+		when(projectResourceService.getPageModelWithETag(anyInt(), anyInt())).thenReturn(new VersionedPageModel(new PageModel(), null));
+		
+		given()
+			.contentType(ContentType.JSON)
+		.when()
+			.get("/designer/pages/{pageId}/model", "1")
+		.then()
+			.statusCode(HttpStatus.SC_OK)
+			.body(equalTo("{}"));
+	}
+	
+	@Test
+	public void get_page_model_return_etag() {
+		ProjectResource page = new ProjectResource();
+		page.setId(1);
+		page.setProjectId(1);
+		page.setResourceType(ProjectResourceType.PAGE);
+		when(projectResourceService.findById(anyInt())).thenReturn(Optional.of(page));
+		
+		Project project = new Project();
+		project.setId(1);
+		project.setIsPublic(true);
+		when(projectService.findById(anyInt())).thenReturn(Optional.of(project));
+		
+		when(projectPermissionService.canRead(any(), any())).thenReturn(Optional.of(AccessLevel.READ));
+		
+		when(projectResourceService.getPageModelWithETag(anyInt(), anyInt())).thenReturn(new VersionedPageModel(new PageModel(), "1"));
 		
 		given()
 			.contentType(ContentType.JSON)
+			.header("If-None-Match", "\"2\"")
 		.when()
 			.get("/designer/pages/{pageId}/model", "1")
 		.then()
 			.statusCode(HttpStatus.SC_OK)
+			.header("ETag", "\"1\"")
 			.body(equalTo("{}"));
 	}
+	
+	@Test
+	public void get_page_model_not_modified() {
+		ProjectResource page = new ProjectResource();
+		page.setId(1);
+		page.setProjectId(1);
+		page.setResourceType(ProjectResourceType.PAGE);
+		when(projectResourceService.findById(anyInt())).thenReturn(Optional.of(page));
+		
+		Project project = new Project();
+		project.setId(1);
+		project.setIsPublic(true);
+		when(projectService.findById(anyInt())).thenReturn(Optional.of(project));
+		
+		when(projectPermissionService.canRead(any(), any())).thenReturn(Optional.of(AccessLevel.READ));
+		
+		when(projectResourceService.getPageModelWithETag(anyInt(), anyInt())).thenReturn(new VersionedPageModel(new PageModel(), "1"));
+		
+		given()
+			.contentType(ContentType.JSON)
+			.header("If-None-Match", "\"1\"")
+		.when()
+			.get("/designer/pages/{pageId}/model", "1")
+		.then()
+			.statusCode(HttpStatus.SC_NOT_MODIFIED)
+			.body(equalTo(""));
+		
+		verify(projectResourceService).getPageModelWithETag(anyInt(), anyInt());
+	}
 
 	@Test
 	public void update_page_model_anonymous_can_not_update() {
@@ -415,16 +499,115 @@ public class PageDesignerControllerTest extends AbstractControllerTest {
 		
 		when(projectPermissionService.canWrite(any(), any())).thenReturn(Optional.of(AccessLevel.WRITE));
 		
+		when(projectResourceService.updatePageModel(any(), any(), any(), anyString())).thenReturn("2");
+		
 		given()
 			.contentType(ContentType.JSON)
+			.header("If-Match", "\"1\"")
 			.body(model)
 		.when()
 			.put("/designer/pages/{pageId}/model", "1")
 		.then()
 			.statusCode(HttpStatus.SC_NO_CONTENT)
+			.header("ETag", "\"2\"")
 			.body(equalTo(""));
 		
-		verify(projectResourceService).updatePageModel(any(), any(), any());
+		verify(projectResourceService).updatePageModel(any(), any(), any(), eq("1"));
+	}
+	
+	@WithMockUser(username = "jack")
+	@Test
+	public void update_page_model_if_match_required() {
+		Map<String, Object> model = new HashMap<String, Object>();
+		
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		when(userService.findByLoginName(anyString())).thenReturn(Optional.of(user));
+		
+		ProjectResource page = new ProjectResource();
+		page.setProjectId(1);
+		page.setResourceType(ProjectResourceType.PAGE);
+		when(projectResourceService.findById(anyInt())).thenReturn(Optional.of(page));
+		
+		Project project = new Project();
+		project.setId(1);
+		when(projectService.findById(anyInt())).thenReturn(Optional.of(project));
+		
+		when(projectPermissionService.canWrite(any(), any())).thenReturn(Optional.of(AccessLevel.WRITE));
+		
+		given()
+			.contentType(ContentType.JSON)
+			.body(model)
+		.when()
+			.put("/designer/pages/{pageId}/model", "1")
+		.then()
+			.statusCode(org.springframework.http.HttpStatus.PRECONDITION_REQUIRED.value());
+		
+		verify(projectResourceService, never()).updatePageModel(any(), any(), any(), any());
+	}
+	
+	@WithMockUser(username = "jack")
+	@Test
+	public void update_page_model_if_match_any() {
+		Map<String, Object> model = new HashMap<String, Object>();
+		
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		when(userService.findByLoginName(anyString())).thenReturn(Optional.of(user));
+		
+		ProjectResource page = new ProjectResource();
+		page.setProjectId(1);
+		page.setResourceType(ProjectResourceType.PAGE);
+		when(projectResourceService.findById(anyInt())).thenReturn(Optional.of(page));
+		
+		Project project = new Project();
+		project.setId(1);
+		when(projectService.findById(anyInt())).thenReturn(Optional.of(project));
+		
+		when(projectPermissionService.canWrite(any(), any())).thenReturn(Optional.of(AccessLevel.WRITE));
+		
+		given()
+			.contentType(ContentType.JSON)
+			.header("If-Match", "*")
+			.body(model)
+		.when()
+			.put("/designer/pages/{pageId}/model", "1")
+		.then()
+			.statusCode(HttpStatus.SC_NO_CONTENT);
+		
+		verify(projectResourceService).updatePageModel(any(), any(), any(), isNull());
+	}
+	
+	@WithMockUser(username = "jack")
+	@Test
+	public void update_page_model_stale_etag() {
+		Map<String, Object> model = new HashMap<String, Object>();
+		
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		when(userService.findByLoginName(anyString())).thenReturn(Optional.of(user));
+		
+		ProjectResource page = new ProjectResource();
+		page.setProjectId(1);
+		page.setResourceType(ProjectResourceType.PAGE);
+		when(projectResourceService.findById(anyInt())).thenReturn(Optional.of(page));
+		
+		Project project = new Project();
+		project.setId(1);
+		when(projectService.findById(anyInt())).thenReturn(Optional.of(project));
+		
+		when(projectPermissionService.canWrite(any(), any())).thenReturn(Optional.of(AccessLevel.WRITE));
+		
+		when(projectResourceService.updatePageModel(any(), any(), any(), anyString())).thenThrow(new PreconditionFailedException());
+		
+		given()
+			.contentType(ContentType.JSON)
+			.header("If-Match", "W/\"1\"")
+			.body(model)
+		.when()
+			.put("/designer/pages/{pageId}/model", "1")
+		.then()
+			.statusCode(HttpStatus.SC_PRECONDITION_FAILED);
 	}
 
 	@Test
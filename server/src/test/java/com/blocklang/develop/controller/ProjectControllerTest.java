@@ -1,16 +1,20 @@
 package com.blocklang.develop.controller;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -349,6 +353,70 @@ public class ProjectControllerTest extends AbstractControllerTest{
 			.body("size()", is(0));
 	}
 	
+	@WithMockUser("owner")
+	@Test
+	public void get_your_projects_first_page() {
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		when(userService.findByLoginName(anyString())).thenReturn(Optional.of(user));
+		
+		Project project = new Project();
+		project.setId(3);
+		project.setLastActiveTime(LocalDateTime.of(2020, 1, 2, 3, 4, 5));
+		when(projectService.findCanAccessProjectsByUserId(eq(1), isNull(), isNull(), eq(1))).thenReturn(Collections.singletonList(project));
+		
+		given()
+			.contentType(ContentType.JSON)
+			.param("size", 1)
+		.when()
+			.get("/user/projects")
+		.then()
+			.statusCode(HttpStatus.SC_OK)
+			.header("Link", containsString("after=2020-01-02T03:04:05_3"))
+			.body("size()", is(1))
+			.body("[0].id", is(3));
+	}
+	
+	@WithMockUser("owner")
+	@Test
+	public void get_your_projects_next_page() {
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		when(userService.findByLoginName(anyString())).thenReturn(Optional.of(user));
+		
+		Project project = new Project();
+		project.setId(3);
+		when(projectService.findCanAccessProjectsByUserId(eq(1), eq(LocalDateTime.of(2020, 1, 2, 3, 4, 5)), eq(4), eq(ProjectController.USER_PROJECTS_PAGE_SIZE)))
+			.thenReturn(Collections.singletonList(project));
+		
+		given()
+			.contentType(ContentType.JSON)
+			.param("after", "2020-01-02T03:04:05_4")
+		.when()
+			.get("/user/projects")
+		.then()
+			.statusCode(HttpStatus.SC_OK)
+			.header("Link", nullValue())
+			.body("size()", is(1))
+			.body("[0].id", is(3));
+	}
+	
+	@WithMockUser("owner")
+	@Test
+	public void get_your_projects_invalid_cursor() {
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		when(userService.findByLoginName(anyString())).thenReturn(Optional.of(user));
+		
+		given()
+			.contentType(ContentType.JSON)
+			.param("after", "2")
+		.when()
+			.get("/user/projects")
+		.then()
+			.statusCode(HttpStatus.SC_BAD_REQUEST);
+	}
+	
 	@Test
 	public void get_project_not_exist() {
 		when(projectService.find(anyString(), anyString())).thenReturn(Optional.empty());
@@ -0,0 +1,82 @@
+package com.blocklang.develop.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.blocklang.core.test.AbstractDaoTest;
+
+/**
+ * 校验页面设计器中常用的查询都能使用索引。
+ * 
+ * <p>
+ * 测试数据很少时，数据库会优先选择全表扫描，所以先禁用全表扫描，
+ * 此时如果执行计划中仍然是 Seq Scan，则说明没有可用的索引。
+ * </p>
+ * 
+ * @author Zhengwei Jin
+ */
+public class QueryPlanTest extends AbstractDaoTest {
+
+	@BeforeEach
+	public void disableSeqScan() {
+		// 只在当前事务中有效
+		jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+	}
+	
+	@Test
+	public void find_page_widgets_by_page_id() {
+		assertUseIndex("SELECT * FROM page_widget WHERE project_resource_id = 1 ORDER BY seq");
+	}
+	
+	@Test
+	public void find_page_widget_attr_values_by_widget_ids() {
+		assertUseIndex("SELECT * FROM page_widget_attr_value WHERE page_widget_id IN ('1', '2')");
+	}
+	
+	@Test
+	public void find_page_data_by_page_id() {
+		assertUseIndex("SELECT * FROM page_data WHERE project_resource_id = 1");
+	}
+	
+	@Test
+	public void find_api_components_by_repo_version() {
+		assertUseIndex("SELECT * FROM api_component WHERE api_repo_version_id = 1");
+		assertUseIndex("SELECT * FROM api_component WHERE api_repo_version_id = 1 AND upper(name) = upper('Button')");
+	}
+	
+	@Test
+	public void find_api_component_attrs_by_component_ids() {
+		assertUseIndex("SELECT * FROM api_component_attr WHERE api_component_id IN (1, 2) ORDER BY code");
+	}
+	
+	@Test
+	public void find_api_component_attr_fun_args_and_val_opts_by_attr_ids() {
+		assertUseIndex("SELECT * FROM api_component_attr_fun_arg WHERE api_component_attr_id IN (1, 2)");
+		assertUseIndex("SELECT * FROM api_component_attr_val_opt WHERE api_component_attr_id IN (1, 2)");
+	}
+	
+	@Test
+	public void find_project_resource_by_key_or_name_ignore_case() {
+		assertUseIndex("SELECT * FROM project_resource WHERE project_id = 1 AND parent_id = -1 AND upper(resource_key) = upper('key')");
+		assertUseIndex("SELECT * FROM project_resource WHERE project_id = 1 AND parent_id = -1 AND upper(resource_name) = upper('name')");
+	}
+	
+	@Test
+	public void find_project_resource_descendants_by_id_path() {
+		String sql = "SELECT * FROM project_resource WHERE project_id = 1 AND id_path LIKE '/1/%'";
+		assertUseIndex(sql);
+		// 禁用全表扫描后，也可能只用 project_id 过滤，所以要确认 id_path 的前缀匹配也在索引条件中
+		String planText = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+		assertThat(planText).as(planText).containsIgnoringCase("idx_project_resource_on_project_id_path").contains("Index Cond").contains("~>=~");
+	}
+	
+	private void assertUseIndex(String sql) {
+		List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+		String planText = String.join("\n", plan);
+		assertThat(planText).as(planText).contains("Index").doesNotContain("Seq Scan");
+	}
+}
@@ -0,0 +1,81 @@
+package com.blocklang.develop.dao.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JdbcBulkInsertTest {
+
+	private static final String SQL_INSERT = "INSERT INTO t (a, b) VALUES (?,?)";
+	
+	private JdbcTemplate jdbcTemplate;
+	private JdbcBulkInsert jdbcBulkInsert;
+	
+	@BeforeEach
+	public void setup() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		jdbcBulkInsert = new JdbcBulkInsert();
+		ReflectionTestUtils.setField(jdbcBulkInsert, "jdbcTemplate", jdbcTemplate);
+	}
+	
+	@Test
+	public void insert_empty() {
+		assertThat(jdbcBulkInsert.insert(SQL_INSERT, Collections.emptyList(), (each, index) -> new Object[] {})).isEqualTo(0);
+		verify(jdbcTemplate, times(0)).update(anyString(), any(PreparedStatementSetter.class));
+	}
+	
+	@Test
+	public void insert_split_into_chunks() throws SQLException {
+		when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+			String sql = invocation.getArgument(0);
+			return sql.split("\\(\\?,\\?\\)", -1).length - 1;
+		});
+		jdbcBulkInsert.setRowsPerStatement(2);
+		
+		List<String> rows = Arrays.asList("a", "b", "c", "d", null);
+		int count = jdbcBulkInsert.insert(SQL_INSERT, rows, (each, index) -> new Object[] {each, index});
+		assertThat(count).isEqualTo(5);
+		
+		ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<PreparedStatementSetter> setterCaptor = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+		verify(jdbcTemplate, times(3)).update(sqlCaptor.capture(), setterCaptor.capture());
+		assertThat(sqlCaptor.getAllValues()).containsExactly(
+				"INSERT INTO t (a, b) VALUES (?,?),(?,?)",
+				"INSERT INTO t (a, b) VALUES (?,?),(?,?)",
+				"INSERT INTO t (a, b) VALUES (?,?)");
+		
+		// 最后一批只有一条记录，参数从 1 开始
+		PreparedStatement ps = mock(PreparedStatement.class);
+		setterCaptor.getAllValues().get(2).setValues(ps);
+		verify(ps).setNull(1, Types.NULL);
+		verify(ps).setObject(2, 4);
+	}
+	
+	@Test
+	public void rows_per_chunk_limited_by_max_parameters() {
+		jdbcBulkInsert.setRowsPerStatement(100000);
+		assertThat(jdbcBulkInsert.getRowsPerChunk(7)).isEqualTo(JdbcBulkInsert.MAX_PARAMETERS / 7);
+		
+		jdbcBulkInsert.setRowsPerStatement(JdbcBulkInsert.DEFAULT_ROWS_PER_STATEMENT);
+		assertThat(jdbcBulkInsert.getRowsPerChunk(7)).isEqualTo(JdbcBulkInsert.DEFAULT_ROWS_PER_STATEMENT);
+	}
+	
+}
@@ -0,0 +1,135 @@
+package com.blocklang.develop.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import com.blocklang.core.constant.CmPropKey;
+import com.blocklang.core.constant.Constant;
+import com.blocklang.core.model.UserInfo;
+import com.blocklang.core.service.PropertyService;
+import com.blocklang.core.service.UserService;
+import com.blocklang.core.test.AbstractServiceTest;
+import com.blocklang.develop.constant.AppType;
+import com.blocklang.develop.constant.ProjectResourceType;
+import com.blocklang.develop.data.PageFileWriteStats;
+import com.blocklang.develop.designer.data.PageModel;
+import com.blocklang.develop.model.Project;
+import com.blocklang.develop.model.ProjectContext;
+import com.blocklang.develop.model.ProjectResource;
+import com.blocklang.develop.service.PageFileWriteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class PageFileWriteServiceImplTest extends AbstractServiceTest {
+
+	@Autowired
+	private PageFileWriteService pageFileWriteService;
+	@MockBean
+	private UserService userService;
+	@MockBean
+	private PropertyService propertyService;
+	
+	@Test
+	public void write_coalesce_and_flush(@TempDir Path rootFolder) throws IOException {
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		user.setLoginName("jack");
+		when(userService.findById(anyInt())).thenReturn(Optional.of(user));
+		when(propertyService.findStringValue(CmPropKey.BLOCKLANG_ROOT_PATH)).thenReturn(Optional.of(rootFolder.toString()));
+		ProjectContext context = new ProjectContext("jack", "project", rootFolder.toString());
+		Files.createDirectories(context.getGitRepositoryDirectory());
+		
+		Project project = new Project();
+		project.setId(1);
+		project.setName("project");
+		project.setCreateUserId(1);
+		
+		ProjectResource page = new ProjectResource();
+		page.setId(1);
+		page.setProjectId(1);
+		page.setParentId(Constant.TREE_ROOT_ID);
+		page.setAppType(AppType.WEB);
+		page.setKey("key1");
+		page.setResourceType(ProjectResourceType.PAGE);
+		
+		PageFileWriteStats before = pageFileWriteService.getStats();
+		
+		PageModel model1 = new PageModel();
+		model1.setPageId(1);
+		pageFileWriteService.write(project, page, model1);
+		PageModel model2 = new PageModel();
+		model2.setPageId(2);
+		pageFileWriteService.write(project, page, model2);
+		
+		// 只保留最新的页面模型
+		assertThat(pageFileWriteService.getStats().getCoalescedCount()).isEqualTo(before.getCoalescedCount() + 1);
+		
+		// 其他项目的页面不受影响
+		pageFileWriteService.flush(2);
+		
+		pageFileWriteService.flush(1);
+		
+		PageFileWriteStats after = pageFileWriteService.getStats();
+		assertThat(after.getPendingCount()).isEqualTo(0);
+		assertThat(after.getWrittenCount()).isEqualTo(before.getWrittenCount() + 1);
+		
+		String json = Files.readString(context.getGitRepositoryDirectory().resolve("key1.page.web.json"));
+		assertThat(new ObjectMapper().readValue(json, PageModel.class).getPageId()).isEqualTo(2);
+	}
+	
+	@Test
+	public void write_failed_and_requeue(@TempDir Path rootFolder) throws IOException {
+		when(propertyService.findStringValue(CmPropKey.BLOCKLANG_ROOT_PATH)).thenReturn(Optional.of(rootFolder.toString()));
+		ProjectContext context = new ProjectContext("jack", "project", rootFolder.toString());
+		Files.createDirectories(context.getGitRepositoryDirectory());
+		
+		Project project = new Project();
+		project.setId(1);
+		project.setName("project");
+		project.setCreateUserId(1);
+		
+		ProjectResource page = new ProjectResource();
+		page.setId(1);
+		page.setProjectId(1);
+		page.setParentId(Constant.TREE_ROOT_ID);
+		page.setAppType(AppType.WEB);
+		page.setKey("key1");
+		page.setResourceType(ProjectResourceType.PAGE);
+		
+		PageFileWriteStats before = pageFileWriteService.getStats();
+		
+		PageModel model = new PageModel();
+		model.setPageId(1);
+		pageFileWriteService.write(project, page, model);
+		
+		// 未找到项目创建者，写入失败，页面模型放回队列
+		when(userService.findById(anyInt())).thenReturn(Optional.empty());
+		pageFileWriteService.flush(1);
+		
+		PageFileWriteStats failed = pageFileWriteService.getStats();
+		assertThat(failed.getPendingCount()).isEqualTo(1);
+		assertThat(failed.getWrittenCount()).isEqualTo(before.getWrittenCount());
+		assertThat(failed.getFailedCount()).isEqualTo(before.getFailedCount() + 1);
+		
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		user.setLoginName("jack");
+		when(userService.findById(anyInt())).thenReturn(Optional.of(user));
+		pageFileWriteService.flush(1);
+		
+		PageFileWriteStats after = pageFileWriteService.getStats();
+		assertThat(after.getPendingCount()).isEqualTo(0);
+		assertThat(after.getWrittenCount()).isEqualTo(before.getWrittenCount() + 1);
+		assertThat(Files.exists(context.getGitRepositoryDirectory().resolve("key1.page.web.json"))).isTrue();
+	}
+}
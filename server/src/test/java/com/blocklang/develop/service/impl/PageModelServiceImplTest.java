@@ -0,0 +1,414 @@
+package com.blocklang.develop.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.blocklang.core.constant.Constant;
+import com.blocklang.core.exception.PreconditionFailedException;
+import com.blocklang.core.test.AbstractServiceTest;
+import com.blocklang.develop.constant.AppType;
+import com.blocklang.develop.constant.ProjectResourceType;
+import com.blocklang.develop.dao.PageModelSnapshotDao;
+import com.blocklang.develop.dao.ProjectDependenceDao;
+import com.blocklang.develop.dao.ProjectResourceDao;
+import com.blocklang.develop.designer.data.AttachedWidget;
+import com.blocklang.develop.designer.data.AttachedWidgetProperty;
+import com.blocklang.develop.designer.data.PageModel;
+import com.blocklang.develop.model.PageDataItem;
+import com.blocklang.develop.model.ProjectDependence;
+import com.blocklang.develop.model.ProjectResource;
+import com.blocklang.develop.service.PageModelService;
+import com.blocklang.marketplace.constant.ComponentAttrValueType;
+import com.blocklang.marketplace.constant.RepoCategory;
+import com.blocklang.marketplace.dao.ApiComponentAttrDao;
+import com.blocklang.marketplace.dao.ApiComponentDao;
+import com.blocklang.marketplace.dao.ApiRepoDao;
+import com.blocklang.marketplace.dao.ApiRepoVersionDao;
+import com.blocklang.marketplace.dao.ComponentRepoVersionDao;
+import com.blocklang.marketplace.model.ApiComponent;
+import com.blocklang.marketplace.model.ApiComponentAttr;
+import com.blocklang.marketplace.model.ApiRepo;
+import com.blocklang.marketplace.model.ApiRepoVersion;
+import com.blocklang.marketplace.model.ComponentRepoVersion;
+
+public class PageModelServiceImplTest extends AbstractServiceTest {
+
+	@Autowired
+	private PageModelService pageModelService;
+	@Autowired
+	private PageModelSnapshotDao pageModelSnapshotDao;
+	@Autowired
+	private ProjectResourceDao projectResourceDao;
+	@Autowired
+	private ProjectDependenceDao projectDependenceDao;
+	@Autowired
+	private ApiRepoDao apiRepoDao;
+	@Autowired
+	private ApiRepoVersionDao apiRepoVersionDao;
+	@Autowired
+	private ApiComponentDao apiComponentDao;
+	@Autowired
+	private ApiComponentAttrDao apiComponentAttrDao;
+	@Autowired
+	private ComponentRepoVersionDao componentRepoVersionDao;
+
+	@Test
+	public void update_page_model_insert() {
+		PageModel model = newPageModel();
+
+		pageModelService.updatePageModel(model);
+
+		assertThat(countRowsInTable("PAGE_WIDGET")).isEqualTo(1);
+		assertThat(countRowsInTable("PAGE_WIDGET_ATTR_VALUE")).isEqualTo(1);
+		assertThat(countRowsInTable("PAGE_DATA")).isEqualTo(1);
+	}
+
+	@Test
+	public void update_page_model_only_changed_rows() {
+		PageModel model = newPageModel();
+		pageModelService.updatePageModel(model);
+
+		// 修改属性值，删除数据项，新增一个部件
+		model.getWidgets().get(0).getProperties().get(0).setValue("value12");
+		model.setData(Collections.emptyList());
+
+		AttachedWidget widget2 = new AttachedWidget();
+		widget2.setId("2");
+		widget2.setParentId("1");
+		widget2.setApiRepoId(1);
+		widget2.setWidgetCode("0002");
+		widget2.setProperties(Collections.emptyList());
+		List<AttachedWidget> widgets = new ArrayList<AttachedWidget>(model.getWidgets());
+		widgets.add(widget2);
+		model.setWidgets(widgets);
+
+		pageModelService.updatePageModel(model);
+
+		assertThat(countRowsInTable("PAGE_WIDGET")).isEqualTo(2);
+		assertThat(countRowsInTable("PAGE_WIDGET_ATTR_VALUE")).isEqualTo(1);
+		assertThat(countRowsInTable("PAGE_DATA")).isEqualTo(0);
+
+		assertThat(jdbcTemplate.queryForObject("SELECT attr_value FROM page_widget_attr_value WHERE dbid=?", String.class, "11")).isEqualTo("value12");
+		assertThat(jdbcTemplate.queryForObject("SELECT seq FROM page_widget WHERE dbid=?", Integer.class, "2")).isEqualTo(2);
+	}
+
+	@Test
+	public void update_page_model_remove_all() {
+		PageModel model = newPageModel();
+		pageModelService.updatePageModel(model);
+
+		model.setWidgets(Collections.emptyList());
+		model.setData(Collections.emptyList());
+		pageModelService.updatePageModel(model);
+
+		assertThat(countRowsInTable("PAGE_WIDGET")).isEqualTo(0);
+		assertThat(countRowsInTable("PAGE_WIDGET_ATTR_VALUE")).isEqualTo(0);
+		assertThat(countRowsInTable("PAGE_DATA")).isEqualTo(0);
+	}
+
+	@Test
+	public void update_page_model_rename_data_and_add_data_with_old_name() {
+		PageModel model = newPageModel();
+		pageModelService.updatePageModel(model);
+		
+		PageDataItem item1 = model.getData().get(0);
+		item1.setName("name2");
+		PageDataItem item2 = newDataItem("d2", "name");
+		model.setData(Arrays.asList(item1, item2));
+		pageModelService.updatePageModel(model);
+		
+		assertThat(countRowsInTable("PAGE_DATA")).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("SELECT name FROM page_data WHERE dbid=?", String.class, "d1")).isEqualTo("name2");
+		assertThat(jdbcTemplate.queryForObject("SELECT name FROM page_data WHERE dbid=?", String.class, "d2")).isEqualTo("name");
+	}
+	
+	@Test
+	public void update_page_model_swap_data_names() {
+		PageModel model = newPageModel();
+		PageDataItem item1 = model.getData().get(0);
+		PageDataItem item2 = newDataItem("d2", "name2");
+		model.setData(Arrays.asList(item1, item2));
+		pageModelService.updatePageModel(model);
+		
+		item1.setName("name2");
+		item2.setName("name");
+		pageModelService.updatePageModel(model);
+		
+		assertThat(countRowsInTable("PAGE_DATA")).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("SELECT name FROM page_data WHERE dbid=?", String.class, "d1")).isEqualTo("name2");
+		assertThat(jdbcTemplate.queryForObject("SELECT name FROM page_data WHERE dbid=?", String.class, "d2")).isEqualTo("name");
+	}
+
+	@Test
+	public void update_page_model_page_not_exist_no_snapshot() {
+		PageModel model = newPageModel();
+		pageModelService.updatePageModel(model);
+		pageModelSnapshotDao.flush();
+		
+		assertThat(countRowsInTable("PAGE_MODEL_SNAPSHOT")).isEqualTo(0);
+	}
+	
+	@Test
+	public void update_page_model_save_snapshot() {
+		Integer pageId = createPage();
+		PageModel model = newPageModel();
+		model.setPageId(pageId);
+		
+		pageModelService.updatePageModel(model);
+		pageModelSnapshotDao.flush();
+		assertThat(jdbcTemplate.queryForObject("SELECT model_version FROM page_model_snapshot WHERE project_resource_id=?", Integer.class, pageId)).isEqualTo(0);
+		
+		model.getWidgets().get(0).getProperties().get(0).setValue("value12");
+		pageModelService.updatePageModel(model);
+		pageModelSnapshotDao.flush();
+		assertThat(jdbcTemplate.queryForObject("SELECT model_version FROM page_model_snapshot WHERE project_resource_id=?", Integer.class, pageId)).isEqualTo(1);
+		assertThat(countRowsInTable("PAGE_MODEL_SNAPSHOT")).isEqualTo(1);
+	}
+	
+	@Test
+	public void get_page_model_from_snapshot() {
+		Integer pageId = createPage();
+		PageModel model = newPageModel();
+		model.setPageId(pageId);
+		pageModelService.updatePageModel(model);
+		pageModelSnapshotDao.flush();
+		
+		// 直接修改表中的记录，读取时仍返回快照中的页面模型
+		jdbcTemplate.update("UPDATE page_data SET name=? WHERE dbid=?", "name2", "d1");
+		
+		PageModel savedModel = pageModelService.getPageModel(1, pageId);
+		assertThat(savedModel.getPageId()).isEqualTo(pageId);
+		assertThat(savedModel.getData()).extracting(PageDataItem::getName).containsExactly("name");
+	}
+	
+	@Test
+	public void get_page_model_rebuild_snapshot_when_catalog_versions_changed() {
+		Integer pageId = createPage();
+		PageModel model = newPageModel();
+		model.setPageId(pageId);
+		pageModelService.updatePageModel(model);
+		// 快照中记录的 API 仓库版本与项目当前依赖的版本不同
+		pageModelSnapshotDao.findById(pageId).get().setCatalogVersions("1");
+		pageModelSnapshotDao.flush();
+		
+		PageModel savedModel = pageModelService.getPageModel(1, pageId);
+		pageModelSnapshotDao.flush();
+		
+		assertThat(savedModel.getData()).extracting(PageDataItem::getName).containsExactly("name");
+		assertThat(jdbcTemplate.queryForObject("SELECT catalog_versions FROM page_model_snapshot WHERE project_resource_id=?", String.class, pageId)).isEmpty();
+		assertThat(jdbcTemplate.queryForObject("SELECT model_version FROM page_model_snapshot WHERE project_resource_id=?", Integer.class, pageId)).isEqualTo(2);
+	}
+	
+	@Test
+	public void update_page_model_etag() {
+		Integer pageId = createPage();
+		PageModel model = newPageModel();
+		model.setPageId(pageId);
+		
+		String eTag = pageModelService.updatePageModel(model, null);
+		assertThat(pageModelService.getPageModelWithETag(1, pageId).getETag()).isEqualTo(eTag);
+		
+		model.getWidgets().get(0).getProperties().get(0).setValue("value12");
+		String eTag2 = pageModelService.updatePageModel(model, eTag);
+		assertThat(eTag2).isNotEqualTo(eTag);
+		
+		// 使用旧的 ETag 保存
+		Assertions.assertThrows(PreconditionFailedException.class, () -> pageModelService.updatePageModel(model, eTag));
+	}
+	
+	@Test
+	public void update_page_model_etag_after_snapshot_rebuilt() {
+		Integer pageId = createPage();
+		PageModel model = newPageModel();
+		model.setPageId(pageId);
+		pageModelService.updatePageModel(model, null);
+		pageModelSnapshotDao.findById(pageId).get().setCatalogVersions("1");
+		pageModelSnapshotDao.flush();
+		
+		// 读取页面模型时重新生成快照，快照的版本号变化，但页面模型的内容没有变化
+		String eTag = pageModelService.getPageModelWithETag(1, pageId).getETag();
+		pageModelSnapshotDao.flush();
+		
+		model.getWidgets().get(0).getProperties().get(0).setValue("value12");
+		Assertions.assertDoesNotThrow(() -> pageModelService.updatePageModel(model, eTag));
+	}
+	
+	@Test
+	public void update_page_model_etag_after_snapshot_created_by_get() {
+		Integer pageId = createPage();
+		PageModel model = newPageModel();
+		model.setPageId(pageId);
+		pageModelService.updatePageModel(model, null);
+		pageModelSnapshotDao.deleteById(pageId);
+		pageModelSnapshotDao.flush();
+		
+		// 快照不存在时，读取页面模型时先新增快照
+		String eTag = pageModelService.getPageModelWithETag(1, pageId).getETag();
+		pageModelSnapshotDao.flush();
+		assertThat(countRowsInTable("PAGE_MODEL_SNAPSHOT")).isEqualTo(1);
+		
+		model.getWidgets().get(0).getProperties().get(0).setValue("value12");
+		String eTag2 = pageModelService.updatePageModel(model, eTag);
+		pageModelSnapshotDao.flush();
+		assertThat(eTag2).isNotEqualTo(eTag);
+		assertThat(countRowsInTable("PAGE_MODEL_SNAPSHOT")).isEqualTo(1);
+	}
+	
+	@Test
+	public void update_page_model_etag_when_snapshot_not_exist() {
+		Integer pageId = createPage();
+		PageModel model = newPageModel();
+		model.setPageId(pageId);
+		pageModelService.updatePageModel(model, null);
+		pageModelSnapshotDao.deleteById(pageId);
+		pageModelSnapshotDao.flush();
+		String eTag = pageModelService.getPageModelWithETag(1, pageId).getETag();
+		
+		// 生成快照失败时会删除快照，此时从表中重新生成页面模型后再比较 ETag
+		pageModelSnapshotDao.deleteById(pageId);
+		pageModelSnapshotDao.flush();
+		
+		model.getWidgets().get(0).getProperties().get(0).setValue("value12");
+		String eTag2 = pageModelService.updatePageModel(model, eTag);
+		assertThat(eTag2).isNotNull().isNotEqualTo(eTag);
+		
+		// 内容不相同时仍然返回 412
+		Assertions.assertThrows(PreconditionFailedException.class, () -> pageModelService.updatePageModel(model, eTag));
+	}
+	
+	@Test
+	public void update_page_model_etag_when_snapshot_not_exist_and_has_unstored_property() {
+		Integer pageId = createPage();
+		PageModel model = newPageModel();
+		model.setPageId(pageId);
+		// 部件中有一个属性没有存储，从表中生成页面模型时会为该属性生成 id
+		model.getWidgets().get(0).setApiRepoId(createWidgetDependence(1));
+		pageModelService.updatePageModel(model, null);
+		pageModelSnapshotDao.deleteById(pageId);
+		pageModelSnapshotDao.flush();
+		String eTag = pageModelService.getPageModelWithETag(1, pageId).getETag();
+		
+		pageModelSnapshotDao.deleteById(pageId);
+		pageModelSnapshotDao.flush();
+		
+		model.getWidgets().get(0).getProperties().get(0).setValue("value12");
+		Assertions.assertDoesNotThrow(() -> pageModelService.updatePageModel(model, eTag));
+	}
+	
+	/**
+	 * 为项目添加一个 widget 仓库的依赖，仓库中有一个编码为 0001 的部件，部件中有编码为 0011 和 0012 的两个属性
+	 * 
+	 * @return API 仓库标识
+	 */
+	private Integer createWidgetDependence(Integer projectId) {
+		ApiRepo apiRepo = new ApiRepo();
+		apiRepo.setGitRepoUrl("a");
+		apiRepo.setGitRepoWebsite("b");
+		apiRepo.setGitRepoOwner("c");
+		apiRepo.setGitRepoName("d");
+		apiRepo.setName("e");
+		apiRepo.setVersion("f");
+		apiRepo.setCategory(RepoCategory.WIDGET);
+		apiRepo.setCreateUserId(1);
+		apiRepo.setCreateTime(LocalDateTime.now());
+		Integer apiRepoId = apiRepoDao.save(apiRepo).getId();
+		
+		ApiRepoVersion apiVersion = new ApiRepoVersion();
+		apiVersion.setApiRepoId(apiRepoId);
+		apiVersion.setVersion("0.1.0");
+		apiVersion.setGitTagName("v0.1.0");
+		apiVersion.setCreateUserId(1);
+		apiVersion.setCreateTime(LocalDateTime.now());
+		Integer apiRepoVersionId = apiRepoVersionDao.save(apiVersion).getId();
+		
+		ApiComponent widget = new ApiComponent();
+		widget.setApiRepoVersionId(apiRepoVersionId);
+		widget.setCode("0001");
+		widget.setName("Widget1");
+		widget.setCanHasChildren(true);
+		widget.setCreateUserId(1);
+		widget.setCreateTime(LocalDateTime.now());
+		Integer widgetId = apiComponentDao.save(widget).getId();
+		
+		for(String code : Arrays.asList("0011", "0012")) {
+			ApiComponentAttr attr = new ApiComponentAttr();
+			attr.setApiComponentId(widgetId);
+			attr.setCode(code);
+			attr.setName("prop_" + code);
+			attr.setValueType(ComponentAttrValueType.STRING);
+			apiComponentAttrDao.save(attr);
+		}
+		
+		ComponentRepoVersion componentRepoVersion = new ComponentRepoVersion();
+		componentRepoVersion.setComponentRepoId(1);
+		componentRepoVersion.setVersion("0.1.0");
+		componentRepoVersion.setGitTagName("v0.1.0");
+		componentRepoVersion.setApiRepoVersionId(apiRepoVersionId);
+		componentRepoVersion.setCreateUserId(1);
+		componentRepoVersion.setCreateTime(LocalDateTime.now());
+		Integer componentRepoVersionId = componentRepoVersionDao.save(componentRepoVersion).getId();
+		
+		ProjectDependence dependence = new ProjectDependence();
+		dependence.setProjectId(projectId);
+		dependence.setComponentRepoVersionId(componentRepoVersionId);
+		dependence.setCreateUserId(1);
+		dependence.setCreateTime(LocalDateTime.now());
+		projectDependenceDao.save(dependence);
+		return apiRepoId;
+	}
+	
+	private Integer createPage() {
+		ProjectResource resource = new ProjectResource();
+		resource.setProjectId(1);
+		resource.setKey("key1");
+		resource.setName("name1");
+		resource.setAppType(AppType.WEB);
+		resource.setResourceType(ProjectResourceType.PAGE);
+		resource.setParentId(Constant.TREE_ROOT_ID);
+		resource.setSeq(1);
+		resource.setCreateUserId(1);
+		resource.setCreateTime(LocalDateTime.now());
+		return projectResourceDao.save(resource).getId();
+	}
+	
+	private PageModel newPageModel() {
+		PageModel model = new PageModel();
+		model.setPageId(1);
+
+		AttachedWidget widget1 = new AttachedWidget();
+		widget1.setId("1");
+		widget1.setParentId(Constant.TREE_ROOT_ID.toString());
+		widget1.setApiRepoId(1);
+		widget1.setWidgetCode("0001");
+		AttachedWidgetProperty property11 = new AttachedWidgetProperty();
+		property11.setId("11");
+		property11.setCode("0011");
+		property11.setValue("value11");
+		property11.setValueType(ComponentAttrValueType.STRING.getKey());
+		widget1.setProperties(Collections.singletonList(property11));
+		model.setWidgets(Arrays.asList(widget1));
+
+		model.setData(Collections.singletonList(newDataItem("d1", "name")));
+
+		model.setFunctions(Collections.emptyList());
+		return model;
+	}
+	
+	private PageDataItem newDataItem(String id, String name) {
+		PageDataItem item = new PageDataItem();
+		item.setId(id);
+		item.setParentId(Constant.TREE_ROOT_ID.toString());
+		item.setName(name);
+		item.setType("String");
+		return item;
+	}
+}
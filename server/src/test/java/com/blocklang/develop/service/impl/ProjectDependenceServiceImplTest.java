@@ -350,6 +350,24 @@ public class ProjectDependenceServiceImplTest extends AbstractServiceTest{
 		assertThat(projectDependenceService.findProjectDependences(1)).isEmpty();
 	}
 	
+	@Test
+	public void find_project_dependence_component_repo_version_not_exist() {
+		ProjectDependence dependence = new ProjectDependence();
+		dependence.setProjectId(1);
+		dependence.setComponentRepoVersionId(-1);
+		dependence.setCreateUserId(11);
+		dependence.setCreateTime(LocalDateTime.now());
+		projectDependenceDao.save(dependence);
+		
+		List<ProjectDependenceData> dependences = projectDependenceService.findProjectDependences(1);
+		
+		assertThat(dependences).hasSize(1);
+		assertThat(dependences.get(0).getDependence().getComponentRepoVersionId()).isEqualTo(-1);
+		assertThat(dependences.get(0).getComponentRepoVersion()).isNull();
+		assertThat(dependences.get(0).getComponentRepo()).isNull();
+		assertThat(dependences.get(0).getApiRepo()).isNull();
+	}
+	
 	// 因为当前只支持默认的 Profile，所以不用获取 Profile 信息
 	@Test
 	public void find_project_dependence_success() {
@@ -862,6 +880,13 @@ public class ProjectDependenceServiceImplTest extends AbstractServiceTest{
 		assertThat(result).isEmpty();
 	}
 	
+	@Test
+	public void get_widgets_etag_not_changed_when_dependences_not_changed() {
+		String eTag = projectDependenceService.getWidgetsETag(1);
+		assertThat(eTag).isNotBlank();
+		assertThat(projectDependenceService.getWidgetsETag(1)).isEqualTo(eTag);
+	}
+	
 	@Test
 	public void find_all_widgets_uncategory() {
 		Integer projectId = 1;
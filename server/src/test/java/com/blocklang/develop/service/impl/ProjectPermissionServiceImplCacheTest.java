@@ -0,0 +1,107 @@
+package com.blocklang.develop.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.blocklang.core.model.UserInfo;
+import com.blocklang.core.service.UserService;
+import com.blocklang.develop.constant.AccessLevel;
+import com.blocklang.develop.dao.ProjectAuthorizationDao;
+import com.blocklang.develop.model.Project;
+import com.blocklang.develop.model.ProjectAuthorization;
+
+public class ProjectPermissionServiceImplCacheTest {
+
+	private ProjectAuthorizationDao projectAuthorizationDao;
+	private UserService userService;
+	private ProjectPermissionServiceImpl projectPermissionService;
+	
+	private Principal loginUser = () -> "jack";
+	private Project project;
+	
+	@BeforeEach
+	public void setup() {
+		projectAuthorizationDao = mock(ProjectAuthorizationDao.class);
+		userService = mock(UserService.class);
+		projectPermissionService = new ProjectPermissionServiceImpl();
+		ReflectionTestUtils.setField(projectPermissionService, "projectAuthorizationDao", projectAuthorizationDao);
+		ReflectionTestUtils.setField(projectPermissionService, "userService", userService);
+		
+		project = new Project();
+		project.setId(1);
+		project.setIsPublic(false);
+		
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		when(userService.findByLoginName(anyString())).thenReturn(Optional.of(user));
+		
+		ProjectAuthorization auth = new ProjectAuthorization();
+		auth.setAccessLevel(AccessLevel.WRITE);
+		when(projectAuthorizationDao.findAllByUserIdAndProjectId(anyInt(), anyInt())).thenReturn(Collections.singletonList(auth));
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+	
+	@Test
+	public void resolve_permission_once_across_requests() {
+		assertThat(projectPermissionService.canRead(loginUser, project)).isPresent();
+		assertThat(projectPermissionService.canWrite(loginUser, project)).isPresent();
+		assertThat(projectPermissionService.canAdmin(loginUser, project)).isEmpty();
+		assertThat(projectPermissionService.findTopestPermission(loginUser, project)).isEqualTo(AccessLevel.WRITE);
+		
+		verify(userService, times(1)).findByLoginName(anyString());
+		verify(projectAuthorizationDao, times(1)).findAllByUserIdAndProjectId(anyInt(), anyInt());
+	}
+	
+	@Test
+	public void evict_then_reload_permission() {
+		assertThat(projectPermissionService.canAdmin(loginUser, project)).isEmpty();
+		
+		ProjectAuthorization auth = new ProjectAuthorization();
+		auth.setAccessLevel(AccessLevel.ADMIN);
+		when(projectAuthorizationDao.findAllByUserIdAndProjectId(anyInt(), anyInt())).thenReturn(Collections.singletonList(auth));
+		// 未清除缓存时，仍使用缓存的权限
+		assertThat(projectPermissionService.canAdmin(loginUser, project)).isEmpty();
+		
+		projectPermissionService.evict(project.getId());
+		assertThat(projectPermissionService.canAdmin(loginUser, project)).isPresent();
+		verify(projectAuthorizationDao, times(2)).findAllByUserIdAndProjectId(anyInt(), anyInt());
+	}
+	
+	@Test
+	public void in_transaction_only_cache_in_request() {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		assertThat(projectPermissionService.canRead(loginUser, project)).isPresent();
+		assertThat(projectPermissionService.canWrite(loginUser, project)).isPresent();
+		verify(projectAuthorizationDao, times(1)).findAllByUserIdAndProjectId(anyInt(), anyInt());
+		
+		// 新的请求中重新查询
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		assertThat(projectPermissionService.canWrite(loginUser, project)).isPresent();
+		verify(projectAuthorizationDao, times(2)).findAllByUserIdAndProjectId(anyInt(), anyInt());
+	}
+}
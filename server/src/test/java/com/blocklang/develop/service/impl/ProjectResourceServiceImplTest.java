@@ -56,6 +56,7 @@ import com.blocklang.develop.model.ProjectCommit;
 import com.blocklang.develop.model.ProjectContext;
 import com.blocklang.develop.model.ProjectDependence;
 import com.blocklang.develop.model.ProjectResource;
+import com.blocklang.develop.service.PageFileWriteService;
 import com.blocklang.develop.service.ProjectResourceService;
 import com.blocklang.develop.service.ProjectService;
 import com.blocklang.marketplace.constant.ComponentAttrValueType;
@@ -82,6 +83,8 @@ public class ProjectResourceServiceImplTest extends AbstractServiceTest{
 	@Autowired
 	private ProjectResourceService projectResourceService;
 	@Autowired
+	private PageFileWriteService pageFileWriteService;
+	@Autowired
 	private ProjectResourceDao projectResourceDao;
 	@Autowired
 	private MessageSource messageSource;
@@ -454,6 +457,84 @@ public class ProjectResourceServiceImplTest extends AbstractServiceTest{
 		assertThat(String.join("/", pathes)).isEqualTo("key1/key2/key3");
 	}
 	
+	@Test
+	public void insert_set_id_path() {
+		Project project = new Project();
+		project.setName("project");
+		project.setCreateUserName("jack");
+		
+		ProjectResource group1 = projectResourceService.insert(project, newGroup(1, Constant.TREE_ROOT_ID, "key1"));
+		ProjectResource group2 = projectResourceService.insert(project, newGroup(1, group1.getId(), "key2"));
+		
+		assertThat(group1.getIdPath()).isEqualTo("/");
+		assertThat(group2.getIdPath()).isEqualTo("/" + group1.getId() + "/");
+	}
+	
+	@Test
+	public void find_ancestors_and_descendants_by_id_path() {
+		Project project = new Project();
+		project.setName("project");
+		project.setCreateUserName("jack");
+		
+		ProjectResource group1 = projectResourceService.insert(project, newGroup(1, Constant.TREE_ROOT_ID, "key1"));
+		ProjectResource group2 = projectResourceService.insert(project, newGroup(1, group1.getId(), "key2"));
+		ProjectResource group3 = projectResourceService.insert(project, newGroup(1, group2.getId(), "key3"));
+		ProjectResource other = projectResourceService.insert(project, newGroup(1, Constant.TREE_ROOT_ID, "key4"));
+		
+		assertThat(projectResourceService.findAncestors(group3)).extracting(ProjectResource::getId).containsExactly(group1.getId(), group2.getId());
+		assertThat(projectResourceService.findAncestors(group1)).isEmpty();
+		assertThat(String.join("/", projectResourceService.findParentPathes(group3))).isEqualTo("key1/key2/key3");
+		
+		assertThat(projectResourceService.findDescendants(group1)).extracting(ProjectResource::getId).containsOnly(group2.getId(), group3.getId());
+		assertThat(projectResourceService.findDescendants(group3)).isEmpty();
+		assertThat(projectResourceService.findDescendants(other)).isEmpty();
+	}
+	
+	@Test
+	public void find_tree_with_depth() {
+		Project project = new Project();
+		project.setId(1);
+		project.setName("project");
+		project.setCreateUserName("jack");
+		
+		ProjectResource group1 = projectResourceService.insert(project, newGroup(1, Constant.TREE_ROOT_ID, "key1"));
+		ProjectResource group2 = projectResourceService.insert(project, newGroup(1, group1.getId(), "key2"));
+		projectResourceService.insert(project, newGroup(1, group2.getId(), "key3"));
+		
+		List<ProjectResource> tree = projectResourceService.findTree(project, Constant.TREE_ROOT_ID, null);
+		assertThat(tree).extracting(ProjectResource::getKey).containsExactly("key1");
+		assertThat(tree.get(0).getChildren()).extracting(ProjectResource::getKey).containsExactly("key2");
+		assertThat(tree.get(0).getChildren().get(0).getChildren()).extracting(ProjectResource::getKey).containsExactly("key3");
+		
+		tree = projectResourceService.findTree(project, group1.getId(), 1);
+		assertThat(tree).extracting(ProjectResource::getKey).containsExactly("key2");
+		assertThat(tree.get(0).getChildren()).isNull();
+	}
+	
+	@Test
+	public void find_descendants_without_id_path() {
+		Integer groupId1 = projectResourceDao.save(newGroup(1, Constant.TREE_ROOT_ID, "key1")).getId();
+		Integer groupId2 = projectResourceDao.save(newGroup(1, groupId1, "key2")).getId();
+		Integer groupId3 = projectResourceDao.save(newGroup(1, groupId2, "key3")).getId();
+		
+		ProjectResource group1 = projectResourceDao.findById(groupId1).get();
+		assertThat(projectResourceService.findDescendants(group1)).extracting(ProjectResource::getId).containsOnly(groupId2, groupId3);
+	}
+	
+	private ProjectResource newGroup(Integer projectId, Integer parentId, String key) {
+		ProjectResource resource = new ProjectResource();
+		resource.setProjectId(projectId);
+		resource.setKey(key);
+		resource.setName(key);
+		resource.setAppType(AppType.UNKNOWN);
+		resource.setResourceType(ProjectResourceType.GROUP);
+		resource.setParentId(parentId);
+		resource.setSeq(1);
+		resource.setCreateUserId(1);
+		resource.setCreateTime(LocalDateTime.now());
+		return resource;
+	}
+	
 	// 因为 getTitle 方法用到了 spring 的国际化帮助类，因为需要注入，所以将测试类放在 service 中
 	@Test
 	public void get_title_main() {
@@ -2423,12 +2504,15 @@ public class ProjectResourceServiceImplTest extends AbstractServiceTest{
 		resource.setKey(pageKey);
 		resource.setName("name");
 		resource.setResourceType(ProjectResourceType.PAGE);
+		resource.setId(pageId);
 		
 		when(propertyService.findStringValue(CmPropKey.BLOCKLANG_ROOT_PATH)).thenReturn(Optional.of(rootFolder.toString()));
 		ProjectContext context = new ProjectContext("jack", "project", rootFolder.toString());
 		Files.createDirectories(context.getGitRepositoryDirectory());
 		
 		projectResourceService.updatePageModel(project, resource, model);
+		// 页面文件是在后台写入的
+		pageFileWriteService.flushAll();
 		
 		ObjectMapper mapper = new ObjectMapper();
 		String mainPageJsonString = Files.readString(context.getGitRepositoryDirectory().resolve(pageKey + ".page.web.json"));
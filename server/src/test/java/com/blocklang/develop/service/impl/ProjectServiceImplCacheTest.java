@@ -0,0 +1,96 @@
+package com.blocklang.develop.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.blocklang.core.model.UserInfo;
+import com.blocklang.core.service.UserService;
+import com.blocklang.develop.constant.AccessLevel;
+import com.blocklang.develop.dao.ProjectDao;
+import com.blocklang.develop.model.Project;
+
+public class ProjectServiceImplCacheTest {
+
+	private ProjectDao projectDao;
+	private UserService userService;
+	private ProjectServiceImpl projectService;
+	
+	@BeforeEach
+	public void setup() {
+		projectDao = mock(ProjectDao.class);
+		userService = mock(UserService.class);
+		projectService = new ProjectServiceImpl();
+		ReflectionTestUtils.setField(projectService, "projectDao", projectDao);
+		ReflectionTestUtils.setField(projectService, "userService", userService);
+		
+		UserInfo user = new UserInfo();
+		user.setId(1);
+		when(userService.findByLoginName(anyString())).thenReturn(Optional.of(user));
+		
+		Project project = new Project();
+		project.setId(2);
+		project.setName("project");
+		project.setIsPublic(true);
+		project.setCreateUserId(1);
+		when(projectDao.findByCreateUserIdAndName(anyInt(), anyString())).thenReturn(Optional.of(project));
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+	
+	@Test
+	public void find_from_cache() {
+		Project project1 = projectService.find("jack", "project").get();
+		Project project2 = projectService.find("jack", "project").get();
+		
+		assertThat(project2.getId()).isEqualTo(2);
+		assertThat(project2.getIsPublic()).isTrue();
+		assertThat(project2.getCreateUserId()).isEqualTo(1);
+		assertThat(project2.getCreateUserName()).isEqualTo("jack");
+		verify(userService, times(1)).findByLoginName(anyString());
+		verify(projectDao, times(1)).findByCreateUserIdAndName(anyInt(), anyString());
+		
+		// 修改返回的项目，不影响缓存
+		project1.setAccessLevel(AccessLevel.ADMIN);
+		project2.setIsPublic(false);
+		Project project3 = projectService.find("jack", "project").get();
+		assertThat(project3).isNotSameAs(project2);
+		assertThat(project3.getIsPublic()).isTrue();
+		assertThat(project3.getAccessLevel()).isNull();
+	}
+	
+	@Test
+	public void find_not_cache_in_transaction() {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		
+		projectService.find("jack", "project");
+		projectService.find("jack", "project");
+		
+		verify(projectDao, times(2)).findByCreateUserIdAndName(anyInt(), anyString());
+	}
+	
+	@Test
+	public void find_not_cache_not_exist_project() {
+		when(projectDao.findByCreateUserIdAndName(anyInt(), anyString())).thenReturn(Optional.empty());
+		
+		assertThat(projectService.find("jack", "project")).isEmpty();
+		assertThat(projectService.find("jack", "project")).isEmpty();
+		
+		verify(projectDao, times(2)).findByCreateUserIdAndName(anyInt(), anyString());
+	}
+}
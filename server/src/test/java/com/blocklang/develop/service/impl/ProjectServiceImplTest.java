@@ -416,6 +416,49 @@ public class ProjectServiceImplTest extends AbstractServiceTest{
 		assertThat(projects).hasSize(2).isSortedAccordingTo(Comparator.comparing(Project::getLastActiveTime).reversed());
 	}
 
+	@Test
+	public void find_can_access_projects_keyset_pagination() {
+		LocalDateTime lastActiveTime = LocalDateTime.now();
+		// 第二个和第三个项目的最近活动时间相同，按项目标识倒排
+		Integer projectId1 = saveAccessableProject("project_name_1", lastActiveTime.plusSeconds(1), 1);
+		Integer projectId2 = saveAccessableProject("project_name_2", lastActiveTime, 1);
+		Integer projectId3 = saveAccessableProject("project_name_3", lastActiveTime, 1);
+		saveAccessableProject("project_name_4", lastActiveTime.plusSeconds(2), 2);
+		
+		List<Project> page1 = projectService.findCanAccessProjectsByUserId(1, null, null, 2);
+		assertThat(page1).extracting(Project::getId).containsExactly(projectId1, projectId3);
+		
+		// 上一页最后一个项目的最近活动时间变化后，仍使用游标中的时间获取下一页
+		Project lastProject = page1.get(1);
+		LocalDateTime cursorTime = lastProject.getLastActiveTime();
+		projectDao.findById(projectId3).get().setLastActiveTime(lastActiveTime.plusSeconds(3));
+		
+		List<Project> page2 = projectService.findCanAccessProjectsByUserId(1, cursorTime, projectId3, 2);
+		assertThat(page2).extracting(Project::getId).containsExactly(projectId2);
+		
+		assertThat(projectService.findCanAccessProjectsByUserId(1, lastActiveTime, projectId2, 2)).isEmpty();
+	}
+	
+	private Integer saveAccessableProject(String projectName, LocalDateTime lastActiveTime, Integer userId) {
+		Project project = new Project();
+		project.setName(projectName);
+		project.setIsPublic(true);
+		project.setDescription("description");
+		project.setLastActiveTime(lastActiveTime);
+		project.setCreateUserId(userId);
+		project.setCreateTime(LocalDateTime.now());
+		Integer savedProjectId = projectDao.save(project).getId();
+		
+		ProjectAuthorization auth = new ProjectAuthorization();
+		auth.setProjectId(savedProjectId);
+		auth.setUserId(userId);
+		auth.setAccessLevel(AccessLevel.ADMIN);
+		auth.setCreateTime(LocalDateTime.now());
+		auth.setCreateUserId(userId);
+		projectAuthorizationDao.save(auth);
+		return savedProjectId;
+	}
+
 	@Test
 	public void find_latest_commit_success(@TempDir Path rootFolder) throws IOException {
 		UserInfo userInfo = new UserInfo();
@@ -0,0 +1,129 @@
+package com.blocklang.marketplace.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.blocklang.marketplace.constant.ComponentAttrValueType;
+import com.blocklang.marketplace.constant.RepoCategory;
+import com.blocklang.marketplace.model.ApiComponent;
+import com.blocklang.marketplace.model.ApiComponentAttr;
+import com.blocklang.marketplace.model.ApiComponentAttrFunArg;
+import com.blocklang.marketplace.model.ApiComponentAttrValOpt;
+import com.blocklang.marketplace.model.ApiRepo;
+
+public class WidgetCatalogTest {
+
+	@Test
+	public void new_catalog_no_components() {
+		WidgetCatalog catalog = new WidgetCatalog(1, apiRepo(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+		assertThat(catalog.getApiRepoVersionId()).isEqualTo(1);
+		assertThat(catalog.getApiRepoId()).isEqualTo(2);
+		assertThat(catalog.getApiRepoName()).isEqualTo("api-repo");
+		assertThat(catalog.getCategory()).isEqualTo(RepoCategory.WIDGET);
+		assertThat(catalog.getComponents()).isEmpty();
+		assertThat(catalog.findComponentByCode("0001")).isEmpty();
+	}
+
+	@Test
+	public void new_catalog_group_and_sort() {
+		ApiComponent component1 = component(11, "0001", "Widget1");
+		ApiComponent component2 = component(12, "0002", "Widget2");
+
+		ApiComponentAttr attr1 = attr(21, 11, "0002", ComponentAttrValueType.FUNCTION);
+		ApiComponentAttr attr2 = attr(22, 11, "0001", ComponentAttrValueType.STRING);
+		ApiComponentAttr attr3 = attr(23, 12, "0001", ComponentAttrValueType.STRING);
+
+		ApiComponentAttrValOpt opt1 = valOpt(22, "0002");
+		ApiComponentAttrValOpt opt2 = valOpt(22, "0001");
+
+		ApiComponentAttrFunArg arg1 = funArg(21, "0001", 2);
+		ApiComponentAttrFunArg arg2 = funArg(21, "0002", 1);
+
+		WidgetCatalog catalog = new WidgetCatalog(1, apiRepo(),
+				Arrays.asList(component1, component2),
+				Arrays.asList(attr1, attr2, attr3),
+				Arrays.asList(opt1, opt2),
+				Arrays.asList(arg1, arg2));
+
+		assertThat(catalog.getComponents()).extracting(WidgetCatalog.Component::getCode).containsExactly("0001", "0002");
+
+		WidgetCatalog.Component widget1 = catalog.findComponentByCode("0001").get();
+		assertThat(widget1.getId()).isEqualTo(11);
+		assertThat(widget1.getName()).isEqualTo("Widget1");
+		// 属性按 code 排序
+		assertThat(widget1.getAttrs()).extracting(WidgetCatalog.Attr::getId).containsExactly(22, 21);
+		assertThat(widget1.getAttrs().get(0).getValOpts()).extracting(WidgetCatalog.ValOpt::getCode).containsExactly("0001", "0002");
+		assertThat(widget1.getAttrs().get(0).getFunArgs()).isEmpty();
+		// 事件参数按 seq 排序
+		assertThat(widget1.getAttrs().get(1).getFunArgs()).extracting(WidgetCatalog.FunArg::getCode).containsExactly("0002", "0001");
+
+		WidgetCatalog.Component widget2 = catalog.findComponentByCode("0002").get();
+		assertThat(widget2.getAttrs()).extracting(WidgetCatalog.Attr::getId).containsExactly(23);
+		assertThat(widget2.getAttrs().get(0).getValOpts()).isEmpty();
+	}
+
+	@Test
+	public void content_hash_changed_when_component_added() {
+		ApiComponent component1 = component(11, "0001", "Widget1");
+		ApiComponentAttr attr1 = attr(21, 11, "0001", ComponentAttrValueType.STRING);
+
+		WidgetCatalog catalog1 = new WidgetCatalog(1, apiRepo(), Arrays.asList(component1), Arrays.asList(attr1), Collections.emptyList(), Collections.emptyList());
+		WidgetCatalog catalog2 = new WidgetCatalog(1, apiRepo(), Arrays.asList(component1), Arrays.asList(attr1), Collections.emptyList(), Collections.emptyList());
+		assertThat(catalog1.getContentHash()).isNotBlank().isEqualTo(catalog2.getContentHash());
+
+		// 重新发布到同一个版本时新增了部件
+		ApiComponent component2 = component(12, "0002", "Widget2");
+		WidgetCatalog catalog3 = new WidgetCatalog(1, apiRepo(), Arrays.asList(component1, component2), Arrays.asList(attr1), Collections.emptyList(), Collections.emptyList());
+		assertThat(catalog3.getContentHash()).isNotEqualTo(catalog1.getContentHash());
+	}
+
+	private ApiRepo apiRepo() {
+		ApiRepo apiRepo = new ApiRepo();
+		apiRepo.setId(2);
+		apiRepo.setName("api-repo");
+		apiRepo.setCategory(RepoCategory.WIDGET);
+		return apiRepo;
+	}
+
+	private ApiComponent component(Integer id, String code, String name) {
+		ApiComponent component = new ApiComponent();
+		component.setId(id);
+		component.setApiRepoVersionId(1);
+		component.setCode(code);
+		component.setName(name);
+		return component;
+	}
+
+	private ApiComponentAttr attr(Integer id, Integer apiComponentId, String code, ComponentAttrValueType valueType) {
+		ApiComponentAttr attr = new ApiComponentAttr();
+		attr.setId(id);
+		attr.setApiComponentId(apiComponentId);
+		attr.setCode(code);
+		attr.setName("attr" + id);
+		attr.setValueType(valueType);
+		return attr;
+	}
+
+	private ApiComponentAttrValOpt valOpt(Integer apiComponentAttrId, String code) {
+		ApiComponentAttrValOpt opt = new ApiComponentAttrValOpt();
+		opt.setApiComponentAttrId(apiComponentAttrId);
+		opt.setCode(code);
+		opt.setValue("value" + code);
+		return opt;
+	}
+
+	private ApiComponentAttrFunArg funArg(Integer apiComponentAttrId, String code, Integer seq) {
+		ApiComponentAttrFunArg arg = new ApiComponentAttrFunArg();
+		arg.setApiComponentAttrId(apiComponentAttrId);
+		arg.setCode(code);
+		arg.setName("arg" + code);
+		arg.setValueType(ComponentAttrValueType.STRING);
+		arg.setSeq(seq);
+		return arg;
+	}
+}